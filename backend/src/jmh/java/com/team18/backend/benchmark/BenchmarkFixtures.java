@@ -0,0 +1,58 @@
+package com.team18.backend.benchmark;
+
+import com.team18.backend.model.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Entity graphs shaped like the ones the list endpoints return: every row references one of a few
+ * warehouses of the same shop and one of a larger set of items.
+ */
+final class BenchmarkFixtures {
+
+    private static final Instant NOW = Instant.parse( "2025-01-01T00:00:00Z" );
+    private static final int WAREHOUSES = 4;
+    private static final int ITEMS = 500;
+
+    private static final Shop SHOP = new Shop( "6750a1b2c3d4e5f6a7b8c9d0", "Benchmark Shop" );
+    private static final List<Warehouse> WAREHOUSE_LIST = IntStream.range( 0, WAREHOUSES )
+            .mapToObj( i -> new Warehouse(
+                    id( 1, i ), "Warehouse " + i, SHOP, 52.179262, 20.9359542,
+                    "Muszkieterow", "26-32", "Warszawa", "02-273", "", "Poland", 100_000, NOW, NOW
+            ) )
+            .toList();
+    private static final List<Item> ITEM_LIST = IntStream.range( 0, ITEMS )
+            .mapToObj( i -> new Item( id( 2, i ), "SKU-" + i, "Item " + i ) )
+            .toList();
+
+    private BenchmarkFixtures() {
+    }
+
+    static Warehouse warehouse( int row ) {
+        return WAREHOUSE_LIST.get( row % WAREHOUSES );
+    }
+
+    static Inventory inventory( int row ) {
+        return new Inventory( id( 3, row ), warehouse( row ), ITEM_LIST.get( row % ITEMS ), row % 1000, NOW, NOW );
+    }
+
+    static ShipmentLineItem shipmentLineItem( int row ) {
+        Shipment shipment = new Shipment( id( 4, row / 50 ), warehouse( row ), LocalDate.of( 2025, 1, 1 ), ShipmentStatus.ORDERED );
+        return new ShipmentLineItem( id( 5, row ), NOW, NOW, shipment, ITEM_LIST.get( row % ITEMS ), 10, 10 );
+    }
+
+    static List<Inventory> inventoryRows( int rows ) {
+        return IntStream.range( 0, rows ).mapToObj( BenchmarkFixtures::inventory ).toList();
+    }
+
+    static List<ShipmentLineItem> shipmentLineItemRows( int rows ) {
+        return IntStream.range( 0, rows ).mapToObj( BenchmarkFixtures::shipmentLineItem ).toList();
+    }
+
+    private static String id( int kind, int row ) {
+        return String.format( "%08x%016x", kind, row );
+    }
+}
@@ -0,0 +1,60 @@
+package com.team18.backend.benchmark;
+
+import com.team18.backend.model.Item;
+import com.team18.backend.repository.ItemRepo;
+import com.team18.backend.service.search.ItemSearchIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of item searches against catalogs of 10k and 100k items, for a short word prefix, a substring
+ * of a name and a SKU typed with and without its separator. The catalog is loaded by a rebuild, as at
+ * startup, and some items were saved again since.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ItemSearchBenchmark {
+
+    private static final String[] ADJECTIVES = { "Red", "Blue", "Large", "Small", "Organic", "Classic", "Premium", "Light" };
+    private static final String[] NOUNS = { "Widget", "Bracket", "Cable", "Coffee", "Hammer", "Lamp", "Bottle", "Sensor" };
+    private static final int TOP_K = 10;
+    private static final int CHANGED_ITEMS = 500;
+
+    @Param({"10000", "100000"})
+    public int items;
+
+    @Param({"wi", "mium lamp", "SKU-004711", "sku4711"})
+    public String query;
+
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        List<Item> catalog = new ArrayList<>( items );
+        for ( int i = 0; i < items; i++ ) {
+            String name = ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[( i / ADJECTIVES.length ) % NOUNS.length] + " " + i;
+            catalog.add( new Item( String.format( "%024x", i ), String.format( "SKU-%06d", i ), name ) );
+        }
+        ItemRepo itemRepo = Mockito.mock( ItemRepo.class );
+        Mockito.when( itemRepo.findAll() ).thenReturn( catalog );
+        index = new ItemSearchIndex( itemRepo );
+        index.rebuild();
+        // items changed since the last rebuild are ranked without the help of the rebuild order
+        for ( int i = 0; i < CHANGED_ITEMS; i++ ) {
+            index.put( catalog.get( i * ( items / CHANGED_ITEMS ) ) );
+        }
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return index.search( query, TOP_K );
+    }
+}
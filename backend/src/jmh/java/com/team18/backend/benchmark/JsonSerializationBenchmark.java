@@ -0,0 +1,51 @@
+package com.team18.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.team18.backend.dto.inventory.InventoryMapper;
+import com.team18.backend.dto.inventory.InventoryResponseDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemMapper;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of list responses with the nested warehouse, shop and item graphs, using an
+ * {@code ObjectMapper} configured like the one Spring MVC writes responses with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+    private List<InventoryResponseDTO> inventory;
+    private List<ShipmentLineItemResponseDTO> shipmentLineItems;
+
+    @Setup
+    public void setUp() {
+        inventory = new InventoryMapper().toInventoryResponseDTOList( BenchmarkFixtures.inventoryRows( rows ) );
+        shipmentLineItems = new ShipmentLineItemMapper().toResponseDTOList( BenchmarkFixtures.shipmentLineItemRows( rows ) );
+    }
+
+    @Benchmark
+    public void inventoryList() throws IOException {
+        writer.writeValue( OutputStream.nullOutputStream(), inventory );
+    }
+
+    @Benchmark
+    public void shipmentLineItemList() throws IOException {
+        writer.writeValue( OutputStream.nullOutputStream(), shipmentLineItems );
+    }
+}
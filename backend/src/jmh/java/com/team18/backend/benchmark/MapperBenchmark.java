@@ -0,0 +1,56 @@
+package com.team18.backend.benchmark;
+
+import com.team18.backend.dto.inventory.InventoryMapper;
+import com.team18.backend.dto.inventory.InventoryResponseDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemMapper;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
+import com.team18.backend.dto.warehouse.WarehouseMapper;
+import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.ShipmentLineItem;
+import com.team18.backend.model.Warehouse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the entity to response DTO mappers used by the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final WarehouseMapper warehouseMapper = new WarehouseMapper();
+    private final InventoryMapper inventoryMapper = new InventoryMapper();
+    private final ShipmentLineItemMapper shipmentLineItemMapper = new ShipmentLineItemMapper();
+
+    private Warehouse warehouse;
+    private Inventory inventory;
+    private ShipmentLineItem shipmentLineItem;
+
+    @Setup
+    public void setUp() {
+        warehouse = BenchmarkFixtures.warehouse( 0 );
+        inventory = BenchmarkFixtures.inventory( 0 );
+        shipmentLineItem = BenchmarkFixtures.shipmentLineItem( 0 );
+    }
+
+    @Benchmark
+    public WarehouseResponseDTO toWarehouseResponseDTO() {
+        return warehouseMapper.toWarehouseResponseDTO( warehouse );
+    }
+
+    @Benchmark
+    public InventoryResponseDTO toInventoryResponseDTO() {
+        return inventoryMapper.toInventoryResponseDTO( inventory );
+    }
+
+    @Benchmark
+    public ShipmentLineItemResponseDTO toShipmentLineItemResponseDTO() {
+        return shipmentLineItemMapper.toResponseDTO( shipmentLineItem );
+    }
+}
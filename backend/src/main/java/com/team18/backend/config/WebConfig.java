@@ -1,6 +1,8 @@
 package com.team18.backend.config;
 
+import com.team18.backend.dto.page.CursorPage;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,6 +17,7 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(CursorPage.NEXT_CURSOR_HEADER, HttpHeaders.ETAG)
                 .allowCredentials(true);
     }
 }
@@ -0,0 +1,43 @@
+package com.team18.backend.config.metrics;
+
+import com.team18.backend.service.cache.ItemCacheStats;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the {@link ItemCacheStats} of the {@link ItemCatalogCache} as {@code app.item_cache.*} meters.
+ */
+public class ItemCatalogCacheMetrics implements MeterBinder {
+
+    private final ItemCatalogCache cache;
+
+    public ItemCatalogCacheMetrics( ItemCatalogCache cache ) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry ) {
+        counter( registry, "app.item_cache.hits", "Lookups served from the cache", ItemCacheStats::hits );
+        counter( registry, "app.item_cache.misses", "Lookups that went to the database", ItemCacheStats::misses );
+        counter( registry, "app.item_cache.evictions", "Items evicted because the cache was full", ItemCacheStats::evictions );
+        gauge( registry, "app.item_cache.size", "Items currently cached", ItemCacheStats::size );
+        gauge( registry, "app.item_cache.max_size", "Maximum number of cached items", ItemCacheStats::maxSize );
+    }
+
+    private void counter( MeterRegistry registry, String name, String description, ToDoubleFunction<ItemCacheStats> value ) {
+        FunctionCounter.builder( name, cache, source -> value.applyAsDouble( source.stats() ) )
+                .description( description )
+                .register( registry );
+    }
+
+    private void gauge( MeterRegistry registry, String name, String description, ToDoubleFunction<ItemCacheStats> value ) {
+        Gauge.builder( name, cache, source -> value.applyAsDouble( source.stats() ) )
+                .description( description )
+                .register( registry );
+    }
+}
@@ -0,0 +1,31 @@
+package com.team18.backend.config.metrics;
+
+import com.team18.backend.service.cache.ItemCatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application meters next to the ones Spring Boot registers itself. Service methods are timed through
+ * {@link io.micrometer.core.annotation.Timed} on the service classes, and Mongo command latency is recorded by
+ * Spring Boot as {@code mongodb.driver.commands}. Everything is exported at {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Service methods are timed as {@value}, tagged with class, method and exception.
+     */
+    public static final String SERVICE_TIMER = "app.service";
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDocumentCountListener( MeterRegistry registry ) {
+        return builder -> builder.addCommandListener( new MongoDocumentCountListener( registry ) );
+    }
+
+    @Bean
+    public ItemCatalogCacheMetrics itemCatalogCacheMetrics( ItemCatalogCache itemCatalogCache ) {
+        return new ItemCatalogCacheMetrics( itemCatalogCache );
+    }
+}
@@ -0,0 +1,84 @@
+package com.team18.backend.config.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many documents each Mongo command returned or wrote, per command and collection, as
+ * {@value #METRIC_NAME}. Latency of the same commands is recorded by Spring Boot as
+ * {@code mongodb.driver.commands}; together they show whether a slow query is slow because of the number of
+ * documents it touches.
+ * <p>
+ * Reads count the documents of the returned cursor batch, writes count the matched, inserted or deleted
+ * documents. Commands that are not run against a collection, such as {@code hello}, are not recorded.
+ */
+public class MongoDocumentCountListener implements CommandListener {
+
+    public static final String METRIC_NAME = "mongodb.driver.commands.documents";
+
+    private final MeterRegistry registry;
+    private final Map<Integer, String> collectionsByRequestId = new ConcurrentHashMap<>();
+
+    public MongoDocumentCountListener( MeterRegistry registry ) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandStarted( CommandStartedEvent event ) {
+        String collection = collection( event.getCommandName(), event.getCommand() );
+        if ( collection != null ) {
+            collectionsByRequestId.put( event.getRequestId(), collection );
+        }
+    }
+
+    @Override
+    public void commandSucceeded( CommandSucceededEvent event ) {
+        String collection = collectionsByRequestId.remove( event.getRequestId() );
+        if ( collection == null ) return;
+
+        long documents = documents( event.getCommandName(), event.getResponse() );
+        if ( documents < 0 ) return;
+
+        DistributionSummary.builder( METRIC_NAME )
+                .description( "Documents returned or written by a Mongo command" )
+                .baseUnit( "documents" )
+                .tag( "command", event.getCommandName() )
+                .tag( "collection", collection )
+                .register( registry )
+                .record( documents );
+    }
+
+    @Override
+    public void commandFailed( CommandFailedEvent event ) {
+        collectionsByRequestId.remove( event.getRequestId() );
+    }
+
+    private static String collection( String commandName, BsonDocument command ) {
+        BsonValue collection = "getMore".equals( commandName )
+                ? command.get( "collection" )
+                : command.get( commandName );
+        return collection != null && collection.isString() ? collection.asString().getValue() : null;
+    }
+
+    private static long documents( String commandName, BsonDocument response ) {
+        BsonDocument cursor = response.getDocument( "cursor", null );
+        if ( cursor != null ) {
+            BsonValue batch = cursor.containsKey( "firstBatch" ) ? cursor.get( "firstBatch" ) : cursor.get( "nextBatch" );
+            return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+        }
+        if ( "findAndModify".equals( commandName ) ) {
+            BsonDocument lastError = response.getDocument( "lastErrorObject", null );
+            return lastError != null && lastError.isNumber( "n" ) ? lastError.getNumber( "n" ).longValue() : -1;
+        }
+        return response.isNumber( "n" ) ? response.getNumber( "n" ).longValue() : -1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.team18.backend.config.mongodb;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.team18.backend.repository.support.Versions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Merges inventory rows that share a warehouse and item into one row before the unique {@code warehouse_item}
+ * index is created. Databases written before the index existed may hold such duplicates, and
+ * {@code auto-index-creation} aborts the startup when a unique index cannot be built.
+ * <p>
+ * The quantities of the duplicates are summed into the oldest row and the other rows are deleted, so the stock
+ * of every warehouse and its used capacity stay the same. Runs before the {@link MongoTemplate} is created,
+ * because that is where the indexes are built, and is a no-op once the index exists.
+ */
+@Component
+public class InventoryDuplicateMerger implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger( InventoryDuplicateMerger.class );
+
+    static final String COLLECTION = "inventory";
+    static final String INDEX = "warehouse_item";
+
+    private final MongoDatabaseFactory databaseFactory;
+
+    public InventoryDuplicateMerger( MongoDatabaseFactory databaseFactory ) {
+        this.databaseFactory = databaseFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long merged = mergeDuplicates();
+        if ( merged > 0 ) {
+            log.warn( "Merged {} duplicate inventory rows into the row of their warehouse and item", merged );
+        }
+    }
+
+    /**
+     * @return the number of deleted rows
+     */
+    public long mergeDuplicates() {
+        MongoCollection<Document> inventory = databaseFactory.getMongoDatabase().getCollection( COLLECTION );
+        if ( hasIndex( inventory ) ) {
+            return 0;
+        }
+
+        List<Document> duplicates = inventory.aggregate( List.of(
+                new Document( "$sort", new Document( "createdDate", 1 ).append( "_id", 1 ) ),
+                new Document( "$group", new Document( "_id", new Document( "warehouse", "$warehouse" ).append( "item", "$item" ) )
+                        .append( "ids", new Document( "$push", "$_id" ) )
+                        .append( "quantity", new Document( "$sum", "$quantity" ) ) ),
+                new Document( "$match", new Document( "ids.1", new Document( "$exists", true ) ) )
+        ) ).allowDiskUse( true ).into( new ArrayList<>() );
+
+        long deleted = 0;
+        for ( Document duplicate : duplicates ) {
+            List<Object> ids = duplicate.getList( "ids", Object.class );
+            inventory.updateOne(
+                    Filters.eq( "_id", ids.getFirst() ),
+                    new Document( "$set", new Document( "quantity", duplicate.get( "quantity", Number.class ).intValue() )
+                            .append( "lastModifiedDate", new Date() ) )
+                            .append( "$inc", new Document( Versions.FIELD, 1L ) )
+            );
+            deleted += inventory.deleteMany( Filters.in( "_id", ids.subList( 1, ids.size() ) ) ).getDeletedCount();
+        }
+        return deleted;
+    }
+
+    private static boolean hasIndex( MongoCollection<Document> inventory ) {
+        for ( Document index : inventory.listIndexes() ) {
+            if ( INDEX.equals( index.getString( "name" ) ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes the {@link MongoTemplate}, which creates the declared indexes, wait for the merge.
+     */
+    @Component
+    static class MongoTemplateDependsOnMerger extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        MongoTemplateDependsOnMerger() {
+            super( MongoTemplate.class, InventoryDuplicateMerger.class );
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.team18.backend.config.mongodb;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the indexes declared on the document classes with the indexes that exist in the database
+ * and logs every missing one once the application is ready.
+ * <p>
+ * {@code auto-index-creation} builds the declared indexes once, when the mapping context is set up. An index
+ * that is dropped or never built afterwards, for example by a restore or a manual change, is not recreated
+ * until the next start, so this check makes it visible instead of surfacing later as a slow query or a
+ * duplicate row.
+ */
+@Component
+public class MongoIndexVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger( MongoIndexVerifier.class );
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    public MongoIndexVerifier( MongoTemplate mongoTemplate, MongoMappingContext mappingContext ) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        List<String> missing = findMissingIndexes();
+        if ( missing.isEmpty() ) {
+            log.info( "All declared MongoDB indexes are present" );
+            return;
+        }
+        missing.forEach( index -> log.warn( "Declared MongoDB index is missing: {}", index ) );
+    }
+
+    /**
+     * @return a description of every declared index that does not exist, as {@code collection.keys}
+     */
+    public List<String> findMissingIndexes() {
+        MongoPersistentEntityIndexResolver indexResolver = new MongoPersistentEntityIndexResolver( mappingContext );
+        List<String> missing = new ArrayList<>();
+
+        for ( MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities() ) {
+            if ( !entity.isAnnotationPresent( org.springframework.data.mongodb.core.mapping.Document.class ) ) {
+                continue;
+            }
+            String collection = entity.getCollection();
+            List<Document> existing = existingIndexKeys( collection );
+
+            for ( IndexDefinition definition : indexResolver.resolveIndexFor( entity.getTypeInformation() ) ) {
+                Document keys = definition.getIndexKeys();
+                if ( existing.stream().noneMatch( index -> sameKeys( keys, index ) ) ) {
+                    missing.add( collection + "." + keys.toJson() );
+                }
+            }
+        }
+        return missing;
+    }
+
+    private List<Document> existingIndexKeys( String collection ) {
+        if ( !mongoTemplate.collectionExists( collection ) ) {
+            return List.of();
+        }
+        List<Document> keys = new ArrayList<>();
+        mongoTemplate.getCollection( collection ).listIndexes()
+                .forEach( index -> keys.add( index.get( "key", Document.class ) ) );
+        return keys;
+    }
+
+    /**
+     * Compares key order and direction. Text indexes are stored under the internal {@code _fts} key,
+     * so any text index satisfies a declared one.
+     */
+    private static boolean sameKeys( Document declared, Document existing ) {
+        if ( declared.containsValue( "text" ) ) {
+            return existing.containsKey( "_fts" );
+        }
+        List<Map.Entry<String, Object>> declaredKeys = new ArrayList<>( declared.entrySet() );
+        List<Map.Entry<String, Object>> existingKeys = new ArrayList<>( existing.entrySet() );
+        if ( declaredKeys.size() != existingKeys.size() ) {
+            return false;
+        }
+        for ( int i = 0; i < declaredKeys.size(); i++ ) {
+            if ( !declaredKeys.get( i ).getKey().equals( existingKeys.get( i ).getKey() )
+                    || !normalize( declaredKeys.get( i ).getValue() ).equals( normalize( existingKeys.get( i ).getValue() ) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize( Object direction ) {
+        return direction instanceof Number number ? String.valueOf( number.intValue() ) : String.valueOf( direction );
+    }
+}
@@ -0,0 +1,39 @@
+package com.team18.backend.config.mongodb;
+
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves shipment line items into the storage layout selected with {@code app.shipment-line-items.storage}
+ * once the application is ready, so switching the storage needs no manual migration. Is a no-op when every
+ * line item is already stored in the selected layout.
+ */
+@Component
+public class ShipmentLineItemMigration {
+
+    private static final Logger log = LoggerFactory.getLogger( ShipmentLineItemMigration.class );
+
+    private final ShipmentLineItemStore shipmentLineItemStore;
+    private final String storage;
+
+    public ShipmentLineItemMigration(
+            ShipmentLineItemStore shipmentLineItemStore,
+            @Value("${" + ShipmentLineItemStore.STORAGE_PROPERTY + ":collection}") String storage
+    ) {
+        this.shipmentLineItemStore = shipmentLineItemStore;
+        this.storage = storage;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long moved = shipmentLineItemStore.migrate();
+        if ( moved > 0 ) {
+            log.info( "Moved {} shipment line items into the {} storage", moved, storage );
+        }
+    }
+}
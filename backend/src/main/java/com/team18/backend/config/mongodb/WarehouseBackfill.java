@@ -0,0 +1,38 @@
+package com.team18.backend.config.mongodb;
+
+import com.team18.backend.repository.WarehouseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in warehouse fields that are maintained on write but missing on warehouses stored before the field
+ * existed: the GeoJSON {@code location} derived from {@code lat} and {@code lng}, so they are found by
+ * nearest-warehouse queries, and the {@code usedCapacity} counter summed from their inventory. Runs once the
+ * application is ready and is a no-op when every warehouse already has both.
+ */
+@Component
+public class WarehouseBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger( WarehouseBackfill.class );
+
+    private final WarehouseRepository warehouseRepository;
+
+    public WarehouseBackfill( WarehouseRepository warehouseRepository ) {
+        this.warehouseRepository = warehouseRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long locations = warehouseRepository.backfillLocations();
+        if ( locations > 0 ) {
+            log.info( "Set the GeoJSON location of {} warehouses", locations );
+        }
+        long usedCapacities = warehouseRepository.backfillUsedCapacity();
+        if ( usedCapacities > 0 ) {
+            log.info( "Set the used capacity of {} warehouses from their inventory", usedCapacities );
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.ConditionalGet;
+import com.team18.backend.controller.support.FieldSelectionAdvice;
+import com.team18.backend.controller.support.IfMatch;
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.fields.FieldSelection;
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
 import com.team18.backend.dto.inventory.InventoryCreateDTO;
+import com.team18.backend.dto.inventory.InventoryHistoryResponseDTO;
 import com.team18.backend.dto.inventory.InventoryResponseDTO;
 import com.team18.backend.dto.inventory.InventoryUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.exception.ErrorResponse;
 import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.model.HistoryInterval;
+import com.team18.backend.service.ETagService;
+import com.team18.backend.service.InventoryHistoryService;
 import com.team18.backend.service.InventoryService;
+import com.team18.backend.service.events.InventoryEventBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -34,14 +54,30 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService service;
+    private final NdjsonExporter ndjsonExporter;
+    private final ETagService eTagService;
+    private final InventoryEventBroadcaster eventBroadcaster;
+    private final InventoryHistoryService historyService;
 
-    public InventoryController( InventoryService service ) {
+    public InventoryController(
+            InventoryService service,
+            NdjsonExporter ndjsonExporter,
+            ETagService eTagService,
+            InventoryEventBroadcaster eventBroadcaster,
+            InventoryHistoryService historyService
+    ) {
         this.service = service;
+        this.eTagService = eTagService;
+        this.ndjsonExporter = ndjsonExporter;
+        this.eventBroadcaster = eventBroadcaster;
+        this.historyService = historyService;
     }
 
     @Operation(
             summary = "Get all inventory",
-            description = "Returns a list of all saved inventory"
+            description = "Returns a list of all saved inventory, or a single page of it ordered by id when limit or cursor is set. "
+                    + "Without limit and cursor at most " + CursorPageRequest.UNPAGED_LIMIT + " rows are returned, ordered by id, with the "
+                    + CursorPage.NEXT_CURSOR_HEADER + " header set when there are more"
     )
     @ApiResponse(
             responseCode = "200",
@@ -51,10 +87,115 @@ public class InventoryController {
                     array = @ArraySchema(schema = @Schema(implementation = InventoryResponseDTO.class))
             )
     )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field in fields",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @GetMapping(path = "", consumes = MediaType.ALL_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<InventoryResponseDTO>> getAllInventory() {
-        return ResponseEntity.ok( service.getAllInventory() );
+    public ResponseEntity<List<InventoryResponseDTO>> getAllInventory(
+            @Parameter(description = "Page size; enables keyset pagination when set (1-" + CursorPageRequest.MAX_LIMIT + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from the " + CursorPage.NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = FieldSelection.PARAMETER_DESCRIPTION)
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request
+    ) {
+        FieldSelection selection = FieldSelectionAdvice.select( request, fields, InventoryResponseDTO.class );
+        if ( limit == null && cursor == null ) {
+            return service.getInventoryPage( CursorPageRequest.unpaged(), selection ).toResponseEntity();
+        }
+        return service.getInventoryPage( CursorPageRequest.of( limit, cursor ), selection ).toResponseEntity();
+    }
+
+    @Operation(
+            summary = "Export all inventory",
+            description = "Streams all saved inventory as newline delimited JSON, one object per line, without loading the collection into memory"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stream of inventory",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = InventoryResponseDTO.class)
+            )
+    )
+    @GetMapping(path = "/export", consumes = MediaType.ALL_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportInventory() {
+        return ndjsonExporter.export( service::streamAllInventory );
+    }
+
+    @Operation(
+            summary = "Subscribe to inventory changes",
+            description = "Streams every change of the inventory as server-sent events named \"inventory\", optionally only "
+                    + "of one warehouse or item. Deletions carry only the inventory id and are sent to every subscriber. "
+                    + "A client that falls too far behind is disconnected and should reconnect and reload the inventory"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stream of inventory changes",
+            content = @Content(
+                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = InventoryChangeEventDTO.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "503",
+            description = "The database does not support change streams"
+    )
+    @GetMapping(path = "/events", consumes = MediaType.ALL_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventoryEvents(
+            @Parameter(description = "Only send changes of this warehouse")
+            @RequestParam(required = false) String warehouseId,
+            @Parameter(description = "Only send changes of this item")
+            @RequestParam(required = false) String itemId
+    ) {
+        return eventBroadcaster.subscribe( warehouseId, itemId );
+    }
+
+    @Operation(
+            summary = "Get inventory history",
+            description = "Returns the quantity history of every item and warehouse of a shop, warehouse or item, or of one item "
+                    + "in one warehouse, downsampled to one point per interval that had changes. Each series also carries its "
+                    + "quantity at the start of the range"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "One series per warehouse and item",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = InventoryHistoryResponseDTO.class))
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "No shop, warehouse or item given, an empty range or too many intervals",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
+    @GetMapping(path = "/history", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<List<InventoryHistoryResponseDTO>> getInventoryHistory(
+            @Parameter(description = "Only the history of the warehouses of this shop")
+            @RequestParam(required = false) String shopId,
+            @Parameter(description = "Only the history of this warehouse")
+            @RequestParam(required = false) String warehouseId,
+            @Parameter(description = "Only the history of this item")
+            @RequestParam(required = false) String itemId,
+            @Parameter(description = "Start of the range, inclusive (ISO-8601 instant); defaults to 30 days before to")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End of the range, exclusive (ISO-8601 instant); defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Length of the intervals the history is downsampled to, in UTC")
+            @RequestParam(defaultValue = "DAY") HistoryInterval interval
+    ) {
+        return ResponseEntity.ok( historyService.getHistory( shopId, warehouseId, itemId, from, to, interval ) );
     }
 
     @Operation(
@@ -85,7 +226,8 @@ public class InventoryController {
 
     @Operation(
             summary = "Get inventory by warehouse id",
-            description = "Returns inventory related to a warehouse id"
+            description = "Returns inventory related to a warehouse id. Responses carry an ETag; a request with a "
+                    + "matching If-None-Match header is answered with 304 Not Modified"
     )
     @ApiResponse(
             responseCode = "200",
@@ -95,6 +237,10 @@ public class InventoryController {
                     array = @ArraySchema(schema = @Schema(implementation = InventoryResponseDTO.class))
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "The inventory did not change since the ETag in If-None-Match"
+    )
     @ApiResponse(
             responseCode = "404",
             description = "Inventory not found",
@@ -104,9 +250,27 @@ public class InventoryController {
             )
 
     )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field in fields",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @GetMapping(path = "/byWarehouseId/{id}", consumes = MediaType.ALL_VALUE)
-    public ResponseEntity<List<InventoryResponseDTO>> getInventoryByWarehouseId( @PathVariable String id ) throws ResourceNotFoundException {
-        return ResponseEntity.ok( service.getInventoryByWarehouseId( id ) );
+    public ResponseEntity<List<InventoryResponseDTO>> getInventoryByWarehouseId(
+            @PathVariable String id,
+            @Parameter(description = FieldSelection.PARAMETER_DESCRIPTION)
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request
+    ) throws ResourceNotFoundException {
+        FieldSelection selection = FieldSelectionAdvice.select( request, fields, InventoryResponseDTO.class );
+        return ConditionalGet.ifNoneMatch(
+                request,
+                selection.eTag( eTagService.getInventoryByWarehouseIdETag( id ) ),
+                () -> service.getInventoryByWarehouseId( id, selection )
+        );
     }
 
     @Operation(
@@ -130,15 +294,29 @@ public class InventoryController {
             )
 
     )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field in fields",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @GetMapping(path = "/byItemId/{id}", consumes = MediaType.ALL_VALUE)
-    public ResponseEntity<List<InventoryResponseDTO>> getInventoryByItemId( @PathVariable String id ) {
-        return ResponseEntity.ok( service.getInventoryByItemId( id ) );
+    public ResponseEntity<List<InventoryResponseDTO>> getInventoryByItemId(
+            @PathVariable String id,
+            @Parameter(description = FieldSelection.PARAMETER_DESCRIPTION)
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request
+    ) {
+        FieldSelection selection = FieldSelectionAdvice.select( request, fields, InventoryResponseDTO.class );
+        return ResponseEntity.ok( service.getInventoryByItemId( id, selection ) );
     }
 
 
     @Operation(
             summary = "Create Inventory",
-            description = "Creates a new inventory and returns the saved entity"
+            description = "Creates the inventory of an item in a warehouse, or replaces its quantity if the warehouse already stocks the item, and returns the saved entity"
     )
     @ApiResponse(
             responseCode = "201",
@@ -176,12 +354,23 @@ public class InventoryController {
             )
 
     )
+    @ApiResponse(
+            responseCode = "412",
+            description = "Inventory is no longer at the version given in If-Match",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @PatchMapping("/{id}")
     public ResponseEntity<InventoryResponseDTO> patch(
             @PathVariable String id,
+            @Parameter(description = IfMatch.PARAMETER_DESCRIPTION)
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody InventoryUpdateDTO inventoryUpdateDTO
     ) throws ResourceNotFoundException {
-        return ResponseEntity.ok().body( service.updateInventory( id, inventoryUpdateDTO ) );
+        InventoryResponseDTO updated = service.updateInventory( id, inventoryUpdateDTO, IfMatch.expectedVersion( ifMatch ) );
+        return ResponseEntity.ok().eTag( IfMatch.eTag( updated.version() ) ).body( updated );
     }
 
     @Operation(
@@ -1,21 +1,30 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.ConditionalGet;
 import com.team18.backend.dto.item.ItemDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.exception.ErrorResponse;
 import com.team18.backend.exception.FieldValidationErrorResponse;
 import com.team18.backend.model.Item;
+import com.team18.backend.service.ETagService;
 import com.team18.backend.service.ItemService;
+import com.team18.backend.service.cache.ItemCacheStats;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,17 +34,23 @@ import java.util.List;
 @Validated
 public class ItemController {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final ItemService itemService;
+    private final ETagService eTagService;
 
-    public ItemController( ItemService itemService ) {
+    public ItemController( ItemService itemService, ETagService eTagService ) {
         this.itemService = itemService;
+        this.eTagService = eTagService;
     }
 
 
     @GetMapping
     @Operation(
             summary = "Get all Items",
-            description = "Returns an array of all Items currently stored in the system or an empty array if no items are stored."
+            description = "Returns an array of all Items currently stored in the system or an empty array if no items are stored. Returns a single page ordered by id when limit or cursor is set. "
+                    + "Without limit and cursor at most " + CursorPageRequest.UNPAGED_LIMIT + " items are returned, ordered by id, with the "
+                    + CursorPage.NEXT_CURSOR_HEADER + " header set when there are more. The full list carries an ETag; a request with a matching If-None-Match header is answered with 304 Not Modified."
     )
     @ApiResponse(
             responseCode = "200",
@@ -44,6 +59,10 @@ public class ItemController {
                     array = @ArraySchema(schema = @Schema(implementation = Item.class))
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "The items did not change since the ETag in If-None-Match"
+    )
     @ApiResponse(
             responseCode = "500",
             description = "Unexpected server error",
@@ -52,8 +71,19 @@ public class ItemController {
             )
     )
 
-    public ResponseEntity<List<Item>> getAllItems() {
-        return ResponseEntity.ok( itemService.findAllItems() );
+    public ResponseEntity<List<Item>> getAllItems(
+            @Parameter(description = "Page size; enables keyset pagination when set (1-" + CursorPageRequest.MAX_LIMIT + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from the " + CursorPage.NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        if ( limit == null && cursor == null ) {
+            return ConditionalGet.ifNoneMatchPage(
+                    request, eTagService.getItemsETag(), () -> itemService.findItemPage( CursorPageRequest.unpaged() )
+            );
+        }
+        return itemService.findItemPage( CursorPageRequest.of( limit, cursor ) ).toResponseEntity();
     }
 
     @GetMapping("/{id}")
@@ -81,6 +111,77 @@ public class ItemController {
         return ResponseEntity.ok( itemService.findItemById( id ) );
     }
 
+    @GetMapping("/bySku/{sku}")
+    @Operation(
+            summary = "Get Item by SKU",
+            description = "Returns a single Item by its unique SKU."
+    )
+
+    @ApiResponse(
+            responseCode = "200",
+            description = "Item found",
+            content = @Content(
+                    schema = @Schema(implementation = Item.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Item not found",
+            content = @Content(
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
+
+    public ResponseEntity<Item> getItemBySku( @PathVariable String sku ) {
+        return ResponseEntity.ok( itemService.findItemBySku( sku ) );
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search Items",
+            description = "Returns the items whose name or SKU best match the query, best first, for search as you type. Case and separators such as '-' are ignored. Queries of three or more characters match anywhere in the name or SKU, shorter queries only the start of a word."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Matching Items",
+            content = @Content(
+                    array = @ArraySchema(schema = @Schema(implementation = Item.class))
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid limit",
+            content = @Content(
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
+
+    public ResponseEntity<List<Item>> searchItems(
+            @Parameter(description = "Part of the name or SKU")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of items to return (1-" + MAX_SEARCH_LIMIT + ")")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_SEARCH_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok( itemService.searchItems( q, limit ) );
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(
+            summary = "Get item cache statistics",
+            description = "Returns the hit, miss and eviction counters of the in-process item cache since startup."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Item cache statistics",
+            content = @Content(
+                    schema = @Schema(implementation = ItemCacheStats.class)
+            )
+    )
+
+    public ResponseEntity<ItemCacheStats> getItemCacheStats() {
+        return ResponseEntity.ok( itemService.getItemCacheStats() );
+    }
+
     @PostMapping
     @Operation(
             summary = "Create a Item",
@@ -1,13 +1,21 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.IfMatch;
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.ShipmentCompletionJobDTO;
 import com.team18.backend.dto.ShipmentCreateDTO;
 import com.team18.backend.dto.ShipmentResponseDTO;
 import com.team18.backend.dto.ShipmentStatusUpdateDTO;
 import com.team18.backend.dto.ShipmentUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.exception.ErrorResponse;
 import com.team18.backend.exception.FieldValidationErrorResponse;
+import com.team18.backend.model.ShipmentStatus;
 import com.team18.backend.service.ShipmentService;
+import com.team18.backend.service.completion.ShipmentCompletionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,11 +23,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -29,15 +43,25 @@ import java.util.List;
 public class ShipmentController {
 
     private final ShipmentService shipmentService;
+    private final ShipmentCompletionService shipmentCompletionService;
+    private final NdjsonExporter ndjsonExporter;
 
-    public ShipmentController( ShipmentService shipmentService ) {
+    public ShipmentController(
+            ShipmentService shipmentService,
+            ShipmentCompletionService shipmentCompletionService,
+            NdjsonExporter ndjsonExporter
+    ) {
         this.shipmentService = shipmentService;
+        this.shipmentCompletionService = shipmentCompletionService;
+        this.ndjsonExporter = ndjsonExporter;
     }
 
     @GetMapping
     @Operation(
             summary = "Get all shipments",
-            description = "Returns every shipment currently stored in the system."
+            description = "Returns every shipment currently stored in the system, or a single page of them ordered by id when limit or cursor is set. "
+                    + "Without limit and cursor at most " + CursorPageRequest.UNPAGED_LIMIT + " shipments are returned, ordered by id, with the "
+                    + CursorPage.NEXT_CURSOR_HEADER + " header set when there are more"
     )
     @ApiResponses({
             @ApiResponse(
@@ -55,8 +79,35 @@ public class ShipmentController {
                     )
             )
     })
-    public ResponseEntity<List<ShipmentResponseDTO>> getAllShipments() {
-        return ResponseEntity.ok( shipmentService.getAllShipments() );
+    public ResponseEntity<List<ShipmentResponseDTO>> getAllShipments(
+            @Parameter(description = "Page size; enables keyset pagination when set (1-" + CursorPageRequest.MAX_LIMIT + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from the " + CursorPage.NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor
+    ) {
+        if ( limit == null && cursor == null ) {
+            return shipmentService.getShipmentPage( CursorPageRequest.unpaged() ).toResponseEntity();
+        }
+        return shipmentService.getShipmentPage( CursorPageRequest.of( limit, cursor ) ).toResponseEntity();
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export all shipments",
+            description = "Streams every shipment as newline delimited JSON, one object per line, without loading the collection into memory."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream of shipments",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ShipmentResponseDTO.class)
+                    )
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportShipments() {
+        return ndjsonExporter.export( shipmentService::streamAllShipments );
     }
 
     @GetMapping("/{id}")
@@ -105,7 +156,7 @@ public class ShipmentController {
     @GetMapping("/shop/{shopId}")
     @Operation(
             summary = "Get all shipments for a shop",
-            description = "Returns all shipments for warehouses belonging to a shop."
+            description = "Returns all shipments for warehouses belonging to a shop, optionally filtered by status and expected arrival date range."
     )
     @ApiResponses({
             @ApiResponse(
@@ -115,6 +166,11 @@ public class ShipmentController {
                             array = @ArraySchema(schema = @Schema(implementation = ShipmentResponseDTO.class))
                     )
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid status or date filter",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Shop not found",
@@ -122,9 +178,15 @@ public class ShipmentController {
             )
     })
     public ResponseEntity<List<ShipmentResponseDTO>> getAllShipmentsByShopId(
-            @PathVariable String shopId
+            @PathVariable String shopId,
+            @Parameter(description = "Only shipments with this status")
+            @RequestParam(required = false) ShipmentStatus status,
+            @Parameter(description = "Only shipments expected on or after this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Only shipments expected on or before this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
-        return ResponseEntity.ok( shipmentService.getAllShipmentsByShopId( shopId ) );
+        return ResponseEntity.ok( shipmentService.getAllShipmentsByShopId( shopId, status, from, to ) );
     }
 
     @PostMapping
@@ -157,7 +219,8 @@ public class ShipmentController {
     @PatchMapping("/{id}")
     @Operation(
             summary = "Update a shipment",
-            description = "Updates an existing shipment's details."
+            description = "Updates an existing shipment's details. A shipment cannot be set to COMPLETED here; "
+                    + "use PATCH /api/shipments/{id}/status, which queues its completion."
     )
     @ApiResponses({
             @ApiResponse(
@@ -184,20 +247,34 @@ public class ShipmentController {
                     responseCode = "400",
                     description = "Record is locked",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Status is COMPLETED",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Shipment is no longer at the version given in If-Match",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
     public ResponseEntity<ShipmentResponseDTO> updateShipment(
             @PathVariable String id,
+            @Parameter(description = IfMatch.PARAMETER_DESCRIPTION)
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ShipmentUpdateDTO request
     ) {
-        ShipmentResponseDTO updatedShipment = shipmentService.updateShipment( id, request );
-        return ResponseEntity.ok( updatedShipment );
+        ShipmentResponseDTO updatedShipment = shipmentService.updateShipment( id, request, IfMatch.expectedVersion( ifMatch ) );
+        return ResponseEntity.ok().eTag( IfMatch.eTag( updatedShipment.version() ) ).body( updatedShipment );
     }
 
     @PatchMapping("/{id}/status")
     @Operation(
             summary = "Update shipment status",
-            description = "Updates only the status of an existing shipment."
+            description = "Updates only the status of an existing shipment. Setting the status to COMPLETED receives the "
+                    + "shipment into the inventory of its warehouse in the background and returns the queued completion "
+                    + "job, whose progress is available at its Location."
     )
     @ApiResponses({
             @ApiResponse(
@@ -205,6 +282,11 @@ public class ShipmentController {
                     description = "Shipment status updated",
                     content = @Content(schema = @Schema(implementation = ShipmentResponseDTO.class))
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Shipment completion queued",
+                    content = @Content(schema = @Schema(implementation = ShipmentCompletionJobDTO.class))
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid input",
@@ -216,24 +298,51 @@ public class ShipmentController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             ),
             @ApiResponse(
-                    responseCode = "404",
-                    description = "Shipment line items not found",
+                    responseCode = "400",
+                    description = "Record is locked",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             ),
             @ApiResponse(
-                    responseCode = "400",
-                    description = "Record is locked",
+                    responseCode = "503",
+                    description = "Too many shipment completions are queued",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
-    public ResponseEntity<ShipmentResponseDTO> updateShipmentStatus(
+    public ResponseEntity<?> updateShipmentStatus(
             @PathVariable String id,
             @Valid @RequestBody ShipmentStatusUpdateDTO request
     ) {
+        if ( request.status() == ShipmentStatus.COMPLETED ) {
+            ShipmentCompletionJobDTO job = shipmentCompletionService.submit( id );
+            return ResponseEntity.accepted()
+                    .location( URI.create( "/api/shipments/completions/" + job.id() ) )
+                    .body( job );
+        }
         ShipmentResponseDTO updatedShipment = shipmentService.updateShipmentStatus( id, request );
         return ResponseEntity.ok( updatedShipment );
     }
 
+    @GetMapping("/completions/{jobId}")
+    @Operation(
+            summary = "Get a shipment completion job",
+            description = "Returns the progress of a queued shipment completion. Finished jobs are kept for a limited time."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Completion job found",
+                    content = @Content(schema = @Schema(implementation = ShipmentCompletionJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Completion job not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<ShipmentCompletionJobDTO> getCompletionJob( @PathVariable String jobId ) {
+        return ResponseEntity.ok( shipmentCompletionService.getJob( jobId ) );
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete a shipment",
@@ -1,9 +1,13 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchCreateDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchResponseDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemCreateDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemUpdateDTO;
 import com.team18.backend.exception.ErrorResponse;
+import com.team18.backend.exception.FieldValidationErrorResponse;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.service.ShipmentLineItemService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -34,9 +39,11 @@ import java.util.List;
 public class ShipmentLineItemController {
 
     private final ShipmentLineItemService service;
+    private final NdjsonExporter ndjsonExporter;
 
-    public ShipmentLineItemController( ShipmentLineItemService shipmentLineItemService ) {
+    public ShipmentLineItemController( ShipmentLineItemService shipmentLineItemService, NdjsonExporter ndjsonExporter ) {
         this.service = shipmentLineItemService;
+        this.ndjsonExporter = ndjsonExporter;
     }
 
     @Operation(
@@ -62,6 +69,23 @@ public class ShipmentLineItemController {
         return ResponseEntity.ok( service.getShipmentLineItemsByShipmentId( id ) );
     }
 
+    @Operation(
+            summary = "Export all shipment line items",
+            description = "Streams all shipment line items as newline delimited JSON, one object per line, without loading the collection into memory"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stream of shipment line items",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = ShipmentLineItemResponseDTO.class)
+            )
+    )
+    @GetMapping(path = "/export", consumes = MediaType.ALL_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportShipmentLineItems() {
+        return ndjsonExporter.export( service::streamAllShipmentLineItems );
+    }
+
     @Operation(
             summary = "Create ShipmentLineItem",
             description = "Creates a new ShipmentLineItem and returns a ShipmentLineItemResponseDTO"
@@ -89,6 +113,52 @@ public class ShipmentLineItemController {
         return ResponseEntity.status( HttpStatus.CREATED ).body( service.createShipmentLineItem( shipmentLineItemCreateDTO ) );
     }
 
+    @Operation(
+            summary = "Create ShipmentLineItems in bulk",
+            description = "Creates up to " + ShipmentLineItemBatchCreateDTO.MAX_LINE_ITEMS + " line items for one shipment in a single request. "
+                    + "Returns 201 if every line item was created, otherwise 207 with a per-line result"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "All ShipmentLineItems created",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ShipmentLineItemBatchResponseDTO.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "207",
+            description = "Some ShipmentLineItems could not be created, see the per-line status",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ShipmentLineItemBatchResponseDTO.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Validation error",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = FieldValidationErrorResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Shipment not found",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<ShipmentLineItemBatchResponseDTO> createShipmentLineItems(
+            @Valid @RequestBody ShipmentLineItemBatchCreateDTO batchCreateDTO
+    ) throws ResourceNotFoundException {
+        ShipmentLineItemBatchResponseDTO response = service.createShipmentLineItems( batchCreateDTO );
+        HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status( status ).body( response );
+    }
+
     @Operation(
             summary = "Update ShipmentLineItem",
             description = "Updates a ShipmentLineItem and returns a ShipmentLineItemResponseDTO"
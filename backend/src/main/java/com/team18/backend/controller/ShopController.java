@@ -1,8 +1,10 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.ConditionalGet;
 import com.team18.backend.exception.ErrorResponse;
 import com.team18.backend.exception.FieldValidationErrorResponse;
 import com.team18.backend.model.Shop;
+import com.team18.backend.service.ETagService;
 import com.team18.backend.service.ShopService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -17,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,15 +30,18 @@ import java.util.List;
 public class ShopController {
 
     private final ShopService shopService;
+    private final ETagService eTagService;
 
-    public ShopController( ShopService shopService ) {
+    public ShopController( ShopService shopService, ETagService eTagService ) {
         this.shopService = shopService;
+        this.eTagService = eTagService;
     }
 
     @GetMapping
     @Operation(
             summary = "Get all shops",
-            description = "Returns every shop currently stored in the system."
+            description = "Returns every shop currently stored in the system. Responses carry an ETag; "
+                    + "a request with a matching If-None-Match header is answered with 304 Not Modified."
     )
     @ApiResponses({
             @ApiResponse(
@@ -45,6 +51,10 @@ public class ShopController {
                             array = @ArraySchema(schema = @Schema(implementation = Shop.class))
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "The shops did not change since the ETag in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Unexpected server error",
@@ -53,8 +63,8 @@ public class ShopController {
                     )
             )
     })
-    public ResponseEntity<List<Shop>> getAllShops() {
-        return ResponseEntity.ok( shopService.getAllShops() );
+    public ResponseEntity<List<Shop>> getAllShops( WebRequest request ) {
+        return ConditionalGet.ifNoneMatch( request, eTagService.getShopsETag(), shopService::getAllShops );
     }
 
     @GetMapping("/{id}")
@@ -1,22 +1,35 @@
 package com.team18.backend.controller;
 
+import com.team18.backend.controller.support.ConditionalGet;
+import com.team18.backend.controller.support.FieldSelectionAdvice;
+import com.team18.backend.controller.support.IfMatch;
+import com.team18.backend.dto.fields.FieldSelection;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
+import com.team18.backend.dto.warehouse.NearestWarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseCreateDTO;
+import com.team18.backend.dto.warehouse.WarehouseDeletionResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseUpdateDTO;
 import com.team18.backend.exception.ErrorResponse;
 import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.service.ETagService;
 import com.team18.backend.service.WarehouseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,15 +46,22 @@ import java.util.List;
 @Tag(name = "Warehouses", description = "CRUD endpoint for warehouses")
 public class WarehouseController {
 
+    private static final int MAX_NEAREST_LIMIT = 100;
+
     private final WarehouseService service;
+    private final ETagService eTagService;
 
-    public WarehouseController( WarehouseService service ) {
+    public WarehouseController( WarehouseService service, ETagService eTagService ) {
         this.service = service;
+        this.eTagService = eTagService;
     }
 
     @Operation(
             summary = "Get all warehouses",
-            description = "Returns a list of all saved warehouses"
+            description = "Returns a list of all saved warehouses, or a single page of them ordered by id when limit or cursor is set. "
+                    + "Without limit and cursor at most " + CursorPageRequest.UNPAGED_LIMIT + " warehouses are returned, ordered by id, with the "
+                    + CursorPage.NEXT_CURSOR_HEADER + " header set when there are more. "
+                    + "The full list carries an ETag; a request with a matching If-None-Match header is answered with 304 Not Modified"
     )
     @ApiResponse(
             responseCode = "200",
@@ -51,10 +71,75 @@ public class WarehouseController {
                     array = @ArraySchema(schema = @Schema(implementation = WarehouseResponseDTO.class))
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "The warehouses did not change since the ETag in If-None-Match"
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field in fields",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @GetMapping(path = "", consumes = MediaType.ALL_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<WarehouseResponseDTO>> getAllWarehouses() {
-        return ResponseEntity.ok( service.getAllWarehouses() );
+    public ResponseEntity<List<WarehouseResponseDTO>> getAllWarehouses(
+            @Parameter(description = "Page size; enables keyset pagination when set (1-" + CursorPageRequest.MAX_LIMIT + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from the " + CursorPage.NEXT_CURSOR_HEADER + " header of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = FieldSelection.PARAMETER_DESCRIPTION)
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request
+    ) {
+        FieldSelection selection = FieldSelectionAdvice.select( request, fields, WarehouseResponseDTO.class );
+        if ( limit == null && cursor == null ) {
+            return ConditionalGet.ifNoneMatchPage(
+                    request,
+                    selection.eTag( eTagService.getWarehousesETag() ),
+                    () -> service.getWarehousePage( CursorPageRequest.unpaged(), selection )
+            );
+        }
+        return service.getWarehousePage( CursorPageRequest.of( limit, cursor ), selection ).toResponseEntity();
+    }
+
+    @Operation(
+            summary = "Get nearest warehouses",
+            description = "Returns the warehouses closest to a coordinate, nearest first, optionally limited to a radius "
+                    + "and to warehouses that have an item in stock. Warehouses without coordinates are never returned"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "List of warehouses with their distance",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = NearestWarehouseResponseDTO.class))
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid coordinate, radius or limit",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
+    @GetMapping(path = "/nearest", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<List<NearestWarehouseResponseDTO>> getNearestWarehouses(
+            @Parameter(description = "Latitude of the coordinate")
+            @RequestParam @DecimalMin("-90.0") @DecimalMax("90.0") double lat,
+            @Parameter(description = "Longitude of the coordinate")
+            @RequestParam @DecimalMin("-180.0") @DecimalMax("180.0") double lng,
+            @Parameter(description = "Maximum distance in meters")
+            @RequestParam(required = false) @Positive Double radius,
+            @Parameter(description = "Only return warehouses that have this item in stock")
+            @RequestParam(required = false) String itemId,
+            @Parameter(description = "Maximum number of warehouses to return (1-" + MAX_NEAREST_LIMIT + ")")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_NEAREST_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok( service.getNearestWarehouses( lat, lng, radius, itemId, limit ) );
     }
 
     @Operation(
@@ -122,18 +207,31 @@ public class WarehouseController {
             )
 
     )
+    @ApiResponse(
+            responseCode = "412",
+            description = "Warehouse is no longer at the version given in If-Match",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+            )
+    )
     @PatchMapping("/{id}")
-    public ResponseEntity<WarehouseResponseDTO> patchWarehouse( @PathVariable String id, @Valid @RequestBody WarehouseUpdateDTO warehouse )
-            throws ResourceNotFoundException {
-        return ResponseEntity.ok( service.updateWarehouse( id, warehouse ) );
+    public ResponseEntity<WarehouseResponseDTO> patchWarehouse(
+            @PathVariable String id,
+            @Parameter(description = IfMatch.PARAMETER_DESCRIPTION)
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody WarehouseUpdateDTO warehouse
+    ) throws ResourceNotFoundException {
+        WarehouseResponseDTO updated = service.updateWarehouse( id, warehouse, IfMatch.expectedVersion( ifMatch ) );
+        return ResponseEntity.ok().eTag( IfMatch.eTag( updated.version() ) ).body( updated );
     }
 
     @Operation(
             summary = "Delete Warehouse",
-            description = "Deletes a warehouse by its id and returns true"
+            description = "Deletes a warehouse by its id together with its inventory, shipments and shipment line items, and returns how many of each were deleted"
     )
     @ApiResponse(
-            responseCode = "204",
+            responseCode = "200",
             description = "Warehouse deleted"
     )
     @ApiResponse(
@@ -146,8 +244,8 @@ public class WarehouseController {
 
     )
     @DeleteMapping(path = "/{id}", consumes = MediaType.ALL_VALUE)
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public Boolean deleteWarehouse( @PathVariable String id ) throws ResourceNotFoundException {
+    @ResponseStatus(HttpStatus.OK)
+    public WarehouseDeletionResponseDTO deleteWarehouse( @PathVariable String id ) throws ResourceNotFoundException {
         return service.deleteWarehouse( id );
     }
 }
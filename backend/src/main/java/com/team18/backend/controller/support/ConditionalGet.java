@@ -0,0 +1,40 @@
+package com.team18.backend.controller.support;
+
+import com.team18.backend.dto.page.CursorPage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET with 304 Not Modified when its {@code If-None-Match} header matches the current ETag, before
+ * the body is read or mapped. The ETag comes from {@link com.team18.backend.service.ETagService}.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param eTag the quoted ETag of the current state of the resource
+     * @param body reads the body; only called when the client's copy is outdated
+     */
+    public static <T> ResponseEntity<T> ifNoneMatch( WebRequest request, String eTag, Supplier<T> body ) {
+        if ( request.checkNotModified( eTag ) ) {
+            return ResponseEntity.status( HttpStatus.NOT_MODIFIED ).eTag( eTag ).build();
+        }
+        return ResponseEntity.ok().eTag( eTag ).body( body.get() );
+    }
+
+    /**
+     * Like {@link #ifNoneMatch(WebRequest, String, Supplier)} for a page, whose next cursor is sent in its header.
+     */
+    public static <T> ResponseEntity<List<T>> ifNoneMatchPage( WebRequest request, String eTag, Supplier<CursorPage<T>> page ) {
+        if ( request.checkNotModified( eTag ) ) {
+            return ResponseEntity.status( HttpStatus.NOT_MODIFIED ).eTag( eTag ).build();
+        }
+        return page.get().toResponseEntity( ResponseEntity.ok().eTag( eTag ) );
+    }
+}
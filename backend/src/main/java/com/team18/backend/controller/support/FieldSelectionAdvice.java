@@ -0,0 +1,70 @@
+package com.team18.backend.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team18.backend.dto.fields.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Removes the fields a client did not select from the JSON body of a controller response.
+ * <p>
+ * Controllers register the selection of a request with {@link #select}; error responses written by the
+ * exception handlers are left as they are.
+ */
+@ControllerAdvice
+public class FieldSelectionAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String ATTRIBUTE = FieldSelectionAdvice.class.getName() + ".selection";
+
+    private final ObjectMapper objectMapper;
+
+    public FieldSelectionAdvice( ObjectMapper objectMapper ) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses the {@code fields} parameter of a request and registers the selection for its response body.
+     *
+     * @param responseType the type of a single response row
+     * @return the selection, to be pushed down to the query
+     */
+    public static FieldSelection select( WebRequest request, String fields, Class<?> responseType ) {
+        FieldSelection selection = FieldSelection.of( fields, responseType );
+        if ( !selection.isAll() ) {
+            request.setAttribute( ATTRIBUTE, selection, RequestAttributes.SCOPE_REQUEST );
+        }
+        return selection;
+    }
+
+    @Override
+    public boolean supports( MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType ) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom( converterType )
+                && returnType.getContainingClass().isAnnotationPresent( RestController.class );
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        if ( body == null || !( request instanceof ServletServerHttpRequest servletRequest )
+                || !( servletRequest.getServletRequest().getAttribute( ATTRIBUTE ) instanceof FieldSelection selection ) ) {
+            return body;
+        }
+        return selection.apply( objectMapper.valueToTree( body ) );
+    }
+}
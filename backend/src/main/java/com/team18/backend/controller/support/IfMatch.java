@@ -0,0 +1,40 @@
+package com.team18.backend.controller.support;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates between the {@code version} of a versioned resource and the ETags of conditional updates. The
+ * ETag of a version is the quoted number, e.g. {@code "3"}, and a PATCH with {@code If-Match: "3"} is only
+ * applied while the resource is still at version 3.
+ */
+public final class IfMatch {
+
+    public static final String PARAMETER_DESCRIPTION =
+            "Only apply the update if the resource is still at this version, the quoted `version` of a previous response, e.g. \"3\"";
+
+    private static final Pattern VERSION_TAG = Pattern.compile( "\"(\\d{1,18})\"|(\\d{1,18})" );
+
+    private IfMatch() {
+    }
+
+    public static String eTag( long version ) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param header the {@code If-Match} header, or {@code null}
+     * @return the version the update requires, {@code null} if the header is absent or {@code *}, and
+     * {@code -1}, which no resource has, for weak, malformed or multiple ETags
+     */
+    public static Long expectedVersion( String header ) {
+        if ( header == null || header.isBlank() || header.trim().equals( "*" ) ) {
+            return null;
+        }
+        Matcher matcher = VERSION_TAG.matcher( header.trim() );
+        if ( !matcher.matches() ) {
+            return -1L;
+        }
+        return Long.parseLong( matcher.group( 1 ) != null ? matcher.group( 1 ) : matcher.group( 2 ) );
+    }
+}
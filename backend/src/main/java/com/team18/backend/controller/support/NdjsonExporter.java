@@ -0,0 +1,52 @@
+package com.team18.backend.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows as newline delimited JSON while they are read from the database.
+ * <p>
+ * The stream is opened on the async request thread and closed once the last row is written or the
+ * client disconnects, so memory stays bounded by one database batch regardless of the collection size.
+ */
+@Component
+public class NdjsonExporter {
+
+    static final int FLUSH_INTERVAL = 100;
+
+    private static final byte[] NEWLINE = { '\n' };
+
+    private final ObjectWriter writer;
+
+    public NdjsonExporter( ObjectMapper objectMapper ) {
+        this.writer = objectMapper.writer();
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> export( Supplier<Stream<T>> rows ) {
+        StreamingResponseBody body = outputStream -> {
+            try ( Stream<T> stream = rows.get() ) {
+                Iterator<T> iterator = stream.iterator();
+                int written = 0;
+                while ( iterator.hasNext() ) {
+                    outputStream.write( writer.writeValueAsBytes( iterator.next() ) );
+                    outputStream.write( NEWLINE );
+                    if ( ++written % FLUSH_INTERVAL == 0 ) {
+                        outputStream.flush();
+                    }
+                }
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType( MediaType.APPLICATION_NDJSON )
+                .body( body );
+    }
+}
@@ -0,0 +1,49 @@
+package com.team18.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Progress of an asynchronous shipment completion")
+public record ShipmentCompletionJobDTO(
+        @Schema(description = "Unique identifier of the completion job", accessMode = Schema.AccessMode.READ_ONLY)
+        String id,
+
+        @Schema(description = "Shipment being completed")
+        String shipmentId,
+
+        @Schema(description = "Warehouse receiving the shipment; completions for the same warehouse run one at a time")
+        String warehouseId,
+
+        @Schema(description = "Current state of the job")
+        Status status,
+
+        @Schema(description = "Number of line items of the shipment, once they were read")
+        Integer lineItems,
+
+        @Schema(description = "Total quantity received into the warehouse, once the line items were read")
+        Long receivedQuantity,
+
+        @Schema(description = "HTTP status the completion would have failed with, if the job failed")
+        Integer errorStatus,
+
+        @Schema(description = "Reason the job failed")
+        String error,
+
+        @Schema(description = "When the job was queued")
+        Instant queuedAt,
+
+        @Schema(description = "When the job started running")
+        Instant startedAt,
+
+        @Schema(description = "When the job succeeded or failed")
+        Instant finishedAt
+) {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -34,6 +34,12 @@ public record ShipmentResponseDTO(
         Instant createdDate,
 
         @Schema(description = "Last modification timestamp", accessMode = Schema.AccessMode.READ_ONLY)
-        Instant lastModifiedDate
+        Instant lastModifiedDate,
+
+        @Schema(
+                description = "Version of the shipment, incremented by every update. Send it as If-Match to update only this version.",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long version
 ) {}
 
@@ -0,0 +1,183 @@
+package com.team18.backend.dto.fields;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.team18.backend.exception.InvalidFieldSelectionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * The fields of a response a client asked for with the {@code fields} query parameter, e.g.
+ * {@code fields=id,item.sku,quantity}. Nested fields are separated by dots and selecting an object selects
+ * all of its fields.
+ * <p>
+ * The selection is a tree keyed by JSON property name. It is pushed down as a Mongo projection, see
+ * {@code toDocumentFields} of the mappers, so unselected fields and references are not read, and it
+ * prunes the serialized response, so only the selected fields are sent.
+ */
+public final class FieldSelection {
+
+    public static final String PARAMETER = "fields";
+    public static final String PARAMETER_DESCRIPTION =
+            "Comma-separated fields to return, nested fields separated by dots (e.g. id,item.sku,quantity); all fields when omitted";
+
+    /**
+     * Selects every field; also used for a selected object without nested fields.
+     */
+    public static final FieldSelection ALL = new FieldSelection( Map.of() );
+
+    private static final Pattern FIELD_NAME = Pattern.compile( "[A-Za-z][A-Za-z0-9]*" );
+    private static final String MODEL_PACKAGE = "com.team18.backend";
+
+    /**
+     * Only used to introspect response types the way the application serializes them.
+     */
+    private static final ObjectMapper INTROSPECTION = new ObjectMapper();
+
+    private final Map<String, FieldSelection> fields;
+
+    private FieldSelection( Map<String, FieldSelection> fields ) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses the {@code fields} parameter and checks every field against the JSON properties of the response
+     * type.
+     *
+     * @param fields       comma-separated field paths, or {@code null} or blank for all fields
+     * @param responseType the type of a single response row
+     * @throws InvalidFieldSelectionException if a path is malformed or names an unknown field
+     */
+    public static FieldSelection of( String fields, Class<?> responseType ) throws InvalidFieldSelectionException {
+        if ( fields == null || fields.isBlank() ) {
+            return ALL;
+        }
+
+        List<List<String>> paths = new ArrayList<>();
+        for ( String field : fields.split( "," ) ) {
+            String path = field.trim();
+            List<String> names = List.of( path.split( "\\.", -1 ) );
+            Class<?> type = responseType;
+            for ( String name : names ) {
+                if ( !FIELD_NAME.matcher( name ).matches() ) {
+                    throw new InvalidFieldSelectionException( "Invalid field: '" + path + "'" );
+                }
+                type = propertyType( type, name ).orElseThrow(
+                        () -> new InvalidFieldSelectionException( "Unknown field: '" + path + "'" )
+                );
+            }
+            paths.add( names );
+        }
+        return from( paths );
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * @return the selected fields of this level, or an empty set if all fields are selected
+     */
+    public Set<String> names() {
+        return fields.keySet();
+    }
+
+    /**
+     * @return the selection inside {@code field}, {@link #ALL} if it is selected as a whole or all fields are
+     * selected, or {@code null} if it is not selected
+     */
+    public FieldSelection get( String field ) {
+        return isAll() ? ALL : fields.get( field );
+    }
+
+    /**
+     * Removes every unselected property from a serialized row, or from every row of an array.
+     */
+    public JsonNode apply( JsonNode node ) {
+        if ( isAll() ) {
+            return node;
+        }
+        if ( node.isArray() ) {
+            node.forEach( this::apply );
+        } else if ( node instanceof ObjectNode object ) {
+            object.retain( fields.keySet() );
+            fields.forEach( ( name, nested ) -> {
+                JsonNode child = object.get( name );
+                if ( child != null ) {
+                    nested.apply( child );
+                }
+            } );
+        }
+        return node;
+    }
+
+    /**
+     * Makes an ETag specific to this selection, since the same data is sent differently per selection.
+     *
+     * @param eTag the quoted ETag of the data
+     */
+    public String eTag( String eTag ) {
+        if ( isAll() ) {
+            return eTag;
+        }
+        return eTag.substring( 0, eTag.length() - 1 ) + ";" + String.join( "+", paths() ) + "\"";
+    }
+
+    /**
+     * @return the selected fields as dotted paths, in order
+     */
+    public Set<String> paths() {
+        Set<String> paths = new LinkedHashSet<>();
+        fields.forEach( ( name, nested ) -> {
+            if ( nested.isAll() ) {
+                paths.add( name );
+            } else {
+                nested.paths().forEach( path -> paths.add( name + "." + path ) );
+            }
+        } );
+        return Collections.unmodifiableSet( paths );
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "*" : String.join( ",", paths() );
+    }
+
+    private static FieldSelection from( List<List<String>> paths ) {
+        Map<String, List<List<String>>> byName = new TreeMap<>();
+        for ( List<String> path : paths ) {
+            byName.computeIfAbsent( path.getFirst(), name -> new ArrayList<>() ).add( path.subList( 1, path.size() ) );
+        }
+
+        Map<String, FieldSelection> fields = new TreeMap<>();
+        byName.forEach( ( name, nested ) -> fields.put(
+                name,
+                // selecting an object as a whole wins over selecting some of its fields
+                nested.stream().anyMatch( List::isEmpty ) ? ALL : from( nested )
+        ) );
+        return new FieldSelection( Collections.unmodifiableMap( fields ) );
+    }
+
+    private static Optional<Class<?>> propertyType( Class<?> type, String name ) {
+        if ( type == null || !type.getPackageName().startsWith( MODEL_PACKAGE ) ) {
+            // only objects of the application have nested fields
+            return Optional.empty();
+        }
+        BeanDescription description = INTROSPECTION.getSerializationConfig().introspect( INTROSPECTION.constructType( type ) );
+        return description.findProperties().stream()
+                .filter( property -> property.getName().equals( name ) && property.couldSerialize() )
+                .findFirst()
+                .map( BeanPropertyDefinition::getRawPrimaryType );
+    }
+}
@@ -0,0 +1,33 @@
+package com.team18.backend.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "A change of an inventory document, pushed to subscribers of the inventory event stream")
+public record InventoryChangeEventDTO(
+        @Schema(description = "What happened to the inventory")
+        Type type,
+
+        @Schema(description = "Id of the changed inventory")
+        String id,
+
+        @Schema(description = "Warehouse of the inventory; missing for a deletion the database kept no image of")
+        String warehouseId,
+
+        @Schema(description = "Item of the inventory; missing for a deletion the database kept no image of")
+        String itemId,
+
+        @Schema(description = "Quantity after the change; missing for a deletion")
+        Integer quantity,
+
+        @Schema(description = "When the change happened")
+        Instant changedAt
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
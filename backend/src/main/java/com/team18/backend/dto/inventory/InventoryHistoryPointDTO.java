@@ -0,0 +1,27 @@
+package com.team18.backend.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "The inventory level of an item in a warehouse within one interval that had changes")
+public record InventoryHistoryPointDTO(
+        @Schema(description = "Start of the interval, in UTC")
+        Instant start,
+
+        @Schema(description = "Quantity at the end of the interval", example = "120")
+        int quantity,
+
+        @Schema(description = "Lowest quantity after a change within the interval", example = "80")
+        int minQuantity,
+
+        @Schema(description = "Highest quantity after a change within the interval", example = "140")
+        int maxQuantity,
+
+        @Schema(description = "Net change of the quantity within the interval", example = "40")
+        int change,
+
+        @Schema(description = "Number of changes within the interval", example = "3")
+        int changes
+) {
+}
@@ -0,0 +1,23 @@
+package com.team18.backend.dto.inventory;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "The downsampled inventory level history of one item in one warehouse")
+public record InventoryHistoryResponseDTO(
+        @Schema(description = "Id of the warehouse")
+        String warehouseId,
+
+        @Schema(description = "Id of the item")
+        String itemId,
+
+        @Schema(description = "Quantity at the start of the range, from the last change before it; missing if there was none", nullable = true)
+        Integer openingQuantity,
+
+        @ArraySchema(schema = @Schema(implementation = InventoryHistoryPointDTO.class, description = "Intervals with changes, oldest first; "
+                + "the quantity stays at the last point's quantity through intervals without changes"))
+        List<InventoryHistoryPointDTO> points
+) {
+}
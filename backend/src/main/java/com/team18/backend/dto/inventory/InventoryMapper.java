@@ -1,12 +1,15 @@
 package com.team18.backend.dto.inventory;
 
+import com.team18.backend.dto.fields.FieldSelection;
 import com.team18.backend.dto.warehouse.WarehouseMapper;
 import com.team18.backend.model.Inventory;
 import com.team18.backend.model.Item;
 import com.team18.backend.model.Warehouse;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class InventoryMapper {
@@ -20,14 +23,36 @@ public class InventoryMapper {
     public InventoryResponseDTO toInventoryResponseDTO( Inventory inventory ) {
         return new InventoryResponseDTO(
                 inventory.getId(),
-                warehouseMapper.toWarehouseResponseDTO( inventory.getWarehouse() ),
+                inventory.getWarehouse() != null ? warehouseMapper.toWarehouseResponseDTO( inventory.getWarehouse() ) : null,
                 inventory.getItem(),
                 inventory.getQuantity(),
                 inventory.getCreatedDate(),
-                inventory.getLastModifiedDate()
+                inventory.getLastModifiedDate(),
+                inventory.getVersion()
         );
     }
 
+    /**
+     * Translates a selection of {@link InventoryResponseDTO} fields into the inventory document fields it is
+     * built from, including the fields of the referenced warehouse and item.
+     *
+     * @return dotted document field paths, or an empty set for all fields
+     */
+    public Set<String> toDocumentFields( FieldSelection fields ) {
+        Set<String> documentFields = new LinkedHashSet<>();
+        for ( String name : fields.names() ) {
+            FieldSelection nested = fields.get( name );
+            if ( name.equals( "warehouse" ) && !nested.isAll() ) {
+                warehouseMapper.toDocumentFields( nested ).forEach( path -> documentFields.add( name + "." + path ) );
+            } else if ( nested.isAll() ) {
+                documentFields.add( name );
+            } else {
+                nested.paths().forEach( path -> documentFields.add( name + "." + path ) );
+            }
+        }
+        return documentFields;
+    }
+
     public List<InventoryResponseDTO> toInventoryResponseDTOList( List<Inventory> inventoryList ) {
         return inventoryList.stream().map( this::toInventoryResponseDTO ).toList();
     }
@@ -50,6 +50,14 @@ public record InventoryResponseDTO(
                 nullable = false,
                 accessMode = Schema.AccessMode.READ_ONLY
         )
-        Instant lastModifiedDate
+        Instant lastModifiedDate,
+        @Schema(
+                description = "Version of the inventory row, incremented by every update. Send it as If-Match to update only this version.",
+                example = "3",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long version
 ) {
 }
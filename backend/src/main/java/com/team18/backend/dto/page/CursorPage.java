@@ -0,0 +1,53 @@
+package com.team18.backend.dto.page;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of a keyset paginated list.
+ * <p>
+ * The rows are returned as a plain JSON array so existing clients keep working; the opaque cursor of the
+ * next page is sent in the {@value #NEXT_CURSOR_HEADER} header and is absent on the last page.
+ *
+ * @param items      the rows of this page
+ * @param nextCursor the cursor of the next page, or {@code null} if this is the last page
+ */
+public record CursorPage<T>( List<T> items, String nextCursor ) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Builds a page from rows fetched with {@link CursorPageRequest#fetchSize()}.
+     *
+     * @param fetched  the fetched rows, ordered by id
+     * @param request  the page request the rows were fetched for
+     * @param idGetter extracts the id a cursor is built from
+     */
+    public static <T> CursorPage<T> of( List<T> fetched, CursorPageRequest request, Function<T, String> idGetter ) {
+        if ( fetched.size() <= request.limit() ) {
+            return new CursorPage<>( fetched, null );
+        }
+        List<T> items = fetched.subList( 0, request.limit() );
+        return new CursorPage<>( items, CursorPageRequest.encode( idGetter.apply( items.getLast() ) ) );
+    }
+
+    public <R> CursorPage<R> map( Function<T, R> mapper ) {
+        return new CursorPage<>( items.stream().map( mapper ).toList(), nextCursor );
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        return toResponseEntity( ResponseEntity.ok() );
+    }
+
+    /**
+     * Completes a response that already carries other headers, such as an ETag.
+     */
+    public ResponseEntity<List<T>> toResponseEntity( ResponseEntity.BodyBuilder response ) {
+        if ( nextCursor != null ) {
+            response.header( NEXT_CURSOR_HEADER, nextCursor );
+        }
+        return response.body( items );
+    }
+}
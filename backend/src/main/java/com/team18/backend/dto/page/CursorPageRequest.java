@@ -0,0 +1,69 @@
+package com.team18.backend.dto.page;
+
+import com.team18.backend.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset pagination request: at most {@code limit} rows whose {@code _id} is greater than {@code afterId}.
+ * <p>
+ * The cursor handed out to clients is opaque; it encodes the id of the last row of the previous page.
+ * Because pages are read with an indexed {@code _id > afterId} range instead of skip/offset, every page
+ * costs the same regardless of how deep into the collection it is.
+ *
+ * @param limit   the page size
+ * @param afterId the id of the last row of the previous page, or {@code null} for the first page
+ */
+public record CursorPageRequest( int limit, String afterId ) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * The most rows a list request without {@code limit} or {@code cursor} returns, for clients that expect the
+     * whole list. Longer lists are cut off and continue with the cursor in the next-cursor header.
+     */
+    public static final int UNPAGED_LIMIT = 5000;
+
+    /**
+     * Builds a page request from the raw {@code limit} and {@code cursor} query parameters.
+     *
+     * @throws InvalidPageRequestException if the limit is out of range or the cursor is malformed
+     */
+    public static CursorPageRequest of( Integer limit, String cursor ) throws InvalidPageRequestException {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if ( pageSize < 1 || pageSize > MAX_LIMIT ) {
+            throw new InvalidPageRequestException( "limit must be between 1 and " + MAX_LIMIT );
+        }
+        return new CursorPageRequest( pageSize, cursor != null && !cursor.isBlank() ? decode( cursor ) : null );
+    }
+
+    /**
+     * The page request of a list request without {@code limit} or {@code cursor}: the first
+     * {@value #UNPAGED_LIMIT} rows.
+     */
+    public static CursorPageRequest unpaged() {
+        return new CursorPageRequest( UNPAGED_LIMIT, null );
+    }
+
+    /**
+     * Number of rows to fetch: one more than the page size, so the presence of a next page is known
+     * without a count query.
+     */
+    public int fetchSize() {
+        return limit + 1;
+    }
+
+    static String encode( String id ) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( id.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static String decode( String cursor ) {
+        try {
+            return new String( Base64.getUrlDecoder().decode( cursor ), StandardCharsets.UTF_8 );
+        } catch ( IllegalArgumentException e ) {
+            throw new InvalidPageRequestException( "Invalid cursor: " + cursor );
+        }
+    }
+}
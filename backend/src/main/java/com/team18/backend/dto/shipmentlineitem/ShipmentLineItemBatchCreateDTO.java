@@ -0,0 +1,32 @@
+package com.team18.backend.dto.shipmentlineitem;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Line items to create for a single shipment")
+public record ShipmentLineItemBatchCreateDTO(
+        @NotNull(message = "ShipmentId is required")
+        @Schema(
+                description = "Related shipment entity",
+                accessMode = Schema.AccessMode.READ_WRITE,
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false
+        )
+        String shipmentId,
+        @NotEmpty(message = "At least one line item is required")
+        @Size(max = MAX_LINE_ITEMS, message = "At most " + MAX_LINE_ITEMS + " line items can be created at once")
+        @ArraySchema(
+                arraySchema = @Schema(description = "Line items of the shipment"),
+                maxItems = MAX_LINE_ITEMS
+        )
+        List<@Valid @NotNull ShipmentLineItemBatchLineDTO> lineItems
+) {
+
+    public static final int MAX_LINE_ITEMS = 1000;
+}
@@ -0,0 +1,25 @@
+package com.team18.backend.dto.shipmentlineitem;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-line outcome of a batch line item creation")
+public record ShipmentLineItemBatchResponseDTO(
+        @Schema(
+                description = "Number of line items created",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        int created,
+        @Schema(
+                description = "Number of lines that failed",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        int failed,
+        @Schema(
+                description = "One result per requested line, in request order",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        List<ShipmentLineItemBatchResultDTO> results
+) {
+}
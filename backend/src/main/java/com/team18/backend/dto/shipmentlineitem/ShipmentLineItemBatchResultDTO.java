@@ -0,0 +1,29 @@
+package com.team18.backend.dto.shipmentlineitem;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a single line of a batch line item creation")
+public record ShipmentLineItemBatchResultDTO(
+        @Schema(
+                description = "Position of the line in the request",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        int index,
+        @Schema(
+                description = "HTTP status of this line: 201 if created, 404 if its item does not exist",
+                example = "201",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        int status,
+        @Schema(
+                description = "The created line item, absent if the line failed",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        ShipmentLineItemResponseDTO lineItem,
+        @Schema(
+                description = "Why the line failed, absent if it was created",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        String error
+) {
+}
@@ -35,6 +35,15 @@ public class ShipmentLineItemMapper {
         );
     }
 
+    public ShipmentLineItem toShipmentLineItem( ShipmentLineItemBatchLineDTO line, Shipment shipment, Item item ) {
+        return new ShipmentLineItem(
+                shipment,
+                item,
+                line.expectedQuantity(),
+                line.receivedQuantity()
+        );
+    }
+
     public ShipmentLineItem toShipmentLineItem( ShipmentLineItem current, ShipmentLineItemUpdateDTO shipmentLineItemUpdateDTO, Shipment shipment, Item item ) {
         current.setShipment( shipment );
         current.setItem( item );
@@ -0,0 +1,23 @@
+package com.team18.backend.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Warehouse with its distance to the requested coordinate")
+public record NearestWarehouseResponseDTO(
+        @Schema(
+                description = "The warehouse",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        WarehouseResponseDTO warehouse,
+        @Schema(
+                description = "Distance to the requested coordinate in meters",
+                example = "1534.2",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        double distanceMeters
+) {
+}
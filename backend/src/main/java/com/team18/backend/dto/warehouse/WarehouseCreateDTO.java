@@ -2,6 +2,8 @@ package com.team18.backend.dto.warehouse;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,6 +26,8 @@ public record WarehouseCreateDTO(
         )
         String shopId,
         @Nullable
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
         @Schema(
                 description = "Latitude of the warehouse location",
                 example = "12.43424",
@@ -32,6 +36,8 @@ public record WarehouseCreateDTO(
         )
         Double lat,
         @Nullable
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
         @Schema(
                 description = "Longitude of the warehouse location",
                 example = "23.43424",
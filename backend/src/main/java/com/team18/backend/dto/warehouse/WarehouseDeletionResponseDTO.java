@@ -0,0 +1,34 @@
+package com.team18.backend.dto.warehouse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A deleted warehouse and the number of related documents deleted with it")
+public record WarehouseDeletionResponseDTO(
+        @Schema(description = "The id of the deleted warehouse", requiredMode = Schema.RequiredMode.REQUIRED, nullable = false)
+        String id,
+        @Schema(
+                description = "Number of deleted inventory rows of the warehouse",
+                example = "120",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long deletedInventories,
+        @Schema(
+                description = "Number of deleted shipments of the warehouse",
+                example = "8",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long deletedShipments,
+        @Schema(
+                description = "Number of deleted line items of those shipments",
+                example = "31",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long deletedShipmentLineItems
+) {
+}
@@ -1,14 +1,52 @@
 package com.team18.backend.dto.warehouse;
 
+import com.team18.backend.dto.fields.FieldSelection;
 import com.team18.backend.model.Shop;
 import com.team18.backend.model.Warehouse;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class WarehouseMapper {
 
+    /**
+     * Response fields that are computed from other document fields.
+     */
+    private static final Map<String, List<String>> COMPUTED_FIELDS = Map.of(
+            "utilization", List.of( "maxCapacity", "usedCapacity" ),
+            "geoLocation", List.of( "lat", "lng" ),
+            "address", List.of( "street", "number", "city", "postalCode", "state", "country" )
+    );
+
+    /**
+     * Translates a selection of {@link WarehouseResponseDTO} fields into the warehouse document fields it is
+     * built from.
+     *
+     * @return dotted document field paths, or an empty set for all fields
+     */
+    public Set<String> toDocumentFields( FieldSelection fields ) {
+        Set<String> documentFields = new LinkedHashSet<>();
+        for ( String name : fields.names() ) {
+            FieldSelection nested = fields.get( name );
+            if ( name.equals( "address" ) && !nested.isAll() ) {
+                // the address fields are stored flat on the warehouse
+                documentFields.addAll( nested.names() );
+            } else if ( COMPUTED_FIELDS.containsKey( name ) ) {
+                documentFields.addAll( COMPUTED_FIELDS.get( name ) );
+            } else if ( nested.isAll() ) {
+                documentFields.add( name );
+            } else {
+                nested.paths().forEach( path -> documentFields.add( name + "." + path ) );
+            }
+        }
+        return documentFields;
+    }
+
     public WarehouseResponseDTO toWarehouseResponseDTO( Warehouse warehouse ) {
         return new WarehouseResponseDTO(
                 warehouse.getId(),
@@ -22,7 +60,9 @@ public class WarehouseMapper {
                 warehouse.getPostalCode(),
                 warehouse.getState(),
                 warehouse.getCountry(),
-                warehouse.getMaxCapacity()
+                warehouse.getMaxCapacity(),
+                warehouse.getUsedCapacity(),
+                warehouse.getVersion()
         );
     }
 
@@ -46,20 +86,30 @@ public class WarehouseMapper {
         );
     }
 
-    public Warehouse toWarehouse( Warehouse warehouse, WarehouseUpdateDTO warehouseUpdateDTO, Shop shop ) {
-        return new Warehouse(
-                warehouse.getId(),
-                warehouseUpdateDTO.name() != null ? warehouseUpdateDTO.name() : warehouse.getName(),
-                shop != null ? shop : warehouse.getShop(),
-                warehouseUpdateDTO.lat() != null ? warehouseUpdateDTO.lat() : warehouse.getLat(),
-                warehouseUpdateDTO.lng() != null ? warehouseUpdateDTO.lng() : warehouse.getLng(),
-                warehouseUpdateDTO.street() != null ? warehouseUpdateDTO.street() : warehouse.getStreet(),
-                warehouseUpdateDTO.number() != null ? warehouseUpdateDTO.number() : warehouse.getNumber(),
-                warehouseUpdateDTO.city() != null ? warehouseUpdateDTO.city() : warehouse.getCity(),
-                warehouseUpdateDTO.postalCode() != null ? warehouseUpdateDTO.postalCode() : warehouse.getPostalCode(),
-                warehouseUpdateDTO.state() != null ? warehouseUpdateDTO.state() : warehouse.getState(),
-                warehouseUpdateDTO.country() != null ? warehouseUpdateDTO.country() : warehouse.getCountry(),
-                warehouseUpdateDTO.maxCapacity() != null ? warehouseUpdateDTO.maxCapacity() : warehouse.getMaxCapacity()
-        );
+    /**
+     * Collects the warehouse document fields a partial update changes, i.e. the fields set in the DTO.
+     *
+     * @param shop the shop to reference, or {@code null} to keep the current one
+     */
+    public Map<String, Object> toDocumentChanges( WarehouseUpdateDTO warehouseUpdateDTO, Shop shop ) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfSet( changes, "name", warehouseUpdateDTO.name() );
+        putIfSet( changes, "shop", shop );
+        putIfSet( changes, "lat", warehouseUpdateDTO.lat() );
+        putIfSet( changes, "lng", warehouseUpdateDTO.lng() );
+        putIfSet( changes, "street", warehouseUpdateDTO.street() );
+        putIfSet( changes, "number", warehouseUpdateDTO.number() );
+        putIfSet( changes, "city", warehouseUpdateDTO.city() );
+        putIfSet( changes, "postalCode", warehouseUpdateDTO.postalCode() );
+        putIfSet( changes, "state", warehouseUpdateDTO.state() );
+        putIfSet( changes, "country", warehouseUpdateDTO.country() );
+        putIfSet( changes, "maxCapacity", warehouseUpdateDTO.maxCapacity() );
+        return changes;
+    }
+
+    private static void putIfSet( Map<String, Object> changes, String field, Object value ) {
+        if ( value != null ) {
+            changes.put( field, value );
+        }
     }
 }
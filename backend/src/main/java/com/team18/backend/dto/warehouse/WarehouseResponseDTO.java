@@ -53,9 +53,35 @@ public record WarehouseResponseDTO(
                 nullable = false,
                 minimum = "1"
         )
-        Integer maxCapacity
+        Integer maxCapacity,
+        @Schema(
+                description = "Sum of all inventory quantities stored in the warehouse",
+                example = "1500",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long usedCapacity,
+        @Schema(
+                description = "Version of the warehouse, incremented by every update of its details. Send it as If-Match to update only this version.",
+                example = "3",
+                requiredMode = Schema.RequiredMode.REQUIRED,
+                nullable = false,
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        long version
 ) {
 
+    @Schema(
+            description = "Used capacity as a fraction of the maximum capacity",
+            example = "0.42",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    public double getUtilization() {
+        if ( maxCapacity == null || maxCapacity == 0 ) return 0.0;
+        return (double) usedCapacity / maxCapacity;
+    }
+
     @Schema(
             description = "The geographic location as [lat, lng]",
             example = "[12.3223213, 23.2133123]",
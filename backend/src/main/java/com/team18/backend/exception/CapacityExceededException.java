@@ -0,0 +1,10 @@
+package com.team18.backend.exception;
+
+/**
+ * Storing the requested quantity would exceed the maximum capacity of a warehouse.
+ */
+public class CapacityExceededException extends ConflictException {
+    public CapacityExceededException( String message ) {
+        super( message );
+    }
+}
@@ -0,0 +1,10 @@
+package com.team18.backend.exception;
+
+/**
+ * The database does not support change streams, which need a replica set or a sharded cluster.
+ */
+public class ChangeStreamUnavailableException extends RuntimeException {
+    public ChangeStreamUnavailableException( String message ) {
+        super( message );
+    }
+}
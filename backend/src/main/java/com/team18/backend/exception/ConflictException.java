@@ -0,0 +1,10 @@
+package com.team18.backend.exception;
+
+/**
+ * The request cannot be applied to the current state of the resource.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException( String message ) {
+        super( message );
+    }
+}
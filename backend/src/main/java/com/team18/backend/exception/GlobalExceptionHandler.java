@@ -1,11 +1,16 @@
 package com.team18.backend.exception;
 
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 import java.util.List;
@@ -72,6 +77,51 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>( errorResponse, HttpStatus.CONFLICT );
     }
 
+    /**
+     * Handle ConflictException - returns 409 Conflict
+     * Occurs when a request conflicts with the current state, e.g. a receipt exceeding warehouse capacity
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException( ConflictException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.CONFLICT );
+    }
+
+    /**
+     * Handle OptimisticLockingFailureException - returns 409 Conflict
+     * Occurs when a versioned entity was saved concurrently, the client should reload and retry
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException( OptimisticLockingFailureException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "The resource was modified concurrently, please retry",
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.CONFLICT );
+    }
+
+    /**
+     * Handle PreconditionFailedException - returns 412 Precondition Failed
+     * Occurs when the If-Match header of an update names an outdated version of the resource
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException( PreconditionFailedException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.PRECONDITION_FAILED );
+    }
+
     /**
      * Handle ResourceNotFoundException - returns 404 Not Found
      */
@@ -100,6 +150,131 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
     }
 
+    /**
+     * Handle WorkQueueFullException - returns 503 Service Unavailable
+     * Occurs when a bounded background queue is full, the client should retry later
+     */
+    @ExceptionHandler(WorkQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleWorkQueueFullException( WorkQueueFullException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                Instant.now()
+        );
+        return ResponseEntity.status( HttpStatus.SERVICE_UNAVAILABLE )
+                .header( HttpHeaders.RETRY_AFTER, "1" )
+                .body( errorResponse );
+    }
+
+    /**
+     * Handle InvalidPageRequestException - returns 400 Bad Request
+     */
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageRequestException( InvalidPageRequestException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Handle InvalidStatusChangeException - returns 400 Bad Request
+     */
+    @ExceptionHandler(InvalidStatusChangeException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidStatusChangeException( InvalidStatusChangeException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Handle InvalidHistoryRequestException - returns 400 Bad Request
+     */
+    @ExceptionHandler(InvalidHistoryRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidHistoryRequestException( InvalidHistoryRequestException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Handle ChangeStreamUnavailableException - returns 503 Service Unavailable
+     * Occurs when an event stream is requested but the database does not support change streams
+     */
+    @ExceptionHandler(ChangeStreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleChangeStreamUnavailableException( ChangeStreamUnavailableException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                Instant.now()
+        );
+        // the client accepts text/event-stream only, so the JSON content type has to be set explicitly
+        return ResponseEntity.status( HttpStatus.SERVICE_UNAVAILABLE )
+                .contentType( MediaType.APPLICATION_JSON )
+                .body( errorResponse );
+    }
+
+    /**
+     * Handle InvalidFieldSelectionException - returns 400 Bad Request
+     */
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFieldSelectionException( InvalidFieldSelectionException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Handle MethodArgumentTypeMismatchException - returns 400 Bad Request for unparsable request parameters
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException( MethodArgumentTypeMismatchException ex ) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'",
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
+    /**
+     * Handle HandlerMethodValidationException - returns 400 Bad Request for request parameters violating their constraints
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidationException( HandlerMethodValidationException ex ) {
+        String message = ex.getParameterValidationResults().stream()
+                .flatMap( result -> result.getResolvableErrors().stream().map( error ->
+                        "Invalid value for parameter '" + result.getMethodParameter().getParameterName() + "': " + error.getDefaultMessage()
+                ) )
+                .collect( Collectors.joining( "; " ) );
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                message,
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                Instant.now()
+        );
+        return new ResponseEntity<>( errorResponse, HttpStatus.BAD_REQUEST );
+    }
+
     /**
      * Handle generic runtime exceptions.
      * Returns a generic error response without exposing internal details.
@@ -0,0 +1,10 @@
+package com.team18.backend.exception;
+
+/**
+ * The {@code fields} parameter names a field the response does not have, or is malformed.
+ */
+public class InvalidFieldSelectionException extends RuntimeException {
+    public InvalidFieldSelectionException( String message ) {
+        super( message );
+    }
+}
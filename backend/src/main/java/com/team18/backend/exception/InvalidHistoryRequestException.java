@@ -0,0 +1,7 @@
+package com.team18.backend.exception;
+
+public class InvalidHistoryRequestException extends RuntimeException {
+    public InvalidHistoryRequestException( String message ) {
+        super( message );
+    }
+}
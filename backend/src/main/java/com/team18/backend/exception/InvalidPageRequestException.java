@@ -0,0 +1,7 @@
+package com.team18.backend.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException( String message ) {
+        super( message );
+    }
+}
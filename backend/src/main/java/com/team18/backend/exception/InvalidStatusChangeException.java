@@ -0,0 +1,7 @@
+package com.team18.backend.exception;
+
+public class InvalidStatusChangeException extends RuntimeException {
+    public InvalidStatusChangeException( String message ) {
+        super( message );
+    }
+}
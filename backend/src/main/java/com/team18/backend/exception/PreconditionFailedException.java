@@ -0,0 +1,11 @@
+package com.team18.backend.exception;
+
+/**
+ * The {@code If-Match} header of a request does not match the current version of the resource, which was
+ * changed since the client read it.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException( String message ) {
+        super( message );
+    }
+}
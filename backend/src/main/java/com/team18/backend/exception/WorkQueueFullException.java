@@ -0,0 +1,10 @@
+package com.team18.backend.exception;
+
+/**
+ * A bounded work queue cannot take more work right now. The request can be retried later.
+ */
+public class WorkQueueFullException extends RuntimeException {
+    public WorkQueueFullException( String message ) {
+        super( message );
+    }
+}
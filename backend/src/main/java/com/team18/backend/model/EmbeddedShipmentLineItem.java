@@ -0,0 +1,65 @@
+package com.team18.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.time.Instant;
+
+/**
+ * A line item as it is stored inside its {@link Shipment} document when line items are embedded, see
+ * {@code app.shipment-line-items.storage}. It has the same id and fields as a {@link ShipmentLineItem} document
+ * without the back reference to the shipment, and only keeps the id of its item.
+ */
+public class EmbeddedShipmentLineItem {
+
+    @Id
+    private String id;
+
+    @Field(targetType = FieldType.OBJECT_ID)
+    private String item;
+
+    private Integer expectedQuantity;
+
+    private Integer receivedQuantity;
+
+    private Instant createdDate;
+
+    private Instant lastModifiedDate;
+
+    public EmbeddedShipmentLineItem() {
+    }
+
+    public EmbeddedShipmentLineItem( String id, String item, Integer expectedQuantity, Integer receivedQuantity, Instant createdDate, Instant lastModifiedDate ) {
+        this.id = id;
+        this.item = item;
+        this.expectedQuantity = expectedQuantity;
+        this.receivedQuantity = receivedQuantity;
+        this.createdDate = createdDate;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public Integer getExpectedQuantity() {
+        return expectedQuantity;
+    }
+
+    public Integer getReceivedQuantity() {
+        return receivedQuantity;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+}
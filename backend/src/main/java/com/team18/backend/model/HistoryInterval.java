@@ -0,0 +1,36 @@
+package com.team18.backend.model;
+
+import java.time.Duration;
+
+/**
+ * The length of the buckets a history is downsampled to. Buckets start at the beginning of the hour, day,
+ * ISO week or month in UTC.
+ */
+public enum HistoryInterval {
+    HOUR( "hour", Duration.ofHours( 1 ) ),
+    DAY( "day", Duration.ofDays( 1 ) ),
+    WEEK( "week", Duration.ofDays( 7 ) ),
+    MONTH( "month", Duration.ofDays( 31 ) );
+
+    private final String unit;
+    private final Duration maxLength;
+
+    HistoryInterval( String unit, Duration maxLength ) {
+        this.unit = unit;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the {@code unit} of {@code $dateTrunc} for this interval
+     */
+    public String unit() {
+        return unit;
+    }
+
+    /**
+     * @return the number of buckets of this interval that cover the given range, at least
+     */
+    public long bucketsIn( Duration range ) {
+        return Math.ceilDiv( range.toMillis(), maxLength.toMillis() );
+    }
+}
@@ -2,12 +2,17 @@ package com.team18.backend.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 import java.time.Instant;
 
 @Document(value = "inventory")
+@CompoundIndex(name = "warehouse_item", def = "{'warehouse': 1, 'item': 1}", unique = true)
+@CompoundIndex(name = "warehouse_lastModifiedDate", def = "{'warehouse': 1, 'lastModifiedDate': -1}")
 public class Inventory extends BaseModel {
 
     @Schema(
@@ -24,6 +29,7 @@ public class Inventory extends BaseModel {
             nullable = false
     )
     @DocumentReference
+    @Indexed
     private Item item;
 
     @Schema(
@@ -35,6 +41,12 @@ public class Inventory extends BaseModel {
     )
     private int quantity;
 
+    /**
+     * See {@link com.team18.backend.repository.support.Versions}.
+     */
+    @Version
+    private Long version;
+
     @PersistenceCreator
     public Inventory( String id, Warehouse warehouse, Item item, int quantity, Instant createdDate, Instant lastModifiedDate ) {
         super( id, createdDate, lastModifiedDate );
@@ -65,10 +77,18 @@ public class Inventory extends BaseModel {
         return warehouse;
     }
 
+    public void setWarehouse( Warehouse warehouse ) {
+        this.warehouse = warehouse;
+    }
+
     public Item getItem() {
         return item;
     }
 
+    public void setItem( Item item ) {
+        this.item = item;
+    }
+
     public int getQuantity() {
         return quantity;
     }
@@ -76,4 +96,8 @@ public class Inventory extends BaseModel {
     public void setQuantity( int quantity ) {
         this.quantity = quantity;
     }
+
+    public long getVersion() {
+        return version != null ? version : 0;
+    }
 }
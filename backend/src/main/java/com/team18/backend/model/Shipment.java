@@ -1,17 +1,21 @@
 package com.team18.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Document(collection = "shipments")
 @Schema(description = "Shipment entity")
-@CompoundIndex(def = "{'warehouse.$id': 1, 'status': 1}")
+@CompoundIndex(def = "{'warehouse': 1, 'status': 1, 'expectedArrivalDate': 1}")
+@CompoundIndex(def = "{'lineItems._id': 1}", sparse = true)
 public class Shipment extends BaseModel {
 
     @NotNull(message = "Warehouse is required")
@@ -40,6 +44,19 @@ public class Shipment extends BaseModel {
     )
     private ShipmentStatus status;
 
+    /**
+     * Line items of this shipment when they are stored embedded, see {@code app.shipment-line-items.storage}.
+     * Not written when line items are stored in their own collection.
+     */
+    @JsonIgnore
+    private List<EmbeddedShipmentLineItem> lineItems;
+
+    /**
+     * See {@link com.team18.backend.repository.support.Versions}.
+     */
+    @Version
+    private Long version;
+
     public Shipment() {
         super( null );
     }
@@ -78,5 +95,12 @@ public class Shipment extends BaseModel {
     public void setStatus( ShipmentStatus status ) {
         this.status = status;
     }
-}
 
+    public List<EmbeddedShipmentLineItem> getLineItems() {
+        return lineItems != null ? lineItems : List.of();
+    }
+
+    public long getVersion() {
+        return version != null ? version : 0;
+    }
+}
@@ -3,6 +3,7 @@ package com.team18.backend.model;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
@@ -14,6 +15,7 @@ public class ShipmentLineItem extends BaseModel {
 
     @NotNull(message = "Shipment is required")
     @DocumentReference
+    @Indexed
     @Schema(
             description = "Related shipment entity",
             requiredMode = Schema.RequiredMode.REQUIRED,
@@ -1,9 +1,36 @@
 package com.team18.backend.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum ShipmentStatus {
     ORDERED,
     PROCESSED,
     IN_DELIVERY,
-    COMPLETED
-}
+    COMPLETED;
+
+    /**
+     * The statuses a shipment may be in to be set to a status. {@code COMPLETED} is final, because completing a
+     * shipment receives its line items into the inventory.
+     */
+    private static final Map<ShipmentStatus, Set<ShipmentStatus>> ALLOWED_SOURCES = new EnumMap<>( Map.of(
+            ORDERED, EnumSet.of( ORDERED, PROCESSED, IN_DELIVERY ),
+            PROCESSED, EnumSet.of( ORDERED, PROCESSED, IN_DELIVERY ),
+            IN_DELIVERY, EnumSet.of( ORDERED, PROCESSED, IN_DELIVERY ),
+            COMPLETED, EnumSet.of( ORDERED, PROCESSED, IN_DELIVERY )
+    ) );
 
+    /**
+     * @return the statuses from which a shipment may be set to this status
+     */
+    public Set<ShipmentStatus> allowedSources() {
+        return Collections.unmodifiableSet( ALLOWED_SOURCES.get( this ) );
+    }
+
+    public boolean canTransitionFrom( ShipmentStatus source ) {
+        return allowedSources().contains( source );
+    }
+}
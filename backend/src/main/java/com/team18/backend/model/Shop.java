@@ -3,10 +3,12 @@ package com.team18.backend.model;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "shops")
+@CompoundIndex(name = "lastModifiedDate", def = "{'lastModifiedDate': -1}")
 @Schema(description = "Shop entity")
 public class Shop extends BaseModel {
 
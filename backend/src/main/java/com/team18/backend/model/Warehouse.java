@@ -1,7 +1,13 @@
 package com.team18.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -10,6 +16,7 @@ import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import java.time.Instant;
 
 @Document(value = "warehouses")
+@CompoundIndex(name = "lastModifiedDate", def = "{'lastModifiedDate': -1}")
 public class Warehouse extends BaseModel {
 
     @Indexed(unique = true)
@@ -47,6 +54,14 @@ public class Warehouse extends BaseModel {
     )
     private Double lng;
 
+    /**
+     * {@link #lat} and {@link #lng} as a GeoJSON point for {@code $geoNear} queries; {@code null} while
+     * either coordinate is missing.
+     */
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
     @Schema(
             description = "Street name",
             example = "Sonnenallee",
@@ -104,6 +119,23 @@ public class Warehouse extends BaseModel {
     )
     private int maxCapacity;
 
+    /**
+     * Sum of the inventory quantities stored in this warehouse. Only changed with atomic increments through
+     * {@code WarehouseRepositoryCustom#adjustUsedCapacity}, never written by a whole-document save.
+     */
+    @Schema(
+            description = "Sum of all inventory quantities stored in the warehouse",
+            example = "1500",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private long usedCapacity;
+
+    /**
+     * See {@link com.team18.backend.repository.support.Versions}.
+     */
+    @Version
+    private Long version;
+
 
     @PersistenceCreator
     public Warehouse(
@@ -127,6 +159,7 @@ public class Warehouse extends BaseModel {
         this.shop = shop;
         this.lat = lat;
         this.lng = lng;
+        this.location = toLocation( lat, lng );
         this.street = street;
         this.number = number;
         this.city = city;
@@ -158,6 +191,7 @@ public class Warehouse extends BaseModel {
         this.shop = shop;
         this.lat = lat;
         this.lng = lng;
+        this.location = toLocation( lat, lng );
         this.street = street;
         this.number = number;
         this.city = city;
@@ -186,6 +220,7 @@ public class Warehouse extends BaseModel {
         this.shop = shop;
         this.lat = lat;
         this.lng = lng;
+        this.location = toLocation( lat, lng );
         this.street = street;
         this.number = number;
         this.city = city;
@@ -195,10 +230,21 @@ public class Warehouse extends BaseModel {
         this.maxCapacity = maxCapacity;
     }
 
+    /**
+     * GeoJSON points are ordered longitude first.
+     */
+    public static GeoJsonPoint toLocation( Double lat, Double lng ) {
+        return lat != null && lng != null ? new GeoJsonPoint( lng, lat ) : null;
+    }
+
     public Shop getShop() {
         return shop;
     }
 
+    public void setShop( Shop shop ) {
+        this.shop = shop;
+    }
+
     public Double getLat() {
         return lat;
     }
@@ -207,6 +253,10 @@ public class Warehouse extends BaseModel {
         return lng;
     }
 
+    public GeoJsonPoint getLocation() {
+        return location;
+    }
+
     public String getStreet() {
         return street;
     }
@@ -235,6 +285,14 @@ public class Warehouse extends BaseModel {
         return maxCapacity;
     }
 
+    public long getUsedCapacity() {
+        return usedCapacity;
+    }
+
+    public long getVersion() {
+        return version != null ? version : 0;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,183 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.HistoryInterval;
+import org.bson.Document;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+
+/**
+ * Stores {@link InventoryLevel}s in the {@code inventoryHistory} time-series collection. MongoDB groups the
+ * entries of one warehouse and item into buckets by time, so the history stays compact and reading a time range
+ * of a series only touches the buckets that overlap it.
+ * <p>
+ * The collection is created on the first write, because an insert into a missing collection would create a
+ * regular one. Entries are only ever inserted.
+ */
+@Repository
+public class InventoryHistoryRepository {
+
+    public static final String COLLECTION = "inventoryHistory";
+
+    private static final String TIMESTAMP = "timestamp";
+    private static final String META = "meta";
+
+    private final MongoTemplate mongoTemplate;
+    private volatile boolean collectionReady;
+
+    public InventoryHistoryRepository( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void insertAll( List<InventoryLevel> levels ) {
+        if ( levels.isEmpty() ) {
+            return;
+        }
+        createCollectionIfAbsent();
+        mongoTemplate.getCollection( COLLECTION ).insertMany( levels.stream().map( InventoryHistoryRepository::toDocument ).toList() );
+    }
+
+    /**
+     * Downsamples the history of every warehouse and item in scope to one bucket per interval in one
+     * aggregation. Every filter is optional, but at least one should be given.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return the buckets with at least one change, ordered by warehouse, item and start
+     */
+    public List<InventoryLevelBucket> findBuckets(
+            String shopId, String warehouseId, String itemId, Instant from, Instant to, HistoryInterval interval
+    ) {
+        Document match = scope( shopId, warehouseId, itemId )
+                .append( TIMESTAMP, new Document( "$gte", Date.from( from ) ).append( "$lt", Date.from( to ) ) );
+        Document bucket = new Document( "warehouse", "$" + META + ".warehouse" )
+                .append( "item", "$" + META + ".item" )
+                .append( "start", new Document( "$dateTrunc", new Document( "date", "$" + TIMESTAMP )
+                        .append( "unit", interval.unit() )
+                        .append( "timezone", "UTC" ) ) );
+
+        List<InventoryLevelBucket> buckets = new ArrayList<>();
+        mongoTemplate.getCollection( COLLECTION ).aggregate( List.of(
+                new Document( "$match", match ),
+                new Document( "$sort", new Document( TIMESTAMP, 1 ) ),
+                new Document( "$group", new Document( "_id", bucket )
+                        .append( "quantity", new Document( "$last", "$quantity" ) )
+                        .append( "minQuantity", new Document( "$min", "$quantity" ) )
+                        .append( "maxQuantity", new Document( "$max", "$quantity" ) )
+                        .append( "change", new Document( "$sum", "$change" ) )
+                        .append( "changes", new Document( "$sum", 1 ) ) ),
+                new Document( "$sort", new Document( "_id.warehouse", 1 ).append( "_id.item", 1 ).append( "_id.start", 1 ) )
+        ) ).allowDiskUse( true ).forEach( document -> {
+            Document id = document.get( "_id", Document.class );
+            buckets.add( new InventoryLevelBucket(
+                    String.valueOf( id.get( "warehouse" ) ),
+                    String.valueOf( id.get( "item" ) ),
+                    id.getDate( "start" ).toInstant(),
+                    document.get( "quantity", Number.class ).intValue(),
+                    document.get( "minQuantity", Number.class ).intValue(),
+                    document.get( "maxQuantity", Number.class ).intValue(),
+                    document.get( "change", Number.class ).intValue(),
+                    document.get( "changes", Number.class ).intValue()
+            ) );
+        } );
+        return buckets;
+    }
+
+    /**
+     * Reads the last level of every warehouse and item in scope before the given instant, which is the quantity
+     * it had at that instant.
+     *
+     * @return one level per series with a change before the instant
+     */
+    public List<InventoryLevel> findLastLevelsBefore( String shopId, String warehouseId, String itemId, Instant before ) {
+        Document match = scope( shopId, warehouseId, itemId ).append( TIMESTAMP, new Document( "$lt", Date.from( before ) ) );
+        Document series = new Document( "warehouse", "$" + META + ".warehouse" ).append( "item", "$" + META + ".item" );
+
+        List<InventoryLevel> levels = new ArrayList<>();
+        mongoTemplate.getCollection( COLLECTION ).aggregate( List.of(
+                new Document( "$match", match ),
+                new Document( "$sort", new Document( TIMESTAMP, -1 ) ),
+                new Document( "$group", new Document( "_id", series )
+                        .append( "last", new Document( "$first", "$$ROOT" ) ) )
+        ) ).allowDiskUse( true ).forEach( document -> levels.add( toLevel( document.get( "last", Document.class ) ) ) );
+        return levels;
+    }
+
+    /**
+     * Creates the time-series collection and the indexes of the supported filters, unless it exists.
+     * Concurrent creation by another instance is tolerated.
+     */
+    public void createCollectionIfAbsent() {
+        if ( collectionReady ) {
+            return;
+        }
+        synchronized ( this ) {
+            if ( collectionReady ) {
+                return;
+            }
+            if ( !mongoTemplate.collectionExists( COLLECTION ) ) {
+                try {
+                    mongoTemplate.createCollection( COLLECTION, CollectionOptions.empty().timeSeries(
+                            CollectionOptions.TimeSeriesOptions.timeSeries( TIMESTAMP )
+                                    .metaField( META )
+                                    .granularity( Granularity.HOURS )
+                    ) );
+                } catch ( DataAccessException e ) {
+                    // another instance created it in between
+                    if ( !mongoTemplate.collectionExists( COLLECTION ) ) throw e;
+                }
+            }
+            IndexOperations indexes = mongoTemplate.indexOps( COLLECTION );
+            indexes.createIndex( new Index().on( META + ".warehouse", Sort.Direction.ASC ).on( META + ".item", Sort.Direction.ASC )
+                    .on( TIMESTAMP, Sort.Direction.ASC ) );
+            indexes.createIndex( new Index().on( META + ".item", Sort.Direction.ASC ).on( TIMESTAMP, Sort.Direction.ASC ) );
+            indexes.createIndex( new Index().on( META + ".shop", Sort.Direction.ASC ).on( TIMESTAMP, Sort.Direction.ASC ) );
+            collectionReady = true;
+        }
+    }
+
+    private static Document scope( String shopId, String warehouseId, String itemId ) {
+        Document scope = new Document();
+        if ( shopId != null ) scope.append( META + ".shop", toStoreId( shopId ) );
+        if ( warehouseId != null ) scope.append( META + ".warehouse", toStoreId( warehouseId ) );
+        if ( itemId != null ) scope.append( META + ".item", toStoreId( itemId ) );
+        return scope;
+    }
+
+    private static InventoryLevel toLevel( Document document ) {
+        Document meta = document.get( META, Document.class );
+        Object shop = meta.get( "shop" );
+        return new InventoryLevel(
+                document.getDate( TIMESTAMP ).toInstant(),
+                shop != null ? shop.toString() : null,
+                String.valueOf( meta.get( "warehouse" ) ),
+                String.valueOf( meta.get( "item" ) ),
+                document.get( "quantity", Number.class ).intValue(),
+                document.get( "change", Number.class ).intValue()
+        );
+    }
+
+    private static Document toDocument( InventoryLevel level ) {
+        Document meta = new Document( "warehouse", toStoreId( level.warehouseId() ) )
+                .append( "item", toStoreId( level.itemId() ) );
+        if ( level.shopId() != null ) {
+            meta.append( "shop", toStoreId( level.shopId() ) );
+        }
+        return new Document( TIMESTAMP, Date.from( level.timestamp() ) )
+                .append( META, meta )
+                .append( "quantity", level.quantity() )
+                .append( "change", level.change() );
+    }
+}
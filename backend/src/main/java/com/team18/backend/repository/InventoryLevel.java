@@ -0,0 +1,14 @@
+package com.team18.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * One entry of the inventory history: the quantity of an item in a warehouse right after it changed.
+ *
+ * @param timestamp when the quantity changed
+ * @param shopId    the shop the warehouse belonged to at that time, or {@code null} if unknown
+ * @param quantity  the quantity after the change, {@code 0} once the row was deleted
+ * @param change    how much the change added to the quantity, negative for removals
+ */
+public record InventoryLevel( Instant timestamp, String shopId, String warehouseId, String itemId, int quantity, int change ) {
+}
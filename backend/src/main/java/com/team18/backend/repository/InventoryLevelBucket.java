@@ -0,0 +1,25 @@
+package com.team18.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * The inventory history of an item in a warehouse within one bucket of a downsampled series.
+ *
+ * @param start       the start of the bucket
+ * @param quantity    the quantity at the end of the bucket, after its last change
+ * @param minQuantity the lowest quantity reached by a change in the bucket
+ * @param maxQuantity the highest quantity reached by a change in the bucket
+ * @param change      the sum of all changes in the bucket
+ * @param changes     the number of changes in the bucket
+ */
+public record InventoryLevelBucket(
+        String warehouseId,
+        String itemId,
+        Instant start,
+        int quantity,
+        int minQuantity,
+        int maxQuantity,
+        int change,
+        int changes
+) {
+}
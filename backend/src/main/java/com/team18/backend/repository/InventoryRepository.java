@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends MongoRepository<Inventory, String> {
+public interface InventoryRepository extends MongoRepository<Inventory, String>, InventoryRepositoryCustom {
     Optional<List<Inventory>> findAllByWarehouse_Id( String warehouseId );
 
     Optional<List<Inventory>> findAllByItem_Id( String itemId );
@@ -0,0 +1,92 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.Inventory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Inventory queries that resolve the warehouse, shop and item references of the
+ * whole result set in batches instead of one lookup per row, and bulk quantity updates.
+ */
+public interface InventoryRepositoryCustom {
+
+    /**
+     * Streams all rows with a server-side cursor. The stream must be closed to release the cursor.
+     */
+    Stream<Inventory> streamAllResolved();
+
+    /**
+     * Reads one keyset page ordered by id.
+     *
+     * @param afterId the id of the last row of the previous page, or {@code null} for the first page
+     * @param limit   the maximum number of rows to read
+     */
+    List<Inventory> findPageResolved( String afterId, int limit );
+
+    /**
+     * Reads only the given document fields, see {@link com.team18.backend.repository.support.DocumentReferenceResolver#findInventory(org.springframework.data.mongodb.core.query.Query, Set)}.
+     *
+     * @param fields dotted document field paths, or an empty set for all fields
+     */
+    List<Inventory> findPageResolved( String afterId, int limit, Set<String> fields );
+
+    List<Inventory> findAllResolvedByWarehouseId( String warehouseId );
+
+    List<Inventory> findAllResolvedByWarehouseId( String warehouseId, Set<String> fields );
+
+    List<Inventory> findAllResolvedByItemId( String itemId );
+
+    List<Inventory> findAllResolvedByItemId( String itemId, Set<String> fields );
+
+    Optional<Inventory> findResolvedByWarehouseIdAndItemId( String warehouseId, String itemId );
+
+    /**
+     * Inserts the row for the given warehouse and item.
+     *
+     * @return the new row, or empty if a row for the pair already exists
+     */
+    Optional<Inventory> insertIfAbsent( String warehouseId, String itemId, int quantity );
+
+    /**
+     * Replaces warehouse, item and quantity of a row, but only if it still has the version of
+     * {@code expected}. This lets callers that keep derived counters know the exact change they applied.
+     *
+     * @return the updated row, or empty if the row was changed or deleted concurrently
+     */
+    Optional<Inventory> updateIfUnchanged( Inventory expected, String warehouseId, String itemId, int quantity );
+
+    /**
+     * Deletes a row and returns it as it was at the moment of deletion.
+     */
+    Optional<Inventory> removeById( String id );
+
+    /**
+     * Adds the given quantities to the inventory of a warehouse in a single ordered bulk write, creating rows
+     * for items the warehouse does not stock yet. Every row is incremented on the server, so concurrent
+     * receipts for the same warehouse never overwrite each other. If a write of the bulk fails, the writes
+     * applied before it are undone before the {@link org.springframework.data.mongodb.BulkOperationException}
+     * is thrown, so a failed receipt received nothing.
+     *
+     * @param quantitiesByItemId quantity to add, keyed by item id
+     */
+    void incrementQuantities( String warehouseId, Map<String, Integer> quantitiesByItemId );
+
+    /**
+     * Reads only the quantities of the given items in a warehouse, without resolving references.
+     *
+     * @return the quantities keyed by item id, missing for items the warehouse does not stock
+     */
+    Map<String, Integer> findQuantitiesByWarehouseId( String warehouseId, Collection<String> itemIds );
+
+    /**
+     * Deletes all rows of a warehouse with a single query, without reading them.
+     *
+     * @return the number of deleted rows
+     */
+    long deleteAllByWarehouseId( String warehouseId );
+}
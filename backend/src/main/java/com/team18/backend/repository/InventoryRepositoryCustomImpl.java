@@ -0,0 +1,217 @@
+package com.team18.backend.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.repository.support.DocumentReferenceResolver;
+import com.team18.backend.repository.support.Versions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreIds;
+
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final DocumentReferenceResolver resolver;
+
+    public InventoryRepositoryCustomImpl( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+        this.resolver = new DocumentReferenceResolver( mongoTemplate );
+    }
+
+    @Override
+    public Stream<Inventory> streamAllResolved() {
+        return resolver.streamInventory( new Query() );
+    }
+
+    @Override
+    public List<Inventory> findPageResolved( String afterId, int limit ) {
+        return findPageResolved( afterId, limit, Set.of() );
+    }
+
+    @Override
+    public List<Inventory> findPageResolved( String afterId, int limit, Set<String> fields ) {
+        return resolver.findInventory( DocumentReferenceResolver.pageQuery( afterId, limit ), fields );
+    }
+
+    @Override
+    public List<Inventory> findAllResolvedByWarehouseId( String warehouseId ) {
+        return findAllResolvedByWarehouseId( warehouseId, Set.of() );
+    }
+
+    @Override
+    public List<Inventory> findAllResolvedByWarehouseId( String warehouseId, Set<String> fields ) {
+        return resolver.findInventory( Query.query( Criteria.where( "warehouse" ).is( toStoreId( warehouseId ) ) ), fields );
+    }
+
+    @Override
+    public List<Inventory> findAllResolvedByItemId( String itemId ) {
+        return findAllResolvedByItemId( itemId, Set.of() );
+    }
+
+    @Override
+    public List<Inventory> findAllResolvedByItemId( String itemId, Set<String> fields ) {
+        return resolver.findInventory( Query.query( Criteria.where( "item" ).is( toStoreId( itemId ) ) ), fields );
+    }
+
+    @Override
+    public Optional<Inventory> findResolvedByWarehouseIdAndItemId( String warehouseId, String itemId ) {
+        return resolver.findInventory( byWarehouseAndItem( warehouseId, itemId ).limit( 1 ) ).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Inventory> insertIfAbsent( String warehouseId, String itemId, int quantity ) {
+        Instant now = Instant.now();
+        Document document = new Document( "warehouse", toStoreId( warehouseId ) )
+                .append( "item", toStoreId( itemId ) )
+                .append( "quantity", quantity )
+                .append( Versions.FIELD, 0L )
+                .append( "createdDate", now )
+                .append( "lastModifiedDate", now );
+        try {
+            mongoTemplate.insert( document, mongoTemplate.getCollectionName( Inventory.class ) );
+        } catch ( DuplicateKeyException e ) {
+            return Optional.empty();
+        }
+        return Optional.of( resolver.resolveInventory( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public Optional<Inventory> updateIfUnchanged( Inventory expected, String warehouseId, String itemId, int quantity ) {
+        Document updated = mongoTemplate.findAndModify(
+                Query.query( Criteria.where( "_id" ).is( toStoreId( expected.getId() ) ) )
+                        .addCriteria( Versions.is( expected.getVersion() ) ),
+                new Update()
+                        .set( "warehouse", toStoreId( warehouseId ) )
+                        .set( "item", toStoreId( itemId ) )
+                        .set( "quantity", quantity )
+                        .set( "lastModifiedDate", Instant.now() )
+                        .inc( Versions.FIELD, 1L ),
+                FindAndModifyOptions.options().returnNew( true ),
+                Document.class,
+                mongoTemplate.getCollectionName( Inventory.class )
+        );
+        return Optional.ofNullable( updated ).map( document -> resolver.resolveInventory( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public Optional<Inventory> removeById( String id ) {
+        Document removed = mongoTemplate.findAndRemove(
+                Query.query( Criteria.where( "_id" ).is( toStoreId( id ) ) ),
+                Document.class,
+                mongoTemplate.getCollectionName( Inventory.class )
+        );
+        return Optional.ofNullable( removed ).map( document -> resolver.resolveInventory( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public void incrementQuantities( String warehouseId, Map<String, Integer> quantitiesByItemId ) {
+        if ( quantitiesByItemId.isEmpty() ) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<Map.Entry<String, Integer>> receipts = List.copyOf( quantitiesByItemId.entrySet() );
+        BulkOperations bulk = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.ORDERED,
+                mongoTemplate.getCollectionName( Inventory.class )
+        );
+
+        receipts.forEach( receipt -> bulk.upsert(
+                byWarehouseAndItem( warehouseId, receipt.getKey() ),
+                new Update()
+                        .inc( "quantity", receipt.getValue() )
+                        .inc( Versions.FIELD, 1L )
+                        .setOnInsert( "createdDate", now )
+                        .set( "lastModifiedDate", now )
+        ) );
+
+        try {
+            bulk.execute();
+        } catch ( BulkOperationException e ) {
+            undoReceipts( warehouseId, receipts, e );
+            throw e;
+        }
+    }
+
+    /**
+     * Takes back the receipts an ordered bulk applied before it failed: those in front of the first failed
+     * write. Rows the bulk inserted are removed again unless someone stocked them in between.
+     */
+    private void undoReceipts( String warehouseId, List<Map.Entry<String, Integer>> receipts, BulkOperationException failure ) {
+        int applied = failure.getErrors().stream().mapToInt( BulkWriteError::getIndex ).min().orElse( receipts.size() );
+        if ( applied == 0 ) {
+            return;
+        }
+
+        BulkOperations undo = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.ORDERED,
+                mongoTemplate.getCollectionName( Inventory.class )
+        );
+        Instant now = Instant.now();
+        for ( Map.Entry<String, Integer> receipt : receipts.subList( 0, applied ) ) {
+            undo.updateOne(
+                    byWarehouseAndItem( warehouseId, receipt.getKey() ),
+                    new Update()
+                            .inc( "quantity", -receipt.getValue() )
+                            .inc( Versions.FIELD, 1L )
+                            .set( "lastModifiedDate", now )
+            );
+        }
+        List<ObjectId> inserted = failure.getResult().getUpserts().stream()
+                .filter( upsert -> upsert.getIndex() < applied )
+                .map( upsert -> upsert.getId().asObjectId().getValue() )
+                .toList();
+        if ( !inserted.isEmpty() ) {
+            undo.remove( Query.query( Criteria.where( "_id" ).in( inserted ).and( "quantity" ).is( 0 ) ) );
+        }
+
+        try {
+            undo.execute();
+        } catch ( RuntimeException e ) {
+            failure.addSuppressed( e );
+        }
+    }
+
+    @Override
+    public Map<String, Integer> findQuantitiesByWarehouseId( String warehouseId, Collection<String> itemIds ) {
+        Query query = Query.query( Criteria.where( "warehouse" ).is( toStoreId( warehouseId ) ).and( "item" ).in( toStoreIds( itemIds ) ) );
+        query.fields().include( "item", "quantity" ).exclude( "_id" );
+
+        Map<String, Integer> quantities = new HashMap<>();
+        mongoTemplate.find( query, Document.class, mongoTemplate.getCollectionName( Inventory.class ) ).forEach(
+                document -> quantities.put( document.get( "item" ).toString(), document.get( "quantity", Number.class ).intValue() )
+        );
+        return quantities;
+    }
+
+    @Override
+    public long deleteAllByWarehouseId( String warehouseId ) {
+        return mongoTemplate.remove(
+                Query.query( Criteria.where( "warehouse" ).is( toStoreId( warehouseId ) ) ),
+                mongoTemplate.getCollectionName( Inventory.class )
+        ).getDeletedCount();
+    }
+
+    private static Query byWarehouseAndItem( String warehouseId, String itemId ) {
+        return Query.query( Criteria.where( "warehouse" ).is( toStoreId( warehouseId ) ).and( "item" ).is( toStoreId( itemId ) ) );
+    }
+}
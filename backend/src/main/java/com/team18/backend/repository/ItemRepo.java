@@ -1,9 +1,19 @@
 package com.team18.backend.repository;
 
 import com.team18.backend.model.Item;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ItemRepo extends MongoRepository<Item, String> {
+
+    List<Item> findAllByOrderByIdAsc( Limit limit );
+
+    List<Item> findByIdGreaterThanOrderByIdAsc( String id, Limit limit );
+
+    Optional<Item> findBySku( String sku );
 }
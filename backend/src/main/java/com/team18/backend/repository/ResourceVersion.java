@@ -0,0 +1,17 @@
+package com.team18.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * The number of documents in a set and the newest {@code lastModifiedDate} among them.
+ * <p>
+ * Every insert and delete changes the count and every update moves {@code lastModifiedDate} forward, so
+ * the version changes whenever a document of the set does. Dates are stored with millisecond precision;
+ * two updates within the same millisecond leave the version of the second one unchanged, which is why
+ * ETags built from it are weak.
+ *
+ * @param count        the number of documents
+ * @param lastModified the newest {@code lastModifiedDate}, or {@code null} if the set is empty
+ */
+public record ResourceVersion( long count, Instant lastModified ) {
+}
@@ -0,0 +1,73 @@
+package com.team18.backend.repository;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+
+/**
+ * Reads the {@link ResourceVersion} of a collection, or of the documents referencing one id, without reading
+ * the documents themselves. The newest {@code lastModifiedDate} is read from a {@code lastModifiedDate}
+ * index, so the collections this is used on declare one.
+ */
+@Repository
+public class ResourceVersionRepository {
+
+    private static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ResourceVersionRepository( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * The version of a whole collection: the count comes from the collection metadata and the newest
+     * {@code lastModifiedDate} from the first entry of the {@code {lastModifiedDate: -1}} index.
+     */
+    public ResourceVersion findVersion( Class<?> type ) {
+        String collection = mongoTemplate.getCollectionName( type );
+
+        Query newest = new Query().with( Sort.by( Sort.Direction.DESC, LAST_MODIFIED_DATE ) ).limit( 1 );
+        newest.fields().include( LAST_MODIFIED_DATE ).exclude( "_id" );
+        Document document = mongoTemplate.findOne( newest, Document.class, collection );
+
+        return new ResourceVersion(
+                mongoTemplate.estimatedCount( collection ),
+                document != null ? toInstant( document.get( LAST_MODIFIED_DATE ) ) : null
+        );
+    }
+
+    /**
+     * The version of the documents whose {@code field} holds {@code id}, counted and maxed in one
+     * {@code $group}. With an index on {@code (field, lastModifiedDate)} this only scans index keys.
+     */
+    public ResourceVersion findVersion( Class<?> type, String field, String id ) {
+        Aggregation aggregation = Aggregation.newAggregation( List.<AggregationOperation>of(
+                context -> new Document( "$match", new Document( field, toStoreId( id ) ) ),
+                context -> new Document( "$group", new Document( "_id", null )
+                        .append( "count", new Document( "$sum", 1 ) )
+                        .append( LAST_MODIFIED_DATE, new Document( "$max", "$" + LAST_MODIFIED_DATE ) ) )
+        ) );
+        Document group = mongoTemplate.aggregate( aggregation, mongoTemplate.getCollectionName( type ), Document.class )
+                .getUniqueMappedResult();
+
+        if ( group == null ) {
+            return new ResourceVersion( 0, null );
+        }
+        return new ResourceVersion( group.get( "count", Number.class ).longValue(), toInstant( group.get( LAST_MODIFIED_DATE ) ) );
+    }
+
+    private static Instant toInstant( Object value ) {
+        return value instanceof Date date ? date.toInstant() : null;
+    }
+}
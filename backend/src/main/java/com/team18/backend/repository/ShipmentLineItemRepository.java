@@ -8,6 +8,6 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ShipmentLineItemRepository extends MongoRepository<ShipmentLineItem, String> {
+public interface ShipmentLineItemRepository extends MongoRepository<ShipmentLineItem, String>, ShipmentLineItemRepositoryCustom {
     Optional<List<ShipmentLineItem>> findAllByShipment_Id( String shipmentId );
 }
@@ -0,0 +1,35 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.ShipmentLineItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Line item queries that resolve the shipment, warehouse, shop and item references of the
+ * whole result set in batches.
+ */
+public interface ShipmentLineItemRepositoryCustom {
+
+    List<ShipmentLineItem> findAllResolvedByShipmentId( String shipmentId );
+
+    /**
+     * Streams all line items with a server-side cursor. The stream must be closed to release the cursor.
+     */
+    Stream<ShipmentLineItem> streamAllResolved();
+
+    /**
+     * Deletes all line items of a shipment with a single query.
+     *
+     * @return the number of deleted line items
+     */
+    long deleteAllByShipmentId( String shipmentId );
+
+    /**
+     * Deletes all line items of the given shipments with a single query.
+     *
+     * @return the number of deleted line items
+     */
+    long deleteAllByShipmentIdIn( Collection<String> shipmentIds );
+}
@@ -0,0 +1,55 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.ShipmentLineItem;
+import com.team18.backend.repository.support.DocumentReferenceResolver;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreIds;
+
+public class ShipmentLineItemRepositoryCustomImpl implements ShipmentLineItemRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final DocumentReferenceResolver resolver;
+
+    public ShipmentLineItemRepositoryCustomImpl( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+        this.resolver = new DocumentReferenceResolver( mongoTemplate );
+    }
+
+    @Override
+    public List<ShipmentLineItem> findAllResolvedByShipmentId( String shipmentId ) {
+        return resolver.findShipmentLineItems( byShipmentId( shipmentId ) );
+    }
+
+    @Override
+    public Stream<ShipmentLineItem> streamAllResolved() {
+        return resolver.streamShipmentLineItems( new Query() );
+    }
+
+    @Override
+    public long deleteAllByShipmentId( String shipmentId ) {
+        return mongoTemplate.remove( byShipmentId( shipmentId ), mongoTemplate.getCollectionName( ShipmentLineItem.class ) ).getDeletedCount();
+    }
+
+    @Override
+    public long deleteAllByShipmentIdIn( Collection<String> shipmentIds ) {
+        if ( shipmentIds.isEmpty() ) {
+            return 0;
+        }
+        return mongoTemplate.remove(
+                Query.query( Criteria.where( "shipment" ).in( toStoreIds( shipmentIds ) ) ),
+                mongoTemplate.getCollectionName( ShipmentLineItem.class )
+        ).getDeletedCount();
+    }
+
+    private static Query byShipmentId( String shipmentId ) {
+        return Query.query( Criteria.where( "shipment" ).is( toStoreId( shipmentId ) ) );
+    }
+}
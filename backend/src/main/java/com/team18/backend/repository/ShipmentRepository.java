@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ShipmentRepository extends MongoRepository<Shipment, String> {
+public interface ShipmentRepository extends MongoRepository<Shipment, String>, ShipmentRepositoryCustom {
 
     List<Shipment> findByWarehouse( Warehouse warehouse );
 
@@ -0,0 +1,150 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.EmbeddedShipmentLineItem;
+import com.team18.backend.model.Shipment;
+import com.team18.backend.model.ShipmentStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Shipment queries that resolve the warehouse and shop references of the whole result set in batches.
+ */
+public interface ShipmentRepositoryCustom {
+
+    /**
+     * Streams all rows with a server-side cursor. The stream must be closed to release the cursor.
+     */
+    Stream<Shipment> streamAllResolved();
+
+    /**
+     * Reads one keyset page ordered by id.
+     *
+     * @param afterId the id of the last row of the previous page, or {@code null} for the first page
+     * @param limit   the maximum number of rows to read
+     */
+    List<Shipment> findPageResolved( String afterId, int limit );
+
+    List<Shipment> findAllResolvedByWarehouseIdIn( Collection<String> warehouseIds );
+
+    /**
+     * Reads the shipments of all warehouses of a shop, with warehouse and shop resolved, in one aggregation.
+     * Every filter is optional.
+     *
+     * @param status       only shipments with this status
+     * @param arrivingFrom only shipments expected on or after this date
+     * @param arrivingTo   only shipments expected on or before this date
+     * @return the shipments ordered by id, or empty if the shop does not exist
+     */
+    Optional<List<Shipment>> findAllResolvedByShopId( String shopId, ShipmentStatus status, LocalDate arrivingFrom, LocalDate arrivingTo );
+
+    /**
+     * Writes the editable fields of a shipment with a targeted update instead of replacing the document, so
+     * line items embedded in it are left as they are stored.
+     *
+     * @return the updated shipment with warehouse and shop resolved, or empty if it does not exist
+     */
+    Optional<Shipment> updateDetails( Shipment shipment );
+
+    /**
+     * Sets the given document fields of a shipment that is not completed in one round-trip and increments
+     * its version.
+     *
+     * @param changes         the document fields to set, referenced entities as the entity
+     * @param expectedVersion only update the shipment if it still has this version, or {@code null} for any version
+     * @return the updated shipment with warehouse and shop resolved, or empty if it does not exist, is completed
+     * or has another version
+     */
+    Optional<Shipment> updateDetails( String shipmentId, Map<String, Object> changes, Long expectedVersion );
+
+    /**
+     * Sets the status of a shipment together with the given document fields in one {@code findAndModify}, if its
+     * current status is one of {@link ShipmentStatus#allowedSources()}, and increments its version. Of concurrent
+     * transitions from the same status only one succeeds.
+     *
+     * @param changes         further document fields to set, referenced entities as the entity
+     * @param expectedVersion only update the shipment if it still has this version, or {@code null} for any version
+     * @return the shipment before and after the transition, or empty if it does not exist, is not in an allowed
+     * source status or has another version
+     */
+    Optional<StatusTransition> transitionStatus( String shipmentId, ShipmentStatus status, Map<String, Object> changes, Long expectedVersion );
+
+    /**
+     * Reads one shipment with warehouse and shop resolved, including its embedded line items.
+     */
+    Optional<Shipment> findResolvedById( String id );
+
+    /**
+     * Reads the shipment that embeds the given line item, with warehouse and shop resolved.
+     */
+    Optional<Shipment> findResolvedByLineItemId( String lineItemId );
+
+    /**
+     * Streams all shipments that embed line items, with warehouse and shop resolved. The stream must be closed
+     * to release the cursor.
+     */
+    Stream<Shipment> streamAllResolvedWithLineItems();
+
+    /**
+     * Appends embedded line items to a shipment.
+     *
+     * @return {@code false} if the shipment does not exist
+     */
+    boolean pushLineItems( String shipmentId, List<EmbeddedShipmentLineItem> lineItems );
+
+    /**
+     * Replaces an embedded line item in place.
+     *
+     * @return {@code false} if the shipment does not embed a line item with that id
+     */
+    boolean replaceLineItem( String shipmentId, EmbeddedShipmentLineItem lineItem );
+
+    /**
+     * Removes an embedded line item from the shipment that contains it.
+     *
+     * @return {@code false} if no shipment embeds a line item with that id
+     */
+    boolean pullLineItem( String lineItemId );
+
+    /**
+     * Moves line items from the line item collection into the shipments they belong to. Line items created up
+     * to the start of the migration are embedded and then deleted from the collection; a line item that is
+     * already embedded is not added twice, so an interrupted run can be repeated. Line items of shipments that
+     * no longer exist are left in the collection.
+     *
+     * @return the number of line items moved
+     */
+    long embedLineItems();
+
+    /**
+     * Moves embedded line items back into the line item collection and clears them from their shipments.
+     * Line items that already exist in the collection are kept as they are.
+     *
+     * @return the number of line items moved
+     */
+    long extractLineItems();
+
+    /**
+     * Reads only the ids of the shipments of a warehouse.
+     */
+    List<String> findIdsByWarehouseId( String warehouseId );
+
+    /**
+     * Counts the line items embedded in the shipments of a warehouse on the server.
+     */
+    long countLineItemsByWarehouseId( String warehouseId );
+
+    /**
+     * Deletes all shipments of a warehouse, with their embedded line items, with a single query.
+     *
+     * @return the number of deleted shipments
+     */
+    long deleteAllByWarehouseId( String warehouseId );
+
+    record StatusTransition( Shipment before, Shipment after ) {
+    }
+}
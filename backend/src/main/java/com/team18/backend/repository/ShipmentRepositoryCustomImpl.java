@@ -0,0 +1,326 @@
+package com.team18.backend.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.team18.backend.model.EmbeddedShipmentLineItem;
+import com.team18.backend.model.Shipment;
+import com.team18.backend.model.ShipmentLineItem;
+import com.team18.backend.model.ShipmentStatus;
+import com.team18.backend.repository.support.DocumentReferenceResolver;
+import com.team18.backend.repository.support.Versions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreIds;
+
+public class ShipmentRepositoryCustomImpl implements ShipmentRepositoryCustom {
+
+    private static final String LINE_ITEMS = "lineItems";
+
+    private final MongoTemplate mongoTemplate;
+    private final DocumentReferenceResolver resolver;
+
+    public ShipmentRepositoryCustomImpl( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+        this.resolver = new DocumentReferenceResolver( mongoTemplate );
+    }
+
+    @Override
+    public Stream<Shipment> streamAllResolved() {
+        return resolver.streamShipments( withoutLineItems( new Query() ) );
+    }
+
+    @Override
+    public List<Shipment> findPageResolved( String afterId, int limit ) {
+        return resolver.findShipments( withoutLineItems( DocumentReferenceResolver.pageQuery( afterId, limit ) ) );
+    }
+
+    @Override
+    public List<Shipment> findAllResolvedByWarehouseIdIn( Collection<String> warehouseIds ) {
+        if ( warehouseIds.isEmpty() ) return List.of();
+        return resolver.findShipments( withoutLineItems(
+                Query.query( Criteria.where( "warehouse" ).in( toStoreIds( warehouseIds ) ) )
+        ) );
+    }
+
+    @Override
+    public Optional<List<Shipment>> findAllResolvedByShopId( String shopId, ShipmentStatus status, LocalDate arrivingFrom, LocalDate arrivingTo ) {
+        Document filter = new Document();
+        if ( status != null ) {
+            filter.append( "status", status.name() );
+        }
+        if ( arrivingFrom != null || arrivingTo != null ) {
+            Document range = new Document();
+            if ( arrivingFrom != null ) range.append( "$gte", mongoTemplate.getConverter().convertToMongoType( arrivingFrom ) );
+            if ( arrivingTo != null ) range.append( "$lte", mongoTemplate.getConverter().convertToMongoType( arrivingTo ) );
+            filter.append( "expectedArrivalDate", range );
+        }
+        return resolver.aggregateShipmentsOfShop( shopId, filter );
+    }
+
+    @Override
+    public Optional<Shipment> updateDetails( Shipment shipment ) {
+        Document fields = new Document();
+        mongoTemplate.getConverter().write( shipment, fields );
+        fields.remove( "_id" );
+        fields.remove( "_class" );
+        fields.remove( "createdDate" );
+        fields.remove( LINE_ITEMS );
+        fields.remove( Versions.FIELD );
+        fields.put( "lastModifiedDate", Instant.now() );
+
+        Document updated = mongoTemplate.findAndModify(
+                new BasicQuery( new Document( "_id", toStoreId( shipment.getId() ) ) ),
+                Update.fromDocument( new Document( "$set", fields ).append( "$inc", new Document( Versions.FIELD, 1L ) ) ),
+                FindAndModifyOptions.options().returnNew( true ),
+                Document.class,
+                mongoTemplate.getCollectionName( Shipment.class )
+        );
+        return Optional.ofNullable( updated ).map( document -> resolver.resolveShipments( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public Optional<Shipment> updateDetails( String shipmentId, Map<String, Object> changes, Long expectedVersion ) {
+        Query query = Query.query( Criteria.where( "_id" ).is( toStoreId( shipmentId ) )
+                .and( "status" ).ne( ShipmentStatus.COMPLETED.name() ) );
+        if ( expectedVersion != null ) {
+            query.addCriteria( Versions.is( expectedVersion ) );
+        }
+        Update update = new Update()
+                .set( "lastModifiedDate", Instant.now() )
+                .inc( Versions.FIELD, 1L );
+        changes.forEach( ( field, value ) -> update.set( field, resolver.toStoreValue( value ) ) );
+
+        Document updated = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew( true ),
+                Document.class,
+                mongoTemplate.getCollectionName( Shipment.class )
+        );
+        return Optional.ofNullable( updated ).map( document -> resolver.resolveShipments( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public Optional<StatusTransition> transitionStatus(
+            String shipmentId, ShipmentStatus status, Map<String, Object> changes, Long expectedVersion
+    ) {
+        Query query = Query.query( Criteria.where( "_id" ).is( toStoreId( shipmentId ) )
+                .and( "status" ).in( status.allowedSources().stream().map( ShipmentStatus::name ).toList() ) );
+        if ( expectedVersion != null ) {
+            query.addCriteria( Versions.is( expectedVersion ) );
+        }
+        Document fields = new Document();
+        changes.forEach( ( field, value ) -> fields.append( field, resolver.toStoreValue( value ) ) );
+        fields.append( "status", status.name() )
+                .append( "lastModifiedDate", resolver.toStoreValue( Instant.now() ) );
+
+        Document before = mongoTemplate.findAndModify(
+                query,
+                Update.fromDocument( new Document( "$set", fields ).append( "$inc", new Document( Versions.FIELD, 1L ) ) ),
+                FindAndModifyOptions.options().returnNew( false ),
+                Document.class,
+                mongoTemplate.getCollectionName( Shipment.class )
+        );
+        if ( before == null ) {
+            return Optional.empty();
+        }
+
+        // the old document tells where the shipment came from; apply the update to it instead of reading it again
+        Document after = new Document( before );
+        after.putAll( fields );
+        Number version = before.get( Versions.FIELD, Number.class );
+        after.put( Versions.FIELD, ( version != null ? version.longValue() : 0L ) + 1 );
+
+        List<Shipment> resolved = resolver.resolveShipments( List.of( before, after ) );
+        return Optional.of( new StatusTransition( resolved.get( 0 ), resolved.get( 1 ) ) );
+    }
+
+    @Override
+    public Optional<Shipment> findResolvedById( String id ) {
+        return resolver.findShipments( Query.query( Criteria.where( "_id" ).is( toStoreId( id ) ) ) ).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Shipment> findResolvedByLineItemId( String lineItemId ) {
+        return resolver.findShipments( Query.query( Criteria.where( LINE_ITEMS + "._id" ).is( toStoreId( lineItemId ) ) ) )
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Stream<Shipment> streamAllResolvedWithLineItems() {
+        return resolver.streamShipments( Query.query( Criteria.where( LINE_ITEMS + ".0" ).exists( true ) ) );
+    }
+
+    @Override
+    public boolean pushLineItems( String shipmentId, List<EmbeddedShipmentLineItem> lineItems ) {
+        return mongoTemplate.updateFirst(
+                new BasicQuery( new Document( "_id", toStoreId( shipmentId ) ) ),
+                Update.fromDocument( new Document( "$push", new Document( LINE_ITEMS,
+                        new Document( "$each", lineItems.stream().map( this::toDocument ).toList() )
+                ) ) ),
+                mongoTemplate.getCollectionName( Shipment.class )
+        ).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean replaceLineItem( String shipmentId, EmbeddedShipmentLineItem lineItem ) {
+        Document filter = new Document( "_id", toStoreId( shipmentId ) )
+                .append( LINE_ITEMS + "._id", toStoreId( lineItem.getId() ) );
+        return mongoTemplate.updateFirst(
+                new BasicQuery( filter ),
+                Update.fromDocument( new Document( "$set", new Document( LINE_ITEMS + ".$", toDocument( lineItem ) ) ) ),
+                mongoTemplate.getCollectionName( Shipment.class )
+        ).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean pullLineItem( String lineItemId ) {
+        Object id = toStoreId( lineItemId );
+        return mongoTemplate.updateFirst(
+                new BasicQuery( new Document( LINE_ITEMS + "._id", id ) ),
+                Update.fromDocument( new Document( "$pull", new Document( LINE_ITEMS, new Document( "_id", id ) ) ) ),
+                mongoTemplate.getCollectionName( Shipment.class )
+        ).getModifiedCount() > 0;
+    }
+
+    @Override
+    public long embedLineItems() {
+        MongoCollection<Document> lineItems = mongoTemplate.getCollection( mongoTemplate.getCollectionName( ShipmentLineItem.class ) );
+        String shipments = mongoTemplate.getCollectionName( Shipment.class );
+
+        Document last = lineItems.find().projection( new Document( "_id", 1 ) ).sort( new Document( "_id", -1 ) ).first();
+        if ( last == null ) {
+            return 0;
+        }
+        Document upToLast = new Document( "_id", new Document( "$lte", last.get( "_id" ) ) );
+        List<Object> referenced = lineItems.distinct( "shipment", upToLast, Object.class ).into( new ArrayList<>() );
+        List<Object> existing = mongoTemplate.getCollection( shipments )
+                .find( new Document( "_id", new Document( "$in", referenced ) ) )
+                .projection( new Document( "_id", 1 ) )
+                .map( document -> document.get( "_id" ) )
+                .into( new ArrayList<>() );
+        if ( existing.isEmpty() ) {
+            return 0;
+        }
+
+        Document migrated = new Document( upToLast ).append( "shipment", new Document( "$in", existing ) );
+        Document embedded = new Document( "_id", "$_id" );
+        for ( String field : List.of( "item", "expectedQuantity", "receivedQuantity", "createdDate", "lastModifiedDate" ) ) {
+            embedded.append( field, "$" + field );
+        }
+        Document notYetEmbedded = new Document( "$filter", new Document( "input", "$$new." + LINE_ITEMS )
+                .append( "cond", new Document( "$not", List.of( new Document( "$in", List.of(
+                        "$$this._id", new Document( "$ifNull", List.of( "$" + LINE_ITEMS + "._id", List.of() ) )
+                ) ) ) ) ) );
+
+        lineItems.aggregate( List.of(
+                new Document( "$match", migrated ),
+                new Document( "$sort", new Document( "_id", 1 ) ),
+                new Document( "$group", new Document( "_id", "$shipment" )
+                        .append( LINE_ITEMS, new Document( "$push", embedded ) ) ),
+                new Document( "$merge", new Document( "into", shipments )
+                        .append( "on", "_id" )
+                        .append( "whenMatched", List.of( new Document( "$set", new Document( LINE_ITEMS,
+                                new Document( "$concatArrays", List.of(
+                                        new Document( "$ifNull", List.of( "$" + LINE_ITEMS, List.of() ) ), notYetEmbedded
+                                ) )
+                        ) ) ) )
+                        .append( "whenNotMatched", "discard" ) )
+        ) ).allowDiskUse( true ).toCollection();
+
+        return lineItems.deleteMany( migrated ).getDeletedCount();
+    }
+
+    @Override
+    public long extractLineItems() {
+        MongoCollection<Document> shipments = mongoTemplate.getCollection( mongoTemplate.getCollectionName( Shipment.class ) );
+        Document withLineItems = new Document( LINE_ITEMS + ".0", new Document( "$exists", true ) );
+
+        Document embedded = shipments.aggregate( List.of(
+                new Document( "$match", withLineItems ),
+                new Document( "$group", new Document( "_id", null )
+                        .append( "count", new Document( "$sum", new Document( "$size", "$" + LINE_ITEMS ) ) ) )
+        ) ).first();
+        if ( embedded == null ) {
+            return 0;
+        }
+
+        shipments.aggregate( List.of(
+                new Document( "$match", withLineItems ),
+                new Document( "$unwind", "$" + LINE_ITEMS ),
+                new Document( "$replaceWith", new Document( "$mergeObjects", List.of(
+                        "$" + LINE_ITEMS,
+                        new Document( "shipment", "$_id" ).append( "_class", ShipmentLineItem.class.getName() )
+                ) ) ),
+                new Document( "$merge", new Document( "into", mongoTemplate.getCollectionName( ShipmentLineItem.class ) )
+                        .append( "on", "_id" )
+                        .append( "whenMatched", "keepExisting" )
+                        .append( "whenNotMatched", "insert" ) )
+        ) ).allowDiskUse( true ).toCollection();
+
+        shipments.updateMany( withLineItems, new Document( "$unset", new Document( LINE_ITEMS, "" ) ) );
+        return embedded.get( "count", Number.class ).longValue();
+    }
+
+    @Override
+    public List<String> findIdsByWarehouseId( String warehouseId ) {
+        return mongoTemplate.getCollection( mongoTemplate.getCollectionName( Shipment.class ) )
+                .find( byWarehouseId( warehouseId ) )
+                .projection( new Document( "_id", 1 ) )
+                .map( document -> document.get( "_id" ).toString() )
+                .into( new ArrayList<>() );
+    }
+
+    @Override
+    public long countLineItemsByWarehouseId( String warehouseId ) {
+        Document count = mongoTemplate.getCollection( mongoTemplate.getCollectionName( Shipment.class ) ).aggregate( List.of(
+                new Document( "$match", byWarehouseId( warehouseId ) ),
+                new Document( "$group", new Document( "_id", null ).append( "count", new Document( "$sum",
+                        new Document( "$size", new Document( "$ifNull", List.of( "$" + LINE_ITEMS, List.of() ) ) )
+                ) ) )
+        ) ).first();
+        return count == null ? 0 : count.get( "count", Number.class ).longValue();
+    }
+
+    @Override
+    public long deleteAllByWarehouseId( String warehouseId ) {
+        return mongoTemplate.getCollection( mongoTemplate.getCollectionName( Shipment.class ) )
+                .deleteMany( byWarehouseId( warehouseId ) )
+                .getDeletedCount();
+    }
+
+    private static Document byWarehouseId( String warehouseId ) {
+        return new Document( "warehouse", toStoreId( warehouseId ) );
+    }
+
+    private Document toDocument( EmbeddedShipmentLineItem lineItem ) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write( lineItem, document );
+        document.remove( "_class" );
+        return document;
+    }
+
+    /**
+     * Leaves embedded line items out of shipment listings, which never show them.
+     */
+    private static Query withoutLineItems( Query query ) {
+        query.fields().exclude( LINE_ITEMS );
+        return query;
+    }
+}
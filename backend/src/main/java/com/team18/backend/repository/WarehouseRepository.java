@@ -9,6 +9,6 @@ import java.util.List;
 
 
 @Repository
-public interface WarehouseRepository extends MongoRepository<Warehouse, String> {
+public interface WarehouseRepository extends MongoRepository<Warehouse, String>, WarehouseRepositoryCustom {
     List<Warehouse> findByShop( Shop shop );
 }
@@ -0,0 +1,77 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.model.Warehouse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Warehouse queries that resolve the shop references of the whole result set in one batch.
+ */
+public interface WarehouseRepositoryCustom {
+
+    /**
+     * Reads one keyset page ordered by id.
+     *
+     * @param afterId the id of the last row of the previous page, or {@code null} for the first page
+     * @param limit   the maximum number of rows to read
+     */
+    List<Warehouse> findPageResolved( String afterId, int limit );
+
+    /**
+     * Reads only the given document fields, see {@link com.team18.backend.repository.support.DocumentReferenceResolver#findWarehouses(org.springframework.data.mongodb.core.query.Query, Set)}.
+     *
+     * @param fields dotted document field paths, or an empty set for all fields
+     */
+    List<Warehouse> findPageResolved( String afterId, int limit, Set<String> fields );
+
+    /**
+     * Finds the warehouses closest to a coordinate with one {@code $geoNear} aggregation on the
+     * {@code 2dsphere} index of {@link Warehouse#getLocation()}.
+     *
+     * @param maxDistanceMeters only return warehouses within this distance, or {@code null} for no limit
+     * @param inStockItemId     only return warehouses holding a positive quantity of this item, or {@code null}
+     * @param limit             the maximum number of warehouses to return
+     * @return the warehouses ordered by distance, nearest first
+     */
+    List<WarehouseDistance> findNearestResolved( double lat, double lng, Double maxDistanceMeters, String inStockItemId, int limit );
+
+    /**
+     * Atomically adds {@code delta} to the used capacity of a warehouse. A positive delta is only applied if
+     * the used capacity stays within {@code maxCapacity}; a negative delta is always applied.
+     *
+     * @return {@code false} if the warehouse does not exist or the delta would exceed its capacity
+     */
+    boolean adjustUsedCapacity( String warehouseId, long delta );
+
+    /**
+     * Sets the given document fields of a warehouse in one round-trip and increments its version, leaving all
+     * other fields as they are stored. The location follows a changed {@code lat} or {@code lng}. A changed
+     * {@code maxCapacity} is only applied if it is not below the used capacity.
+     *
+     * @param changes         the document fields to set, referenced entities as the entity
+     * @param expectedVersion only update the warehouse if it still has this version, or {@code null} for any version
+     * @return the updated warehouse, or empty if it does not exist, has another version or its used capacity
+     * exceeds the new maximum
+     */
+    Optional<Warehouse> updateDetails( String warehouseId, Map<String, Object> changes, Long expectedVersion );
+
+    /**
+     * Sets {@code usedCapacity} on warehouses stored before it existed, from the sum of their inventory.
+     *
+     * @return the number of updated warehouses
+     */
+    long backfillUsedCapacity();
+
+    /**
+     * Sets {@code location} on warehouses stored before it existed, from their {@code lat} and {@code lng}.
+     *
+     * @return the number of updated warehouses
+     */
+    long backfillLocations();
+
+    record WarehouseDistance( Warehouse warehouse, double distanceMeters ) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.team18.backend.repository;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.support.DocumentReferenceResolver;
+import com.team18.backend.repository.support.Versions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.team18.backend.repository.support.DocumentReferenceResolver.toStoreId;
+
+public class WarehouseRepositoryCustomImpl implements WarehouseRepositoryCustom {
+
+    private static final String DISTANCE_FIELD = "distance";
+    private static final String USED_CAPACITY = "usedCapacity";
+
+    private final MongoTemplate mongoTemplate;
+    private final DocumentReferenceResolver resolver;
+
+    public WarehouseRepositoryCustomImpl( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+        this.resolver = new DocumentReferenceResolver( mongoTemplate );
+    }
+
+    @Override
+    public List<Warehouse> findPageResolved( String afterId, int limit ) {
+        return findPageResolved( afterId, limit, Set.of() );
+    }
+
+    @Override
+    public List<Warehouse> findPageResolved( String afterId, int limit, Set<String> fields ) {
+        return resolver.findWarehouses( DocumentReferenceResolver.pageQuery( afterId, limit ), fields );
+    }
+
+    @Override
+    public List<WarehouseDistance> findNearestResolved( double lat, double lng, Double maxDistanceMeters, String inStockItemId, int limit ) {
+        Document geoNear = new Document( "near", new Document( "type", "Point" ).append( "coordinates", List.of( lng, lat ) ) )
+                .append( "key", "location" )
+                .append( "distanceField", DISTANCE_FIELD )
+                .append( "spherical", true );
+        if ( maxDistanceMeters != null ) {
+            geoNear.append( "maxDistance", maxDistanceMeters );
+        }
+
+        List<Document> stages = new ArrayList<>();
+        stages.add( new Document( "$geoNear", geoNear ) );
+        if ( inStockItemId != null ) {
+            // one indexed probe per candidate on the (warehouse, item) index, nearest candidates first
+            stages.add( new Document( "$lookup", new Document( "from", mongoTemplate.getCollectionName( Inventory.class ) )
+                    .append( "localField", "_id" )
+                    .append( "foreignField", "warehouse" )
+                    .append( "pipeline", List.of(
+                            new Document( "$match", new Document( "item", DocumentReferenceResolver.toStoreId( inStockItemId ) )
+                                    .append( "quantity", new Document( "$gt", 0 ) ) ),
+                            new Document( "$limit", 1 ),
+                            new Document( "$project", new Document( "_id", 1 ) )
+                    ) )
+                    .append( "as", "stock" ) ) );
+            stages.add( new Document( "$match", new Document( "stock", new Document( "$ne", List.of() ) ) ) );
+            stages.add( new Document( "$unset", "stock" ) );
+        }
+        stages.add( new Document( "$limit", limit ) );
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stages.stream().<AggregationOperation>map( stage -> context -> stage ).toList()
+        );
+        List<Document> documents = mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName( Warehouse.class ), Document.class
+        ).getMappedResults();
+
+        List<Warehouse> warehouses = resolver.resolveWarehouses( documents );
+        return IntStream.range( 0, documents.size() )
+                .mapToObj( i -> new WarehouseDistance( warehouses.get( i ), documents.get( i ).get( DISTANCE_FIELD, Number.class ).doubleValue() ) )
+                .toList();
+    }
+
+    @Override
+    public long backfillLocations() {
+        Document filter = new Document( "location", new Document( "$exists", false ) )
+                .append( "lat", new Document( "$type", "number" ) )
+                .append( "lng", new Document( "$type", "number" ) );
+        Document setLocation = new Document( "$set", new Document( "location", new Document( "type", "Point" )
+                .append( "coordinates", List.of( "$lng", "$lat" ) ) ) );
+
+        return mongoTemplate.getCollection( mongoTemplate.getCollectionName( Warehouse.class ) )
+                .updateMany( filter, List.of( setLocation ) )
+                .getModifiedCount();
+    }
+
+    @Override
+    public boolean adjustUsedCapacity( String warehouseId, long delta ) {
+        Document filter = new Document( "_id", toStoreId( warehouseId ) );
+        if ( delta > 0 ) {
+            filter.append( "$expr", new Document( "$lte", List.of(
+                    new Document( "$add", List.of( new Document( "$ifNull", List.of( "$" + USED_CAPACITY, 0 ) ), delta ) ),
+                    "$maxCapacity"
+            ) ) );
+        }
+        return mongoTemplate.updateFirst(
+                new BasicQuery( filter ),
+                new Update().inc( USED_CAPACITY, delta ).set( "lastModifiedDate", Instant.now() ),
+                mongoTemplate.getCollectionName( Warehouse.class )
+        ).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<Warehouse> updateDetails( String warehouseId, Map<String, Object> changes, Long expectedVersion ) {
+        Document filter = new Document( "_id", toStoreId( warehouseId ) );
+        if ( expectedVersion != null ) {
+            filter.putAll( Versions.is( expectedVersion ).getCriteriaObject() );
+        }
+        if ( changes.get( "maxCapacity" ) instanceof Number maxCapacity ) {
+            filter.append( "$expr", new Document( "$lte", List.of(
+                    new Document( "$ifNull", List.of( "$" + USED_CAPACITY, 0 ) ), maxCapacity
+            ) ) );
+        }
+
+        // a pipeline update, so the location can be derived from the stored coordinate that did not change
+        Document fields = new Document();
+        changes.forEach( ( field, value ) -> fields.append( field, new Document( "$literal", resolver.toStoreValue( value ) ) ) );
+        fields.append( "lastModifiedDate", new Document( "$literal", new Date() ) )
+                .append( Versions.FIELD, Versions.next() );
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add( new Document( "$set", fields ) );
+        if ( changes.containsKey( "lat" ) || changes.containsKey( "lng" ) ) {
+            pipeline.add( new Document( "$set", new Document( "location", new Document( "$cond", List.of(
+                    new Document( "$and", List.of( new Document( "$isNumber", "$lat" ), new Document( "$isNumber", "$lng" ) ) ),
+                    new Document( "type", "Point" ).append( "coordinates", List.of( "$lng", "$lat" ) ),
+                    "$$REMOVE"
+            ) ) ) ) );
+        }
+
+        Document updated = mongoTemplate.getCollection( mongoTemplate.getCollectionName( Warehouse.class ) ).findOneAndUpdate(
+                filter, pipeline, new FindOneAndUpdateOptions().returnDocument( ReturnDocument.AFTER )
+        );
+        return Optional.ofNullable( updated ).map( document -> resolver.resolveWarehouses( List.of( document ) ).getFirst() );
+    }
+
+    @Override
+    public long backfillUsedCapacity() {
+        Query missing = Query.query( Criteria.where( USED_CAPACITY ).exists( false ) );
+        missing.fields().include( "_id" );
+        List<Object> warehouseIds = mongoTemplate.find( missing, Document.class, mongoTemplate.getCollectionName( Warehouse.class ) )
+                .stream()
+                .map( document -> document.get( "_id" ) )
+                .toList();
+        if ( warehouseIds.isEmpty() ) {
+            return 0;
+        }
+
+        Aggregation sumByWarehouse = Aggregation.newAggregation( List.<AggregationOperation>of(
+                context -> new Document( "$match", new Document( "warehouse", new Document( "$in", warehouseIds ) ) ),
+                context -> new Document( "$group", new Document( "_id", "$warehouse" )
+                        .append( "used", new Document( "$sum", "$quantity" ) ) )
+        ) );
+        List<Document> sums = mongoTemplate.aggregate(
+                sumByWarehouse, mongoTemplate.getCollectionName( Inventory.class ), Document.class
+        ).getMappedResults();
+
+        long updated = 0;
+        for ( Document sum : sums ) {
+            updated += setUsedCapacityIfMissing( Criteria.where( "_id" ).is( sum.get( "_id" ) ), sum.get( "used", Number.class ).longValue() );
+        }
+        updated += setUsedCapacityIfMissing( Criteria.where( "_id" ).in( warehouseIds ), 0 );
+        return updated;
+    }
+
+    private long setUsedCapacityIfMissing( Criteria criteria, long usedCapacity ) {
+        return mongoTemplate.updateMulti(
+                Query.query( criteria.and( USED_CAPACITY ).exists( false ) ),
+                new Update().set( USED_CAPACITY, usedCapacity ).set( "lastModifiedDate", Instant.now() ),
+                mongoTemplate.getCollectionName( Warehouse.class )
+        ).getModifiedCount();
+    }
+}
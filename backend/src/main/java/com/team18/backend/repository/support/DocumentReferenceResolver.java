@@ -0,0 +1,352 @@
+package com.team18.backend.repository.support;
+
+import com.team18.backend.model.*;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Resolves {@link DocumentReference} links for a whole result set at once.
+ * <p>
+ * Spring Data resolves every {@code @DocumentReference} with a separate query per document, so listing
+ * N inventory rows costs one query for the rows plus one per warehouse, item and shop reference.
+ * This resolver reads the raw documents instead, collects the distinct referenced ids per target
+ * collection, loads each collection with a single {@code $in} query and wires the entities back together.
+ *
+ * @author Team18
+ */
+public class DocumentReferenceResolver {
+
+    /**
+     * Number of documents read from a streaming cursor before their references are resolved together.
+     */
+    static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public DocumentReferenceResolver( MongoTemplate mongoTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Converts an entity id into the representation used by the store, which is how
+     * {@code @DocumentReference} fields persist their pointer.
+     *
+     * @param id the entity id
+     * @return an {@link ObjectId} if the id is a valid hex object id, otherwise the id itself
+     */
+    public static Object toStoreId( String id ) {
+        return id != null && ObjectId.isValid( id ) ? new ObjectId( id ) : id;
+    }
+
+    /**
+     * Converts a field value for a targeted update. Entities are stored as their id, as
+     * {@code @DocumentReference} fields persist them.
+     */
+    public Object toStoreValue( Object value ) {
+        return value instanceof BaseModel entity
+                ? toStoreId( entity.getId() )
+                : mongoTemplate.getConverter().convertToMongoType( value );
+    }
+
+    public static List<Object> toStoreIds( Collection<String> ids ) {
+        return ids.stream().map( DocumentReferenceResolver::toStoreId ).toList();
+    }
+
+    /**
+     * Builds a keyset page query: ordered by {@code _id}, starting after the given id.
+     *
+     * @param afterId the id of the last row of the previous page, or {@code null} for the first page
+     * @param limit   the maximum number of rows to read
+     */
+    public static Query pageQuery( String afterId, int limit ) {
+        Query query = afterId != null
+                ? Query.query( Criteria.where( "_id" ).gt( toStoreId( afterId ) ) )
+                : new Query();
+        return query.with( Sort.by( Sort.Direction.ASC, "_id" ) ).limit( limit );
+    }
+
+    /**
+     * Limits a query to the given fields. Reference fields are read as far as the fields inside them are
+     * selected, and references whose field is not selected are not loaded at all.
+     *
+     * @param fields dotted document field paths, e.g. {@code item.sku}, or an empty set for all fields
+     */
+    public List<Inventory> findInventory( Query query, Set<String> fields ) {
+        return resolveInventory( findDocuments( project( query, fields, "quantity" ), Inventory.class ), fields );
+    }
+
+    public List<Inventory> findInventory( Query query ) {
+        return findInventory( query, Set.of() );
+    }
+
+    public List<Warehouse> findWarehouses( Query query, Set<String> fields ) {
+        return resolveWarehouses( findDocuments( project( query, fields, "maxCapacity" ), Warehouse.class ), fields );
+    }
+
+    public List<Warehouse> findWarehouses( Query query ) {
+        return findWarehouses( query, Set.of() );
+    }
+
+    public List<Shipment> findShipments( Query query ) {
+        return resolveShipments( findDocuments( query, Shipment.class ) );
+    }
+
+    public List<ShipmentLineItem> findShipmentLineItems( Query query ) {
+        return resolveShipmentLineItems( findDocuments( query, ShipmentLineItem.class ) );
+    }
+
+    /**
+     * Streams inventory with a server-side cursor, resolving references in batches of
+     * {@value #STREAM_BATCH_SIZE} rows. The returned stream holds an open cursor and must be closed.
+     */
+    public Stream<Inventory> streamInventory( Query query ) {
+        return streamResolved( query, Inventory.class, this::resolveInventory );
+    }
+
+    public Stream<Shipment> streamShipments( Query query ) {
+        return streamResolved( query, Shipment.class, this::resolveShipments );
+    }
+
+    public Stream<ShipmentLineItem> streamShipmentLineItems( Query query ) {
+        return streamResolved( query, ShipmentLineItem.class, this::resolveShipmentLineItems );
+    }
+
+    public List<Inventory> resolveInventory( List<Document> documents ) {
+        return resolveInventory( documents, Set.of() );
+    }
+
+    private List<Inventory> resolveInventory( List<Document> documents, Set<String> fields ) {
+        Map<String, Warehouse> warehouses = loadWarehouses( referencedIds( documents, "warehouse" ), nested( fields, "warehouse" ) );
+        Map<String, Item> items = loadItems( referencedIds( documents, "item" ), nested( fields, "item" ) );
+
+        return documents.stream().map( document -> {
+            Inventory inventory = read( Inventory.class, document, "warehouse", "item" );
+            inventory.setWarehouse( warehouses.get( referenceId( document, "warehouse" ) ) );
+            inventory.setItem( items.get( referenceId( document, "item" ) ) );
+            return inventory;
+        } ).toList();
+    }
+
+    public List<Warehouse> resolveWarehouses( List<Document> documents ) {
+        return resolveWarehouses( documents, Set.of() );
+    }
+
+    private List<Warehouse> resolveWarehouses( List<Document> documents, Set<String> fields ) {
+        Map<String, Shop> shops = loadShops( referencedIds( documents, "shop" ), nested( fields, "shop" ) );
+
+        return documents.stream().map( document -> {
+            Warehouse warehouse = read( Warehouse.class, document, "shop" );
+            warehouse.setShop( shops.get( referenceId( document, "shop" ) ) );
+            return warehouse;
+        } ).toList();
+    }
+
+    public List<Shipment> resolveShipments( List<Document> documents ) {
+        Map<String, Warehouse> warehouses = loadWarehouses( referencedIds( documents, "warehouse" ), Set.of() );
+
+        return documents.stream().map( document -> {
+            Shipment shipment = read( Shipment.class, document, "warehouse" );
+            shipment.setWarehouse( warehouses.get( referenceId( document, "warehouse" ) ) );
+            return shipment;
+        } ).toList();
+    }
+
+    public List<ShipmentLineItem> resolveShipmentLineItems( List<Document> documents ) {
+        Map<String, Shipment> shipments = loadShipments( referencedIds( documents, "shipment" ) );
+        Map<String, Item> items = loadItems( referencedIds( documents, "item" ), Set.of() );
+
+        return documents.stream().map( document -> {
+            ShipmentLineItem lineItem = read( ShipmentLineItem.class, document, "shipment", "item" );
+            lineItem.setShipment( shipments.get( referenceId( document, "shipment" ) ) );
+            lineItem.setItem( items.get( referenceId( document, "item" ) ) );
+            return lineItem;
+        } ).toList();
+    }
+
+    /**
+     * Reads the shipments of every warehouse of a shop together with their warehouse and shop in a single
+     * aggregation. The shop is matched by id and its warehouses and their shipments are joined with
+     * {@code $lookup}; empty joins are preserved so an existing shop without shipments can be told apart
+     * from a missing shop.
+     *
+     * @param shipmentFilter filter applied to the shipments inside the join, in store representation
+     * @return the shipments ordered by id, or empty if the shop does not exist
+     */
+    public Optional<List<Shipment>> aggregateShipmentsOfShop( String shopId, Document shipmentFilter ) {
+        Aggregation aggregation = Aggregation.newAggregation( Stream.of(
+                new Document( "$match", new Document( "_id", toStoreId( shopId ) ) ),
+                new Document( "$lookup", new Document( "from", mongoTemplate.getCollectionName( Warehouse.class ) )
+                        .append( "localField", "_id" )
+                        .append( "foreignField", "shop" )
+                        .append( "as", "warehouse" ) ),
+                new Document( "$unwind", new Document( "path", "$warehouse" ).append( "preserveNullAndEmptyArrays", true ) ),
+                new Document( "$lookup", new Document( "from", mongoTemplate.getCollectionName( Shipment.class ) )
+                        .append( "localField", "warehouse._id" )
+                        .append( "foreignField", "warehouse" )
+                        .append( "pipeline", List.of(
+                                new Document( "$match", shipmentFilter ),
+                                new Document( "$project", new Document( "lineItems", 0 ) )
+                        ) )
+                        .append( "as", "shipment" ) ),
+                new Document( "$unwind", new Document( "path", "$shipment" ).append( "preserveNullAndEmptyArrays", true ) ),
+                new Document( "$sort", new Document( "shipment._id", 1 ) )
+        ).<AggregationOperation>map( stage -> context -> stage ).toList() ).withOptions(
+                AggregationOptions.builder().allowDiskUse( true ).build()
+        );
+
+        List<Document> rows = mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName( Shop.class ), Document.class
+        ).getMappedResults();
+        if ( rows.isEmpty() ) {
+            return Optional.empty();
+        }
+
+        Shop shop = read( Shop.class, rows.getFirst(), "warehouse", "shipment" );
+        Map<Object, Warehouse> warehouses = new HashMap<>();
+        List<Shipment> shipments = new ArrayList<>();
+        for ( Document row : rows ) {
+            Document shipmentDocument = row.get( "shipment", Document.class );
+            if ( shipmentDocument == null ) continue;
+
+            Document warehouseDocument = row.get( "warehouse", Document.class );
+            Warehouse warehouse = warehouses.computeIfAbsent( warehouseDocument.get( "_id" ), id -> {
+                Warehouse read = read( Warehouse.class, warehouseDocument, "shop" );
+                read.setShop( shop );
+                return read;
+            } );
+            Shipment shipment = read( Shipment.class, shipmentDocument, "warehouse" );
+            shipment.setWarehouse( warehouse );
+            shipments.add( shipment );
+        }
+        return Optional.of( shipments );
+    }
+
+    private Map<String, Shop> loadShops( Set<Object> ids, Set<String> fields ) {
+        if ( ids.isEmpty() ) return Map.of();
+        return index( mongoTemplate.find( project( byIds( ids ), fields ), Shop.class ), Shop::getId );
+    }
+
+    private Map<String, Item> loadItems( Set<Object> ids, Set<String> fields ) {
+        if ( ids.isEmpty() ) return Map.of();
+        return index( mongoTemplate.find( project( byIds( ids ), fields ), Item.class ), Item::getId );
+    }
+
+    private Map<String, Warehouse> loadWarehouses( Set<Object> ids, Set<String> fields ) {
+        if ( ids.isEmpty() ) return Map.of();
+        return index( findWarehouses( byIds( ids ), fields ), Warehouse::getId );
+    }
+
+    private Map<String, Shipment> loadShipments( Set<Object> ids ) {
+        if ( ids.isEmpty() ) return Map.of();
+        return index( resolveShipments( findDocuments( byIds( ids ), Shipment.class ) ), Shipment::getId );
+    }
+
+    private <T> Stream<T> streamResolved( Query query, Class<?> entityClass, Function<List<Document>, List<T>> resolve ) {
+        Stream<Document> documents = mongoTemplate.stream(
+                query.cursorBatchSize( STREAM_BATCH_SIZE ),
+                Document.class,
+                mongoTemplate.getCollectionName( entityClass )
+        );
+        Iterator<Document> cursor = documents.iterator();
+
+        Iterator<List<T>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<Document> batch = new ArrayList<>( STREAM_BATCH_SIZE );
+                while ( cursor.hasNext() && batch.size() < STREAM_BATCH_SIZE ) {
+                    batch.add( cursor.next() );
+                }
+                return resolve.apply( batch );
+            }
+        };
+
+        return StreamSupport.stream( Spliterators.spliteratorUnknownSize( batches, Spliterator.ORDERED ), false )
+                .flatMap( List::stream )
+                .onClose( documents::close );
+    }
+
+    private List<Document> findDocuments( Query query, Class<?> entityClass ) {
+        return mongoTemplate.find( query, Document.class, mongoTemplate.getCollectionName( entityClass ) );
+    }
+
+    /**
+     * Maps a raw document onto its entity while leaving out the reference fields, so the converter
+     * does not issue its own per-document lookups for them.
+     */
+    private <T> T read( Class<T> entityClass, Document document, String... referenceFields ) {
+        Document withoutReferences = new Document( document );
+        for ( String field : referenceFields ) {
+            withoutReferences.remove( field );
+        }
+        return mongoTemplate.getConverter().read( entityClass, withoutReferences );
+    }
+
+    /**
+     * Includes the top-level field of every path in the projection of the query; {@code _id} is always read.
+     *
+     * @param requiredFields fields the entity cannot be read without, such as primitive constructor arguments
+     */
+    private static Query project( Query query, Set<String> fields, String... requiredFields ) {
+        if ( fields.isEmpty() ) return query;
+
+        for ( String path : fields ) {
+            String field = path.split( "\\.", 2 )[0];
+            if ( !field.equals( "id" ) ) query.fields().include( field );
+        }
+        query.fields().include( requiredFields );
+        return query;
+    }
+
+    /**
+     * @return the paths inside a reference field, or an empty set if it is selected as a whole
+     */
+    private static Set<String> nested( Set<String> fields, String field ) {
+        Set<String> nested = new HashSet<>();
+        for ( String path : fields ) {
+            if ( path.equals( field ) ) return Set.of();
+            if ( path.startsWith( field + "." ) ) nested.add( path.substring( field.length() + 1 ) );
+        }
+        return nested;
+    }
+
+    private static Query byIds( Set<Object> ids ) {
+        return Query.query( Criteria.where( "_id" ).in( ids ) );
+    }
+
+    private static Set<Object> referencedIds( List<Document> documents, String field ) {
+        Set<Object> ids = new HashSet<>();
+        for ( Document document : documents ) {
+            Object id = document.get( field );
+            if ( id != null ) ids.add( id );
+        }
+        return ids;
+    }
+
+    private static String referenceId( Document document, String field ) {
+        Object id = document.get( field );
+        return id != null ? id.toString() : null;
+    }
+
+    private static <T> Map<String, T> index( List<T> entities, Function<T, String> idGetter ) {
+        return entities.stream().collect( Collectors.toMap( idGetter, Function.identity(), ( a, b ) -> a ) );
+    }
+}
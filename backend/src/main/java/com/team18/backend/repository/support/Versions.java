@@ -0,0 +1,39 @@
+package com.team18.backend.repository.support;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Predicates and increments of the {@code version} field of versioned entities, for targeted updates that
+ * bypass the version handling of {@code save}.
+ * <p>
+ * The version is incremented by every write of the editable fields, so an update can require the version a
+ * client read. Changes of the used capacity of a warehouse do not count, so stock movements do not invalidate
+ * it. Documents written before versioning have no version field and count as version 0.
+ */
+public final class Versions {
+
+    public static final String FIELD = "version";
+
+    private Versions() {
+    }
+
+    /**
+     * Matches documents that still have the given version.
+     */
+    public static Criteria is( long version ) {
+        return version == 0
+                ? Criteria.where( FIELD ).in( Arrays.asList( 0L, null ) )
+                : Criteria.where( FIELD ).is( version );
+    }
+
+    /**
+     * The next version as an aggregation expression, for pipeline updates which cannot use {@code $inc}.
+     */
+    public static Document next() {
+        return new Document( "$add", List.of( new Document( "$ifNull", Arrays.asList( "$" + FIELD, 0L ) ), 1L ) );
+    }
+}
@@ -2,14 +2,13 @@ package com.team18.backend.scripts;
 
 import com.team18.backend.model.*;
 import com.team18.backend.repository.*;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import com.team18.backend.service.search.ItemSearchIndex;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 
-import java.security.SecureRandom;
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @ShellComponent
 public class SeedCommands {
@@ -20,6 +19,9 @@ public class SeedCommands {
     private final ItemRepo itemRepo;
     private final InventoryRepository inventoryRepository;
     private final ShipmentLineItemRepository shipmentLineItemRepository;
+    private final SeedDataGenerator seedDataGenerator;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCatalogCache itemCatalogCache;
 
     public SeedCommands(
             ShopRepository shopRepository,
@@ -27,7 +29,10 @@ public class SeedCommands {
             ShipmentRepository shipmentRepository,
             ItemRepo itemRepo,
             InventoryRepository inventoryRepository,
-            ShipmentLineItemRepository shipmentLineItemRepository
+            ShipmentLineItemRepository shipmentLineItemRepository,
+            SeedDataGenerator seedDataGenerator,
+            ItemSearchIndex itemSearchIndex,
+            ItemCatalogCache itemCatalogCache
     ) {
         this.shopRepository = shopRepository;
         this.warehouseRepository = warehouseRepository;
@@ -35,20 +40,55 @@ public class SeedCommands {
         this.itemRepo = itemRepo;
         this.inventoryRepository = inventoryRepository;
         this.shipmentLineItemRepository = shipmentLineItemRepository;
+        this.seedDataGenerator = seedDataGenerator;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemCatalogCache = itemCatalogCache;
     }
 
-    @ShellMethod("Seeds the database with test data. It requires the database to be emtpy")
-    public String seed() {
-        long shopCount = shopRepository.count();
-        long warehouseCount = warehouseRepository.count();
-        long itemCount = itemRepo.count();
-        long inventoryCount = inventoryRepository.count();
-        long shipmentCount = shipmentRepository.count();
-        long lineItemCount = shipmentLineItemRepository.count();
+    @ShellMethod("Seeds the database with test data. It requires the database to be emtpy. Without counts a small fixed "
+            + "data set is inserted, with counts a synthetic data set of that size is generated")
+    public String seed(
+            @ShellOption(value = "--shops", defaultValue = "0", help = "Number of shops to generate") int shops,
+            @ShellOption(value = "--warehouses", defaultValue = "0", help = "Number of warehouses to generate") int warehouses,
+            @ShellOption(value = "--items", defaultValue = "0", help = "Number of items to generate") int items,
+            @ShellOption(value = "--shipments", defaultValue = "0", help = "Number of shipments to generate") int shipments,
+            @ShellOption(value = "--line-items", defaultValue = "8", help = "Average number of line items per shipment") int lineItems,
+            @ShellOption(value = "--stock", defaultValue = "200", help = "Average number of distinct items stocked per warehouse") int stock,
+            @ShellOption(value = "--threads", defaultValue = "0", help = "Writer threads, defaults to the number of processors") int threads,
+            @ShellOption(value = "--seed", defaultValue = "42", help = "Seed of the random data") long seed
+    ) {
+        if ( shops == 0 && warehouses == 0 && items == 0 && shipments == 0 ) {
+            return seed();
+        }
+        if ( !isEmpty() ) {
+            return "✅ MongoDB already contains data. Skipping seeding.";
+        }
 
-        if ( shopCount == 0 && warehouseCount == 0 && itemCount == 0 && inventoryCount == 0 && shipmentCount == 0 && lineItemCount == 0 ) {
-            SecureRandom random = new SecureRandom();
+        int shopCount = Math.max( shops, 1 );
+        SeedDataGenerator.Summary summary = seedDataGenerator.generate( new SeedDataGenerator.Options(
+                shopCount,
+                Math.max( warehouses, shopCount ),
+                Math.max( items, 1 ),
+                shipments,
+                lineItems,
+                stock,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                seed
+        ) );
+        // the generator writes to MongoDB directly
+        itemCatalogCache.evictAll();
+        itemSearchIndex.rebuild();
+        return String.format(
+                "🌱 MongoDB has been seeded with %d generated documents in %d s (%d documents/s): %s",
+                summary.total(), summary.duration().toSeconds(), Math.round( summary.documentsPerSecond() ), summary.documents()
+        );
+    }
 
+    /**
+     * Inserts a small fixed data set of one shop with four warehouses and a catalog of real products.
+     */
+    public String seed() {
+        if ( isEmpty() ) {
             // Seed shop
             Shop shop = shopRepository.save(
                     new Shop(
@@ -112,7 +152,7 @@ public class SeedCommands {
                     489_000
             );
 
-            List<Warehouse> warehouses = warehouseRepository.saveAll(
+            warehouseRepository.saveAll(
                     List.of(
                             warehouseNorth,
                             warehouseEast,
@@ -122,7 +162,7 @@ public class SeedCommands {
             );
 
             // Seed items
-            List<Item> items = itemRepo.saveAll(
+            itemRepo.saveAll(
                     List.of(
                             new Item(
                                     null,
@@ -381,73 +421,8 @@ public class SeedCommands {
                             )
                     )
             );
-
-//            inventoryRepository.saveAll(
-//                    items.stream().flatMap( item -> warehouses.stream().map( warehouse -> {
-//                                int quantity = 20 + random.nextInt( 2000 - 20 + 1 );
-//                                return new Inventory(
-//                                        warehouse,
-//                                        item,
-//                                        quantity
-//                                );
-//                            } )
-//                    ).toList()
-//            );
-//
-//            // Seed Shipments
-//            LocalDate now = LocalDate.now();
-//            LocalDate start = now.minusMonths( 1 );
-//            LocalDate end = now.plusMonths( 3 );
-//
-//            long startEpoch = start.toEpochDay();
-//            long endEpoch = end.toEpochDay();
-//
-//            Map<Integer, ShipmentStatus> statusMap = Map.of(
-//                    0, ShipmentStatus.ORDERED,
-//                    1, ShipmentStatus.PROCESSED,
-//                    2, ShipmentStatus.IN_DELIVERY,
-//                    3, ShipmentStatus.COMPLETED
-//            );
-//
-//            List<Shipment> shipments = shipmentRepository.saveAll(
-//                    warehouses.stream().flatMap( warehouse -> {
-//                        List<Shipment> shipmentList = new ArrayList<>();
-//                        for ( int i = 0; i < 10; i++ ) {
-//                            long randomDay = startEpoch + Math.absExact( random.nextLong() ) % ( endEpoch - startEpoch + 1 );
-//                            int status = random.nextInt( 4 );
-//                            shipmentList.add(
-//                                    new Shipment(
-//                                            warehouse,
-//                                            LocalDate.ofEpochDay( randomDay ),
-//                                            statusMap.get( status )
-//                                    )
-//                            );
-//                        }
-//                        return shipmentList.stream();
-//                    } ).toList()
-//            );
-//
-//            int bound = items.size() - 1;
-//
-//            shipmentLineItemRepository.saveAll(
-//                    shipments.stream().flatMap( shipment -> {
-//                        List<ShipmentLineItem> lineItemList = new ArrayList<>();
-//                        for ( int i = 0; i < 10; i++ ) {
-//                            int randomItem = random.nextInt( bound );
-//                            int quantity = random.nextInt( 500 );
-//                            Item item = items.get( randomItem );
-//                            lineItemList.add(
-//                                    new ShipmentLineItem(
-//                                            shipment,
-//                                            item,
-//                                            quantity,
-//                                            quantity
-//                                    )
-//                            );
-//                        }
-//                        return lineItemList.stream();
-//                    } ).toList()
-//            );
+            itemCatalogCache.evictAll();
+            itemSearchIndex.rebuild();
 
             return "🌱 MongoDB has been seeded with new data.";
         } else {
@@ -455,6 +430,15 @@ public class SeedCommands {
         }
     }
 
+    private boolean isEmpty() {
+        return shopRepository.count() == 0
+                && warehouseRepository.count() == 0
+                && itemRepo.count() == 0
+                && inventoryRepository.count() == 0
+                && shipmentRepository.count() == 0
+                && shipmentLineItemRepository.count() == 0;
+    }
+
     @ShellMethod("Resets the database by erasing all data")
     public String reset() {
         if ( this.shipmentRepository.count() != 0 ) {
@@ -475,6 +459,8 @@ public class SeedCommands {
         if ( this.shipmentLineItemRepository.count() != 0 ) {
             this.shipmentLineItemRepository.deleteAll();
         }
+        itemCatalogCache.evictAll();
+        itemSearchIndex.clear();
 
         return "✅ MongoDB has been reset.";
     }
@@ -0,0 +1,360 @@
+package com.team18.backend.scripts;
+
+import com.team18.backend.model.*;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a synthetic data set of a given size, to reproduce production-scale performance locally.
+ * <p>
+ * The data is skewed like real traffic: shops own very different numbers of warehouses, a few warehouses
+ * receive most shipments and a few items make up most line items. Most shipments are completed in the past,
+ * the others arrive in the coming weeks. Every warehouse stocks a share of the catalog, its used capacity
+ * matches its inventory and its maximum capacity leaves room for more.
+ * <p>
+ * Documents are generated and written in batches on a thread pool with unordered bulk inserts, each batch
+ * from its own random generator derived from the seed, so the same options produce the same data apart from
+ * the generated ids. Line items
+ * are written to their collection and then moved into the configured {@link ShipmentLineItemStore} layout.
+ * The insertion rate is logged while the generator runs.
+ */
+@Component
+public class SeedDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger( SeedDataGenerator.class );
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds( 5 );
+
+    private static final String[] BRANDS = {
+            "K-Classic", "Barilla", "Haribo", "Müller", "Milka", "Dr. Oetker", "Granini", "Kerrygold", "Nestlé", "Bio Sonne"
+    };
+    private static final String[] PRODUCTS = {
+            "Spaghetti", "Mineralwasser", "Joghurt", "Orangensaft", "Cornflakes", "Olivenöl", "Kaffee", "Butter",
+            "Schokolade", "Tomatenmark", "Reis", "Haferflocken", "Ketchup", "Chips", "Pizza", "Apfelmus"
+    };
+    private static final String[] SIZES = { "100g", "250g", "500g", "750g", "1kg", "200ml", "500ml", "1L", "1,5L" };
+    private static final String[][] CITIES = {
+            { "Kiel", "Schleswig-Holstein" }, { "Hamburg", "Hamburg" }, { "Berlin", "Berlin" },
+            { "Frankfurt (Oder)", "Brandenburg" }, { "Leipzig", "Sachsen" }, { "Hannover", "Niedersachsen" },
+            { "Köln", "Nordrhein-Westfalen" }, { "Dortmund", "Nordrhein-Westfalen" }, { "Frankfurt am Main", "Hessen" },
+            { "Stuttgart", "Baden-Württemberg" }, { "Nürnberg", "Bayern" }, { "München", "Bayern" }
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final ShipmentLineItemStore shipmentLineItemStore;
+
+    public SeedDataGenerator( MongoTemplate mongoTemplate, ShipmentLineItemStore shipmentLineItemStore ) {
+        this.mongoTemplate = mongoTemplate;
+        this.shipmentLineItemStore = shipmentLineItemStore;
+    }
+
+    /**
+     * Size and shape of the generated data.
+     *
+     * @param shops      number of shops, at least 1
+     * @param warehouses number of warehouses, at least one per shop
+     * @param items      number of items in the catalog, at least 1
+     * @param shipments  number of shipments
+     * @param lineItems  average number of line items per shipment
+     * @param stock      average number of distinct items stocked per warehouse
+     * @param threads    number of writer threads
+     * @param seed       seed of the random generators
+     */
+    public record Options(int shops, int warehouses, int items, int shipments, int lineItems, int stock, int threads, long seed) {
+
+        public Options {
+            if ( shops < 1 || warehouses < shops || items < 1 || shipments < 0 || lineItems < 1 || stock < 0 || threads < 1 ) {
+                throw new IllegalArgumentException(
+                        "Seeding needs at least one shop, one warehouse per shop, one item, one line item per shipment and one thread"
+                );
+            }
+        }
+    }
+
+    /**
+     * Documents written per collection and the time it took.
+     */
+    public record Summary(Map<String, Long> documents, Duration duration) {
+
+        public long total() {
+            return documents.values().stream().mapToLong( Long::longValue ).sum();
+        }
+
+        public double documentsPerSecond() {
+            return total() / Math.max( duration.toMillis() / 1000.0, 0.001 );
+        }
+    }
+
+    public Summary generate( Options options ) {
+        Progress progress = new Progress();
+        ExecutorService writers = Executors.newFixedThreadPool( options.threads() );
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate( progress::report, REPORT_INTERVAL.toMillis(), REPORT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS );
+
+        try {
+            List<Shop> shops = generateShops( writers, progress, options );
+            List<Item> items = generateItems( writers, progress, options );
+            List<Warehouse> warehouses = generateWarehouses( writers, progress, options, shops, items );
+            generateShipments( writers, progress, options, warehouses, items );
+
+            long moved = shipmentLineItemStore.migrate();
+            if ( moved > 0 ) {
+                log.info( "Moved {} generated shipment line items into the configured storage", moved );
+            }
+        } finally {
+            reporter.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        progress.report();
+        return progress.summary();
+    }
+
+    private List<Shop> generateShops( ExecutorService writers, Progress progress, Options options ) {
+        List<Shop> shops = new ArrayList<>( options.shops() );
+        for ( int i = 0; i < options.shops(); i++ ) {
+            shops.add( new Shop( new ObjectId().toHexString(), String.format( "Shop %05d", i + 1 ) ) );
+        }
+        inBatches( writers, shops.size(), BATCH_SIZE, options.seed(), ( from, to, random ) ->
+                insert( progress, Shop.class, shops.subList( from, to ) )
+        );
+        return shops;
+    }
+
+    private List<Item> generateItems( ExecutorService writers, Progress progress, Options options ) {
+        SplittableRandom random = new SplittableRandom( options.seed() );
+        List<Item> items = new ArrayList<>( options.items() );
+        for ( int i = 0; i < options.items(); i++ ) {
+            String name = BRANDS[random.nextInt( BRANDS.length )] + " " + PRODUCTS[random.nextInt( PRODUCTS.length )]
+                    + " " + SIZES[random.nextInt( SIZES.length )] + " #" + ( i + 1 );
+            items.add( new Item( new ObjectId().toHexString(), String.format( "GEN-%07d", i + 1 ), name ) );
+        }
+        inBatches( writers, items.size(), BATCH_SIZE, options.seed(), ( from, to, batchRandom ) ->
+                insert( progress, Item.class, items.subList( from, to ) )
+        );
+        return items;
+    }
+
+    /**
+     * Writes the warehouses with their inventory and sets their used capacity to the sum of it.
+     */
+    private List<Warehouse> generateWarehouses( ExecutorService writers, Progress progress, Options options, List<Shop> shops, List<Item> items ) {
+        ZipfSampler shopSampler = new ZipfSampler( shops.size(), 1.0 );
+        ZipfSampler itemSampler = new ZipfSampler( items.size(), 0.8 );
+        List<Warehouse> warehouses = new ArrayList<>( options.warehouses() );
+        for ( int i = 0; i < options.warehouses(); i++ ) {
+            warehouses.add( null );
+        }
+
+        inBatches( writers, options.warehouses(), BATCH_SIZE / 10, options.seed() + 1, ( from, to, random ) -> {
+            List<Warehouse> batch = new ArrayList<>( to - from );
+            List<Inventory> inventory = new ArrayList<>();
+            Map<String, Long> usedCapacities = new TreeMap<>();
+
+            for ( int i = from; i < to; i++ ) {
+                // every shop gets a warehouse, the remaining ones go mostly to a few large shops
+                Shop shop = shops.get( i < shops.size() ? i : shopSampler.sample( random ) );
+                String[] city = CITIES[random.nextInt( CITIES.length )];
+                String id = new ObjectId().toHexString();
+
+                int stocked = Math.min( items.size(), ( int ) Math.round( options.stock() * ( 0.25 + 1.5 * random.nextDouble() ) ) );
+                Map<Integer, Integer> quantities = new TreeMap<>();
+                long used = 0;
+                for ( int itemIndex : distinct( itemSampler, stocked, random ) ) {
+                    int quantity = 20 + random.nextInt( 1981 );
+                    quantities.put( itemIndex, quantity );
+                    used += quantity;
+                }
+
+                int maxCapacity = ( int ) Math.min( Integer.MAX_VALUE, Math.max( 10_000, Math.round( used * ( 1.25 + 2 * random.nextDouble() ) ) ) );
+                Warehouse warehouse = new Warehouse(
+                        id,
+                        String.format( "Warehouse %05d %s", i + 1, city[0] ),
+                        shop,
+                        47.3 + random.nextDouble() * 7.7,
+                        5.9 + random.nextDouble() * 9.1,
+                        "Industriestraße",
+                        String.valueOf( 1 + random.nextInt( 200 ) ),
+                        city[0],
+                        String.format( "%05d", 1_000 + random.nextInt( 98_000 ) ),
+                        city[1],
+                        "Deutschland",
+                        maxCapacity
+                );
+                batch.add( warehouse );
+                quantities.forEach( ( itemIndex, quantity ) -> inventory.add( new Inventory( warehouse, items.get( itemIndex ), quantity ) ) );
+                usedCapacities.put( id, used );
+                warehouses.set( i, warehouse );
+            }
+
+            insert( progress, Warehouse.class, batch );
+            insert( progress, Inventory.class, inventory );
+
+            BulkOperations capacities = mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, Warehouse.class );
+            usedCapacities.forEach( ( id, used ) -> capacities.updateOne(
+                    Query.query( Criteria.where( "_id" ).is( id ) ), new Update().set( "usedCapacity", used ).set( "lastModifiedDate", Instant.now() )
+            ) );
+            capacities.execute();
+        } );
+        return warehouses;
+    }
+
+    private void generateShipments( ExecutorService writers, Progress progress, Options options, List<Warehouse> warehouses, List<Item> items ) {
+        ZipfSampler warehouseSampler = new ZipfSampler( warehouses.size(), 1.0 );
+        ZipfSampler itemSampler = new ZipfSampler( items.size(), 1.1 );
+        LocalDate today = LocalDate.now();
+
+        inBatches( writers, options.shipments(), BATCH_SIZE, options.seed() + 2, ( from, to, random ) -> {
+            List<Shipment> shipments = new ArrayList<>( to - from );
+            List<ShipmentLineItem> lineItems = new ArrayList<>( ( to - from ) * options.lineItems() );
+
+            for ( int i = from; i < to; i++ ) {
+                ShipmentStatus status = status( random );
+                LocalDate arrival = status == ShipmentStatus.COMPLETED
+                        ? today.minusDays( random.nextInt( 365 ) )
+                        : today.plusDays( random.nextInt( 90 ) );
+                Shipment shipment = new Shipment(
+                        new ObjectId().toHexString(), warehouses.get( warehouseSampler.sample( random ) ), arrival, status
+                );
+                shipments.add( shipment );
+
+                int count = 1 + random.nextInt( 2 * options.lineItems() - 1 );
+                for ( int line = 0; line < count; line++ ) {
+                    int expected = ( int ) Math.ceil( Math.exp( random.nextDouble() * Math.log( 500 ) ) );
+                    int received = status == ShipmentStatus.COMPLETED
+                            ? ( random.nextInt( 10 ) == 0 ? random.nextInt( expected + 1 ) : expected )
+                            : 0;
+                    lineItems.add( new ShipmentLineItem( shipment, items.get( itemSampler.sample( random ) ), expected, received ) );
+                }
+            }
+
+            insert( progress, Shipment.class, shipments );
+            insert( progress, ShipmentLineItem.class, lineItems );
+        } );
+    }
+
+    private static ShipmentStatus status( SplittableRandom random ) {
+        int roll = random.nextInt( 100 );
+        if ( roll < 70 ) return ShipmentStatus.COMPLETED;
+        if ( roll < 80 ) return ShipmentStatus.IN_DELIVERY;
+        if ( roll < 90 ) return ShipmentStatus.PROCESSED;
+        return ShipmentStatus.ORDERED;
+    }
+
+    /**
+     * Draws {@code count} distinct indexes, mostly following the sampler and filled up with neighbours once
+     * popular indexes keep repeating.
+     */
+    private static Set<Integer> distinct( ZipfSampler sampler, int count, SplittableRandom random ) {
+        Set<Integer> chosen = new LinkedHashSet<>();
+        for ( int attempt = 0; chosen.size() < count && attempt < count * 4; attempt++ ) {
+            chosen.add( sampler.sample( random ) );
+        }
+        for ( int next = random.nextInt( sampler.size() ); chosen.size() < count; next = ( next + 1 ) % sampler.size() ) {
+            chosen.add( next );
+        }
+        return chosen;
+    }
+
+    private <T> void insert( Progress progress, Class<T> type, List<? extends T> documents ) {
+        if ( documents.isEmpty() ) return;
+        mongoTemplate.bulkOps( BulkOperations.BulkMode.UNORDERED, type ).insert( documents ).execute();
+        progress.add( mongoTemplate.getCollectionName( type ), documents.size() );
+    }
+
+    @FunctionalInterface
+    private interface Batch {
+        void write( int from, int to, SplittableRandom random );
+    }
+
+    /**
+     * Runs {@code batch} for consecutive ranges of {@code count} on the writers and waits for all of them.
+     */
+    private static void inBatches( ExecutorService writers, int count, int batchSize, long seed, Batch batch ) {
+        List<Future<?>> futures = new ArrayList<>();
+        for ( int from = 0; from < count; from += batchSize ) {
+            int start = from;
+            int end = Math.min( count, from + batchSize );
+            SplittableRandom random = new SplittableRandom( seed * 1_000_003 + from );
+            futures.add( writers.submit( () -> batch.write( start, end, random ) ) );
+        }
+
+        try {
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Seeding was interrupted", e );
+        } catch ( ExecutionException e ) {
+            throw new IllegalStateException( "Seeding failed: " + e.getCause().getMessage(), e.getCause() );
+        }
+    }
+
+    /**
+     * Counts written documents per collection and logs the insertion rate.
+     */
+    private static class Progress {
+
+        private final long started = System.nanoTime();
+        private final Map<String, LongAdder> documents = new ConcurrentHashMap<>();
+        private long lastTotal;
+        private long lastReport = started;
+
+        void add( String collection, int count ) {
+            documents.computeIfAbsent( collection, key -> new LongAdder() ).add( count );
+        }
+
+        synchronized void report() {
+            long now = System.nanoTime();
+            long total = documents.values().stream().mapToLong( LongAdder::sum ).sum();
+            double seconds = Math.max( ( now - lastReport ) / 1e9, 0.001 );
+            log.info( "Seeded {} documents, {} documents/s ({})",
+                    total, Math.round( ( total - lastTotal ) / seconds ), counts()
+            );
+            lastTotal = total;
+            lastReport = now;
+        }
+
+        Summary summary() {
+            Map<String, Long> counts = documents.entrySet().stream()
+                    .collect( Collectors.toMap( Map.Entry::getKey, entry -> entry.getValue().sum(), Long::sum, TreeMap::new ) );
+            return new Summary( counts, Duration.ofNanos( System.nanoTime() - started ) );
+        }
+
+        private String counts() {
+            return summary().documents().entrySet().stream()
+                    .map( entry -> entry.getKey() + "=" + entry.getValue() )
+                    .collect( Collectors.joining( ", " ) );
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.team18.backend.scripts;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes from {@code [0, size)} following a Zipf distribution: index {@code k} is drawn with a
+ * probability proportional to {@code 1 / (k + 1)^exponent}, so a few low indexes are drawn most of the time.
+ * Used to give generated data the skew of real traffic, with hot items and busy warehouses.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler( int size, double exponent ) {
+        if ( size < 1 ) {
+            throw new IllegalArgumentException( "size must be at least 1" );
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for ( int k = 0; k < size; k++ ) {
+            sum += 1 / Math.pow( k + 1, exponent );
+            cumulative[k] = sum;
+        }
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+
+    int sample( SplittableRandom random ) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch( cumulative, target );
+        return Math.min( index >= 0 ? index : -index - 1, cumulative.length - 1 );
+    }
+}
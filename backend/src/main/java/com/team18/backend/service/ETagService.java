@@ -0,0 +1,69 @@
+package com.team18.backend.service;
+
+import com.team18.backend.config.metrics.MetricsConfiguration;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Item;
+import com.team18.backend.model.Shop;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.ResourceVersion;
+import com.team18.backend.repository.ResourceVersionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Builds ETags for the list endpoints clients poll, from the {@link ResourceVersion} of every collection a
+ * response is built from. An ETag costs a few indexed lookups instead of reading and mapping the whole list,
+ * so an unchanged poll is answered with 304 Not Modified.
+ * <p>
+ * The ETags are weak: a version only has millisecond resolution, so a response read between two updates
+ * within the same millisecond carries the same ETag as the state after the second one. A client holding it
+ * gets 304 for that change until the next write moves the version forward.
+ * <p>
+ * Controllers read the ETag before the list. A write in between only makes the ETag older than the body,
+ * so the next poll gets the list again instead of keeping a stale one. Shops are never updated, so
+ * responses that embed a shop do not depend on the shop version.
+ */
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+public class ETagService {
+
+    private final ResourceVersionRepository repository;
+
+    public ETagService( ResourceVersionRepository repository ) {
+        this.repository = repository;
+    }
+
+    public String getShopsETag() {
+        return toETag( repository.findVersion( Shop.class ) );
+    }
+
+    public String getItemsETag() {
+        return toETag( repository.findVersion( Item.class ) );
+    }
+
+    public String getWarehousesETag() {
+        return toETag( repository.findVersion( Warehouse.class ) );
+    }
+
+    /**
+     * Covers the inventory of the warehouse, the warehouse itself, whose used capacity is part of every
+     * row, and the items.
+     */
+    public String getInventoryByWarehouseIdETag( String warehouseId ) {
+        return toETag(
+                repository.findVersion( Inventory.class, "warehouse", warehouseId ),
+                repository.findVersion( Warehouse.class, "_id", warehouseId ),
+                repository.findVersion( Item.class )
+        );
+    }
+
+    static String toETag( ResourceVersion... versions ) {
+        return Arrays.stream( versions )
+                .map( version -> Long.toHexString( version.count() ) + "-"
+                        + Long.toHexString( version.lastModified() != null ? version.lastModified().toEpochMilli() : 0 ) )
+                .collect( Collectors.joining( ".", "W/\"", "\"" ) );
+    }
+}
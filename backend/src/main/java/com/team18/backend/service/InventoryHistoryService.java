@@ -0,0 +1,163 @@
+package com.team18.backend.service;
+
+import com.team18.backend.config.metrics.MetricsConfiguration;
+import com.team18.backend.dto.inventory.InventoryHistoryPointDTO;
+import com.team18.backend.dto.inventory.InventoryHistoryResponseDTO;
+import com.team18.backend.exception.InvalidHistoryRequestException;
+import com.team18.backend.model.HistoryInterval;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.InventoryHistoryRepository;
+import com.team18.backend.repository.InventoryLevel;
+import com.team18.backend.repository.InventoryLevelBucket;
+import com.team18.backend.repository.InventoryRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records every change of an inventory quantity in the inventory history and reads it back downsampled.
+ * <p>
+ * History is written after the inventory write it describes succeeded. A failed history write is logged and
+ * does not fail the inventory write, so the history may miss a change but never shows one that did not happen.
+ */
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+public class InventoryHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger( InventoryHistoryService.class );
+
+    static final Duration DEFAULT_RANGE = Duration.ofDays( 30 );
+    static final int MAX_BUCKETS = 1000;
+
+    private static final Comparator<Series> SERIES_ORDER = Comparator.comparing( Series::warehouseId ).thenComparing( Series::itemId );
+
+    private final InventoryHistoryRepository repository;
+    private final InventoryRepository inventoryRepository;
+
+    public InventoryHistoryService( InventoryHistoryRepository repository, InventoryRepository inventoryRepository ) {
+        this.repository = repository;
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    /**
+     * Records that an item in a warehouse now has {@code quantity}, after changing by {@code change}.
+     */
+    public void recordLevel( Warehouse warehouse, String itemId, int quantity, int change ) {
+        record( List.of( level( warehouse, itemId, quantity, change, Instant.now() ) ) );
+    }
+
+    /**
+     * Records that an inventory row was deleted or moved to another warehouse or item, which leaves nothing
+     * of its item in its warehouse.
+     */
+    public void recordRemoval( Inventory removed ) {
+        record( List.of( level( removed.getWarehouse(), removed.getItem().getId(), 0, -removed.getQuantity(), Instant.now() ) ) );
+    }
+
+    /**
+     * Records the quantities a warehouse has after receiving a shipment. The increments are applied on the
+     * server, so the resulting quantities are read back.
+     *
+     * @param received the received quantity, keyed by item id
+     */
+    public void recordReceipt( Warehouse warehouse, Map<String, Integer> received ) {
+        if ( received.isEmpty() ) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            Map<String, Integer> quantities = inventoryRepository.findQuantitiesByWarehouseId( warehouse.getId(), received.keySet() );
+            repository.insertAll( received.entrySet().stream()
+                    .map( entry -> level(
+                            warehouse, entry.getKey(), quantities.getOrDefault( entry.getKey(), entry.getValue() ), entry.getValue(), now
+                    ) )
+                    .toList() );
+        } catch ( RuntimeException e ) {
+            log.warn( "Could not record the inventory history of a receipt into warehouse {}", warehouse.getId(), e );
+        }
+    }
+
+    /**
+     * Reads the history of every item and warehouse in scope, with one point per interval that had changes.
+     * At least one of shop, warehouse and item is required.
+     *
+     * @param from the start of the range, inclusive, or {@code null} for {@link #DEFAULT_RANGE} before {@code to}
+     * @param to   the end of the range, exclusive, or {@code null} for now
+     * @return one series per warehouse and item, ordered by warehouse and item id
+     * @throws InvalidHistoryRequestException if no scope is given, the range is empty or it has too many intervals
+     */
+    public List<InventoryHistoryResponseDTO> getHistory(
+            String shopId, String warehouseId, String itemId, Instant from, Instant to, HistoryInterval interval
+    ) {
+        if ( shopId == null && warehouseId == null && itemId == null ) {
+            throw new InvalidHistoryRequestException( "One of shopId, warehouseId and itemId is required" );
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus( DEFAULT_RANGE );
+        if ( !start.isBefore( end ) ) {
+            throw new InvalidHistoryRequestException( "from must be before to" );
+        }
+        if ( interval.bucketsIn( Duration.between( start, end ) ) > MAX_BUCKETS ) {
+            throw new InvalidHistoryRequestException(
+                    "The range covers more than " + MAX_BUCKETS + " intervals of " + interval.unit() + ", choose a longer interval"
+            );
+        }
+
+        Map<Series, SeriesBuilder> series = new TreeMap<>( SERIES_ORDER );
+        for ( InventoryLevel opening : repository.findLastLevelsBefore( shopId, warehouseId, itemId, start ) ) {
+            series.computeIfAbsent( new Series( opening.warehouseId(), opening.itemId() ), key -> new SeriesBuilder() )
+                    .openingQuantity = opening.quantity();
+        }
+        for ( InventoryLevelBucket bucket : repository.findBuckets( shopId, warehouseId, itemId, start, end, interval ) ) {
+            series.computeIfAbsent( new Series( bucket.warehouseId(), bucket.itemId() ), key -> new SeriesBuilder() )
+                    .points.add( new InventoryHistoryPointDTO(
+                            bucket.start(),
+                            bucket.quantity(),
+                            bucket.minQuantity(),
+                            bucket.maxQuantity(),
+                            bucket.change(),
+                            bucket.changes()
+                    ) );
+        }
+
+        return series.entrySet().stream()
+                .map( entry -> new InventoryHistoryResponseDTO(
+                        entry.getKey().warehouseId(),
+                        entry.getKey().itemId(),
+                        entry.getValue().openingQuantity,
+                        List.copyOf( entry.getValue().points )
+                ) )
+                .toList();
+    }
+
+    private void record( List<InventoryLevel> levels ) {
+        try {
+            repository.insertAll( levels );
+        } catch ( RuntimeException e ) {
+            log.warn( "Could not record {} inventory history entries", levels.size(), e );
+        }
+    }
+
+    private static InventoryLevel level( Warehouse warehouse, String itemId, int quantity, int change, Instant timestamp ) {
+        String shopId = warehouse.getShop() != null ? warehouse.getShop().getId() : null;
+        return new InventoryLevel( timestamp, shopId, warehouse.getId(), itemId, quantity, change );
+    }
+
+    private record Series( String warehouseId, String itemId ) {
+    }
+
+    private static final class SeriesBuilder {
+        private Integer openingQuantity;
+        private final List<InventoryHistoryPointDTO> points = new ArrayList<>();
+    }
+}
@@ -1,41 +1,73 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
+import com.team18.backend.dto.fields.FieldSelection;
 import com.team18.backend.dto.inventory.InventoryCreateDTO;
 import com.team18.backend.dto.inventory.InventoryMapper;
 import com.team18.backend.dto.inventory.InventoryResponseDTO;
 import com.team18.backend.dto.inventory.InventoryUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.ConflictException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Inventory;
 import com.team18.backend.model.Item;
 import com.team18.backend.model.Warehouse;
 import com.team18.backend.repository.InventoryRepository;
-import com.team18.backend.repository.ItemRepo;
 import com.team18.backend.repository.WarehouseRepository;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.swing.text.html.Option;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class InventoryService {
 
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
     private final InventoryRepository repository;
     private final InventoryMapper mapper;
     private final WarehouseRepository warehouseRepository;
-    private final ItemRepo itemRepo;
-
-    public InventoryService( InventoryRepository repository, InventoryMapper mapper, WarehouseRepository warehouseRepository, ItemRepo itemRepo ) {
+    private final ItemCatalogCache itemCatalogCache;
+    private final InventoryHistoryService historyService;
+
+    public InventoryService(
+            InventoryRepository repository,
+            InventoryMapper mapper,
+            WarehouseRepository warehouseRepository,
+            ItemCatalogCache itemCatalogCache,
+            InventoryHistoryService historyService
+    ) {
         this.repository = repository;
         this.mapper = mapper;
         this.warehouseRepository = warehouseRepository;
-        this.itemRepo = itemRepo;
+        this.itemCatalogCache = itemCatalogCache;
+        this.historyService = historyService;
+    }
+
+    /**
+     * Streams all inventory for export. The stream holds an open database cursor and must be closed.
+     */
+    public Stream<InventoryResponseDTO> streamAllInventory() {
+        return repository.streamAllResolved().map( mapper::toInventoryResponseDTO );
     }
 
-    public List<InventoryResponseDTO> getAllInventory() {
-        List<Inventory> inventoryList = repository.findAll();
-        return mapper.toInventoryResponseDTOList( inventoryList );
+    public CursorPage<InventoryResponseDTO> getInventoryPage( CursorPageRequest pageRequest ) {
+        return getInventoryPage( pageRequest, FieldSelection.ALL );
+    }
+
+    public CursorPage<InventoryResponseDTO> getInventoryPage( CursorPageRequest pageRequest, FieldSelection fields ) {
+        List<Inventory> inventoryList = repository.findPageResolved(
+                pageRequest.afterId(), pageRequest.fetchSize(), mapper.toDocumentFields( fields )
+        );
+        return CursorPage.of( inventoryList, pageRequest, Inventory::getId ).map( mapper::toInventoryResponseDTO );
     }
 
     public InventoryResponseDTO getInventoryById( String id ) throws ResourceNotFoundException {
@@ -46,23 +78,31 @@ public class InventoryService {
     }
 
     public List<InventoryResponseDTO> getInventoryByItemId( String itemId ) {
-        Optional<List<Inventory>> inventory = repository.findAllByItem_Id( itemId );
+        return getInventoryByItemId( itemId, FieldSelection.ALL );
+    }
 
-        if ( inventory.isEmpty() || inventory.get().isEmpty() ) {
+    public List<InventoryResponseDTO> getInventoryByItemId( String itemId, FieldSelection fields ) {
+        List<Inventory> inventory = repository.findAllResolvedByItemId( itemId, mapper.toDocumentFields( fields ) );
+
+        if ( inventory.isEmpty() ) {
             throw new ResourceNotFoundException( "Could not find inventory with itemId: " + itemId );
         }
 
-        return mapper.toInventoryResponseDTOList( inventory.get() );
+        return mapper.toInventoryResponseDTOList( inventory );
     }
 
     public List<InventoryResponseDTO> getInventoryByWarehouseId( String warehouseId ) {
-        Optional<List<Inventory>> inventory = repository.findAllByWarehouse_Id( warehouseId );
+        return getInventoryByWarehouseId( warehouseId, FieldSelection.ALL );
+    }
 
-        if ( inventory.isEmpty() || inventory.get().isEmpty() ) {
+    public List<InventoryResponseDTO> getInventoryByWarehouseId( String warehouseId, FieldSelection fields ) {
+        List<Inventory> inventory = repository.findAllResolvedByWarehouseId( warehouseId, mapper.toDocumentFields( fields ) );
+
+        if ( inventory.isEmpty() ) {
             throw new ResourceNotFoundException( "Could not find inventory with warehouseId: " + warehouseId );
         }
 
-        return mapper.toInventoryResponseDTOList( inventory.get() );
+        return mapper.toInventoryResponseDTOList( inventory );
     }
 
     public InventoryResponseDTO createInventory( InventoryCreateDTO inventoryCreateDTO ) throws ResourceNotFoundException {
@@ -70,20 +110,44 @@ public class InventoryService {
                 .orElseThrow(
                         () -> new ResourceNotFoundException( "Could not find warehouse with id: " + inventoryCreateDTO.warehouseId() )
                 );
-        Item item = itemRepo.findById( inventoryCreateDTO.itemId() )
+        Item item = itemCatalogCache.findById( inventoryCreateDTO.itemId() )
                 .orElseThrow(
                         () -> new ResourceNotFoundException( "Could not find item with id: " + inventoryCreateDTO.itemId() )
                 );
-
-        Inventory newInventory = mapper.toInventory( inventoryCreateDTO, warehouse, item );
-        Inventory inventory = repository.insert( newInventory );
-        return mapper.toInventoryResponseDTO( inventory );
+        int quantity = inventoryCreateDTO.quantity();
+
+        // creating an existing (warehouse, item) pair sets its quantity, see InventoryRepositoryCustom
+        for ( int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++ ) {
+            Optional<Inventory> current = repository.findResolvedByWarehouseIdAndItemId( warehouse.getId(), item.getId() );
+            int delta = quantity - current.map( Inventory::getQuantity ).orElse( 0 );
+
+            Optional<Inventory> written = writeWithinCapacity( warehouse.getId(), delta, () -> current.isPresent()
+                    ? repository.updateIfUnchanged( current.get(), warehouse.getId(), item.getId(), quantity )
+                    : repository.insertIfAbsent( warehouse.getId(), item.getId(), quantity )
+            );
+            if ( written.isPresent() ) {
+                if ( current.isEmpty() || delta != 0 ) {
+                    historyService.recordLevel( warehouse, item.getId(), quantity, delta );
+                }
+                return mapper.toInventoryResponseDTO( written.get() );
+            }
+        }
+        throw new ConflictException( "Inventory was modified concurrently, please retry" );
     }
 
     public InventoryResponseDTO updateInventory( String id, InventoryUpdateDTO inventoryUpdateDTO ) throws ResourceNotFoundException {
-        Inventory current = repository.findById( id ).orElseThrow(
-                () -> new ResourceNotFoundException( "Could not find inventory with id: " + id )
-        );
+        return updateInventory( id, inventoryUpdateDTO, null );
+    }
+
+    /**
+     * Updates an inventory row if it still has {@code expectedVersion}, or unconditionally if that is null.
+     * The row is read first, because the change of its quantity has to be reserved in the warehouse
+     * capacity, and written back only if its version did not change in between.
+     *
+     * @throws PreconditionFailedException if the row does not have the expected version
+     */
+    public InventoryResponseDTO updateInventory( String id, InventoryUpdateDTO inventoryUpdateDTO, Long expectedVersion )
+            throws ResourceNotFoundException {
         String warehouseId = inventoryUpdateDTO.warehouseId();
         String itemId = inventoryUpdateDTO.itemId();
 
@@ -92,26 +156,98 @@ public class InventoryService {
                         () -> new ResourceNotFoundException( "Could not find warehouse with id: " + inventoryUpdateDTO.warehouseId() )
                 ) : null;
 
-        Item item = itemId != null ? itemRepo.findById( inventoryUpdateDTO.itemId() )
+        Item item = itemId != null ? itemCatalogCache.findById( inventoryUpdateDTO.itemId() )
                 .orElseThrow(
                         () -> new ResourceNotFoundException( "Could not find item with id: " + inventoryUpdateDTO.itemId() )
                 ) : null;
 
-
-        Inventory updatedInventory = mapper.toInventory( current, inventoryUpdateDTO, warehouse, item );
-        Inventory savedInventory = repository.save( updatedInventory );
-
-        return mapper.toInventoryResponseDTO( savedInventory );
+        for ( int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++ ) {
+            Inventory current = repository.findById( id ).orElseThrow(
+                    () -> new ResourceNotFoundException( "Could not find inventory with id: " + id )
+            );
+            if ( expectedVersion != null && expectedVersion != current.getVersion() ) {
+                throw new PreconditionFailedException( "Inventory with id " + id + " is no longer at version " + expectedVersion );
+            }
+            Inventory updatedInventory = mapper.toInventory( current, inventoryUpdateDTO, warehouse, item );
+
+            String fromWarehouseId = current.getWarehouse().getId();
+            String toWarehouseId = updatedInventory.getWarehouse().getId();
+            boolean moved = !fromWarehouseId.equals( toWarehouseId );
+            int delta = moved ? updatedInventory.getQuantity() : updatedInventory.getQuantity() - current.getQuantity();
+
+            Optional<Inventory> written = writeWithinCapacity( toWarehouseId, delta, () -> repository.updateIfUnchanged(
+                    current, toWarehouseId, updatedInventory.getItem().getId(), updatedInventory.getQuantity()
+            ) );
+            if ( written.isPresent() ) {
+                if ( moved ) {
+                    warehouseRepository.adjustUsedCapacity( fromWarehouseId, -current.getQuantity() );
+                }
+                recordUpdate( current, updatedInventory );
+                return mapper.toInventoryResponseDTO( written.get() );
+            }
+        }
+        throw new ConflictException( "Inventory was modified concurrently, please retry" );
     }
 
-    @Transactional
     public Boolean deleteInventory( String id ) throws ResourceNotFoundException {
-        Inventory current = repository.findById( id ).orElseThrow(
+        Inventory removed = repository.removeById( id ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find inventory with id: " + id )
         );
 
-        repository.delete( current );
+        if ( removed.getWarehouse() != null ) {
+            warehouseRepository.adjustUsedCapacity( removed.getWarehouse().getId(), -removed.getQuantity() );
+            if ( removed.getItem() != null ) {
+                historyService.recordRemoval( removed );
+            }
+        }
         return true;
     }
 
+    /**
+     * Records an update in the history. Moving a row to another warehouse or item empties its old pair and
+     * fills the new one, which had no row before.
+     */
+    private void recordUpdate( Inventory before, Inventory after ) {
+        String itemId = after.getItem().getId();
+        boolean samePair = before.getWarehouse().getId().equals( after.getWarehouse().getId() )
+                && before.getItem().getId().equals( itemId );
+
+        if ( !samePair ) {
+            historyService.recordRemoval( before );
+            historyService.recordLevel( after.getWarehouse(), itemId, after.getQuantity(), after.getQuantity() );
+        } else if ( after.getQuantity() != before.getQuantity() ) {
+            historyService.recordLevel( after.getWarehouse(), itemId, after.getQuantity(), after.getQuantity() - before.getQuantity() );
+        }
+    }
+
+    /**
+     * Runs an inventory write that changes the stock of a warehouse by {@code delta} and keeps the warehouse's
+     * used capacity in step. An increase is reserved before the write, so two concurrent writes can never
+     * overfill a warehouse together, and is given back if the write does not happen. A decrease is released
+     * only after the write succeeded.
+     *
+     * @return the written row, or empty if the write lost a race and should be retried with fresh state
+     * @throws CapacityExceededException if the warehouse cannot hold the increase
+     */
+    private Optional<Inventory> writeWithinCapacity( String warehouseId, int delta, Supplier<Optional<Inventory>> write ) {
+        if ( delta > 0 && !warehouseRepository.adjustUsedCapacity( warehouseId, delta ) ) {
+            throw new CapacityExceededException( "Warehouse " + warehouseId + " does not have capacity for " + delta + " more items" );
+        }
+
+        Optional<Inventory> written;
+        try {
+            written = write.get();
+        } catch ( RuntimeException e ) {
+            if ( delta > 0 ) warehouseRepository.adjustUsedCapacity( warehouseId, -delta );
+            throw e;
+        }
+
+        if ( written.isEmpty() && delta > 0 ) {
+            warehouseRepository.adjustUsedCapacity( warehouseId, -delta );
+        } else if ( written.isPresent() && delta < 0 ) {
+            warehouseRepository.adjustUsedCapacity( warehouseId, delta );
+        }
+        return written;
+    }
+
 }
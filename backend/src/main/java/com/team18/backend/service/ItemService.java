@@ -1,33 +1,65 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
 import com.team18.backend.dto.item.ItemDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Item;
 import com.team18.backend.repository.ItemRepo;
+import com.team18.backend.service.cache.ItemCacheStats;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import com.team18.backend.service.search.ItemSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ItemService {
 
     private final ItemRepo itemRepo;
+    private final ItemCatalogCache itemCatalogCache;
+    private final ItemSearchIndex itemSearchIndex;
 
-    public ItemService( ItemRepo itemRepo ) {
+    public ItemService( ItemRepo itemRepo, ItemCatalogCache itemCatalogCache, ItemSearchIndex itemSearchIndex ) {
         this.itemRepo = itemRepo;
+        this.itemCatalogCache = itemCatalogCache;
+        this.itemSearchIndex = itemSearchIndex;
     }
 
-    public List<Item> findAllItems() {
-        return itemRepo.findAll();
+    public CursorPage<Item> findItemPage( CursorPageRequest pageRequest ) {
+        Limit limit = Limit.of( pageRequest.fetchSize() );
+        List<Item> items = pageRequest.afterId() != null
+                ? itemRepo.findByIdGreaterThanOrderByIdAsc( pageRequest.afterId(), limit )
+                : itemRepo.findAllByOrderByIdAsc( limit );
+        return CursorPage.of( items, pageRequest, Item::getId );
     }
 
     public Item findItemById( String id ) {
-        return itemRepo.findById( id ).orElseThrow( () -> new ResourceNotFoundException( "Item not found: " + id ) );
+        return itemCatalogCache.findById( id ).orElseThrow( () -> new ResourceNotFoundException( "Item not found: " + id ) );
+    }
+
+    public Item findItemBySku( String sku ) {
+        return itemCatalogCache.findBySku( sku ).orElseThrow( () -> new ResourceNotFoundException( "Item not found with sku: " + sku ) );
+    }
+
+    public List<Item> searchItems( String query, int limit ) {
+        return itemSearchIndex.search( query, limit );
+    }
+
+    public ItemCacheStats getItemCacheStats() {
+        return itemCatalogCache.stats();
     }
 
     public Item createItem( ItemDTO item ) {
         Item newItem = new Item( null, item.sku(), item.name() );
-        return itemRepo.save( newItem );
+        Item saved = itemRepo.save( newItem );
+        itemCatalogCache.evict( saved.getId() );
+        itemSearchIndex.put( saved );
+        return saved;
     }
 
     public Item updateItemById( String id, ItemDTO itemDTO ) {
@@ -41,15 +73,22 @@ public class ItemService {
             existingItem.setSku( itemDTO.sku() );
         }
 
-        return itemRepo.save( existingItem );
+        Item saved = itemRepo.save( existingItem );
+        itemCatalogCache.evict( id );
+        itemSearchIndex.put( saved );
+        return saved;
     }
 
     public void deleteItemById( String id ) {
         Item existingItem = itemRepo.findById( id ).orElseThrow( () -> new ResourceNotFoundException( "Item not found: " + id ) );
         itemRepo.delete( existingItem );
+        itemCatalogCache.evict( id );
+        itemSearchIndex.remove( id );
     }
 
     public void deleteAllItems() {
         itemRepo.deleteAll();
+        itemCatalogCache.evictAll();
+        itemSearchIndex.clear();
     }
 }
@@ -1,5 +1,10 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchCreateDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchLineDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchResponseDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchResultDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemCreateDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemMapper;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
@@ -10,45 +15,58 @@ import com.team18.backend.model.Item;
 import com.team18.backend.model.Shipment;
 import com.team18.backend.model.ShipmentLineItem;
 import com.team18.backend.model.ShipmentStatus;
-import com.team18.backend.repository.ItemRepo;
-import com.team18.backend.repository.ShipmentLineItemRepository;
 import com.team18.backend.repository.ShipmentRepository;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ShipmentLineItemService {
 
     private final ShipmentLineItemMapper mapper;
     private final ShipmentRepository shipmentRepository;
-    private final ItemRepo itemRepo;
-    private final ShipmentLineItemRepository shipmentLineItemRepository;
+    private final ItemCatalogCache itemCatalogCache;
+    private final ShipmentLineItemStore shipmentLineItemStore;
 
     public ShipmentLineItemService(
             ShipmentLineItemMapper mapper,
             ShipmentRepository shipmentRepository,
-            ItemRepo itemRepo,
-            ShipmentLineItemRepository shipmentLineItemRepository
+            ItemCatalogCache itemCatalogCache,
+            ShipmentLineItemStore shipmentLineItemStore
 
     ) {
         this.mapper = mapper;
         this.shipmentRepository = shipmentRepository;
-        this.itemRepo = itemRepo;
-        this.shipmentLineItemRepository = shipmentLineItemRepository;
+        this.itemCatalogCache = itemCatalogCache;
+        this.shipmentLineItemStore = shipmentLineItemStore;
     }
 
     public List<ShipmentLineItemResponseDTO> getShipmentLineItemsByShipmentId( String id ) {
-        Optional<List<ShipmentLineItem>> shipmentLineItems = this.shipmentLineItemRepository
-                .findAllByShipment_Id( id );
+        List<ShipmentLineItem> shipmentLineItems = this.shipmentLineItemStore
+                .findAllResolvedByShipmentId( id );
 
-        if ( shipmentLineItems.isEmpty() || shipmentLineItems.get().isEmpty() ) {
+        if ( shipmentLineItems.isEmpty() ) {
             throw new ResourceNotFoundException( "Could not find any related ShipmentLineItems with shipment id: " + id );
         }
 
-        return mapper.toResponseDTOList( shipmentLineItems.get() );
+        return mapper.toResponseDTOList( shipmentLineItems );
+    }
+
+    /**
+     * Streams all line items for export. The stream holds an open database cursor and must be closed.
+     */
+    public Stream<ShipmentLineItemResponseDTO> streamAllShipmentLineItems() {
+        return shipmentLineItemStore.streamAllResolved().map( mapper::toResponseDTO );
     }
 
     public ShipmentLineItemResponseDTO createShipmentLineItem( ShipmentLineItemCreateDTO shipmentLineItemCreateDTO ) {
@@ -56,19 +74,61 @@ public class ShipmentLineItemService {
                 () -> new ResourceNotFoundException( "Could not find shipment with id: " + shipmentLineItemCreateDTO.shipmentId() )
         );
 
-        Item item = itemRepo.findById( shipmentLineItemCreateDTO.itemId() ).orElseThrow(
+        Item item = itemCatalogCache.findById( shipmentLineItemCreateDTO.itemId() ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find item with id: " + shipmentLineItemCreateDTO.itemId() )
         );
 
-        ShipmentLineItem newLineItem = shipmentLineItemRepository.insert(
+        ShipmentLineItem newLineItem = shipmentLineItemStore.insert(
                 mapper.toShipmentLineItem( shipmentLineItemCreateDTO, shipment, item )
         );
 
         return mapper.toResponseDTO( newLineItem );
     }
 
+    /**
+     * Creates all line items of a batch for one shipment. The shipment is looked up once, all items with one
+     * query and the valid lines are written with a single insert. Lines whose item does not exist are
+     * reported in the result and do not prevent the other lines from being created.
+     */
+    public ShipmentLineItemBatchResponseDTO createShipmentLineItems( ShipmentLineItemBatchCreateDTO batch ) {
+        Shipment shipment = shipmentRepository.findById( batch.shipmentId() ).orElseThrow(
+                () -> new ResourceNotFoundException( "Could not find shipment with id: " + batch.shipmentId() )
+        );
+
+        List<ShipmentLineItemBatchLineDTO> lines = batch.lineItems();
+        Map<String, Item> items = itemCatalogCache.findAllById(
+                lines.stream().map( ShipmentLineItemBatchLineDTO::itemId ).collect( Collectors.toSet() )
+        );
+
+        ShipmentLineItemBatchResultDTO[] results = new ShipmentLineItemBatchResultDTO[lines.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<ShipmentLineItem> newLineItems = new ArrayList<>();
+        for ( int i = 0; i < lines.size(); i++ ) {
+            ShipmentLineItemBatchLineDTO line = lines.get( i );
+            Item item = items.get( line.itemId() );
+            if ( item == null ) {
+                results[i] = new ShipmentLineItemBatchResultDTO(
+                        i, HttpStatus.NOT_FOUND.value(), null, "Could not find item with id: " + line.itemId()
+                );
+                continue;
+            }
+            validIndexes.add( i );
+            newLineItems.add( mapper.toShipmentLineItem( line, shipment, item ) );
+        }
+
+        List<ShipmentLineItem> inserted = newLineItems.isEmpty() ? List.of() : shipmentLineItemStore.insert( newLineItems );
+        for ( int i = 0; i < inserted.size(); i++ ) {
+            int index = validIndexes.get( i );
+            results[index] = new ShipmentLineItemBatchResultDTO(
+                    index, HttpStatus.CREATED.value(), mapper.toResponseDTO( inserted.get( i ) ), null
+            );
+        }
+
+        return new ShipmentLineItemBatchResponseDTO( inserted.size(), lines.size() - inserted.size(), List.of( results ) );
+    }
+
     public ShipmentLineItemResponseDTO updateShipmentLineItem( String id, ShipmentLineItemUpdateDTO updateDTO ) {
-        ShipmentLineItem current = shipmentLineItemRepository.findById( id ).orElseThrow(
+        ShipmentLineItem current = shipmentLineItemStore.findById( id ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find shipment with id: " + id )
         );
 
@@ -83,11 +143,11 @@ public class ShipmentLineItemService {
                 () -> new ResourceNotFoundException( "Could not find shipment with id: " + shipmentId )
         ) : current.getShipment();
 
-        Item item = itemId != null ? itemRepo.findById( itemId ).orElseThrow(
+        Item item = itemId != null ? itemCatalogCache.findById( itemId ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find item with id: " + itemId )
         ) : current.getItem();
 
-        ShipmentLineItem updatedLineItem = shipmentLineItemRepository.save(
+        ShipmentLineItem updatedLineItem = shipmentLineItemStore.save(
                 mapper.toShipmentLineItem( current, updateDTO, shipment, item )
         );
 
@@ -96,7 +156,7 @@ public class ShipmentLineItemService {
 
     @Transactional
     public Boolean deleteShipmentLineItem( String id ) {
-        ShipmentLineItem current = shipmentLineItemRepository.findById( id ).orElseThrow(
+        ShipmentLineItem current = shipmentLineItemStore.findById( id ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find shipment with id: " + id )
         );
 
@@ -104,7 +164,7 @@ public class ShipmentLineItemService {
             throw new RecordIsLockedException( "Cannot modify line items with shipment status completed" );
         }
 
-        this.shipmentLineItemRepository.delete( current );
+        this.shipmentLineItemStore.delete( current );
 
         return true;
     }
@@ -1,47 +1,60 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
 import com.team18.backend.dto.ShipmentCreateDTO;
 import com.team18.backend.dto.ShipmentResponseDTO;
 import com.team18.backend.dto.ShipmentStatusUpdateDTO;
 import com.team18.backend.dto.ShipmentUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.dto.warehouse.WarehouseMapper;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.ConflictException;
+import com.team18.backend.exception.PreconditionFailedException;
+import com.team18.backend.exception.InvalidStatusChangeException;
 import com.team18.backend.exception.RecordIsLockedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.*;
 import com.team18.backend.repository.*;
+import com.team18.backend.repository.ShipmentRepositoryCustom.StatusTransition;
+import com.team18.backend.service.completion.CompletionProgress;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ShipmentService {
 
     private final ShipmentRepository repository;
     private final WarehouseRepository warehouseRepository;
-    private final ShopRepository shopRepository;
     private final WarehouseMapper warehouseMapper;
-    private final ShipmentLineItemRepository shipmentLineItemRepository;
+    private final ShipmentLineItemStore shipmentLineItemStore;
     private final InventoryRepository inventoryRepository;
+    private final InventoryHistoryService inventoryHistoryService;
 
 
     public ShipmentService(
             ShipmentRepository repository,
             WarehouseRepository warehouseRepository,
-            ShopRepository shopRepository,
             WarehouseMapper warehouseMapper,
-            ShipmentLineItemRepository shipmentLineItemRepository,
-            InventoryRepository inventoryRepository
+            ShipmentLineItemStore shipmentLineItemStore,
+            InventoryRepository inventoryRepository,
+            InventoryHistoryService inventoryHistoryService
     ) {
         this.repository = repository;
         this.warehouseRepository = warehouseRepository;
-        this.shopRepository = shopRepository;
         this.warehouseMapper = warehouseMapper;
-        this.shipmentLineItemRepository = shipmentLineItemRepository;
+        this.shipmentLineItemStore = shipmentLineItemStore;
         this.inventoryRepository = inventoryRepository;
+        this.inventoryHistoryService = inventoryHistoryService;
     }
 
     private ShipmentResponseDTO toDTO( Shipment shipment ) {
@@ -51,14 +64,21 @@ public class ShipmentService {
                 shipment.getExpectedArrivalDate(),
                 shipment.getStatus(),
                 shipment.getCreatedDate(),
-                shipment.getLastModifiedDate()
+                shipment.getLastModifiedDate(),
+                shipment.getVersion()
         );
     }
 
-    public List<ShipmentResponseDTO> getAllShipments() {
-        return repository.findAll().stream()
-                .map( this::toDTO )
-                .collect( Collectors.toList() );
+    /**
+     * Streams all shipments for export. The stream holds an open database cursor and must be closed.
+     */
+    public Stream<ShipmentResponseDTO> streamAllShipments() {
+        return repository.streamAllResolved().map( this::toDTO );
+    }
+
+    public CursorPage<ShipmentResponseDTO> getShipmentPage( CursorPageRequest pageRequest ) {
+        List<Shipment> shipments = repository.findPageResolved( pageRequest.afterId(), pageRequest.fetchSize() );
+        return CursorPage.of( shipments, pageRequest, Shipment::getId ).map( this::toDTO );
     }
 
     public ShipmentResponseDTO getShipmentById( String id ) {
@@ -68,23 +88,18 @@ public class ShipmentService {
     }
 
     public List<ShipmentResponseDTO> getShipmentsByWarehouseId( String warehouseId ) {
-        Warehouse warehouse = warehouseRepository.findById( warehouseId )
-                .orElseThrow( () -> new ResourceNotFoundException( "Warehouse not found with id: " + warehouseId ) );
-        return repository.findByWarehouse( warehouse ).stream()
+        if ( !warehouseRepository.existsById( warehouseId ) ) {
+            throw new ResourceNotFoundException( "Warehouse not found with id: " + warehouseId );
+        }
+        return repository.findAllResolvedByWarehouseIdIn( List.of( warehouseId ) ).stream()
                 .map( this::toDTO )
                 .collect( Collectors.toList() );
     }
 
-    public List<ShipmentResponseDTO> getAllShipmentsByShopId( String shopId ) {
-        // Find the shop
-        Shop shop = shopRepository.findById( shopId )
-                .orElseThrow( () -> new ResourceNotFoundException( "Shop not found with id: " + shopId ) );
-
-        // Find all warehouses for this shop
-        List<Warehouse> warehouses = warehouseRepository.findByShop( shop );
-
-        // Find all shipments for those warehouses
-        return repository.findAllByWarehouseIn( warehouses ).stream()
+    public List<ShipmentResponseDTO> getAllShipmentsByShopId( String shopId, ShipmentStatus status, LocalDate arrivingFrom, LocalDate arrivingTo ) {
+        return repository.findAllResolvedByShopId( shopId, status, arrivingFrom, arrivingTo )
+                .orElseThrow( () -> new ResourceNotFoundException( "Shop not found with id: " + shopId ) )
+                .stream()
                 .map( this::toDTO )
                 .collect( Collectors.toList() );
     }
@@ -103,91 +118,136 @@ public class ShipmentService {
         return toDTO( saved );
     }
 
-    @Transactional
     public ShipmentResponseDTO updateShipment( String id, ShipmentUpdateDTO dto ) {
-        Shipment shipment = repository.findById( id )
-                .orElseThrow( () -> new ResourceNotFoundException( "Shipment not found with id: " + id ) );
-
-        if ( shipment.getStatus() == ShipmentStatus.COMPLETED ) {
-            throw new RecordIsLockedException( "Cannot modify shipments with status COMPLETED" );
-        }
+        return updateShipment( id, dto, null );
+    }
 
-        // Update warehouse if provided
-        if ( dto.warehouseId() != null ) {
-            Warehouse warehouse = warehouseRepository.findById( dto.warehouseId() )
-                    .orElseThrow( () -> new ResourceNotFoundException( "Warehouse not found with id: " + dto.warehouseId() ) );
-            shipment.setWarehouse( warehouse );
+    /**
+     * Sets the fields given in the DTO in a single write, if the shipment still has {@code expectedVersion} or
+     * unconditionally if that is null. A new status is only set if the current one may be changed to it, see
+     * {@link #updateShipmentStatus(String, ShipmentStatusUpdateDTO)}. The shipment is only read again to tell
+     * why an update failed.
+     *
+     * @throws PreconditionFailedException if the shipment does not have the expected version
+     * @throws InvalidStatusChangeException if the new status is {@link ShipmentStatus#COMPLETED}
+     */
+    public ShipmentResponseDTO updateShipment( String id, ShipmentUpdateDTO dto, Long expectedVersion ) {
+        rejectCompletion( dto.status() );
+        Warehouse warehouse = dto.warehouseId() != null ? warehouseRepository.findById( dto.warehouseId() )
+                .orElseThrow( () -> new ResourceNotFoundException( "Warehouse not found with id: " + dto.warehouseId() ) ) : null;
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if ( warehouse != null ) {
+            changes.put( "warehouse", warehouse );
         }
-
         if ( dto.expectedArrivalDate() != null ) {
-            shipment.setExpectedArrivalDate( dto.expectedArrivalDate() );
-        }
-        if ( dto.status() != null ) {
-            shipment.setStatus( dto.status() );
+            changes.put( "expectedArrivalDate", dto.expectedArrivalDate() );
         }
 
-        if ( dto.status() == ShipmentStatus.COMPLETED ) {
-            this.processShipmentCompletion( shipment );
+        if ( dto.status() != null ) {
+            return transition( id, dto.status(), changes, expectedVersion, CompletionProgress.NONE );
         }
-
-        Shipment updated = repository.save( shipment );
-        return toDTO( updated );
+        return toDTO( repository.updateDetails( id, changes, expectedVersion )
+                .orElseThrow( () -> updateFailure( id, null, expectedVersion ) ) );
     }
 
-    @Transactional
+    /**
+     * Sets the status of a shipment with a single compare-and-set on its current status.
+     *
+     * @throws InvalidStatusChangeException if the new status is {@link ShipmentStatus#COMPLETED}, which only
+     *                                      {@link #completeShipment(String, CompletionProgress)} may set
+     */
     public ShipmentResponseDTO updateShipmentStatus( String id, ShipmentStatusUpdateDTO dto ) {
-        Shipment shipment = repository.findById( id )
-                .orElseThrow( () -> new ResourceNotFoundException( "Shipment not found with id: " + id ) );
+        rejectCompletion( dto.status() );
+        return transition( id, dto.status(), Map.of(), null, CompletionProgress.NONE );
+    }
 
-        if ( shipment.getStatus() == ShipmentStatus.COMPLETED ) {
-            throw new RecordIsLockedException( "Cannot modify shipments with status completed" );
-        }
+    /**
+     * Completes a shipment, receiving its line items into the inventory of its warehouse; of concurrent
+     * completions only the one that won the transition does so. Runs on the workers of the
+     * {@link com.team18.backend.service.completion.ShipmentCompletionService}.
+     */
+    public ShipmentResponseDTO completeShipment( String id, CompletionProgress progress ) {
+        return transition( id, ShipmentStatus.COMPLETED, Map.of(), null, progress );
+    }
 
-        if ( dto.status() == ShipmentStatus.COMPLETED ) {
-            this.processShipmentCompletion( shipment );
+    private static void rejectCompletion( ShipmentStatus status ) {
+        if ( status == ShipmentStatus.COMPLETED ) {
+            throw new InvalidStatusChangeException(
+                    "Shipments are completed through PATCH /api/shipments/{id}/status, which queues the completion" );
         }
-
-        shipment.setStatus( dto.status() );
-        Shipment updated = repository.save( shipment );
-        return toDTO( updated );
     }
 
-    public void processShipmentCompletion( Shipment shipment ) {
-        Warehouse warehouse = shipment.getWarehouse();
-        List<ShipmentLineItem> lineItems = shipmentLineItemRepository.findAllByShipment_Id( shipment.getId() )
-                .orElseThrow(
-                        () -> new ResourceNotFoundException( "Shipment has no line items" )
-                );
-
-        List<Inventory> inventoryList = inventoryRepository.findAllByWarehouse_Id( warehouse.getId() )
-                .orElse( List.of() );
-
-        Map<String, Inventory> inventoryMap = inventoryList.stream().collect(
-                Collectors.toMap( inventory -> inventory.getItem().getId(), inventory -> inventory )
-        );
-
-        List<Inventory> upsertInventoryList = new ArrayList<>();
-
+    private ShipmentResponseDTO transition(
+            String id, ShipmentStatus status, Map<String, Object> changes, Long expectedVersion, CompletionProgress progress
+    ) {
+        StatusTransition transition = repository.transitionStatus( id, status, changes, expectedVersion )
+                .orElseThrow( () -> updateFailure( id, status, expectedVersion ) );
+
+        if ( status == ShipmentStatus.COMPLETED ) {
+            try {
+                processShipmentCompletion( transition.after(), progress );
+            } catch ( RuntimeException e ) {
+                // nothing was received, as incrementQuantities undoes a partial receipt before it throws, so the
+                // shipment goes back to where it was; no one else can change a completed shipment in between
+                repository.updateDetails( transition.before() );
+                throw e;
+            }
+        }
+        return toDTO( transition.after() );
+    }
 
-        for ( ShipmentLineItem lineItem : lineItems ) {
-            Inventory inventory = inventoryMap.get( lineItem.getItem().getId() );
+    /**
+     * Reads a shipment that an update did not match, to tell why.
+     *
+     * @param status the status the update would have set, or {@code null}
+     */
+    private RuntimeException updateFailure( String id, ShipmentStatus status, Long expectedVersion ) {
+        Shipment shipment = repository.findById( id ).orElse( null );
+        if ( shipment == null ) {
+            return new ResourceNotFoundException( "Shipment not found with id: " + id );
+        }
+        if ( shipment.getStatus() == ShipmentStatus.COMPLETED ) {
+            return new RecordIsLockedException( "Cannot modify shipments with status COMPLETED" );
+        }
+        if ( expectedVersion != null && expectedVersion != shipment.getVersion() ) {
+            return new PreconditionFailedException( "Shipment with id " + id + " is no longer at version " + expectedVersion );
+        }
+        if ( status != null && !status.canTransitionFrom( shipment.getStatus() ) ) {
+            return new ConflictException( "Cannot change the status of shipment " + id + " from " + shipment.getStatus() + " to " + status );
+        }
+        // the shipment did not match when it was written, but matches now
+        return new ConflictException( "Shipment was modified concurrently, please retry" );
+    }
 
-            if ( inventory != null ) {
-                int newQuantity = inventory.getQuantity() + lineItem.getReceivedQuantity();
-                inventory.setQuantity( newQuantity );
-                upsertInventoryList.add( inventory );
-            } else {
-                upsertInventoryList.add(
-                        new Inventory(
-                                warehouse,
-                                lineItem.getItem(),
-                                lineItem.getReceivedQuantity()
-                        )
-                );
-            }
+    private void processShipmentCompletion( Shipment shipment, CompletionProgress progress ) {
+        List<ShipmentLineItem> lineItems = shipmentLineItemStore.findAllByShipment( shipment );
+
+        Map<String, Integer> receivedQuantities = lineItems.stream()
+                .filter( lineItem -> lineItem.getReceivedQuantity() != null )
+                .collect( Collectors.toMap(
+                        lineItem -> lineItem.getItem().getId(),
+                        ShipmentLineItem::getReceivedQuantity,
+                        Integer::sum
+                ) );
+
+        String warehouseId = shipment.getWarehouse().getId();
+        long received = receivedQuantities.values().stream().mapToLong( Integer::longValue ).sum();
+        progress.lineItemsRead( lineItems.size(), received );
+
+        if ( received > 0 && !warehouseRepository.adjustUsedCapacity( warehouseId, received ) ) {
+            throw new CapacityExceededException(
+                    "Receiving " + received + " items would exceed the capacity of warehouse " + warehouseId
+            );
         }
 
-        this.inventoryRepository.saveAll( upsertInventoryList );
+        try {
+            inventoryRepository.incrementQuantities( warehouseId, receivedQuantities );
+        } catch ( RuntimeException e ) {
+            warehouseRepository.adjustUsedCapacity( warehouseId, -received );
+            throw e;
+        }
+        inventoryHistoryService.recordReceipt( shipment.getWarehouse(), receivedQuantities );
     }
 
     public void deleteShipment( String id ) {
@@ -198,10 +258,7 @@ public class ShipmentService {
             throw new RecordIsLockedException( "Cannot modify shipments with status completed" );
         }
 
-        shipmentLineItemRepository
-                .findAllByShipment_Id( id )
-                .ifPresent( this.shipmentLineItemRepository::deleteAll );
-
+        shipmentLineItemStore.deleteAllByShipment( shipment );
         repository.deleteById( id );
     }
 }
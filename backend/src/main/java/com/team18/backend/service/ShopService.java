@@ -1,13 +1,16 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Shop;
 import com.team18.backend.repository.ShopRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class ShopService {
 
     private final ShopRepository repository;
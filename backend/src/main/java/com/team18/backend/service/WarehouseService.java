@@ -1,44 +1,66 @@
 package com.team18.backend.service;
 
+import com.team18.backend.config.metrics.MetricsConfiguration;
+import com.team18.backend.dto.fields.FieldSelection;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
+import com.team18.backend.dto.warehouse.NearestWarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseCreateDTO;
+import com.team18.backend.dto.warehouse.WarehouseDeletionResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseMapper;
 import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseUpdateDTO;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.ResourceNotFoundException;
-import com.team18.backend.model.Inventory;
 import com.team18.backend.model.Shop;
 import com.team18.backend.model.Warehouse;
 import com.team18.backend.repository.InventoryRepository;
+import com.team18.backend.repository.ShipmentRepository;
 import com.team18.backend.repository.ShopRepository;
 import com.team18.backend.repository.WarehouseRepository;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class WarehouseService {
 
     private final WarehouseRepository repository;
     private final ShopRepository shopRepository;
     private final InventoryRepository inventoryRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentLineItemStore shipmentLineItemStore;
     private final WarehouseMapper mapper;
 
     public WarehouseService(
             WarehouseRepository repository,
             ShopRepository shopRepository,
             InventoryRepository inventoryRepository,
+            ShipmentRepository shipmentRepository,
+            ShipmentLineItemStore shipmentLineItemStore,
             WarehouseMapper mapper
     ) {
         this.repository = repository;
         this.shopRepository = shopRepository;
         this.inventoryRepository = inventoryRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.shipmentLineItemStore = shipmentLineItemStore;
         this.mapper = mapper;
     }
 
-    public List<WarehouseResponseDTO> getAllWarehouses() {
-        List<Warehouse> warehouses = repository.findAll();
-        return mapper.toWarehouseResponseDTOList( warehouses );
+    public CursorPage<WarehouseResponseDTO> getWarehousePage( CursorPageRequest pageRequest ) {
+        return getWarehousePage( pageRequest, FieldSelection.ALL );
+    }
+
+    public CursorPage<WarehouseResponseDTO> getWarehousePage( CursorPageRequest pageRequest, FieldSelection fields ) {
+        List<Warehouse> warehouses = repository.findPageResolved(
+                pageRequest.afterId(), pageRequest.fetchSize(), mapper.toDocumentFields( fields )
+        );
+        return CursorPage.of( warehouses, pageRequest, Warehouse::getId ).map( mapper::toWarehouseResponseDTO );
     }
 
     public WarehouseResponseDTO getWarehouseById( String id ) throws ResourceNotFoundException {
@@ -48,6 +70,20 @@ public class WarehouseService {
         return mapper.toWarehouseResponseDTO( warehouse );
     }
 
+    /**
+     * @param radiusMeters  only return warehouses within this distance, or {@code null} for no limit
+     * @param inStockItemId only return warehouses that have this item in stock, or {@code null}
+     * @return the warehouses with a location, nearest first
+     */
+    public List<NearestWarehouseResponseDTO> getNearestWarehouses( double lat, double lng, Double radiusMeters, String inStockItemId, int limit ) {
+        return repository.findNearestResolved( lat, lng, radiusMeters, inStockItemId, limit ).stream()
+                .map( nearest -> new NearestWarehouseResponseDTO(
+                        mapper.toWarehouseResponseDTO( nearest.warehouse() ),
+                        nearest.distanceMeters()
+                ) )
+                .toList();
+    }
+
     public WarehouseResponseDTO createWarehouse( WarehouseCreateDTO warehouse ) {
         Shop shop = shopRepository.findById( warehouse.shopId() ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find shop with id: " + warehouse.shopId() )
@@ -59,36 +95,57 @@ public class WarehouseService {
     }
 
     public WarehouseResponseDTO updateWarehouse( String id, WarehouseUpdateDTO warehouse ) throws ResourceNotFoundException {
-        Warehouse current = repository.findById( id )
-                .orElseThrow(
-                        () -> new ResourceNotFoundException( "Could not find Warehouse with id: " + id )
-                );
+        return updateWarehouse( id, warehouse, null );
+    }
 
+    /**
+     * Sets the fields given in the DTO with a single write, if the warehouse still has {@code expectedVersion}
+     * or unconditionally if that is null. The warehouse is only read again to tell why an update failed.
+     *
+     * @throws PreconditionFailedException if the warehouse does not have the expected version
+     * @throws CapacityExceededException   if the new max capacity is below the used capacity
+     */
+    public WarehouseResponseDTO updateWarehouse( String id, WarehouseUpdateDTO warehouse, Long expectedVersion )
+            throws ResourceNotFoundException {
         String shopId = warehouse.shopId();
         Shop shop = shopId != null ? shopRepository.findById( warehouse.shopId() ).orElseThrow(
                 () -> new ResourceNotFoundException( "Could not find shop with id: " + warehouse.shopId() )
         ) : null;
 
-        Warehouse updatedWarehouse = mapper.toWarehouse( current, warehouse, shop );
-        Warehouse savedWarehouse = repository.save( updatedWarehouse );
+        Warehouse savedWarehouse = repository.updateDetails( id, mapper.toDocumentChanges( warehouse, shop ), expectedVersion )
+                .orElseThrow( () -> updateFailure( id, warehouse, expectedVersion ) );
         return mapper.toWarehouseResponseDTO( savedWarehouse );
     }
 
-    @Transactional
-    public Boolean deleteWarehouse( String id ) throws ResourceNotFoundException {
-        Warehouse toDelete = repository.findById( id )
-                .orElseThrow(
-                        () -> new ResourceNotFoundException( "Could not find Warehouse with id: " + id )
-                );
-
-        List<Inventory> relatedInventories = inventoryRepository
-                .findAllByWarehouse_Id( toDelete.getId() ).orElse( List.of() );
-
-        inventoryRepository.deleteAll( relatedInventories );
-
-        repository.delete( toDelete );
+    private RuntimeException updateFailure( String id, WarehouseUpdateDTO warehouse, Long expectedVersion ) {
+        Warehouse current = repository.findById( id ).orElse( null );
+        if ( current == null ) {
+            return new ResourceNotFoundException( "Could not find Warehouse with id: " + id );
+        }
+        if ( expectedVersion != null && expectedVersion != current.getVersion() ) {
+            return new PreconditionFailedException( "Warehouse with id " + id + " is no longer at version " + expectedVersion );
+        }
+        return new CapacityExceededException(
+                "Max capacity " + warehouse.maxCapacity() + " is below the used capacity of warehouse " + id
+        );
+    }
 
-        return true;
+    /**
+     * Deletes a warehouse with its inventory, shipments and their line items. Each collection is cleared with a
+     * single {@code deleteMany} on the server, so no related document is read; only the line items stored in their
+     * own collection need the ids of the warehouse's shipments.
+     */
+    public WarehouseDeletionResponseDTO deleteWarehouse( String id ) throws ResourceNotFoundException {
+        if ( !repository.existsById( id ) ) {
+            throw new ResourceNotFoundException( "Could not find Warehouse with id: " + id );
+        }
+
+        long lineItems = shipmentLineItemStore.deleteAllByWarehouseId( id );
+        long shipments = shipmentRepository.deleteAllByWarehouseId( id );
+        long inventories = inventoryRepository.deleteAllByWarehouseId( id );
+        repository.deleteById( id );
+
+        return new WarehouseDeletionResponseDTO( id, inventories, shipments, lineItems );
     }
 
 }
@@ -0,0 +1,26 @@
+package com.team18.backend.service.cache;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Counters of the {@link ItemCatalogCache} since startup.
+ */
+public record ItemCacheStats(
+        @Schema(description = "Lookups served from the cache")
+        long hits,
+        @Schema(description = "Lookups that went to the database")
+        long misses,
+        @Schema(description = "Items evicted because the cache was full")
+        long evictions,
+        @Schema(description = "Items currently cached")
+        int size,
+        @Schema(description = "Maximum number of cached items")
+        int maxSize
+) {
+
+    @Schema(description = "Share of lookups served from the cache, between 0 and 1")
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : ( double ) hits / total;
+    }
+}
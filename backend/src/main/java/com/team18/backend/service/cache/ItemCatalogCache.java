@@ -0,0 +1,156 @@
+package com.team18.backend.service.cache;
+
+import com.team18.backend.model.Item;
+import com.team18.backend.repository.ItemRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through, size-bounded cache of items keyed by id and by SKU.
+ * <p>
+ * Items are small, rarely written and referenced by almost every other document, so lookups are served
+ * from memory and only misses go to the database. The least recently used item is evicted once
+ * {@code app.item-cache.max-size} is reached. {@link com.team18.backend.service.ItemService} evicts entries
+ * on every write; the cache is local to the instance, so writes on another instance are not seen until
+ * the entry is evicted here.
+ * <p>
+ * Cached items are shared and must not be modified by callers.
+ */
+@Component
+public class ItemCatalogCache {
+
+    private final ItemRepo itemRepo;
+    private final int maxSize;
+
+    private final LinkedHashMap<String, Item> itemsById;
+    private final Map<String, String> idsBySku = new HashMap<>();
+
+    /**
+     * Incremented on every eviction by a write, so a load that raced with the write does not cache the old item.
+     */
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ItemCatalogCache( ItemRepo itemRepo, @Value("${app.item-cache.max-size:10000}") int maxSize ) {
+        this.itemRepo = itemRepo;
+        this.maxSize = maxSize;
+        this.itemsById = new LinkedHashMap<>( 16, 0.75f, true );
+    }
+
+    public Optional<Item> findById( String id ) {
+        long loadGeneration;
+        synchronized ( this ) {
+            Item cached = itemsById.get( id );
+            if ( cached != null ) {
+                hits.increment();
+                return Optional.of( cached );
+            }
+            loadGeneration = generation;
+        }
+        return load( () -> itemRepo.findById( id ), loadGeneration );
+    }
+
+    public Optional<Item> findBySku( String sku ) {
+        long loadGeneration;
+        synchronized ( this ) {
+            String id = idsBySku.get( sku );
+            Item cached = id != null ? itemsById.get( id ) : null;
+            if ( cached != null ) {
+                hits.increment();
+                return Optional.of( cached );
+            }
+            loadGeneration = generation;
+        }
+        return load( () -> itemRepo.findBySku( sku ), loadGeneration );
+    }
+
+    /**
+     * Looks up several items at once; all misses are loaded with a single {@code $in} query.
+     *
+     * @return the found items keyed by id; ids that do not exist are absent
+     */
+    public Map<String, Item> findAllById( Collection<String> ids ) {
+        Map<String, Item> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        long loadGeneration;
+        synchronized ( this ) {
+            for ( String id : ids ) {
+                Item cached = itemsById.get( id );
+                if ( cached != null ) {
+                    hits.increment();
+                    found.put( id, cached );
+                } else {
+                    missing.add( id );
+                }
+            }
+            loadGeneration = generation;
+        }
+        if ( missing.isEmpty() ) {
+            return found;
+        }
+
+        misses.add( missing.size() );
+        for ( Item item : itemRepo.findAllById( missing ) ) {
+            put( item, loadGeneration );
+            found.put( item.getId(), item );
+        }
+        return found;
+    }
+
+    public synchronized void evict( String id ) {
+        generation++;
+        remove( id );
+    }
+
+    public synchronized void evictAll() {
+        generation++;
+        itemsById.clear();
+        idsBySku.clear();
+    }
+
+    public synchronized ItemCacheStats stats() {
+        return new ItemCacheStats( hits.sum(), misses.sum(), evictions.sum(), itemsById.size(), maxSize );
+    }
+
+    private Optional<Item> load( Supplier<Optional<Item>> loader, long loadGeneration ) {
+        misses.increment();
+        Optional<Item> loaded = loader.get();
+        loaded.ifPresent( item -> put( item, loadGeneration ) );
+        return loaded;
+    }
+
+    private synchronized void put( Item item, long loadGeneration ) {
+        if ( loadGeneration != generation ) {
+            return;
+        }
+        remove( item.getId() );
+        itemsById.put( item.getId(), item );
+        if ( item.getSku() != null ) {
+            idsBySku.put( item.getSku(), item.getId() );
+        }
+        while ( itemsById.size() > maxSize ) {
+            remove( itemsById.keySet().iterator().next() );
+            evictions.increment();
+        }
+    }
+
+    private void remove( String id ) {
+        Item removed = itemsById.remove( id );
+        if ( removed != null && removed.getSku() != null ) {
+            idsBySku.remove( removed.getSku() );
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.team18.backend.service.completion;
+
+/**
+ * Receives progress while a shipment is completed.
+ */
+@FunctionalInterface
+public interface CompletionProgress {
+
+    CompletionProgress NONE = ( lineItems, receivedQuantity ) -> {
+    };
+
+    /**
+     * Called once the line items of the shipment are read, before capacity is reserved and inventory is updated.
+     */
+    void lineItemsRead( int lineItems, long receivedQuantity );
+}
@@ -0,0 +1,89 @@
+package com.team18.backend.service.completion;
+
+import com.team18.backend.exception.WorkQueueFullException;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on a delegate executor so that tasks with the same key run one after another in submission order,
+ * while tasks with different keys run in parallel. At most one task per key occupies a thread of the delegate.
+ * <p>
+ * The number of tasks that are waiting or running is bounded; submitting beyond that bound fails with a
+ * {@link WorkQueueFullException} instead of growing the backlog without limit.
+ */
+public class KeyedSerialExecutor {
+
+    private final Executor delegate;
+    private final int capacity;
+    private final Map<String, Queue<Runnable>> queues = new HashMap<>();
+    private int pending;
+
+    public KeyedSerialExecutor( Executor delegate, int capacity ) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues a task behind all earlier tasks with the same key.
+     *
+     * @throws WorkQueueFullException if {@code capacity} tasks are already waiting or running
+     */
+    public void submit( String key, Runnable task ) {
+        synchronized ( this ) {
+            if ( pending >= capacity ) {
+                throw new WorkQueueFullException( "The work queue is full, try again later" );
+            }
+            pending++;
+
+            Queue<Runnable> queue = queues.get( key );
+            if ( queue != null ) {
+                // a task with this key is running and will pick this one up when it finishes
+                queue.add( task );
+                return;
+            }
+            queues.put( key, new ArrayDeque<>() );
+        }
+        start( key, task );
+    }
+
+    /**
+     * The number of tasks that are waiting or running.
+     */
+    public synchronized int pending() {
+        return pending;
+    }
+
+    private void start( String key, Runnable task ) {
+        try {
+            delegate.execute( () -> drain( key, task ) );
+        } catch ( RuntimeException e ) {
+            synchronized ( this ) {
+                pending -= 1 + queues.remove( key ).size();
+            }
+            throw e;
+        }
+    }
+
+    private void drain( String key, Runnable first ) {
+        Runnable task = first;
+        while ( task != null ) {
+            try {
+                task.run();
+            } catch ( RuntimeException ignored ) {
+                // tasks report their own failures, the next task of this key still has to run
+            }
+            synchronized ( this ) {
+                pending--;
+                Queue<Runnable> queue = queues.get( key );
+                task = queue.poll();
+                if ( task == null ) {
+                    queues.remove( key );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.team18.backend.service.completion;
+
+import com.team18.backend.dto.ShipmentCompletionJobDTO;
+import com.team18.backend.dto.ShipmentCompletionJobDTO.Status;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of one queued shipment completion. Written by the worker running it and read by status requests.
+ */
+class ShipmentCompletionJob implements CompletionProgress {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String shipmentId;
+    private final String warehouseId;
+    private final Instant queuedAt = Instant.now();
+
+    private Status status = Status.QUEUED;
+    private Integer lineItems;
+    private Long receivedQuantity;
+    private Integer errorStatus;
+    private String error;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    ShipmentCompletionJob( String shipmentId, String warehouseId ) {
+        this.shipmentId = shipmentId;
+        this.warehouseId = warehouseId;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getShipmentId() {
+        return shipmentId;
+    }
+
+    String getWarehouseId() {
+        return warehouseId;
+    }
+
+    synchronized void start() {
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    @Override
+    public synchronized void lineItemsRead( int lineItems, long receivedQuantity ) {
+        this.lineItems = lineItems;
+        this.receivedQuantity = receivedQuantity;
+    }
+
+    synchronized void succeed() {
+        status = Status.SUCCEEDED;
+        finishedAt = Instant.now();
+    }
+
+    synchronized void fail( int errorStatus, String error ) {
+        status = Status.FAILED;
+        this.errorStatus = errorStatus;
+        this.error = error;
+        finishedAt = Instant.now();
+    }
+
+    synchronized boolean isFinishedBefore( Instant instant ) {
+        return finishedAt != null && finishedAt.isBefore( instant );
+    }
+
+    synchronized ShipmentCompletionJobDTO toDTO() {
+        return new ShipmentCompletionJobDTO(
+                id, shipmentId, warehouseId, status, lineItems, receivedQuantity, errorStatus, error,
+                queuedAt, startedAt, finishedAt
+        );
+    }
+}
@@ -0,0 +1,133 @@
+package com.team18.backend.service.completion;
+
+import com.team18.backend.dto.ShipmentCompletionJobDTO;
+import com.team18.backend.dto.ShipmentResponseDTO;
+import com.team18.backend.exception.ConflictException;
+import com.team18.backend.exception.RecordIsLockedException;
+import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.exception.WorkQueueFullException;
+import com.team18.backend.model.ShipmentStatus;
+import com.team18.backend.service.ShipmentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Completes shipments in the background. Completing a shipment reserves warehouse capacity and rewrites the
+ * inventory of every received item, which can take seconds for large shipments, so the request only queues a
+ * job and the client polls its status.
+ * <p>
+ * Completions for the same warehouse run one after another, so they do not compete for the capacity and
+ * inventory documents of that warehouse, while different warehouses complete in parallel on the application
+ * task executor. The warehouse is taken when the job is queued. Jobs are kept in memory, so their status is
+ * only known to the instance that queued them and is lost on restart; finished jobs are forgotten after
+ * {@code app.shipment-completion.job-retention}.
+ */
+@Service
+public class ShipmentCompletionService {
+
+    private static final Logger log = LoggerFactory.getLogger( ShipmentCompletionService.class );
+
+    private final ShipmentService shipmentService;
+    private final KeyedSerialExecutor executor;
+    private final Duration jobRetention;
+    private final Map<String, ShipmentCompletionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ShipmentCompletionJob> activeJobsByShipmentId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShipmentCompletionService(
+            ShipmentService shipmentService,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+            @Value("${app.shipment-completion.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.shipment-completion.job-retention:PT1H}") Duration jobRetention
+    ) {
+        this( shipmentService, new KeyedSerialExecutor( taskExecutor, queueCapacity ), jobRetention );
+    }
+
+    ShipmentCompletionService( ShipmentService shipmentService, KeyedSerialExecutor executor, Duration jobRetention ) {
+        this.shipmentService = shipmentService;
+        this.executor = executor;
+        this.jobRetention = jobRetention;
+    }
+
+    /**
+     * Queues the completion of a shipment. A shipment that is already queued or completing is not queued again,
+     * its running job is returned instead.
+     *
+     * @throws ResourceNotFoundException if the shipment does not exist
+     * @throws RecordIsLockedException   if the shipment is already completed
+     * @throws WorkQueueFullException    if too many completions are waiting
+     */
+    public ShipmentCompletionJobDTO submit( String shipmentId ) {
+        forgetFinishedJobs();
+
+        ShipmentResponseDTO shipment = shipmentService.getShipmentById( shipmentId );
+        if ( shipment.status() == ShipmentStatus.COMPLETED ) {
+            throw new RecordIsLockedException( "Cannot modify shipments with status completed" );
+        }
+
+        ShipmentCompletionJob job = new ShipmentCompletionJob( shipmentId, shipment.warehouse().id() );
+        ShipmentCompletionJob active = activeJobsByShipmentId.putIfAbsent( shipmentId, job );
+        if ( active != null ) {
+            return active.toDTO();
+        }
+
+        jobs.put( job.getId(), job );
+        try {
+            executor.submit( job.getWarehouseId(), () -> run( job ) );
+        } catch ( RuntimeException e ) {
+            jobs.remove( job.getId() );
+            activeJobsByShipmentId.remove( shipmentId, job );
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    public ShipmentCompletionJobDTO getJob( String jobId ) {
+        ShipmentCompletionJob job = jobs.get( jobId );
+        if ( job == null || job.isFinishedBefore( Instant.now().minus( jobRetention ) ) ) {
+            throw new ResourceNotFoundException( "Completion job not found with id: " + jobId );
+        }
+        return job.toDTO();
+    }
+
+    private void run( ShipmentCompletionJob job ) {
+        job.start();
+        try {
+            shipmentService.completeShipment( job.getShipmentId(), job );
+            job.succeed();
+        } catch ( RuntimeException e ) {
+            HttpStatus status = errorStatus( e );
+            if ( status.is5xxServerError() ) {
+                log.error( "Completing shipment {} failed", job.getShipmentId(), e );
+                job.fail( status.value(), "An unexpected error occurred" );
+            } else {
+                job.fail( status.value(), e.getMessage() );
+            }
+        } finally {
+            activeJobsByShipmentId.remove( job.getShipmentId(), job );
+        }
+    }
+
+    private static HttpStatus errorStatus( RuntimeException e ) {
+        if ( e instanceof ResourceNotFoundException ) return HttpStatus.NOT_FOUND;
+        if ( e instanceof ConflictException ) return HttpStatus.CONFLICT;
+        if ( e instanceof RecordIsLockedException ) return HttpStatus.BAD_REQUEST;
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private void forgetFinishedJobs() {
+        Instant threshold = Instant.now().minus( jobRetention );
+        jobs.values().removeIf( job -> job.isFinishedBefore( threshold ) );
+    }
+}
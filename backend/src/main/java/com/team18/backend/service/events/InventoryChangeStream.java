@@ -0,0 +1,213 @@
+package com.team18.backend.service.events;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import com.team18.backend.model.Inventory;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the inventory collection with a MongoDB change stream and publishes every insert, update and
+ * deletion to the {@link InventoryEventBroadcaster}, no matter whether it was written by the inventory
+ * service, a shipment completion or the seed data generator.
+ * <p>
+ * The stream is read by a single thread for the whole application. Updates look up the current document to
+ * learn its warehouse and item; deletions only carry the inventory id. After an error the stream resumes
+ * behind the last event it delivered. Change streams need a replica set, on a standalone server the
+ * broadcaster is disabled instead.
+ */
+@Component
+public class InventoryChangeStream implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger( InventoryChangeStream.class );
+
+    private static final Duration MAX_AWAIT = Duration.ofSeconds( 1 );
+    private static final Duration RETRY_DELAY = Duration.ofSeconds( 5 );
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final List<Bson> PIPELINE = List.of(
+            Aggregates.match( Filters.in( "operationType", "insert", "update", "replace", "delete" ) ),
+            // the resume token _id is kept by every $project of a change stream
+            Aggregates.project( Projections.include(
+                    "operationType", "documentKey", "clusterTime", "wallTime",
+                    "fullDocument.warehouse", "fullDocument.item", "fullDocument.quantity"
+            ) )
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final InventoryEventBroadcaster broadcaster;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private Thread thread;
+    private BsonDocument resumeToken;
+
+    public InventoryChangeStream(
+            MongoTemplate mongoTemplate,
+            InventoryEventBroadcaster broadcaster,
+            @Value("${app.inventory-events.enabled:true}") boolean enabled
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.broadcaster = broadcaster;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void start() {
+        if ( !enabled ) {
+            broadcaster.disable( "Inventory events are disabled" );
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name( "inventory-change-stream" ).daemon().start( this::run );
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if ( thread == null ) {
+            return;
+        }
+        try {
+            // the cursor wakes up at least every MAX_AWAIT to see that it was stopped
+            thread.join( MAX_AWAIT.multipliedBy( 2 ) );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Turns a change of an inventory document into the event sent to clients.
+     *
+     * @return the event, or empty if the change is not sent, e.g. an update whose document was deleted before
+     * it could be looked up; the deletion follows as its own change
+     */
+    static Optional<InventoryChangeEventDTO> toEvent( ChangeStreamDocument<Document> change ) {
+        if ( change.getOperationType() == null || change.getDocumentKey() == null ) {
+            return Optional.empty();
+        }
+        InventoryChangeEventDTO.Type type = switch ( change.getOperationType() ) {
+            case INSERT -> InventoryChangeEventDTO.Type.CREATED;
+            case UPDATE, REPLACE -> InventoryChangeEventDTO.Type.UPDATED;
+            case DELETE -> InventoryChangeEventDTO.Type.DELETED;
+            default -> null;
+        };
+        if ( type == null ) {
+            return Optional.empty();
+        }
+
+        String id = toId( change.getDocumentKey().get( "_id" ) );
+        Instant changedAt = change.getWallTime() != null
+                ? Instant.ofEpochMilli( change.getWallTime().getValue() )
+                : Instant.ofEpochSecond( change.getClusterTime().getTime() );
+        if ( type == InventoryChangeEventDTO.Type.DELETED ) {
+            return Optional.of( new InventoryChangeEventDTO( type, id, null, null, null, changedAt ) );
+        }
+
+        Document document = change.getFullDocument();
+        if ( document == null ) {
+            return Optional.empty();
+        }
+        return Optional.of( new InventoryChangeEventDTO(
+                type,
+                id,
+                toId( document.get( "warehouse" ) ),
+                toId( document.get( "item" ) ),
+                document.getInteger( "quantity" ),
+                changedAt
+        ) );
+    }
+
+    private void run() {
+        while ( running ) {
+            try {
+                if ( !supportsChangeStreams() ) {
+                    log.warn( "MongoDB is not a replica set, inventory events are not available" );
+                    broadcaster.disable( "Inventory events need MongoDB to run as a replica set" );
+                    running = false;
+                    return;
+                }
+                watch();
+            } catch ( RuntimeException e ) {
+                if ( !running ) {
+                    return;
+                }
+                if ( e instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST ) {
+                    // the oplog no longer reaches back to the last event; changes in between are lost
+                    resumeToken = null;
+                }
+                log.warn( "Inventory change stream failed, resuming in {}", RETRY_DELAY, e );
+                try {
+                    Thread.sleep( RETRY_DELAY );
+                } catch ( InterruptedException interrupted ) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        ChangeStreamIterable<Document> changes = mongoTemplate.getCollection( mongoTemplate.getCollectionName( Inventory.class ) )
+                .watch( PIPELINE )
+                .fullDocument( FullDocument.UPDATE_LOOKUP )
+                .maxAwaitTime( MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS );
+        if ( resumeToken != null ) {
+            changes = changes.resumeAfter( resumeToken );
+        }
+
+        try ( MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changes.cursor() ) {
+            while ( running ) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if ( change != null ) {
+                    toEvent( change ).ifPresent( broadcaster::publish );
+                }
+                if ( cursor.getResumeToken() != null ) {
+                    resumeToken = cursor.getResumeToken();
+                }
+            }
+        }
+    }
+
+    private boolean supportsChangeStreams() {
+        Document hello = mongoTemplate.getDb().runCommand( new Document( "hello", 1 ) );
+        return hello.containsKey( "setName" ) || "isdbgrid".equals( hello.getString( "msg" ) );
+    }
+
+    private static String toId( Object id ) {
+        return switch ( id ) {
+            case null -> null;
+            case ObjectId objectId -> objectId.toHexString();
+            case BsonValue value when value.isObjectId() -> value.asObjectId().getValue().toHexString();
+            case BsonValue value when value.isString() -> value.asString().getValue();
+            default -> id.toString();
+        };
+    }
+}
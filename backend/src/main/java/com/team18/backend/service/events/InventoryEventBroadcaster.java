@@ -0,0 +1,93 @@
+package com.team18.backend.service.events;
+
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import com.team18.backend.exception.ChangeStreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Fans the inventory changes read by {@link InventoryChangeStream} out to the clients of the inventory event
+ * stream, so any number of dashboards share a single change stream instead of polling the inventory.
+ * <p>
+ * Every subscriber buffers at most {@code app.inventory-events.buffer-size} events. A subscriber whose buffer
+ * is full is disconnected rather than slowing down the others or growing its buffer; the client reconnects
+ * and reloads the inventory it shows.
+ */
+@Service
+public class InventoryEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger( InventoryEventBroadcaster.class );
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final Set<InventoryEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile String unavailableReason;
+
+    @Autowired
+    public InventoryEventBroadcaster(
+            @Qualifier("applicationTaskExecutor") Executor executor,
+            @Value("${app.inventory-events.buffer-size:256}") int bufferSize
+    ) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Subscribes a client to the changes of the inventory, optionally of a single warehouse or item.
+     *
+     * @return the emitter writing the events to the client; its timeout is the async request timeout
+     * @throws ChangeStreamUnavailableException if the database does not support change streams
+     */
+    public SseEmitter subscribe( String warehouseId, String itemId ) throws ChangeStreamUnavailableException {
+        String reason = unavailableReason;
+        if ( reason != null ) {
+            throw new ChangeStreamUnavailableException( reason );
+        }
+
+        return subscribe( warehouseId, itemId, new SseEmitter() );
+    }
+
+    SseEmitter subscribe( String warehouseId, String itemId, SseEmitter emitter ) {
+        subscribers.add( new InventoryEventSubscriber( warehouseId, itemId, emitter, bufferSize, executor, subscribers::remove ) );
+        return emitter;
+    }
+
+    /**
+     * Hands an event to every matching subscriber; subscribers that do not keep up are disconnected.
+     */
+    public void publish( InventoryChangeEventDTO event ) {
+        for ( InventoryEventSubscriber subscriber : subscribers ) {
+            if ( subscriber.matches( event ) && !subscriber.offer( event ) ) {
+                log.info( "Disconnecting inventory event subscriber that fell {} events behind", bufferSize );
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Rejects new subscribers from now on, e.g. because the database does not support change streams.
+     */
+    public void disable( String reason ) {
+        unavailableReason = reason;
+        closeAll();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.forEach( InventoryEventSubscriber::close );
+    }
+}
@@ -0,0 +1,121 @@
+package com.team18.backend.service.events;
+
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One client of the inventory event stream. Events are buffered up to a fixed size and written to the client
+ * by at most one task of the executor at a time, so a slow client never holds up the change stream.
+ */
+class InventoryEventSubscriber {
+
+    static final String EVENT_NAME = "inventory";
+
+    private final String warehouseId;
+    private final String itemId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<InventoryChangeEventDTO> buffer;
+    private final Executor executor;
+    private final Consumer<InventoryEventSubscriber> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param warehouseId only receive events of this warehouse, or {@code null} for all warehouses
+     * @param itemId      only receive events of this item, or {@code null} for all items
+     * @param onClose     called once when the subscriber is closed by either side
+     */
+    InventoryEventSubscriber(
+            String warehouseId,
+            String itemId,
+            SseEmitter emitter,
+            int bufferSize,
+            Executor executor,
+            Consumer<InventoryEventSubscriber> onClose
+    ) {
+        this.warehouseId = warehouseId;
+        this.itemId = itemId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>( bufferSize );
+        this.executor = executor;
+        this.onClose = onClose;
+
+        emitter.onCompletion( this::detach );
+        emitter.onError( e -> detach() );
+        emitter.onTimeout( this::close );
+    }
+
+    /**
+     * Deletions without warehouse and item match every subscriber, since they cannot be told apart.
+     */
+    boolean matches( InventoryChangeEventDTO event ) {
+        return ( warehouseId == null || event.warehouseId() == null || warehouseId.equals( event.warehouseId() ) )
+                && ( itemId == null || event.itemId() == null || itemId.equals( event.itemId() ) );
+    }
+
+    /**
+     * Buffers an event and schedules writing it to the client.
+     *
+     * @return {@code false} if the buffer is full because the client does not keep up
+     */
+    boolean offer( InventoryChangeEventDTO event ) {
+        if ( closed.get() ) {
+            return true;
+        }
+        if ( !buffer.offer( event ) ) {
+            return false;
+        }
+        if ( draining.compareAndSet( false, true ) ) {
+            try {
+                executor.execute( this::drain );
+            } catch ( RejectedExecutionException e ) {
+                close();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ends the response of the client and drops the buffered events.
+     */
+    void close() {
+        if ( detach() ) {
+            emitter.complete();
+        }
+    }
+
+    private boolean detach() {
+        if ( !closed.compareAndSet( false, true ) ) {
+            return false;
+        }
+        buffer.clear();
+        onClose.accept( this );
+        return true;
+    }
+
+    private void drain() {
+        do {
+            InventoryChangeEventDTO event;
+            while ( !closed.get() && ( event = buffer.poll() ) != null ) {
+                try {
+                    emitter.send( SseEmitter.event().name( EVENT_NAME ).data( event, MediaType.APPLICATION_JSON ) );
+                } catch ( IOException | IllegalStateException e ) {
+                    // the client went away
+                    close();
+                    return;
+                }
+            }
+            draining.set( false );
+            // an event offered after the last poll but before draining was reset has no task yet
+        } while ( !closed.get() && !buffer.isEmpty() && draining.compareAndSet( false, true ) );
+    }
+}
@@ -0,0 +1,83 @@
+package com.team18.backend.service.lineitem;
+
+import com.team18.backend.model.Shipment;
+import com.team18.backend.model.ShipmentLineItem;
+import com.team18.backend.repository.ShipmentLineItemRepository;
+import com.team18.backend.repository.ShipmentRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stores line items in their own collection, each referencing its shipment. This is the default storage.
+ */
+@Component
+@ConditionalOnProperty(name = ShipmentLineItemStore.STORAGE_PROPERTY, havingValue = "collection", matchIfMissing = true)
+public class CollectionShipmentLineItemStore implements ShipmentLineItemStore {
+
+    private final ShipmentLineItemRepository repository;
+    private final ShipmentRepository shipmentRepository;
+
+    public CollectionShipmentLineItemStore( ShipmentLineItemRepository repository, ShipmentRepository shipmentRepository ) {
+        this.repository = repository;
+        this.shipmentRepository = shipmentRepository;
+    }
+
+    @Override
+    public List<ShipmentLineItem> findAllResolvedByShipmentId( String shipmentId ) {
+        return repository.findAllResolvedByShipmentId( shipmentId );
+    }
+
+    @Override
+    public List<ShipmentLineItem> findAllByShipment( Shipment shipment ) {
+        return repository.findAllResolvedByShipmentId( shipment.getId() );
+    }
+
+    @Override
+    public Stream<ShipmentLineItem> streamAllResolved() {
+        return repository.streamAllResolved();
+    }
+
+    @Override
+    public Optional<ShipmentLineItem> findById( String id ) {
+        return repository.findById( id );
+    }
+
+    @Override
+    public ShipmentLineItem insert( ShipmentLineItem lineItem ) {
+        return repository.insert( lineItem );
+    }
+
+    @Override
+    public List<ShipmentLineItem> insert( List<ShipmentLineItem> lineItems ) {
+        return repository.insert( lineItems );
+    }
+
+    @Override
+    public ShipmentLineItem save( ShipmentLineItem lineItem ) {
+        return repository.save( lineItem );
+    }
+
+    @Override
+    public void delete( ShipmentLineItem lineItem ) {
+        repository.delete( lineItem );
+    }
+
+    @Override
+    public void deleteAllByShipment( Shipment shipment ) {
+        repository.deleteAllByShipmentId( shipment.getId() );
+    }
+
+    @Override
+    public long deleteAllByWarehouseId( String warehouseId ) {
+        return repository.deleteAllByShipmentIdIn( shipmentRepository.findIdsByWarehouseId( warehouseId ) );
+    }
+
+    @Override
+    public long migrate() {
+        return shipmentRepository.extractLineItems();
+    }
+}
@@ -0,0 +1,156 @@
+package com.team18.backend.service.lineitem;
+
+import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.model.EmbeddedShipmentLineItem;
+import com.team18.backend.model.Item;
+import com.team18.backend.model.Shipment;
+import com.team18.backend.model.ShipmentLineItem;
+import com.team18.backend.repository.ShipmentRepository;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores line items as an array inside their shipment document. Reading the line items of a shipment is a
+ * single document read, completing a shipment needs no further query for its line items and deleting a
+ * shipment deletes its line items with it. Items are resolved through the {@link ItemCatalogCache}.
+ * <p>
+ * Line items are written with {@code $push}, positional {@code $set} and {@code $pull} on the shipment, and
+ * their timestamps are set here because auditing only applies to top-level documents.
+ */
+@Component
+@ConditionalOnProperty(name = ShipmentLineItemStore.STORAGE_PROPERTY, havingValue = "embedded")
+public class EmbeddedShipmentLineItemStore implements ShipmentLineItemStore {
+
+    private final ShipmentRepository shipmentRepository;
+    private final ItemCatalogCache itemCatalogCache;
+
+    public EmbeddedShipmentLineItemStore( ShipmentRepository shipmentRepository, ItemCatalogCache itemCatalogCache ) {
+        this.shipmentRepository = shipmentRepository;
+        this.itemCatalogCache = itemCatalogCache;
+    }
+
+    @Override
+    public List<ShipmentLineItem> findAllResolvedByShipmentId( String shipmentId ) {
+        return shipmentRepository.findResolvedById( shipmentId ).map( this::toLineItems ).orElse( List.of() );
+    }
+
+    @Override
+    public List<ShipmentLineItem> findAllByShipment( Shipment shipment ) {
+        return toLineItems( shipment );
+    }
+
+    @Override
+    public Stream<ShipmentLineItem> streamAllResolved() {
+        return shipmentRepository.streamAllResolvedWithLineItems().flatMap( shipment -> toLineItems( shipment ).stream() );
+    }
+
+    @Override
+    public Optional<ShipmentLineItem> findById( String id ) {
+        return shipmentRepository.findResolvedByLineItemId( id ).flatMap( shipment -> shipment.getLineItems().stream()
+                .filter( lineItem -> id.equals( lineItem.getId() ) )
+                .findFirst()
+                .map( lineItem -> toLineItem( shipment, lineItem, itemCatalogCache.findById( lineItem.getItem() ).orElse( null ) ) )
+        );
+    }
+
+    @Override
+    public ShipmentLineItem insert( ShipmentLineItem lineItem ) {
+        return insert( List.of( lineItem ) ).getFirst();
+    }
+
+    @Override
+    public List<ShipmentLineItem> insert( List<ShipmentLineItem> lineItems ) {
+        Instant now = Instant.now();
+        List<ShipmentLineItem> inserted = new ArrayList<>( lineItems.size() );
+        Map<String, List<EmbeddedShipmentLineItem>> byShipmentId = new LinkedHashMap<>();
+
+        for ( ShipmentLineItem lineItem : lineItems ) {
+            String id = new ObjectId().toHexString();
+            byShipmentId.computeIfAbsent( lineItem.getShipment().getId(), shipmentId -> new ArrayList<>() ).add( new EmbeddedShipmentLineItem(
+                    id, lineItem.getItem().getId(), lineItem.getExpectedQuantity(), lineItem.getReceivedQuantity(), now, now
+            ) );
+            inserted.add( new ShipmentLineItem(
+                    id, now, now, lineItem.getShipment(), lineItem.getItem(), lineItem.getExpectedQuantity(), lineItem.getReceivedQuantity()
+            ) );
+        }
+
+        byShipmentId.forEach( ( shipmentId, embedded ) -> {
+            if ( !shipmentRepository.pushLineItems( shipmentId, embedded ) ) {
+                throw new ResourceNotFoundException( "Could not find shipment with id: " + shipmentId );
+            }
+        } );
+        return inserted;
+    }
+
+    @Override
+    public ShipmentLineItem save( ShipmentLineItem lineItem ) {
+        Instant now = Instant.now();
+        String shipmentId = lineItem.getShipment().getId();
+        EmbeddedShipmentLineItem embedded = new EmbeddedShipmentLineItem(
+                lineItem.getId(), lineItem.getItem().getId(), lineItem.getExpectedQuantity(), lineItem.getReceivedQuantity(),
+                lineItem.getCreatedDate(), now
+        );
+
+        if ( !shipmentRepository.replaceLineItem( shipmentId, embedded ) ) {
+            // the line item was moved to another shipment
+            shipmentRepository.pullLineItem( lineItem.getId() );
+            if ( !shipmentRepository.pushLineItems( shipmentId, List.of( embedded ) ) ) {
+                throw new ResourceNotFoundException( "Could not find shipment with id: " + shipmentId );
+            }
+        }
+
+        return new ShipmentLineItem(
+                lineItem.getId(), lineItem.getCreatedDate(), now, lineItem.getShipment(), lineItem.getItem(),
+                lineItem.getExpectedQuantity(), lineItem.getReceivedQuantity()
+        );
+    }
+
+    @Override
+    public void delete( ShipmentLineItem lineItem ) {
+        shipmentRepository.pullLineItem( lineItem.getId() );
+    }
+
+    @Override
+    public void deleteAllByShipment( Shipment shipment ) {
+        // embedded line items are deleted together with their shipment
+    }
+
+    @Override
+    public long deleteAllByWarehouseId( String warehouseId ) {
+        // embedded line items are deleted together with their shipments
+        return shipmentRepository.countLineItemsByWarehouseId( warehouseId );
+    }
+
+    @Override
+    public long migrate() {
+        return shipmentRepository.embedLineItems();
+    }
+
+    private List<ShipmentLineItem> toLineItems( Shipment shipment ) {
+        List<EmbeddedShipmentLineItem> lineItems = shipment.getLineItems();
+        if ( lineItems.isEmpty() ) return List.of();
+
+        Map<String, Item> items = itemCatalogCache.findAllById(
+                lineItems.stream().map( EmbeddedShipmentLineItem::getItem ).collect( Collectors.toSet() )
+        );
+        return lineItems.stream().map( lineItem -> toLineItem( shipment, lineItem, items.get( lineItem.getItem() ) ) ).toList();
+    }
+
+    private static ShipmentLineItem toLineItem( Shipment shipment, EmbeddedShipmentLineItem lineItem, Item item ) {
+        return new ShipmentLineItem(
+                lineItem.getId(), lineItem.getCreatedDate(), lineItem.getLastModifiedDate(), shipment, item,
+                lineItem.getExpectedQuantity(), lineItem.getReceivedQuantity()
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package com.team18.backend.service.lineitem;
+
+import com.team18.backend.model.Shipment;
+import com.team18.backend.model.ShipmentLineItem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage of shipment line items.
+ * <p>
+ * Line items are either stored in their own collection with a reference to their shipment, or embedded in the
+ * shipment document so that reading, completing and deleting a shipment touches a single document. The
+ * implementation is selected with {@value #STORAGE_PROPERTY} ({@code collection} or {@code embedded}). Line
+ * items keep their ids in both layouts, so callers and the REST API do not depend on the storage.
+ */
+public interface ShipmentLineItemStore {
+
+    String STORAGE_PROPERTY = "app.shipment-line-items.storage";
+
+    /**
+     * Reads the line items of a shipment with shipment, warehouse, shop and item resolved.
+     */
+    List<ShipmentLineItem> findAllResolvedByShipmentId( String shipmentId );
+
+    /**
+     * Reads the line items of a shipment that is already loaded, with their item resolved.
+     */
+    List<ShipmentLineItem> findAllByShipment( Shipment shipment );
+
+    /**
+     * Streams all line items with a server-side cursor. The stream must be closed to release the cursor.
+     */
+    Stream<ShipmentLineItem> streamAllResolved();
+
+    /**
+     * Reads one line item with its shipment and item resolved.
+     */
+    Optional<ShipmentLineItem> findById( String id );
+
+    ShipmentLineItem insert( ShipmentLineItem lineItem );
+
+    /**
+     * Inserts new line items, with one write per shipment.
+     *
+     * @return the inserted line items in the given order
+     */
+    List<ShipmentLineItem> insert( List<ShipmentLineItem> lineItems );
+
+    /**
+     * Writes an existing line item, which may have been moved to another shipment.
+     */
+    ShipmentLineItem save( ShipmentLineItem lineItem );
+
+    void delete( ShipmentLineItem lineItem );
+
+    /**
+     * Deletes the line items of a shipment that is about to be deleted.
+     */
+    void deleteAllByShipment( Shipment shipment );
+
+    /**
+     * Deletes the line items of all shipments of a warehouse that is about to be deleted, before its shipments
+     * are deleted.
+     *
+     * @return the number of deleted line items
+     */
+    long deleteAllByWarehouseId( String warehouseId );
+
+    /**
+     * Moves line items that are still stored in the other layout into this one, for example after the storage
+     * was switched. Safe to run repeatedly.
+     *
+     * @return the number of line items moved
+     */
+    long migrate();
+}
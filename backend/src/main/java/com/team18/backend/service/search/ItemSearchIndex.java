@@ -0,0 +1,517 @@
+package com.team18.backend.service.search;
+
+import com.team18.backend.model.Item;
+import com.team18.backend.repository.ItemRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the name and SKU of all items, for search-as-you-type without downloading the
+ * catalog.
+ * <p>
+ * Names and SKUs are compared lowercase with every run of other characters than letters and digits read as a
+ * single space, and SKUs also without any separators, so {@code SKU-123}, {@code sku 123} and {@code sku123}
+ * find the same item. Queries of three or more characters match anywhere: their candidates are the items
+ * that contain all trigrams of the query. Shorter queries only match the start of a word. Matches are ranked
+ * exact match, prefix, word prefix and substring, then shorter names first.
+ * <p>
+ * Each rank has its own postings, so a search looks at the exact matches first and at the candidates of
+ * weaker ranks only while it has fewer matches than asked for. Rebuilding the index hands out slots in the
+ * order of equally ranked matches, so within a rank the first matches found are the best ones, and a broad
+ * query stops after a few candidates instead of ranking every item that contains it.
+ * <p>
+ * The index is built from MongoDB once the application is ready and kept current by
+ * {@link com.team18.backend.service.ItemService}. Like the item cache it is local to the instance. Indexed
+ * items are shared and must not be modified by callers.
+ */
+@Component
+public class ItemSearchIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final Logger log = LoggerFactory.getLogger( ItemSearchIndex.class );
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = 4;
+
+    /**
+     * Removed and appended entries are reordered once there are more of them than this and than live entries.
+     */
+    private static final int MIN_REORDER = 1024;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt( ( Entry entry ) -> entry.name().length() )
+            .thenComparing( Entry::name )
+            .thenComparing( entry -> entry.item().getId() );
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt( Match::rank ).thenComparing( Match::entry, ORDER );
+
+    private final ItemRepo itemRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // slots are positions in entries; they only grow, so appending a slot keeps a posting list sorted.
+    // Slots below orderedSlots follow ORDER, later ones were appended since the last reindex.
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private int orderedSlots;
+    private final Map<String, Postings> postingsByValue = new HashMap<>();
+    private final Map<String, Postings> postingsByLeading = new HashMap<>();
+    private final Map<String, Postings> postingsByWordStart = new HashMap<>();
+    private final Map<String, Postings> postingsByGram = new HashMap<>();
+
+    public ItemSearchIndex( ItemRepo itemRepo ) {
+        this.itemRepo = itemRepo;
+    }
+
+    /**
+     * Replaces the index with all items in the database. Searches and writes wait until it is done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            reindex( itemRepo.findAll() );
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info( "Indexed {} items for search in {} ms", size(), ( System.nanoTime() - start ) / 1_000_000 );
+    }
+
+    /**
+     * @param query a name or SKU, or a part of it
+     * @param limit the most items to return
+     * @return the best matching items, best first
+     */
+    public List<Item> search( String query, int limit ) {
+        String normalized = normalize( query );
+        if ( normalized.isEmpty() || limit < 1 ) {
+            return List.of();
+        }
+        Query parsed = new Query( normalized, " " + normalized, compact( normalized ) );
+        String firstWord = normalized.split( " " )[0];
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> best = new PriorityQueue<>( limit + 1, RANKING.reversed() );
+            BitSet candidates = parsed.compact().length() >= GRAM_LENGTH
+                    ? gramCandidates( parsed.compact() )
+                    : union( postingsByWordStart, start( firstWord ) );
+            for ( int rank = EXACT; rank < NO_MATCH && !candidates.isEmpty(); rank++ ) {
+                if ( best.size() == limit && best.peek().rank() < rank ) {
+                    break;
+                }
+                BitSet rankCandidates = switch ( rank ) {
+                    case EXACT -> restrict( candidates, postingsByValue, parsed.normalized(), parsed.compact() );
+                    case PREFIX -> restrict( candidates, postingsByLeading, start( parsed.compact() ) );
+                    case WORD_PREFIX -> restrict( candidates, postingsByWordStart, start( firstWord ) );
+                    default -> candidates;
+                };
+                collect( rankCandidates, rank, parsed, limit, best );
+            }
+
+            List<Match> matches = new ArrayList<>( best );
+            matches.sort( RANKING );
+            return matches.stream().map( match -> match.entry().item() ).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an item, or replaces the indexed version of it.
+     */
+    public void put( Item item ) {
+        lock.writeLock().lock();
+        try {
+            removeEntry( item.getId() );
+            addEntry( item );
+            reorderIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove( String id ) {
+        lock.writeLock().lock();
+        try {
+            removeEntry( id );
+            reorderIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reindex( List.of() );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercases a name, SKU or query and turns every run of characters other than letters and digits into a
+     * single space.
+     */
+    static String normalize( String value ) {
+        if ( value == null ) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder( value.length() );
+        boolean separator = false;
+        for ( int i = 0; i < value.length(); i++ ) {
+            char c = value.charAt( i );
+            if ( Character.isLetterOrDigit( c ) ) {
+                if ( separator && !normalized.isEmpty() ) {
+                    normalized.append( ' ' );
+                }
+                normalized.append( c );
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.toString().toLowerCase( Locale.ROOT );
+    }
+
+    private static String compact( String normalized ) {
+        return normalized.replace( " ", "" );
+    }
+
+    /**
+     * The start of a word or compact value under which it is indexed, up to {@link #GRAM_LENGTH} characters.
+     */
+    private static String start( String value ) {
+        return value.substring( 0, Math.min( value.length(), GRAM_LENGTH ) );
+    }
+
+    /**
+     * Adds the candidates that have the given rank to the best matches. Candidates in ordered slots come in
+     * the order of equally ranked matches, so once one of them does not make it, no later one of this rank
+     * does either, and only the appended slots are left to check.
+     */
+    private void collect( BitSet candidates, int rank, Query query, int limit, PriorityQueue<Match> best ) {
+        for ( int slot = candidates.nextSetBit( 0 ); slot >= 0; slot = candidates.nextSetBit( slot + 1 ) ) {
+            Entry entry = entries.get( slot );
+            if ( entry.rank( query ) != rank ) {
+                continue;
+            }
+            Match worst = best.peek();
+            if ( best.size() < limit ) {
+                best.add( new Match( rank, entry ) );
+            } else if ( worst.rank() > rank || ORDER.compare( entry, worst.entry() ) < 0 ) {
+                best.poll();
+                best.add( new Match( rank, entry ) );
+            } else if ( slot < orderedSlots ) {
+                slot = orderedSlots - 1;
+            }
+        }
+    }
+
+    private BitSet gramCandidates( String compact ) {
+        List<Postings> postings = new ArrayList<>();
+        for ( String gram : grams( compact ) ) {
+            Postings gramPostings = postingsByGram.get( gram );
+            if ( gramPostings == null ) {
+                return new BitSet();
+            }
+            postings.add( gramPostings );
+        }
+        // start with the rarest gram, so the other lists are only probed for few slots
+        postings.sort( Comparator.comparingInt( Postings::size ) );
+
+        Postings rarest = postings.getFirst();
+        int[] slots = new int[rarest.size()];
+        int count = 0;
+        for ( int i = 0; i < rarest.size(); i++ ) {
+            slots[count++] = rarest.get( i );
+        }
+        for ( int j = 1; j < postings.size() && count > 0; j++ ) {
+            count = postings.get( j ).retainAll( slots, count );
+        }
+
+        BitSet candidates = new BitSet();
+        for ( int i = 0; i < count; i++ ) {
+            candidates.set( slots[i] );
+        }
+        return candidates;
+    }
+
+    /**
+     * The candidates in the postings of any of the keys. Probes the postings for each candidate instead of
+     * reading them, when they are longer than the candidates, as the postings of a common start are.
+     */
+    private static BitSet restrict( BitSet candidates, Map<String, Postings> postingsByKey, String... keys ) {
+        List<Postings> postings = Arrays.stream( keys ).distinct().map( postingsByKey::get ).filter( Objects::nonNull ).toList();
+        if ( postings.stream().mapToInt( Postings::size ).sum() <= candidates.cardinality() ) {
+            BitSet slots = union( postingsByKey, keys );
+            slots.and( candidates );
+            return slots;
+        }
+        BitSet slots = new BitSet();
+        for ( int slot = candidates.nextSetBit( 0 ); slot >= 0; slot = candidates.nextSetBit( slot + 1 ) ) {
+            int candidate = slot;
+            if ( postings.stream().anyMatch( keyPostings -> keyPostings.contains( candidate ) ) ) {
+                slots.set( slot );
+            }
+        }
+        return slots;
+    }
+
+    private static BitSet union( Map<String, Postings> postingsByKey, String... keys ) {
+        BitSet slots = new BitSet();
+        for ( String key : keys ) {
+            Postings postings = postingsByKey.get( key );
+            for ( int i = 0; postings != null && i < postings.size(); i++ ) {
+                slots.set( postings.get( i ) );
+            }
+        }
+        return slots;
+    }
+
+    private void reorderIfNeeded() {
+        int outOfOrder = entries.size() - orderedSlots + entries.size() - slotsById.size();
+        if ( outOfOrder > MIN_REORDER && outOfOrder > slotsById.size() ) {
+            reindex( entries.stream().filter( entry -> entry != null ).map( Entry::item ).toList() );
+        }
+    }
+
+    private void reindex( Collection<Item> items ) {
+        entries.clear();
+        slotsById.clear();
+        postingsByValue.clear();
+        postingsByLeading.clear();
+        postingsByWordStart.clear();
+        postingsByGram.clear();
+        items.stream().map( Entry::of ).sorted( ORDER ).forEach( this::addEntry );
+        orderedSlots = entries.size();
+    }
+
+    private void addEntry( Item item ) {
+        addEntry( Entry.of( item ) );
+    }
+
+    private void addEntry( Entry entry ) {
+        int slot = entries.size();
+        entries.add( entry );
+        slotsById.put( entry.item().getId(), slot );
+        entry.values().forEach( value -> postingsByValue.computeIfAbsent( value, key -> new Postings() ).add( slot ) );
+        entry.leadings().forEach( leading -> postingsByLeading.computeIfAbsent( leading, key -> new Postings() ).add( slot ) );
+        entry.wordStarts().forEach( start -> postingsByWordStart.computeIfAbsent( start, key -> new Postings() ).add( slot ) );
+        entry.grams().forEach( gram -> postingsByGram.computeIfAbsent( gram, key -> new Postings() ).add( slot ) );
+    }
+
+    private void removeEntry( String id ) {
+        Integer slot = slotsById.remove( id );
+        if ( slot == null ) {
+            return;
+        }
+        Entry entry = entries.set( slot, null );
+        entry.values().forEach( value -> removePosting( postingsByValue, value, slot ) );
+        entry.leadings().forEach( leading -> removePosting( postingsByLeading, leading, slot ) );
+        entry.wordStarts().forEach( start -> removePosting( postingsByWordStart, start, slot ) );
+        entry.grams().forEach( gram -> removePosting( postingsByGram, gram, slot ) );
+    }
+
+    private static void removePosting( Map<String, Postings> postingsByKey, String key, int slot ) {
+        Postings postings = postingsByKey.get( key );
+        postings.remove( slot );
+        if ( postings.size() == 0 ) {
+            postingsByKey.remove( key );
+        }
+    }
+
+    private static Set<String> grams( String value ) {
+        Set<String> grams = new LinkedHashSet<>();
+        for ( int i = 0; i + GRAM_LENGTH <= value.length(); i++ ) {
+            grams.add( value.substring( i, i + GRAM_LENGTH ) );
+        }
+        return grams;
+    }
+
+    /**
+     * The first one to {@link #GRAM_LENGTH} characters of a value, so that a short query finds the values
+     * starting with it and a longer one those starting with its beginning.
+     */
+    private static void addStarts( String value, Set<String> starts ) {
+        for ( int length = 1; length <= Math.min( value.length(), GRAM_LENGTH ); length++ ) {
+            starts.add( value.substring( 0, length ) );
+        }
+    }
+
+    private record Match( int rank, Entry entry ) {
+    }
+
+    /**
+     * A normalized query, also with a leading space to find word starts and without separators.
+     */
+    private record Query( String normalized, String wordStart, String compact ) {
+    }
+
+    /**
+     * An indexed item with its normalized name and SKU.
+     */
+    private record Entry( Item item, String name, String sku, String compactSku ) {
+
+        static Entry of( Item item ) {
+            String sku = normalize( item.getSku() );
+            return new Entry( item, normalize( item.getName() ), sku, compact( sku ) );
+        }
+
+        int rank( Query query ) {
+            String normalized = query.normalized();
+            String compactQuery = query.compact();
+            if ( name.equals( normalized ) || sku.equals( normalized ) || compactSku.equals( compactQuery ) ) {
+                return EXACT;
+            }
+            if ( name.startsWith( normalized ) || sku.startsWith( normalized ) || compactSku.startsWith( compactQuery ) ) {
+                return PREFIX;
+            }
+            if ( name.contains( query.wordStart() ) || sku.contains( query.wordStart() ) ) {
+                return WORD_PREFIX;
+            }
+            if ( name.contains( normalized ) || sku.contains( normalized ) || compactSku.contains( compactQuery ) ) {
+                return SUBSTRING;
+            }
+            return NO_MATCH;
+        }
+
+        /**
+         * The name, SKU and SKU without separators, for exact matches.
+         */
+        Set<String> values() {
+            return new LinkedHashSet<>( List.of( name, sku, compactSku ) );
+        }
+
+        /**
+         * Starts of the name and SKU without separators, for prefix matches.
+         */
+        Set<String> leadings() {
+            Set<String> leadings = new LinkedHashSet<>();
+            addStarts( compact( name ), leadings );
+            addStarts( compactSku, leadings );
+            return leadings;
+        }
+
+        /**
+         * Starts of every word of the name and SKU, and of the SKU without separators.
+         */
+        Set<String> wordStarts() {
+            Set<String> starts = new LinkedHashSet<>();
+            for ( String word : ( name + " " + sku + " " + compactSku ).split( " " ) ) {
+                addStarts( word, starts );
+            }
+            return starts;
+        }
+
+        /**
+         * Trigrams of the name and SKU without separators, so a query spanning a separator still finds its
+         * candidates.
+         */
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams( compact( name ) );
+            grams.addAll( ItemSearchIndex.grams( compactSku ) );
+            return grams;
+        }
+    }
+
+    /**
+     * A sorted list of slots.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        /**
+         * Appends a slot; slots are handed out in increasing order, so the list stays sorted.
+         */
+        void add( int slot ) {
+            if ( size == slots.length ) {
+                slots = Arrays.copyOf( slots, size * 2 );
+            }
+            slots[size++] = slot;
+        }
+
+        void remove( int slot ) {
+            int index = Arrays.binarySearch( slots, 0, size, slot );
+            if ( index >= 0 ) {
+                System.arraycopy( slots, index + 1, slots, index, size - index - 1 );
+                size--;
+            }
+        }
+
+        /**
+         * Keeps the first {@code count} of the sorted {@code others} that are in this list, stepping through it
+         * in growing strides so a short list is intersected with a long one without reading all of it.
+         *
+         * @return how many were kept
+         */
+        int retainAll( int[] others, int count ) {
+            int kept = 0;
+            int from = 0;
+            for ( int i = 0; i < count && from < size; i++ ) {
+                int slot = others[i];
+                int high = from;
+                int stride = 1;
+                while ( high < size && slots[high] < slot ) {
+                    from = high + 1;
+                    high = from + stride;
+                    stride <<= 1;
+                }
+                int index = Arrays.binarySearch( slots, from, Math.min( high + 1, size ), slot );
+                if ( index >= 0 ) {
+                    others[kept++] = slot;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return kept;
+        }
+
+        boolean contains( int slot ) {
+            return Arrays.binarySearch( slots, 0, size, slot ) >= 0;
+        }
+
+        int get( int index ) {
+            return slots[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
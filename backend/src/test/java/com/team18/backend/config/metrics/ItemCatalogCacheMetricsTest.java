@@ -0,0 +1,33 @@
+package com.team18.backend.config.metrics;
+
+import com.team18.backend.service.cache.ItemCacheStats;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ItemCatalogCacheMetricsTest {
+
+    private final ItemCatalogCache cache = Mockito.mock( ItemCatalogCache.class );
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void bindTo_shouldPublishCurrentCacheStats_whenRegistryIsRead() {
+        // GIVEN
+        new ItemCatalogCacheMetrics( cache ).bindTo( registry );
+        when( cache.stats() ).thenReturn( new ItemCacheStats( 90, 10, 2, 50, 100 ) );
+
+        // WHEN & THEN
+        assertThat( registry.get( "app.item_cache.hits" ).functionCounter().count() ).isEqualTo( 90 );
+        assertThat( registry.get( "app.item_cache.misses" ).functionCounter().count() ).isEqualTo( 10 );
+        assertThat( registry.get( "app.item_cache.evictions" ).functionCounter().count() ).isEqualTo( 2 );
+        assertThat( registry.get( "app.item_cache.size" ).gauge().value() ).isEqualTo( 50 );
+        assertThat( registry.get( "app.item_cache.max_size" ).gauge().value() ).isEqualTo( 100 );
+
+        when( cache.stats() ).thenReturn( new ItemCacheStats( 95, 10, 2, 51, 100 ) );
+        assertThat( registry.get( "app.item_cache.hits" ).functionCounter().count() ).isEqualTo( 95 );
+    }
+}
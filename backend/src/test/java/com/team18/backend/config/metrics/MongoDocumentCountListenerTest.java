@@ -0,0 +1,93 @@
+package com.team18.backend.config.metrics;
+
+import com.mongodb.RequestContext;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoDocumentCountListenerTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription( new ServerId( new ClusterId(), new ServerAddress() ) );
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MongoDocumentCountListener listener = new MongoDocumentCountListener( registry );
+
+    @Test
+    void commandSucceeded_shouldRecordReturnedDocuments_whenFindReturnsACursor() {
+        // WHEN
+        run( 1, "find", "{find: 'shipments', filter: {}}", "{ok: 1, cursor: {id: 0, ns: 'db.shipments', firstBatch: [{}, {}, {}]}}" );
+        run( 2, "getMore", "{getMore: 42, collection: 'shipments'}", "{ok: 1, cursor: {id: 0, ns: 'db.shipments', nextBatch: [{}, {}]}}" );
+
+        // THEN
+        DistributionSummary find = summary( "find", "shipments" );
+        assertThat( find.count() ).isEqualTo( 1 );
+        assertThat( find.totalAmount() ).isEqualTo( 3 );
+        assertThat( summary( "getMore", "shipments" ).totalAmount() ).isEqualTo( 2 );
+    }
+
+    @Test
+    void commandSucceeded_shouldRecordWrittenDocuments_whenWriteCommandsSucceed() {
+        // WHEN
+        run( 1, "insert", "{insert: 'inventory'}", "{ok: 1, n: 500}" );
+        run( 2, "update", "{update: 'inventory'}", "{ok: 1, n: 4, nModified: 3}" );
+        run( 3, "findAndModify", "{findAndModify: 'warehouses'}", "{ok: 1, lastErrorObject: {n: 1, updatedExisting: true}, value: {}}" );
+
+        // THEN
+        assertThat( summary( "insert", "inventory" ).totalAmount() ).isEqualTo( 500 );
+        assertThat( summary( "update", "inventory" ).totalAmount() ).isEqualTo( 4 );
+        assertThat( summary( "findAndModify", "warehouses" ).totalAmount() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void commandSucceeded_shouldNotRecord_whenCommandHasNoCollection() {
+        // WHEN
+        run( 1, "hello", "{hello: 1}", "{ok: 1, isWritablePrimary: true}" );
+        run( 2, "createIndexes", "{createIndexes: 'items', indexes: []}", "{ok: 1, numIndexesBefore: 1, numIndexesAfter: 1}" );
+
+        // THEN
+        assertThat( registry.find( MongoDocumentCountListener.METRIC_NAME ).meters() ).isEmpty();
+    }
+
+    @Test
+    void commandFailed_shouldForgetTheCommand_whenCommandFails() {
+        // GIVEN
+        listener.commandStarted( started( 1, "find", "{find: 'items'}" ) );
+
+        // WHEN
+        listener.commandFailed( new CommandFailedEvent( null, 1, 1, CONNECTION, "db", "find", 5, new IllegalStateException( "boom" ) ) );
+        listener.commandSucceeded( succeeded( 1, "find", "{ok: 1, cursor: {firstBatch: [{}]}}" ) );
+
+        // THEN
+        assertThat( registry.find( MongoDocumentCountListener.METRIC_NAME ).meters() ).isEmpty();
+    }
+
+    private void run( int requestId, String commandName, String command, String response ) {
+        listener.commandStarted( started( requestId, commandName, command ) );
+        listener.commandSucceeded( succeeded( requestId, commandName, response ) );
+    }
+
+    private static CommandStartedEvent started( int requestId, String commandName, String command ) {
+        return new CommandStartedEvent( ( RequestContext ) null, 1, requestId, CONNECTION, "db", commandName, BsonDocument.parse( command ) );
+    }
+
+    private static CommandSucceededEvent succeeded( int requestId, String commandName, String response ) {
+        return new CommandSucceededEvent( null, 1, requestId, CONNECTION, "db", commandName, BsonDocument.parse( response ), 5 );
+    }
+
+    private DistributionSummary summary( String command, String collection ) {
+        return registry.get( MongoDocumentCountListener.METRIC_NAME )
+                .tag( "command", command )
+                .tag( "collection", collection )
+                .summary();
+    }
+}
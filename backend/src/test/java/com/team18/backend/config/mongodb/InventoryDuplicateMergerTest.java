@@ -0,0 +1,87 @@
+package com.team18.backend.config.mongodb;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.Inventory;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({ UnitTestContainersConfiguration.class, InventoryDuplicateMerger.class })
+class InventoryDuplicateMergerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InventoryDuplicateMerger merger;
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.remove( new Query(), Inventory.class );
+        mongoTemplate.indexOps( Inventory.class ).createIndex(
+                new Index().on( "warehouse", Sort.Direction.ASC ).on( "item", Sort.Direction.ASC ).unique().named( "warehouse_item" )
+        );
+    }
+
+    @Test
+    void mergeDuplicates_shouldSumDuplicatesIntoTheOldestRow_whenTheIndexIsMissing() {
+        // GIVEN
+        mongoTemplate.indexOps( Inventory.class ).dropIndex( "warehouse_item" );
+        ObjectId warehouse = new ObjectId();
+        ObjectId item = new ObjectId();
+        ObjectId oldest = new ObjectId();
+        insert( oldest, warehouse, item, 5, Instant.parse( "2025-01-01T00:00:00Z" ) );
+        insert( new ObjectId(), warehouse, item, 3, Instant.parse( "2025-02-01T00:00:00Z" ) );
+        insert( new ObjectId(), warehouse, item, 2, Instant.parse( "2025-03-01T00:00:00Z" ) );
+        insert( new ObjectId(), warehouse, new ObjectId(), 7, Instant.parse( "2025-03-01T00:00:00Z" ) );
+
+        // WHEN
+        long deleted = merger.mergeDuplicates();
+
+        // THEN
+        assertThat( deleted ).isEqualTo( 2 );
+        List<Document> rows = mongoTemplate.findAll( Document.class, "inventory" );
+        assertThat( rows ).hasSize( 2 );
+        assertThat( rows ).filteredOn( row -> row.get( "_id" ).equals( oldest ) )
+                .singleElement()
+                .satisfies( row -> assertThat( row.getInteger( "quantity" ) ).isEqualTo( 10 ) );
+    }
+
+    @Test
+    void mergeDuplicates_shouldDoNothing_whenTheIndexExists() {
+        // GIVEN
+        insert( new ObjectId(), new ObjectId(), new ObjectId(), 5, Instant.now() );
+
+        // WHEN
+        long deleted = merger.mergeDuplicates();
+
+        // THEN
+        assertThat( deleted ).isZero();
+        assertThat( mongoTemplate.count( new Query(), Inventory.class ) ).isEqualTo( 1 );
+    }
+
+    private void insert( ObjectId id, ObjectId warehouse, ObjectId item, int quantity, Instant createdDate ) {
+        mongoTemplate.insert(
+                new Document( "_id", id )
+                        .append( "warehouse", warehouse )
+                        .append( "item", item )
+                        .append( "quantity", quantity )
+                        .append( "createdDate", createdDate ),
+                "inventory"
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.team18.backend.config.mongodb;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.Inventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({ UnitTestContainersConfiguration.class, MongoIndexVerifier.class })
+class MongoIndexVerifierTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.indexOps( Inventory.class ).createIndex(
+                new Index().on( "warehouse", Sort.Direction.ASC ).on( "item", Sort.Direction.ASC ).unique().named( "warehouse_item" )
+        );
+    }
+
+    @Test
+    void findMissingIndexes_shouldReturnEmptyList_whenAllIndexesWereCreated() {
+        // WHEN
+        List<String> actual = verifier.findMissingIndexes();
+
+        // THEN
+        assertThat( actual ).isEmpty();
+    }
+
+    @Test
+    void findMissingIndexes_shouldReportIndex_whenItWasDropped() {
+        // GIVEN
+        mongoTemplate.indexOps( Inventory.class ).dropIndex( "warehouse_item" );
+
+        // WHEN
+        List<String> actual = verifier.findMissingIndexes();
+
+        // THEN
+        assertThat( actual ).containsExactly( "inventory.{\"warehouse\": 1, \"item\": 1}" );
+    }
+}
@@ -7,6 +7,7 @@ import com.team18.backend.TestContainersConfiguration;
 import com.team18.backend.dto.inventory.InventoryCreateDTO;
 import com.team18.backend.dto.inventory.InventoryResponseDTO;
 import com.team18.backend.dto.inventory.InventoryUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
 import com.team18.backend.model.Item;
 import com.team18.backend.model.Shop;
 import com.team18.backend.model.Warehouse;
@@ -21,12 +22,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest("spring.shell.interactive.enabled=false")
 @AutoConfigureMockMvc
 @Import(TestContainersConfiguration.class)
@@ -155,6 +164,152 @@ class InventoryControllerTest {
                 );
     }
 
+    @Test
+    void getAll_ShouldReturnPageWithNextCursor_WhenLimitIsSet() throws Exception {
+        InventoryResponseDTO first = inventoryService.createInventory( newInventory );
+        Item otherItem = itemRepo.save( new Item( null, "SKU-OTHER", "OTHER" ) );
+        InventoryResponseDTO second = inventoryService.createInventory(
+                new InventoryCreateDTO( newInventory.warehouseId(), otherItem.getId(), 5 )
+        );
+
+        String nextCursor = mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory" )
+                                .param( "limit", "1" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.length()" ).value( 1 )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$[0].id" ).value( first.id() )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .header().exists( CursorPage.NEXT_CURSOR_HEADER )
+                )
+                .andReturn().getResponse().getHeader( CursorPage.NEXT_CURSOR_HEADER );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory" )
+                                .param( "limit", "1" )
+                                .param( "cursor", nextCursor )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$[0].id" ).value( second.id() )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .header().doesNotExist( CursorPage.NEXT_CURSOR_HEADER )
+                );
+    }
+
+    @Test
+    void getAll_ShouldReturnBadRequest_WhenLimitIsOutOfRange() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory" )
+                                .param( "limit", "0" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isBadRequest()
+                );
+    }
+
+    @Test
+    void getAll_ShouldReturnOnlySelectedFields_WhenFieldsAreSet() throws Exception {
+        InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory" )
+                                .param( "fields", "id,item.sku,warehouse.address.city,quantity" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .content().json( """
+                                        [
+                                          {
+                                            "id": "%s",
+                                            "item": { "sku": "SKU-TEST" },
+                                            "warehouse": { "address": { "city": "Warszawa" } },
+                                            "quantity": 231312
+                                          }
+                                        ]
+                                        """.formatted( inventoryResponseDTO.id() ), JsonCompareMode.STRICT )
+                );
+    }
+
+    @Test
+    void getAll_ShouldReturnBadRequest_WhenFieldIsUnknown() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory" )
+                                .param( "fields", "id,item.price" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isBadRequest()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.message" ).value( "Unknown field: 'item.price'" )
+                );
+    }
+
+    @Test
+    void export_ShouldStreamOneJsonObjectPerLine_WhenCalled() throws Exception {
+        InventoryResponseDTO first = inventoryService.createInventory( newInventory );
+        Item otherItem = itemRepo.save( new Item( null, "SKU-OTHER", "OTHER" ) );
+        InventoryResponseDTO second = inventoryService.createInventory(
+                new InventoryCreateDTO( newInventory.warehouseId(), otherItem.getId(), 5 )
+        );
+
+        MvcResult result = mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/inventory/export" )
+                                .accept( MediaType.APPLICATION_NDJSON )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .request().asyncStarted()
+                )
+                .andReturn();
+
+        String body = mockMvc.perform( MockMvcRequestBuilders.asyncDispatch( result ) )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .content().contentType( MediaType.APPLICATION_NDJSON )
+                )
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals( 2, lines.size() );
+        assertEquals( first.id(), mapper.readTree( lines.get( 0 ) ).get( "id" ).asText() );
+        assertEquals( second.id(), mapper.readTree( lines.get( 1 ) ).get( "id" ).asText() );
+        assertEquals( "SKU-OTHER", mapper.readTree( lines.get( 1 ) ).at( "/item/sku" ).asText() );
+    }
+
     @Test
     void get_ShouldReturnSingleInventory_WhenCalled() throws Exception {
         InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
@@ -263,6 +418,30 @@ class InventoryControllerTest {
                 );
     }
 
+    @Test
+    void getByWarehouseId_ShouldReturnNotModifiedUntilInventoryChanges_WhenETagIsSent() throws Exception {
+        InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
+        String path = "/api/inventory/byWarehouseId/" + inventoryResponseDTO.warehouse().id();
+
+        String eTag = mockMvc.perform( MockMvcRequestBuilders.get( path ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() )
+                .andExpect( MockMvcResultMatchers.header().exists( HttpHeaders.ETAG ) )
+                .andReturn()
+                .getResponse()
+                .getHeader( HttpHeaders.ETAG );
+
+        mockMvc.perform( MockMvcRequestBuilders.get( path ).header( HttpHeaders.IF_NONE_MATCH, eTag ) )
+                .andExpect( MockMvcResultMatchers.status().isNotModified() )
+                .andExpect( MockMvcResultMatchers.header().string( HttpHeaders.ETAG, eTag ) );
+
+        inventoryService.updateInventory( inventoryResponseDTO.id(), new InventoryUpdateDTO( null, null, 42 ) );
+
+        mockMvc.perform( MockMvcRequestBuilders.get( path ).header( HttpHeaders.IF_NONE_MATCH, eTag ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() )
+                .andExpect( MockMvcResultMatchers.header().string( HttpHeaders.ETAG, not( eTag ) ) )
+                .andExpect( MockMvcResultMatchers.jsonPath( "$[0].quantity" ).value( 42 ) );
+    }
+
     @Test
     void getByItemId_ShouldReturnInventoryList_WhenCalled() throws Exception {
         InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
@@ -489,6 +668,49 @@ class InventoryControllerTest {
                 );
     }
 
+    @Test
+    void update_ShouldReturnNewETag_WhenIfMatchHasCurrentVersion() throws Exception {
+        InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .patch( "/api/inventory/" + inventoryResponseDTO.id() )
+                                .header( HttpHeaders.IF_MATCH, "\"" + inventoryResponseDTO.version() + "\"" )
+                                .contentType( MediaType.APPLICATION_JSON )
+                                .content( "{\"quantity\": 5}" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                ).andExpect(
+                        MockMvcResultMatchers
+                                .header().string( HttpHeaders.ETAG, "\"" + ( inventoryResponseDTO.version() + 1 ) + "\"" )
+                ).andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.version" ).value( inventoryResponseDTO.version() + 1 )
+                );
+    }
+
+    @Test
+    void update_ShouldFailWithPreconditionFailed_WhenIfMatchHasOldVersion() throws Exception {
+        InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
+        inventoryService.updateInventory( inventoryResponseDTO.id(), new InventoryUpdateDTO( null, null, 7 ) );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .patch( "/api/inventory/" + inventoryResponseDTO.id() )
+                                .header( HttpHeaders.IF_MATCH, "\"" + inventoryResponseDTO.version() + "\"" )
+                                .contentType( MediaType.APPLICATION_JSON )
+                                .content( "{\"quantity\": 5}" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isPreconditionFailed()
+                );
+
+        assertEquals( 7, inventoryService.getInventoryById( inventoryResponseDTO.id() ).quantity() );
+    }
+
     @Test
     void delete_ShouldReturnTrue_WhenCalled() throws Exception {
         InventoryResponseDTO inventoryResponseDTO = inventoryService.createInventory( newInventory );
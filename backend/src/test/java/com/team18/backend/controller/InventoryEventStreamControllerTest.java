@@ -0,0 +1,91 @@
+package com.team18.backend.controller;
+
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import com.team18.backend.exception.ChangeStreamUnavailableException;
+import com.team18.backend.service.ETagService;
+import com.team18.backend.service.InventoryHistoryService;
+import com.team18.backend.service.InventoryService;
+import com.team18.backend.service.events.InventoryEventBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InventoryController.class)
+class InventoryEventStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private NdjsonExporter ndjsonExporter;
+
+    @MockitoBean
+    private ETagService eTagService;
+
+    @MockitoBean
+    private InventoryEventBroadcaster eventBroadcaster;
+
+    @MockitoBean
+    private InventoryHistoryService inventoryHistoryService;
+
+    @Test
+    void streamInventoryEvents_shouldWriteServerSentEvents_whenChangesArePublished() throws Exception {
+        // GIVEN
+        SseEmitter emitter = new SseEmitter();
+        when( eventBroadcaster.subscribe( "warehouse-1", null ) ).thenReturn( emitter );
+
+        // WHEN
+        MvcResult result = mockMvc.perform( get( "/api/inventory/events" )
+                        .param( "warehouseId", "warehouse-1" )
+                        .accept( MediaType.TEXT_EVENT_STREAM ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+        emitter.send( SseEmitter.event().name( "inventory" ).data( new InventoryChangeEventDTO(
+                InventoryChangeEventDTO.Type.UPDATED, "inventory-1", "warehouse-1", "item-1", 42, Instant.EPOCH
+        ), MediaType.APPLICATION_JSON ) );
+        emitter.complete();
+
+        // THEN
+        mockMvc.perform( asyncDispatch( result ) )
+                .andExpect( status().isOk() )
+                .andExpect( content().contentTypeCompatibleWith( MediaType.TEXT_EVENT_STREAM ) )
+                .andExpect( content().string( containsString( "event:inventory\n" ) ) )
+                .andExpect( content().string( containsString( "\"id\":\"inventory-1\"" ) ) )
+                .andExpect( content().string( containsString( "\"quantity\":42" ) ) );
+        verify( eventBroadcaster ).subscribe( "warehouse-1", null );
+    }
+
+    @Test
+    void streamInventoryEvents_shouldReturnServiceUnavailable_whenChangeStreamsAreNotSupported() throws Exception {
+        // GIVEN
+        when( eventBroadcaster.subscribe( isNull(), isNull() ) )
+                .thenThrow( new ChangeStreamUnavailableException( "Inventory events need MongoDB to run as a replica set" ) );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/inventory/events" ).accept( MediaType.TEXT_EVENT_STREAM ) )
+                .andExpect( status().isServiceUnavailable() )
+                .andExpect( jsonPath( "$.message" ).value( "Inventory events need MongoDB to run as a replica set" ) );
+    }
+}
@@ -0,0 +1,142 @@
+package com.team18.backend.controller;
+
+import com.team18.backend.TestContainersConfiguration;
+import com.team18.backend.dto.inventory.InventoryCreateDTO;
+import com.team18.backend.dto.inventory.InventoryResponseDTO;
+import com.team18.backend.dto.inventory.InventoryUpdateDTO;
+import com.team18.backend.model.Item;
+import com.team18.backend.model.Shop;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.InventoryRepository;
+import com.team18.backend.repository.ItemRepo;
+import com.team18.backend.repository.ShopRepository;
+import com.team18.backend.repository.WarehouseRepository;
+import com.team18.backend.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the single-node replica set of the MongoDB container, which supports change streams.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.shell.interactive.enabled=false"
+)
+@Import(TestContainersConfiguration.class)
+class InventoryEventStreamIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds( 30 );
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Warehouse warehouse;
+    private Warehouse otherWarehouse;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.deleteAll();
+        shopRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        itemRepo.deleteAll();
+
+        Shop shop = shopRepository.save( new Shop( "Test Shop" ) );
+        warehouse = warehouseRepository.save( newWarehouse( "Warehouse EU East", shop ) );
+        otherWarehouse = warehouseRepository.save( newWarehouse( "Warehouse EU West", shop ) );
+        item = itemRepo.save( new Item( null, "SKU-TEST", "TEST" ) );
+    }
+
+    @Test
+    void streamInventoryEvents_shouldPushChangesOfSubscribedWarehouseOnly_whenInventoryChanges() throws Exception {
+        InventoryResponseDTO inventory = inventoryService.createInventory( new InventoryCreateDTO( warehouse.getId(), item.getId(), 1 ) );
+        InventoryResponseDTO otherInventory = inventoryService.createInventory(
+                new InventoryCreateDTO( otherWarehouse.getId(), item.getId(), 1 )
+        );
+
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder( URI.create( "http://localhost:" + port + "/api/inventory/events?warehouseId=" + warehouse.getId() ) )
+                        .header( "Accept", MediaType.TEXT_EVENT_STREAM_VALUE )
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines()
+        );
+        assertThat( response.statusCode() ).isEqualTo( 200 );
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start( () -> response.body().forEach( lines::add ) );
+
+        // the change stream opens in the background, so keep changing the inventory until an event arrives
+        List<String> events = new ArrayList<>();
+        int quantity = 1;
+        Instant deadline = Instant.now().plus( TIMEOUT );
+        while ( events.stream().noneMatch( event -> event.contains( inventory.id() ) ) && Instant.now().isBefore( deadline ) ) {
+            quantity++;
+            inventoryService.updateInventory( otherInventory.id(), new InventoryUpdateDTO( null, null, quantity ) );
+            inventoryService.updateInventory( inventory.id(), new InventoryUpdateDTO( null, null, quantity ) );
+
+            String line;
+            while ( ( line = lines.poll( 200, TimeUnit.MILLISECONDS ) ) != null ) {
+                if ( line.startsWith( "data:" ) ) {
+                    events.add( line );
+                }
+            }
+        }
+        response.body().close();
+
+        assertThat( events ).isNotEmpty();
+        assertThat( events ).allSatisfy( event -> assertThat( event )
+                .contains( "\"id\":\"" + inventory.id() + "\"" )
+                .contains( "\"warehouseId\":\"" + warehouse.getId() + "\"" )
+                .contains( "\"itemId\":\"" + item.getId() + "\"" ) );
+    }
+
+    private static Warehouse newWarehouse( String name, Shop shop ) {
+        return new Warehouse(
+                name,
+                shop,
+                52.179262, 20.9359542,
+                "Muszkieterow",
+                "26-32",
+                "Warszawa",
+                "02-273",
+                "",
+                "Poland",
+                4328974
+        );
+    }
+}
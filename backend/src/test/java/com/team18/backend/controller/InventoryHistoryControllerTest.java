@@ -0,0 +1,85 @@
+package com.team18.backend.controller;
+
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.inventory.InventoryHistoryPointDTO;
+import com.team18.backend.dto.inventory.InventoryHistoryResponseDTO;
+import com.team18.backend.exception.InvalidHistoryRequestException;
+import com.team18.backend.model.HistoryInterval;
+import com.team18.backend.service.ETagService;
+import com.team18.backend.service.InventoryHistoryService;
+import com.team18.backend.service.InventoryService;
+import com.team18.backend.service.events.InventoryEventBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InventoryController.class)
+class InventoryHistoryControllerTest {
+
+    private static final Instant FROM = Instant.parse( "2025-03-01T00:00:00Z" );
+    private static final Instant TO = Instant.parse( "2025-04-01T00:00:00Z" );
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private NdjsonExporter ndjsonExporter;
+
+    @MockitoBean
+    private ETagService eTagService;
+
+    @MockitoBean
+    private InventoryEventBroadcaster eventBroadcaster;
+
+    @MockitoBean
+    private InventoryHistoryService inventoryHistoryService;
+
+    @Test
+    void getInventoryHistory_shouldReturnTheSeries_whenCalled() throws Exception {
+        // GIVEN
+        when( inventoryHistoryService.getHistory( null, "warehouse-1", null, FROM, TO, HistoryInterval.WEEK ) ).thenReturn( List.of(
+                new InventoryHistoryResponseDTO( "warehouse-1", "item-1", 8, List.of( new InventoryHistoryPointDTO( FROM, 10, 5, 10, 2, 2 ) ) )
+        ) );
+
+        // WHEN / THEN
+        mockMvc.perform( get( "/api/inventory/history" )
+                        .param( "warehouseId", "warehouse-1" )
+                        .param( "from", FROM.toString() )
+                        .param( "to", TO.toString() )
+                        .param( "interval", "WEEK" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .accept( MediaType.APPLICATION_JSON ) )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath( "$[0].itemId" ).value( "item-1" ) )
+                .andExpect( jsonPath( "$[0].openingQuantity" ).value( 8 ) )
+                .andExpect( jsonPath( "$[0].points[0].quantity" ).value( 10 ) );
+    }
+
+    @Test
+    void getInventoryHistory_shouldReturnBadRequest_whenTheRequestIsInvalid() throws Exception {
+        // GIVEN
+        when( inventoryHistoryService.getHistory( null, null, null, null, null, HistoryInterval.DAY ) )
+                .thenThrow( new InvalidHistoryRequestException( "One of shopId, warehouseId and itemId is required" ) );
+
+        // WHEN / THEN
+        mockMvc.perform( get( "/api/inventory/history" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .accept( MediaType.APPLICATION_JSON ) )
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath( "$.message" ).value( "One of shopId, warehouseId and itemId is required" ) );
+    }
+}
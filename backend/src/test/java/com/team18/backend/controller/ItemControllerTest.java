@@ -15,6 +15,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -251,4 +253,40 @@ class ItemControllerTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Nested
+    class SearchItemsTests {
+        @Test
+        @DisplayName("should return best matches first when searching by name or sku")
+        void searchItems() throws Exception {
+            for ( String item : List.of( "{\"sku\":\"LN-LMP-001\",\"name\":\"Blue Lamp\"}",
+                    "{\"sku\":\"LN-LMP-002\",\"name\":\"Lamp\"}",
+                    "{\"sku\":\"LN-LMP-003\",\"name\":\"Lamp Shade\"}" ) ) {
+                mockMvc.perform( post( "/api/items" )
+                                .contentType( MediaType.APPLICATION_JSON )
+                                .content( item ) )
+                        .andExpect( status().isCreated() );
+            }
+
+            mockMvc.perform( get( "/api/items/search" ).param( "q", "lamp" ) )
+                    .andExpect( status().isOk() )
+                    .andExpect( jsonPath( "$.length()" ).value( 3 ) )
+                    .andExpect( jsonPath( "$[0].name" ).value( "Lamp" ) )
+                    .andExpect( jsonPath( "$[1].name" ).value( "Lamp Shade" ) )
+                    .andExpect( jsonPath( "$[2].name" ).value( "Blue Lamp" ) );
+
+            mockMvc.perform( get( "/api/items/search" ).param( "q", "lnlmp003" ) )
+                    .andExpect( status().isOk() )
+                    .andExpect( jsonPath( "$.length()" ).value( 1 ) )
+                    .andExpect( jsonPath( "$[0].sku" ).value( "LN-LMP-003" ) );
+        }
+
+        @Test
+        @DisplayName("should return 400 when limit is out of range")
+        void searchItems_invalidLimit() throws Exception {
+            mockMvc.perform( get( "/api/items/search" ).param( "q", "lamp" ).param( "limit", "0" ) )
+                    .andExpect( status().isBadRequest() )
+                    .andExpect( jsonPath( "$.status" ).value( 400 ) );
+        }
+    }
+}
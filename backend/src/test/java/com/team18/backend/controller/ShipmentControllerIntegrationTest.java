@@ -3,6 +3,7 @@ package com.team18.backend.controller;
 import com.team18.backend.TestContainersConfiguration;
 import com.team18.backend.model.*;
 import com.team18.backend.repository.*;
+import com.jayway.jsonpath.JsonPath;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -110,43 +111,12 @@ class ShipmentControllerIntegrationTest {
     }
 
     @Test
-    void updateShipment_shouldReturn200AndCreateInventory_whenStatusIsCompleted() throws Exception {
+    void updateShipment_shouldReturn400AndLeaveInventory_whenStatusIsCompleted() throws Exception {
         // GIVEN - Create a shipment first
         Shipment existingShipment = new Shipment( testWarehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.IN_DELIVERY );
         Shipment saved = shipmentRepository.save( existingShipment );
         Item item = itemRepo.save( new Item( "test-id", "test-sku", "test-title" ) );
-        ShipmentLineItem existingLineItem = shipmentLineItemRepository.save( new ShipmentLineItem( saved, item, 10, 10 ) );
-
-        String updateRequest = """
-                {
-                    "expectedArrivalDate": "2025-12-15",
-                    "status": "COMPLETED"
-                }
-                """;
-
-        // WHEN & THEN
-        mockMvc.perform( patch( "/api/shipments/{id}", saved.getId() )
-                        .contentType( MediaType.APPLICATION_JSON )
-                        .content( updateRequest ) )
-                .andExpect( status().isOk() )
-                .andExpect( jsonPath( "$.id" ).value( saved.getId() ) );
-
-        List<Inventory> inventories = inventoryRepository.findAllByWarehouse_Id( saved.getWarehouse().getId() ).orElse( List.of() );
-
-        assertThat( inventories ).isNotNull().isNotEmpty()
-                .extracting( "item.id" )
-                .contains( existingLineItem.getItem().getId() );
-
-    }
-
-    @Test
-    void updateShipment_shouldReturn200AndUpdateInventory_whenStatusIsCompleted() throws Exception {
-        // GIVEN - Create a shipment first
-        Shipment existingShipment = new Shipment( testWarehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.IN_DELIVERY );
-        Shipment saved = shipmentRepository.save( existingShipment );
-        Item item = itemRepo.save( new Item( "test-id", "test-sku", "test-title" ) );
-        ShipmentLineItem existingLineItem = shipmentLineItemRepository.save( new ShipmentLineItem( saved, item, 10, 10 ) );
-        inventoryRepository.save( new Inventory( saved.getWarehouse(), existingLineItem.getItem(), 10 ) );
+        shipmentLineItemRepository.save( new ShipmentLineItem( saved, item, 10, 10 ) );
 
         String updateRequest = """
                 {
@@ -159,15 +129,12 @@ class ShipmentControllerIntegrationTest {
         mockMvc.perform( patch( "/api/shipments/{id}", saved.getId() )
                         .contentType( MediaType.APPLICATION_JSON )
                         .content( updateRequest ) )
-                .andExpect( status().isOk() )
-                .andExpect( jsonPath( "$.id" ).value( saved.getId() ) );
-
-        List<Inventory> inventories = inventoryRepository.findAllByWarehouse_Id( saved.getWarehouse().getId() ).orElse( List.of() );
-
-        assertThat( inventories ).isNotNull().isNotEmpty()
-                .extracting( "item.id", "quantity" )
-                .contains( Tuple.tuple( existingLineItem.getItem().getId(), 20 ) );
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath( "$.message" ).isNotEmpty() );
 
+        assertThat( shipmentRepository.findById( saved.getId() ) ).get()
+                .extracting( Shipment::getStatus ).isEqualTo( ShipmentStatus.IN_DELIVERY );
+        assertThat( inventoryRepository.findAllByWarehouse_Id( saved.getWarehouse().getId() ).orElse( List.of() ) ).isEmpty();
     }
 
     @Test
@@ -232,7 +199,7 @@ class ShipmentControllerIntegrationTest {
     }
 
     @Test
-    void updateShipmentStatus_shouldReturn200AndCreateInventory_whenStatusIsCompleted() throws Exception {
+    void updateShipmentStatus_shouldReturn202AndCreateInventory_whenStatusIsCompleted() throws Exception {
         // GIVEN - Create a shipment first
         Shipment existingShipment = new Shipment( testWarehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.IN_DELIVERY );
         Shipment saved = shipmentRepository.save( existingShipment );
@@ -246,11 +213,16 @@ class ShipmentControllerIntegrationTest {
                 """;
 
         // WHEN & THEN
-        mockMvc.perform( patch( "/api/shipments/{id}/status", saved.getId() )
+        String location = mockMvc.perform( patch( "/api/shipments/{id}/status", saved.getId() )
                         .contentType( MediaType.APPLICATION_JSON )
                         .content( updateRequest ) )
-                .andExpect( status().isOk() )
-                .andExpect( jsonPath( "$.id" ).value( saved.getId() ) );
+                .andExpect( status().isAccepted() )
+                .andExpect( jsonPath( "$.shipmentId" ).value( saved.getId() ) )
+                .andReturn().getResponse().getHeader( "Location" );
+
+        assertThat( awaitCompletionJob( location ) ).isEqualTo( "SUCCEEDED" );
+        assertThat( shipmentRepository.findById( saved.getId() ) ).get()
+                .extracting( Shipment::getStatus ).isEqualTo( ShipmentStatus.COMPLETED );
 
         List<Inventory> inventories = inventoryRepository.findAllByWarehouse_Id( saved.getWarehouse().getId() ).orElse( List.of() );
 
@@ -261,7 +233,7 @@ class ShipmentControllerIntegrationTest {
     }
 
     @Test
-    void updateShipmentStatus_shouldReturn200AndUpdateInventory_whenStatusIsCompleted() throws Exception {
+    void updateShipmentStatus_shouldReturn202AndUpdateInventory_whenStatusIsCompleted() throws Exception {
         // GIVEN - Create a shipment first
         Shipment existingShipment = new Shipment( testWarehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.IN_DELIVERY );
         Shipment saved = shipmentRepository.save( existingShipment );
@@ -276,11 +248,16 @@ class ShipmentControllerIntegrationTest {
                 """;
 
         // WHEN & THEN
-        mockMvc.perform( patch( "/api/shipments/{id}/status", saved.getId() )
+        String location = mockMvc.perform( patch( "/api/shipments/{id}/status", saved.getId() )
                         .contentType( MediaType.APPLICATION_JSON )
                         .content( updateRequest ) )
-                .andExpect( status().isOk() )
-                .andExpect( jsonPath( "$.id" ).value( saved.getId() ) );
+                .andExpect( status().isAccepted() )
+                .andExpect( jsonPath( "$.shipmentId" ).value( saved.getId() ) )
+                .andReturn().getResponse().getHeader( "Location" );
+
+        assertThat( awaitCompletionJob( location ) ).isEqualTo( "SUCCEEDED" );
+        assertThat( shipmentRepository.findById( saved.getId() ) ).get()
+                .extracting( Shipment::getStatus ).isEqualTo( ShipmentStatus.COMPLETED );
 
         List<Inventory> inventories = inventoryRepository.findAllByWarehouse_Id( saved.getWarehouse().getId() ).orElse( List.of() );
 
@@ -337,5 +314,24 @@ class ShipmentControllerIntegrationTest {
                 .andExpect( jsonPath( "$.status" ).value( 404 ) )
                 .andExpect( jsonPath( "$.error" ).value( "Not Found" ) );
     }
-}
 
+    /**
+     * Polls a completion job until it has finished and returns its final status.
+     */
+    private String awaitCompletionJob( String location ) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ( true ) {
+            String status = JsonPath.read(
+                    mockMvc.perform( get( location ) )
+                            .andExpect( status().isOk() )
+                            .andReturn().getResponse().getContentAsString(),
+                    "$.status"
+            );
+            if ( !status.equals( "QUEUED" ) && !status.equals( "RUNNING" ) ) {
+                return status;
+            }
+            assertThat( System.currentTimeMillis() ).as( "completion job finished in time" ).isLessThan( deadline );
+            Thread.sleep( 20 );
+        }
+    }
+}
@@ -1,39 +1,66 @@
 package com.team18.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team18.backend.controller.support.NdjsonExporter;
+import com.team18.backend.dto.ShipmentCompletionJobDTO;
 import com.team18.backend.dto.ShipmentResponseDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
+import com.team18.backend.exception.InvalidStatusChangeException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.exception.WorkQueueFullException;
 import com.team18.backend.model.ShipmentStatus;
 import com.team18.backend.service.ShipmentService;
+import com.team18.backend.service.completion.ShipmentCompletionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ShipmentController.class)
+@Import(NdjsonExporter.class)
 class ShipmentControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private ShipmentService shipmentService;
 
+    @MockitoBean
+    private ShipmentCompletionService shipmentCompletionService;
+
     @Test
     void getAllShipments_shouldReturnListOfShipments_whenShipmentsExist() throws Exception {
         // GIVEN
@@ -44,7 +71,7 @@ class ShipmentControllerTest {
                 "shipment-2", "warehouse-2", LocalDate.of( 2025, 12, 5 ), ShipmentStatus.IN_DELIVERY
         );
         List<ShipmentResponseDTO> shipments = List.of( shipment1, shipment2 );
-        when( shipmentService.getAllShipments() ).thenReturn( shipments );
+        when( shipmentService.getShipmentPage( CursorPageRequest.unpaged() ) ).thenReturn( new CursorPage<>( shipments, null ) );
 
         // WHEN & THEN
         mockMvc.perform( get( "/api/shipments" )
@@ -55,13 +82,13 @@ class ShipmentControllerTest {
                 .andExpect( jsonPath( "$[0].warehouse.id" ).value( "warehouse-1" ) )
                 .andExpect( jsonPath( "$[1].id" ).value( "shipment-2" ) );
 
-        verify( shipmentService ).getAllShipments();
+        verify( shipmentService ).getShipmentPage( CursorPageRequest.unpaged() );
     }
 
     @Test
     void getAllShipments_shouldReturnEmptyList_whenNoShipmentsExist() throws Exception {
         // GIVEN
-        when( shipmentService.getAllShipments() ).thenReturn( List.of() );
+        when( shipmentService.getShipmentPage( CursorPageRequest.unpaged() ) ).thenReturn( new CursorPage<>( List.of(), null ) );
 
         // WHEN & THEN
         mockMvc.perform( get( "/api/shipments" )
@@ -70,7 +97,56 @@ class ShipmentControllerTest {
                 .andExpect( jsonPath( "$" ).isArray() )
                 .andExpect( jsonPath( "$" ).isEmpty() );
 
-        verify( shipmentService ).getAllShipments();
+        verify( shipmentService ).getShipmentPage( CursorPageRequest.unpaged() );
+    }
+
+    @Test
+    void getAllShipments_shouldReturnTheFirstPageWithNextCursor_whenTheListExceedsTheUnpagedLimit() throws Exception {
+        // GIVEN
+        ShipmentResponseDTO shipment = createShipmentResponseDTO(
+                "shipment-1", "warehouse-1", LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED
+        );
+        when( shipmentService.getShipmentPage( CursorPageRequest.unpaged() ) ).thenReturn( new CursorPage<>( List.of( shipment ), "next" ) );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shipments" )
+                        .contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( status().isOk() )
+                .andExpect( header().string( CursorPage.NEXT_CURSOR_HEADER, "next" ) )
+                .andExpect( jsonPath( "$[0].id" ).value( "shipment-1" ) );
+
+        verify( shipmentService ).getShipmentPage( CursorPageRequest.unpaged() );
+    }
+
+    @Test
+    void exportShipments_shouldStreamOneJsonObjectPerLine_whenShipmentsExist() throws Exception {
+        // GIVEN
+        when( shipmentService.streamAllShipments() ).thenReturn( Stream.of(
+                createShipmentResponseDTO( "shipment-1", "warehouse-1", LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED ),
+                createShipmentResponseDTO( "shipment-2", "warehouse-2", LocalDate.of( 2025, 12, 5 ), ShipmentStatus.IN_DELIVERY )
+        ) );
+
+        // WHEN
+        String body = export( "/api/shipments/export" );
+
+        // THEN
+        List<String> lines = body.lines().toList();
+        assertThat( lines ).hasSize( 2 );
+        assertThat( objectMapper.readTree( lines.get( 0 ) ).get( "id" ).asText() ).isEqualTo( "shipment-1" );
+        assertThat( objectMapper.readTree( lines.get( 1 ) ).get( "id" ).asText() ).isEqualTo( "shipment-2" );
+        assertThat( objectMapper.readTree( lines.get( 1 ) ).at( "/warehouse/id" ).asText() ).isEqualTo( "warehouse-2" );
+    }
+
+    @Test
+    void exportShipments_shouldStreamEmptyBody_whenNoShipmentsExist() throws Exception {
+        // GIVEN
+        when( shipmentService.streamAllShipments() ).thenReturn( Stream.empty() );
+
+        // WHEN
+        String body = export( "/api/shipments/export" );
+
+        // THEN
+        assertThat( body ).isEmpty();
     }
 
     @Test
@@ -233,7 +309,7 @@ class ShipmentControllerTest {
         ShipmentResponseDTO updatedShipment = createShipmentResponseDTO(
                 shipmentId, "warehouse-1", LocalDate.of( 2025, 12, 15 ), ShipmentStatus.IN_DELIVERY
         );
-        when( shipmentService.updateShipment( eq( shipmentId ), any() ) ).thenReturn( updatedShipment );
+        when( shipmentService.updateShipment( eq( shipmentId ), any(), isNull() ) ).thenReturn( updatedShipment );
 
         String requestBody = """
                 {
@@ -248,9 +324,65 @@ class ShipmentControllerTest {
                         .content( requestBody ) )
                 .andExpect( status().isOk() )
                 .andExpect( jsonPath( "$.id" ).value( shipmentId ) )
-                .andExpect( jsonPath( "$.status" ).value( "IN_DELIVERY" ) );
+                .andExpect( jsonPath( "$.status" ).value( "IN_DELIVERY" ) )
+                .andExpect( jsonPath( "$.version" ).value( 0 ) )
+                .andExpect( header().string( HttpHeaders.ETAG, "\"0\"" ) );
 
-        verify( shipmentService ).updateShipment( eq( shipmentId ), any() );
+        verify( shipmentService ).updateShipment( eq( shipmentId ), any(), isNull() );
+    }
+
+    @Test
+    void updateShipment_shouldPassExpectedVersion_whenIfMatchIsGiven() throws Exception {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        ShipmentResponseDTO updatedShipment = createShipmentResponseDTO(
+                shipmentId, "warehouse-1", LocalDate.of( 2025, 12, 15 ), ShipmentStatus.IN_DELIVERY
+        );
+        when( shipmentService.updateShipment( eq( shipmentId ), any(), eq( 4L ) ) ).thenReturn( updatedShipment );
+
+        // WHEN & THEN
+        mockMvc.perform( patch( "/api/shipments/{id}", shipmentId )
+                        .header( HttpHeaders.IF_MATCH, "\"4\"" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"status\": \"IN_DELIVERY\"}" ) )
+                .andExpect( status().isOk() );
+
+        verify( shipmentService ).updateShipment( eq( shipmentId ), any(), eq( 4L ) );
+    }
+
+    @Test
+    void updateShipment_shouldReturnPreconditionFailed_whenIfMatchIsWeak() throws Exception {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        when( shipmentService.updateShipment( eq( shipmentId ), any(), eq( -1L ) ) )
+                .thenThrow( new PreconditionFailedException( "Shipment with id shipment-123 is no longer at version -1" ) );
+
+        // WHEN & THEN
+        mockMvc.perform( patch( "/api/shipments/{id}", shipmentId )
+                        .header( HttpHeaders.IF_MATCH, "W/\"4\"" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"status\": \"IN_DELIVERY\"}" ) )
+                .andExpect( status().isPreconditionFailed() )
+                .andExpect( jsonPath( "$.status" ).value( 412 ) )
+                .andExpect( jsonPath( "$.error" ).value( "Precondition Failed" ) );
+    }
+
+    @Test
+    void updateShipment_shouldReturn400_whenStatusIsCompleted() throws Exception {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        when( shipmentService.updateShipment( eq( shipmentId ), any(), isNull() ) )
+                .thenThrow( new InvalidStatusChangeException( "Shipments are completed through PATCH /api/shipments/{id}/status" ) );
+
+        // WHEN & THEN
+        mockMvc.perform( patch( "/api/shipments/{id}", shipmentId )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"status\": \"COMPLETED\"}" ) )
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath( "$.status" ).value( 400 ) )
+                .andExpect( jsonPath( "$.error" ).value( "Bad Request" ) );
+
+        verifyNoInteractions( shipmentCompletionService );
     }
 
     @Test
@@ -279,6 +411,82 @@ class ShipmentControllerTest {
         verify( shipmentService ).updateShipmentStatus( eq( shipmentId ), any() );
     }
 
+    @Test
+    void updateShipmentStatus_shouldQueueCompletion_whenStatusIsCompleted() throws Exception {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        ShipmentCompletionJobDTO job = createCompletionJobDTO( "job-1", shipmentId, ShipmentCompletionJobDTO.Status.QUEUED );
+        when( shipmentCompletionService.submit( shipmentId ) ).thenReturn( job );
+
+        String requestBody = """
+                {
+                    "status": "COMPLETED"
+                }
+                """;
+
+        // WHEN & THEN
+        mockMvc.perform( patch( "/api/shipments/{id}/status", shipmentId )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( requestBody ) )
+                .andExpect( status().isAccepted() )
+                .andExpect( header().string( "Location", "/api/shipments/completions/job-1" ) )
+                .andExpect( jsonPath( "$.id" ).value( "job-1" ) )
+                .andExpect( jsonPath( "$.shipmentId" ).value( shipmentId ) )
+                .andExpect( jsonPath( "$.status" ).value( "QUEUED" ) );
+
+        verify( shipmentCompletionService ).submit( shipmentId );
+        verify( shipmentService, never() ).updateShipmentStatus( any(), any() );
+    }
+
+    @Test
+    void updateShipmentStatus_shouldReturn503_whenCompletionQueueIsFull() throws Exception {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        when( shipmentCompletionService.submit( shipmentId ) )
+                .thenThrow( new WorkQueueFullException( "The work queue is full, try again later" ) );
+
+        String requestBody = """
+                {
+                    "status": "COMPLETED"
+                }
+                """;
+
+        // WHEN & THEN
+        mockMvc.perform( patch( "/api/shipments/{id}/status", shipmentId )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( requestBody ) )
+                .andExpect( status().isServiceUnavailable() )
+                .andExpect( header().exists( "Retry-After" ) )
+                .andExpect( jsonPath( "$.status" ).value( 503 ) );
+    }
+
+    @Test
+    void getCompletionJob_shouldReturnJob_whenJobExists() throws Exception {
+        // GIVEN
+        ShipmentCompletionJobDTO job = createCompletionJobDTO( "job-1", "shipment-123", ShipmentCompletionJobDTO.Status.SUCCEEDED );
+        when( shipmentCompletionService.getJob( "job-1" ) ).thenReturn( job );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shipments/completions/{jobId}", "job-1" ) )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath( "$.id" ).value( "job-1" ) )
+                .andExpect( jsonPath( "$.status" ).value( "SUCCEEDED" ) )
+                .andExpect( jsonPath( "$.lineItems" ).value( 2 ) )
+                .andExpect( jsonPath( "$.receivedQuantity" ).value( 15 ) );
+    }
+
+    @Test
+    void getCompletionJob_shouldReturn404_whenJobDoesNotExist() throws Exception {
+        // GIVEN
+        when( shipmentCompletionService.getJob( "unknown" ) )
+                .thenThrow( new ResourceNotFoundException( "Completion job not found with id: unknown" ) );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shipments/completions/{jobId}", "unknown" ) )
+                .andExpect( status().isNotFound() )
+                .andExpect( jsonPath( "$.message" ).value( "Completion job not found with id: unknown" ) );
+    }
+
     @Test
     void updateShipmentStatus_shouldReturn400_whenStatusIsMissing() throws Exception {
         // GIVEN
@@ -338,7 +546,7 @@ class ShipmentControllerTest {
                 "shipment-2", "warehouse-2", LocalDate.of( 2025, 12, 5 ), ShipmentStatus.IN_DELIVERY
         );
         List<ShipmentResponseDTO> shipments = List.of( shipment1, shipment2 );
-        when( shipmentService.getAllShipmentsByShopId( shopId ) ).thenReturn( shipments );
+        when( shipmentService.getAllShipmentsByShopId( shopId, null, null, null ) ).thenReturn( shipments );
 
         // WHEN & THEN
         mockMvc.perform( get( "/api/shipments/shop/{shopId}", shopId )
@@ -351,14 +559,14 @@ class ShipmentControllerTest {
                 .andExpect( jsonPath( "$[1].id" ).value( "shipment-2" ) )
                 .andExpect( jsonPath( "$[1].warehouse.id" ).value( "warehouse-2" ) );
 
-        verify( shipmentService ).getAllShipmentsByShopId( shopId );
+        verify( shipmentService ).getAllShipmentsByShopId( shopId, null, null, null );
     }
 
     @Test
     void getAllShipmentsByShopId_shouldReturn404_whenShopDoesNotExist() throws Exception {
         // GIVEN
         String shopId = "non-existent-shop";
-        when( shipmentService.getAllShipmentsByShopId( shopId ) )
+        when( shipmentService.getAllShipmentsByShopId( shopId, null, null, null ) )
                 .thenThrow( new ResourceNotFoundException( "Shop not found with id: " + shopId ) );
 
         // WHEN & THEN
@@ -369,14 +577,14 @@ class ShipmentControllerTest {
                 .andExpect( jsonPath( "$.status" ).value( 404 ) )
                 .andExpect( jsonPath( "$.error" ).value( "Not Found" ) );
 
-        verify( shipmentService ).getAllShipmentsByShopId( shopId );
+        verify( shipmentService ).getAllShipmentsByShopId( shopId, null, null, null );
     }
 
     @Test
     void getAllShipmentsByShopId_shouldReturnEmptyList_whenShopHasNoWarehousesOrShipments() throws Exception {
         // GIVEN
         String shopId = "shop-123";
-        when( shipmentService.getAllShipmentsByShopId( shopId ) ).thenReturn( List.of() );
+        when( shipmentService.getAllShipmentsByShopId( shopId, null, null, null ) ).thenReturn( List.of() );
 
         // WHEN & THEN
         mockMvc.perform( get( "/api/shipments/shop/{shopId}", shopId )
@@ -385,7 +593,45 @@ class ShipmentControllerTest {
                 .andExpect( jsonPath( "$" ).isArray() )
                 .andExpect( jsonPath( "$" ).isEmpty() );
 
-        verify( shipmentService ).getAllShipmentsByShopId( shopId );
+        verify( shipmentService ).getAllShipmentsByShopId( shopId, null, null, null );
+    }
+
+    @Test
+    void getAllShipmentsByShopId_shouldPassFilters_whenStatusAndDateRangeAreGiven() throws Exception {
+        // GIVEN
+        String shopId = "shop-123";
+        LocalDate from = LocalDate.of( 2025, 12, 1 );
+        LocalDate to = LocalDate.of( 2025, 12, 31 );
+        when( shipmentService.getAllShipmentsByShopId( shopId, ShipmentStatus.IN_DELIVERY, from, to ) ).thenReturn( List.of() );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shipments/shop/{shopId}", shopId )
+                        .param( "status", "IN_DELIVERY" )
+                        .param( "from", "2025-12-01" )
+                        .param( "to", "2025-12-31" ) )
+                .andExpect( status().isOk() );
+
+        verify( shipmentService ).getAllShipmentsByShopId( shopId, ShipmentStatus.IN_DELIVERY, from, to );
+    }
+
+    @Test
+    void getAllShipmentsByShopId_shouldReturn400_whenStatusIsUnknown() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shipments/shop/{shopId}", "shop-123" )
+                        .param( "status", "LOST" ) )
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath( "$.error" ).value( "Bad Request" ) );
+    }
+
+    private String export( String path ) throws Exception {
+        MvcResult result = mockMvc.perform( get( path ).accept( MediaType.APPLICATION_NDJSON ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        return mockMvc.perform( asyncDispatch( result ) )
+                .andExpect( status().isOk() )
+                .andExpect( content().contentType( MediaType.APPLICATION_NDJSON ) )
+                .andReturn().getResponse().getContentAsString();
     }
 
     private ShipmentResponseDTO createShipmentResponseDTO(
@@ -400,7 +646,8 @@ class ShipmentControllerTest {
                 expectedArrivalDate,
                 status,
                 Instant.now(),
-                Instant.now()
+                Instant.now(),
+                0
         );
     }
 
@@ -417,8 +664,19 @@ class ShipmentControllerTest {
                 null,
                 null,
                 null,
-                100
+                100,
+                0,
+                0
         );
     }
-}
 
+    private ShipmentCompletionJobDTO createCompletionJobDTO( String id, String shipmentId, ShipmentCompletionJobDTO.Status status ) {
+        Instant now = Instant.now();
+        boolean finished = status == ShipmentCompletionJobDTO.Status.SUCCEEDED;
+        return new ShipmentCompletionJobDTO(
+                id, shipmentId, "warehouse-1", status,
+                finished ? 2 : null, finished ? 15L : null, null, null,
+                now, finished ? now : null, finished ? now : null
+        );
+    }
+}
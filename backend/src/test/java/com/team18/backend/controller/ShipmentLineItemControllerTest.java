@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.team18.backend.TestContainersConfiguration;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchCreateDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchLineDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemCreateDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemUpdateDTO;
@@ -20,10 +22,14 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest("spring.shell.interactive.enabled=false")
 @AutoConfigureMockMvc
@@ -292,6 +298,78 @@ class ShipmentLineItemControllerTest {
                 );
     }
 
+    @Test
+    void createShipmentLineItems_ShouldReturnCreated_WhenAllLinesAreValid() throws Exception {
+        ShipmentLineItemBatchCreateDTO given = new ShipmentLineItemBatchCreateDTO(
+                shipmentLineItemCreateDTO.shipmentId(),
+                List.of(
+                        new ShipmentLineItemBatchLineDTO( shipmentLineItemCreateDTO.itemId(), 10, null ),
+                        new ShipmentLineItemBatchLineDTO( shipmentLineItemCreateDTO.itemId(), 5, 5 )
+                )
+        );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .post( "/api/shipmentlineitems/batch" )
+                                .contentType( MediaType.APPLICATION_JSON )
+                                .accept( MediaType.APPLICATION_JSON_VALUE )
+                                .content( mapper.writeValueAsString( given ) )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status()
+                                .isCreated()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.created" ).value( 2 )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.results[1].lineItem.expectedQuantity" ).value( 5 )
+                );
+
+        assertThat( shipmentLineItemRepository.count() ).isEqualTo( 2 );
+    }
+
+    @Test
+    void createShipmentLineItems_ShouldReturnMultiStatus_WhenSomeItemsAreMissing() throws Exception {
+        ShipmentLineItemBatchCreateDTO given = new ShipmentLineItemBatchCreateDTO(
+                shipmentLineItemCreateDTO.shipmentId(),
+                List.of(
+                        new ShipmentLineItemBatchLineDTO( "wrong-id", 10, null ),
+                        new ShipmentLineItemBatchLineDTO( shipmentLineItemCreateDTO.itemId(), 5, null )
+                )
+        );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .post( "/api/shipmentlineitems/batch" )
+                                .contentType( MediaType.APPLICATION_JSON )
+                                .accept( MediaType.APPLICATION_JSON_VALUE )
+                                .content( mapper.writeValueAsString( given ) )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status()
+                                .isMultiStatus()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.failed" ).value( 1 )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.results[0].status" ).value( 404 )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.results[1].status" ).value( 201 )
+                );
+
+        assertThat( shipmentLineItemRepository.count() ).isEqualTo( 1 );
+    }
+
     @Test
     void updateShipmentLineItem_ShouldThrow_WhenShipmentLineItemNotFound() throws Exception {
         this.shipmentLineItemService.createShipmentLineItem( shipmentLineItemCreateDTO );
@@ -600,5 +678,47 @@ class ShipmentLineItemControllerTest {
                 );
     }
 
+    @Test
+    void export_ShouldStreamOneJsonObjectPerLine_WhenCalled() throws Exception {
+        ShipmentLineItemResponseDTO first = shipmentLineItemService.createShipmentLineItem( shipmentLineItemCreateDTO );
+        Item otherItem = itemRepo.save( new Item( null, "SKU-OTHER", "OTHER" ) );
+        ShipmentLineItemResponseDTO second = shipmentLineItemService.createShipmentLineItem(
+                new ShipmentLineItemCreateDTO( shipmentLineItemCreateDTO.shipmentId(), otherItem.getId(), 5, 5 )
+        );
+
+        List<String> lines = export().lines().toList();
+
+        assertThat( lines ).hasSize( 2 );
+        assertThat( mapper.readTree( lines.get( 0 ) ).get( "id" ).asText() ).isEqualTo( first.id() );
+        assertThat( mapper.readTree( lines.get( 1 ) ).get( "id" ).asText() ).isEqualTo( second.id() );
+    }
+
+    @Test
+    void export_ShouldStreamEmptyBody_WhenNoShipmentLineItemsExist() throws Exception {
+        assertThat( export() ).isEmpty();
+    }
+
+    private String export() throws Exception {
+        MvcResult result = mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/shipmentlineitems/export" )
+                                .accept( MediaType.APPLICATION_NDJSON )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .request().asyncStarted()
+                )
+                .andReturn();
 
-}
\ No newline at end of file
+        return mockMvc.perform( MockMvcRequestBuilders.asyncDispatch( result ) )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .content().contentType( MediaType.APPLICATION_NDJSON )
+                )
+                .andReturn().getResponse().getContentAsString();
+    }
+}
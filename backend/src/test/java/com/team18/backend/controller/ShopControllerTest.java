@@ -2,10 +2,13 @@ package com.team18.backend.controller;
 
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Shop;
+import com.team18.backend.service.ETagService;
 import com.team18.backend.service.ShopService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -13,10 +16,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +35,16 @@ class ShopControllerTest {
     @MockitoBean
     private ShopService shopService;
 
+    @MockitoBean
+    private ETagService eTagService;
+
+    private static final String SHOPS_ETAG = "W/\"2-18f3a2b4c5d\"";
+
+    @BeforeEach
+    void setUp() {
+        when( eTagService.getShopsETag() ).thenReturn( SHOPS_ETAG );
+    }
+
     @Test
     void getAllShops_shouldReturnListOfShops_whenShopsExist() throws Exception {
         // GIVEN
@@ -65,6 +81,46 @@ class ShopControllerTest {
         verify( shopService ).getAllShops();
     }
 
+    @Test
+    void getAllShops_shouldReturnETag_whenCalled() throws Exception {
+        // GIVEN
+        when( shopService.getAllShops() ).thenReturn( List.of( new Shop( "shop-1", "Shop One" ) ) );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shops" )
+                        .contentType( MediaType.APPLICATION_JSON ) )
+                .andExpect( status().isOk() )
+                .andExpect( header().string( HttpHeaders.ETAG, SHOPS_ETAG ) )
+                .andExpect( jsonPath( "$[0].id" ).value( "shop-1" ) );
+    }
+
+    @Test
+    void getAllShops_shouldReturnNotModifiedWithoutReadingShops_whenETagMatches() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shops" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .header( HttpHeaders.IF_NONE_MATCH, SHOPS_ETAG ) )
+                .andExpect( status().isNotModified() )
+                .andExpect( header().string( HttpHeaders.ETAG, SHOPS_ETAG ) )
+                .andExpect( content().string( "" ) );
+
+        verify( shopService, never() ).getAllShops();
+    }
+
+    @Test
+    void getAllShops_shouldReturnShops_whenETagIsOutdated() throws Exception {
+        // GIVEN
+        when( shopService.getAllShops() ).thenReturn( List.of( new Shop( "shop-1", "Shop One" ) ) );
+
+        // WHEN & THEN
+        mockMvc.perform( get( "/api/shops" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .header( HttpHeaders.IF_NONE_MATCH, "\"1-18f3a2b4c5d\"" ) )
+                .andExpect( status().isOk() )
+                .andExpect( header().string( HttpHeaders.ETAG, SHOPS_ETAG ) )
+                .andExpect( jsonPath( "$[0].id" ).value( "shop-1" ) );
+    }
+
     @Test
     void getShopById_shouldReturnShop_whenShopExists() throws Exception {
         // GIVEN
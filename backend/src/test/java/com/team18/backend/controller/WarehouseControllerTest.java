@@ -18,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
@@ -122,6 +123,72 @@ class WarehouseControllerTest {
                 );
     }
 
+    @Test
+    void getAll_ShouldReturnNotModifiedUntilAWarehouseIsAdded_WhenETagIsSent() throws Exception {
+        warehouseService.createWarehouse( newWarehouse );
+
+        String eTag = mockMvc.perform( MockMvcRequestBuilders.get( "/api/warehouses" ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() )
+                .andExpect( MockMvcResultMatchers.header().exists( HttpHeaders.ETAG ) )
+                .andReturn()
+                .getResponse()
+                .getHeader( HttpHeaders.ETAG );
+
+        mockMvc.perform( MockMvcRequestBuilders.get( "/api/warehouses" ).header( HttpHeaders.IF_NONE_MATCH, eTag ) )
+                .andExpect( MockMvcResultMatchers.status().isNotModified() );
+
+        warehouseService.createWarehouse( new WarehouseCreateDTO(
+                "Warehouse EU West", shop.getId(), 48.8566, 2.3522, "Rue de Rivoli", "1", "Paris", "75001", "", "France", 1000
+        ) );
+
+        mockMvc.perform( MockMvcRequestBuilders.get( "/api/warehouses" ).header( HttpHeaders.IF_NONE_MATCH, eTag ) )
+                .andExpect( MockMvcResultMatchers.status().isOk() )
+                .andExpect( MockMvcResultMatchers.jsonPath( "$.length()" ).value( 2 ) );
+    }
+
+    @Test
+    void getNearest_ShouldReturnWarehouseWithDistance_WhenCalled() throws Exception {
+        WarehouseResponseDTO warehouse = warehouseService.createWarehouse( newWarehouse );
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/warehouses/nearest" )
+                                .param( "lat", "52.2" )
+                                .param( "lng", "21.0" )
+                                .param( "radius", "50000" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isOk()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$[0].warehouse.id" ).value( warehouse.id() )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$[0].distanceMeters" ).isNumber()
+                );
+    }
+
+    @Test
+    void getNearest_ShouldReturnBadRequest_WhenLatitudeIsOutOfRange() throws Exception {
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get( "/api/warehouses/nearest" )
+                                .param( "lat", "95" )
+                                .param( "lng", "21.0" )
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .status().isBadRequest()
+                )
+                .andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.message" ).isNotEmpty()
+                );
+    }
+
     @Test
     void get_ShouldReturnSingleWareHouse_WhenCalled() throws Exception {
         WarehouseResponseDTO warehouse = warehouseService.createWarehouse( newWarehouse );
@@ -285,7 +352,7 @@ class WarehouseControllerTest {
     }
 
     @Test
-    void delete_ShouldReturnTrue_WhenCalled() throws Exception {
+    void delete_ShouldReturnDeletedCounts_WhenCalled() throws Exception {
         WarehouseResponseDTO warehouse = warehouseService.createWarehouse( newWarehouse );
 
         mockMvc.perform(
@@ -294,7 +361,13 @@ class WarehouseControllerTest {
                 )
                 .andExpect(
                         MockMvcResultMatchers
-                                .status().isNoContent()
+                                .status().isOk()
+                ).andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.id" ).value( warehouse.id() )
+                ).andExpect(
+                        MockMvcResultMatchers
+                                .jsonPath( "$.deletedInventories" ).value( 0 )
                 );
     }
 
@@ -0,0 +1,108 @@
+package com.team18.backend.dto.fields;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team18.backend.dto.inventory.InventoryResponseDTO;
+import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
+import com.team18.backend.exception.InvalidFieldSelectionException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldSelectionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void of_shouldSelectAllFields_whenParameterIsBlank() {
+        assertThat( FieldSelection.of( null, InventoryResponseDTO.class ).isAll() ).isTrue();
+        assertThat( FieldSelection.of( " ", InventoryResponseDTO.class ).isAll() ).isTrue();
+    }
+
+    @Test
+    void of_shouldBuildTreeOfSelectedFields_whenPathsAreNested() {
+        // WHEN
+        FieldSelection selection = FieldSelection.of( "quantity, item.sku,id,warehouse.address.city", InventoryResponseDTO.class );
+
+        // THEN
+        assertThat( selection.names() ).containsExactly( "id", "item", "quantity", "warehouse" );
+        assertThat( selection.get( "id" ).isAll() ).isTrue();
+        assertThat( selection.get( "item" ).names() ).containsExactly( "sku" );
+        assertThat( selection.get( "createdDate" ) ).isNull();
+        assertThat( selection.paths() ).containsExactly( "id", "item.sku", "quantity", "warehouse.address.city" );
+    }
+
+    @Test
+    void of_shouldSelectWholeObject_whenObjectAndNestedFieldAreSelected() {
+        // WHEN
+        FieldSelection selection = FieldSelection.of( "warehouse.name,warehouse", InventoryResponseDTO.class );
+
+        // THEN
+        assertThat( selection.get( "warehouse" ).isAll() ).isTrue();
+    }
+
+    @Test
+    void of_shouldThrow_whenFieldIsUnknown() {
+        InvalidFieldSelectionException exception = assertThrows(
+                InvalidFieldSelectionException.class,
+                () -> FieldSelection.of( "id,item.price", InventoryResponseDTO.class )
+        );
+
+        assertThat( exception.getMessage() ).isEqualTo( "Unknown field: 'item.price'" );
+    }
+
+    @Test
+    void of_shouldThrow_whenFieldIsNotSerialized() {
+        // lat and lng are only sent inside geoLocation
+        assertThrows( InvalidFieldSelectionException.class, () -> FieldSelection.of( "lat", WarehouseResponseDTO.class ) );
+    }
+
+    @Test
+    void of_shouldThrow_whenNestingIntoScalarField() {
+        assertThrows( InvalidFieldSelectionException.class, () -> FieldSelection.of( "quantity.value", InventoryResponseDTO.class ) );
+    }
+
+    @Test
+    void of_shouldThrow_whenPathIsMalformed() {
+        InvalidFieldSelectionException exception = assertThrows(
+                InvalidFieldSelectionException.class,
+                () -> FieldSelection.of( "id,,item..sku", InventoryResponseDTO.class )
+        );
+
+        assertThat( exception.getMessage() ).isEqualTo( "Invalid field: ''" );
+    }
+
+    @Test
+    void apply_shouldRemoveUnselectedPropertiesOfEveryRow_whenBodyIsArray() throws Exception {
+        // GIVEN
+        FieldSelection selection = FieldSelection.of( "id,item.sku", InventoryResponseDTO.class );
+        JsonNode body = mapper.readTree( """
+                [
+                  { "id": "1", "quantity": 3, "item": { "id": "i1", "sku": "SKU-1", "name": "One" } },
+                  { "id": "2", "quantity": 5, "item": null }
+                ]
+                """ );
+
+        // WHEN
+        JsonNode result = selection.apply( body );
+
+        // THEN
+        assertThat( result ).isEqualTo( mapper.readTree( """
+                [
+                  { "id": "1", "item": { "sku": "SKU-1" } },
+                  { "id": "2", "item": null }
+                ]
+                """ ) );
+    }
+
+    @Test
+    void eTag_shouldAppendSelectedPaths_whenFieldsAreSelected() {
+        // GIVEN
+        FieldSelection selection = FieldSelection.of( "quantity,id", InventoryResponseDTO.class );
+
+        // WHEN & THEN
+        assertThat( selection.eTag( "\"1-2\"" ) ).isEqualTo( "\"1-2;id+quantity\"" );
+        assertThat( FieldSelection.ALL.eTag( "\"1-2\"" ) ).isEqualTo( "\"1-2\"" );
+    }
+}
@@ -0,0 +1,141 @@
+package com.team18.backend.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Minimal closed-loop HTTP load generator. A fixed number of virtual-thread clients send requests back to
+ * back until the request budget is used up, so the server always sees the configured concurrency.
+ */
+public class LoadDriver {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor( Executors.newVirtualThreadPerTaskExecutor() )
+            .connectTimeout( Duration.ofSeconds( 10 ) )
+            .build();
+
+    private final String baseUrl;
+
+    public LoadDriver( String baseUrl ) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @param concurrency number of clients sending requests in parallel
+     * @param requests    total number of requests to send
+     * @param pathForRequest maps the running request number to the path to call
+     */
+    public LoadResult run( String name, int concurrency, int requests, IntFunction<String> pathForRequest ) {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try ( ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor() ) {
+            for ( int c = 0; c < concurrency; c++ ) {
+                clients.submit( () -> {
+                    int i;
+                    while ( ( i = next.getAndIncrement() ) < requests ) {
+                        long sent = System.nanoTime();
+                        if ( !send( pathForRequest.apply( i ) ) ) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                } );
+            }
+        }
+        Duration duration = Duration.ofNanos( System.nanoTime() - start );
+
+        return LoadResult.of( name, errors.get(), duration, latencies );
+    }
+
+    /**
+     * Runs a mixed workload and reports every endpoint separately. A request fails when it cannot be sent or
+     * is answered with an error status other than 409, which concurrent writes to the same document can
+     * legitimately cause.
+     *
+     * @param concurrency      number of clients sending requests in parallel
+     * @param requests         total number of requests to send
+     * @param requestForNumber maps the running request number to the request to send; called concurrently
+     * @return the result per endpoint, ordered by endpoint name
+     */
+    public Map<String, LoadResult> runMix( int concurrency, int requests, IntFunction<LoadRequest> requestForNumber ) {
+        String[] endpoints = new String[requests];
+        long[] latencies = new long[requests];
+        boolean[] failed = new boolean[requests];
+        AtomicInteger next = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try ( ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor() ) {
+            for ( int c = 0; c < concurrency; c++ ) {
+                clients.submit( () -> {
+                    int i;
+                    while ( ( i = next.getAndIncrement() ) < requests ) {
+                        LoadRequest request = requestForNumber.apply( i );
+                        long sent = System.nanoTime();
+                        int status = send( request );
+                        latencies[i] = System.nanoTime() - sent;
+                        endpoints[i] = request.endpoint();
+                        failed[i] = status < 0 || status >= 400 && status != 409;
+                    }
+                } );
+            }
+        }
+        Duration duration = Duration.ofNanos( System.nanoTime() - start );
+
+        Map<String, List<Integer>> byEndpoint = new TreeMap<>();
+        for ( int i = 0; i < requests; i++ ) {
+            byEndpoint.computeIfAbsent( endpoints[i], endpoint -> new ArrayList<>() ).add( i );
+        }
+        Map<String, LoadResult> results = new LinkedHashMap<>();
+        byEndpoint.forEach( ( endpoint, numbers ) -> results.put( endpoint, LoadResult.of(
+                endpoint,
+                ( int ) numbers.stream().filter( i -> failed[i] ).count(),
+                duration,
+                numbers.stream().mapToLong( i -> latencies[i] ).toArray()
+        ) ) );
+        return results;
+    }
+
+    private boolean send( String path ) {
+        int status = send( LoadRequest.get( path, path ) );
+        return status >= 0 && status < 400;
+    }
+
+    /**
+     * @return the response status, or -1 if the request could not be completed
+     */
+    private int send( LoadRequest load ) {
+        HttpRequest.BodyPublisher body = load.body() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString( load.body() );
+        HttpRequest request = HttpRequest.newBuilder( URI.create( baseUrl + load.path() ) )
+                .header( "Accept", "application/json" )
+                .header( "Content-Type", "application/json" )
+                .timeout( Duration.ofSeconds( 30 ) )
+                .method( load.method(), body )
+                .build();
+        try {
+            return client.send( request, HttpResponse.BodyHandlers.discarding() ).statusCode();
+        } catch ( IOException e ) {
+            return -1;
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
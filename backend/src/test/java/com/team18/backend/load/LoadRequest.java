@@ -0,0 +1,21 @@
+package com.team18.backend.load;
+
+/**
+ * One request of a mixed workload. Results are grouped by {@code endpoint}, so requests to the same route
+ * with different ids share one name.
+ */
+public record LoadRequest(
+        String endpoint,
+        String method,
+        String path,
+        String body
+) {
+
+    public static LoadRequest get( String endpoint, String path ) {
+        return new LoadRequest( endpoint, "GET", path, null );
+    }
+
+    public static LoadRequest patch( String endpoint, String path, String body ) {
+        return new LoadRequest( endpoint, "PATCH", path, body );
+    }
+}
@@ -0,0 +1,43 @@
+package com.team18.backend.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Outcome of one load run: request counts, wall-clock duration and the sorted latencies of all requests.
+ */
+public record LoadResult(
+        String name,
+        int requests,
+        int errors,
+        Duration duration,
+        long[] sortedLatencyNanos
+) {
+
+    public double throughputPerSecond() {
+        return requests / ( duration.toNanos() / 1_000_000_000d );
+    }
+
+    public Duration percentile( double percentile ) {
+        if ( sortedLatencyNanos.length == 0 ) {
+            return Duration.ZERO;
+        }
+        int index = (int) Math.ceil( percentile / 100d * sortedLatencyNanos.length ) - 1;
+        return Duration.ofNanos( sortedLatencyNanos[Math.clamp( index, 0, sortedLatencyNanos.length - 1 )] );
+    }
+
+    static LoadResult of( String name, int errors, Duration duration, long[] latencyNanos ) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort( sorted );
+        return new LoadResult( name, sorted.length, errors, duration, sorted );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%-24s requests=%d errors=%d throughput=%.0f/s p50=%dms p95=%dms p99=%dms",
+                name, requests, errors, throughputPerSecond(),
+                percentile( 50 ).toMillis(), percentile( 95 ).toMillis(), percentile( 99 ).toMillis()
+        );
+    }
+}
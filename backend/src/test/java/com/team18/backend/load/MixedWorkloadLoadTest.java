@@ -0,0 +1,187 @@
+package com.team18.backend.load;
+
+import com.team18.backend.BackendApplication;
+import com.team18.backend.model.*;
+import com.team18.backend.scripts.SeedDataGenerator;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a mixed read and write workload across the inventory, shipment, line item and warehouse endpoints of
+ * the full application, against a containerized Mongo filled by the {@link SeedDataGenerator}. Logs
+ * throughput and p50/p95/p99 latency per endpoint and fails when an endpoint returns errors or exceeds its
+ * p99 latency budget.
+ * <p>
+ * Excluded from the default build; run with {@code ./mvnw test -Pload-test -Dtest=MixedWorkloadLoadTest}.
+ * Data size, load and budgets are set with system properties:
+ * <ul>
+ *     <li>{@code load.shops}, {@code load.warehouses}, {@code load.items}, {@code load.shipments}: size of the data set</li>
+ *     <li>{@code load.concurrency}, {@code load.requests}: clients and requests of the measured run</li>
+ *     <li>{@code load.budget.p99}: p99 budget of every endpoint in milliseconds</li>
+ *     <li>{@code load.budget.<endpoint>.p99}: p99 budget of one endpoint, e.g. {@code load.budget.inventory-by-warehouse.p99}</li>
+ * </ul>
+ */
+@Tag("load")
+class MixedWorkloadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger( MixedWorkloadLoadTest.class );
+
+    private static final int SHOPS = Integer.getInteger( "load.shops", 10 );
+    private static final int WAREHOUSES = Integer.getInteger( "load.warehouses", 200 );
+    private static final int ITEMS = Integer.getInteger( "load.items", 10_000 );
+    private static final int SHIPMENTS = Integer.getInteger( "load.shipments", 100_000 );
+    private static final int CONCURRENCY = Integer.getInteger( "load.concurrency", 64 );
+    private static final int REQUESTS = Integer.getInteger( "load.requests", 50_000 );
+    private static final long DEFAULT_P99_BUDGET_MILLIS = Long.getLong( "load.budget.p99", 500 );
+
+    private static final int SAMPLE_SIZE = 5_000;
+    private static final int OPEN_SHIPMENT_SAMPLE_SIZE = 200;
+
+    private static final MongoDBContainer mongo = new MongoDBContainer( DockerImageName.parse( "mongo:7.0.14" ) );
+
+    private static ConfigurableApplicationContext context;
+    private static LoadDriver driver;
+
+    private static List<String> warehouseIds;
+    private static List<String> inventoryIds;
+    private static List<String> shipmentIds;
+    private static List<String> openLineItemIds;
+
+    @BeforeAll
+    static void startApplicationAndSeed() {
+        mongo.start();
+        context = new SpringApplicationBuilder( BackendApplication.class )
+                .properties(
+                        "spring.data.mongodb.uri=" + mongo.getReplicaSetUrl( "team-project" ),
+                        "server.port=0",
+                        "spring.shell.interactive.enabled=false",
+                        "spring.shell.noninteractive.enabled=false"
+                )
+                .run();
+
+        SeedDataGenerator.Summary seeded = context.getBean( SeedDataGenerator.class ).generate( new SeedDataGenerator.Options(
+                SHOPS, WAREHOUSES, ITEMS, SHIPMENTS, 8, 200, Runtime.getRuntime().availableProcessors(), 42
+        ) );
+        log.info( "Seeded {} documents in {}s: {}", seeded.total(), seeded.duration().toSeconds(), seeded.documents() );
+
+        MongoTemplate mongoTemplate = context.getBean( MongoTemplate.class );
+        warehouseIds = sampleIds( mongoTemplate, Warehouse.class, null );
+        inventoryIds = sampleIds( mongoTemplate, Inventory.class, null );
+        shipmentIds = sampleIds( mongoTemplate, Shipment.class, null );
+
+        // line items of completed shipments are locked, so only open ones are updated
+        ShipmentLineItemStore lineItemStore = context.getBean( ShipmentLineItemStore.class );
+        openLineItemIds = sampleIds( mongoTemplate, Shipment.class, Criteria.where( "status" ).ne( ShipmentStatus.COMPLETED.name() ) )
+                .stream()
+                .limit( OPEN_SHIPMENT_SAMPLE_SIZE )
+                .flatMap( shipmentId -> lineItemStore.findAllResolvedByShipmentId( shipmentId ).stream() )
+                .map( ShipmentLineItem::getId )
+                .toList();
+
+        int port = ( ( WebServerApplicationContext ) context ).getWebServer().getPort();
+        driver = new LoadDriver( "http://localhost:" + port );
+    }
+
+    @AfterAll
+    static void stop() {
+        if ( context != null ) {
+            context.close();
+        }
+        mongo.stop();
+    }
+
+    @Test
+    void mixedWorkload_shouldStayWithinLatencyBudgets() {
+        driver.runMix( CONCURRENCY, REQUESTS / 10, MixedWorkloadLoadTest::request );
+        Map<String, LoadResult> results = driver.runMix( CONCURRENCY, REQUESTS, MixedWorkloadLoadTest::request );
+
+        results.values().forEach( result -> log.info( "{}", result ) );
+
+        assertThat( results.values() ).allSatisfy( result -> {
+            Duration budget = Duration.ofMillis( Long.getLong( "load.budget." + result.name() + ".p99", DEFAULT_P99_BUDGET_MILLIS ) );
+            assertThat( result.errors() ).as( "errors of %s", result.name() ).isZero();
+            assertThat( result.percentile( 99 ) ).as( "p99 latency of %s", result.name() ).isLessThanOrEqualTo( budget );
+        } );
+    }
+
+    /**
+     * About three quarters reads and one quarter writes, spread over random documents of the data set, so the
+     * skew of the generated data shows up as hot warehouses and shipments.
+     */
+    private static LoadRequest request( int number ) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt( 100 );
+        if ( roll < 20 ) {
+            return LoadRequest.get( "inventory-by-warehouse", "/api/inventory/byWarehouseId/" + pick( warehouseIds, random ) );
+        }
+        if ( roll < 30 ) {
+            return LoadRequest.get( "inventory-by-id", "/api/inventory/" + pick( inventoryIds, random ) );
+        }
+        if ( roll < 40 ) {
+            return LoadRequest.patch(
+                    "inventory-update", "/api/inventory/" + pick( inventoryIds, random ),
+                    "{\"quantity\": " + ( 20 + random.nextInt( 1_000 ) ) + "}"
+            );
+        }
+        if ( roll < 55 ) {
+            return LoadRequest.get( "shipment-by-id", "/api/shipments/" + pick( shipmentIds, random ) );
+        }
+        if ( roll < 60 ) {
+            return LoadRequest.get( "shipments-by-warehouse", "/api/shipments/warehouse/" + pick( warehouseIds, random ) );
+        }
+        if ( roll < 75 ) {
+            return LoadRequest.get( "line-items-by-shipment", "/api/shipmentlineitems/byShipmentId/" + pick( shipmentIds, random ) );
+        }
+        if ( roll < 80 && !openLineItemIds.isEmpty() ) {
+            return LoadRequest.patch(
+                    "line-item-update", "/api/shipmentlineitems/" + pick( openLineItemIds, random ),
+                    "{\"receivedQuantity\": " + random.nextInt( 50 ) + "}"
+            );
+        }
+        if ( roll < 90 ) {
+            return LoadRequest.get( "warehouse-by-id", "/api/warehouses/" + pick( warehouseIds, random ) );
+        }
+        return LoadRequest.get(
+                "warehouses-nearest",
+                String.format( Locale.ROOT, "/api/warehouses/nearest?lat=%.4f&lng=%.4f&radius=100000",
+                        47.3 + random.nextDouble() * 7.7, 5.9 + random.nextDouble() * 9.1 )
+        );
+    }
+
+    private static String pick( List<String> ids, ThreadLocalRandom random ) {
+        return ids.get( random.nextInt( ids.size() ) );
+    }
+
+    private static List<String> sampleIds( MongoTemplate mongoTemplate, Class<?> type, Criteria criteria ) {
+        Aggregation sample = criteria == null
+                ? Aggregation.newAggregation( Aggregation.sample( SAMPLE_SIZE ), Aggregation.project( "_id" ) )
+                : Aggregation.newAggregation( Aggregation.match( criteria ), Aggregation.sample( SAMPLE_SIZE ), Aggregation.project( "_id" ) );
+        return mongoTemplate.aggregate( sample, mongoTemplate.getCollectionName( type ), Document.class )
+                .getMappedResults()
+                .stream()
+                .map( document -> document.getObjectId( "_id" ).toHexString() )
+                .toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.team18.backend.load;
+
+import com.team18.backend.BackendApplication;
+import com.team18.backend.model.*;
+import com.team18.backend.repository.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the platform-thread Tomcat pool with virtual-thread request execution at the same client
+ * concurrency. Both runs boot the full application against the same containerized Mongo and dataset and
+ * log throughput and latency percentiles. With twice as many clients as pool threads, virtual threads must
+ * serve at least {@link #MIN_THROUGHPUT_RATIO} of the platform-thread throughput without errors.
+ * <p>
+ * Excluded from the default build; run with {@code ./mvnw test -Pload-test}.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger( VirtualThreadLoadTest.class );
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONCURRENCY = 2 * TOMCAT_MAX_THREADS;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final double MIN_THROUGHPUT_RATIO = Double.parseDouble( System.getProperty( "load.min-throughput-ratio", "0.9" ) );
+
+    private static final MongoDBContainer mongo = new MongoDBContainer( DockerImageName.parse( "mongo:7.0.14" ) );
+
+    private static List<String> warehouseIds;
+    private static List<String> shipmentIds;
+
+    @BeforeAll
+    static void startMongoAndSeed() {
+        mongo.start();
+        try ( ConfigurableApplicationContext context = start( false ) ) {
+            seed( context );
+        }
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongo.stop();
+    }
+
+    @Test
+    void virtualThreads_shouldServeSameWorkloadAtLeastAsFast_comparedToPlatformThreads() {
+        LoadResult platform = measure( false );
+        LoadResult virtual = measure( true );
+        double throughputRatio = virtual.throughputPerSecond() / platform.throughputPerSecond();
+
+        log.info( "{}", platform );
+        log.info( "{}", virtual );
+        log.info(
+                "virtual/platform throughput={}x p99={}x",
+                String.format( Locale.ROOT, "%.2f", throughputRatio ),
+                String.format( Locale.ROOT, "%.2f", (double) virtual.percentile( 99 ).toNanos() / platform.percentile( 99 ).toNanos() )
+        );
+
+        assertThat( platform.errors() ).isZero();
+        assertThat( virtual.errors() ).isZero();
+        assertThat( throughputRatio ).as( "virtual/platform throughput" ).isGreaterThanOrEqualTo( MIN_THROUGHPUT_RATIO );
+    }
+
+    private static LoadResult measure( boolean virtualThreads ) {
+        try ( ConfigurableApplicationContext context = start( virtualThreads ) ) {
+            int port = ( (WebServerApplicationContext) context ).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver( "http://localhost:" + port );
+            String name = virtualThreads ? "virtual threads" : "platform threads (" + TOMCAT_MAX_THREADS + ")";
+
+            driver.run( name + " warmup", CONCURRENCY, WARMUP_REQUESTS, VirtualThreadLoadTest::path );
+            return driver.run( name, CONCURRENCY, REQUESTS, VirtualThreadLoadTest::path );
+        }
+    }
+
+    /**
+     * A read-heavy mix of single-document and list lookups that all block on Mongo.
+     */
+    private static String path( int request ) {
+        return switch ( request % 3 ) {
+            case 0 -> "/api/inventory/byWarehouseId/" + warehouseIds.get( request % warehouseIds.size() );
+            case 1 -> "/api/shipments/" + shipmentIds.get( request % shipmentIds.size() );
+            default -> "/api/warehouses/" + warehouseIds.get( request % warehouseIds.size() );
+        };
+    }
+
+    private static ConfigurableApplicationContext start( boolean virtualThreads ) {
+        return new SpringApplicationBuilder( BackendApplication.class )
+                .properties(
+                        "spring.data.mongodb.uri=" + mongo.getReplicaSetUrl( "team-project" ),
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.shell.interactive.enabled=false",
+                        "spring.shell.noninteractive.enabled=false"
+                )
+                .run();
+    }
+
+    private static void seed( ConfigurableApplicationContext context ) {
+        Shop shop = context.getBean( ShopRepository.class ).save( new Shop( "Load Shop" ) );
+        List<Warehouse> warehouses = context.getBean( WarehouseRepository.class ).saveAll(
+                IntStream.range( 0, 10 )
+                        .mapToObj( i -> new Warehouse( "Warehouse " + i, shop, null, null, null, null, null, null, null, null, 1_000_000 ) )
+                        .toList()
+        );
+        List<Item> items = context.getBean( ItemRepo.class ).saveAll(
+                IntStream.range( 0, 100 ).mapToObj( i -> new Item( null, "SKU-LOAD-" + i, "Item " + i ) ).toList()
+        );
+        context.getBean( InventoryRepository.class ).saveAll(
+                warehouses.stream()
+                        .flatMap( warehouse -> items.stream().map( item -> new Inventory( warehouse, item, 10 ) ) )
+                        .toList()
+        );
+        List<Shipment> shipments = context.getBean( ShipmentRepository.class ).saveAll(
+                IntStream.range( 0, 500 )
+                        .mapToObj( i -> new Shipment( warehouses.get( i % warehouses.size() ), LocalDate.now(), ShipmentStatus.ORDERED ) )
+                        .toList()
+        );
+
+        warehouseIds = warehouses.stream().map( Warehouse::getId ).toList();
+        shipmentIds = shipments.stream().map( Shipment::getId ).toList();
+    }
+}
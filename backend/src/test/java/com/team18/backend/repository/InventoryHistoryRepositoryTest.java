@@ -0,0 +1,102 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.HistoryInterval;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({ UnitTestContainersConfiguration.class, InventoryHistoryRepository.class })
+class InventoryHistoryRepositoryTest {
+
+    private static final String SHOP = new ObjectId().toHexString();
+    private static final String WAREHOUSE = new ObjectId().toHexString();
+    private static final String ITEM = new ObjectId().toHexString();
+    private static final String OTHER_ITEM = new ObjectId().toHexString();
+
+    @Autowired
+    private InventoryHistoryRepository inventoryHistoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        inventoryHistoryRepository.createCollectionIfAbsent();
+        mongoTemplate.getCollection( InventoryHistoryRepository.COLLECTION ).deleteMany( new Document() );
+    }
+
+    @Test
+    void createCollectionIfAbsent_shouldCreateATimeSeriesCollection_whenCalled() {
+        // WHEN
+        Document collection = mongoTemplate.getDb().listCollections()
+                .filter( new Document( "name", InventoryHistoryRepository.COLLECTION ) )
+                .first();
+
+        // THEN
+        assertThat( collection ).isNotNull();
+        assertThat( collection.getString( "type" ) ).isEqualTo( "timeseries" );
+        assertThat( collection.get( "options", Document.class ).get( "timeseries", Document.class ).getString( "metaField" ) )
+                .isEqualTo( "meta" );
+    }
+
+    @Test
+    void findBuckets_shouldDownsampleEachSeriesToItsClosingLevelPerDay_whenCalled() {
+        // GIVEN
+        inventoryHistoryRepository.insertAll( List.of(
+                level( "2025-03-01T08:00:00Z", ITEM, 10, 10 ),
+                level( "2025-03-01T12:00:00Z", ITEM, 4, -6 ),
+                level( "2025-03-01T18:00:00Z", ITEM, 7, 3 ),
+                level( "2025-03-03T09:00:00Z", ITEM, 20, 13 ),
+                level( "2025-03-02T10:00:00Z", OTHER_ITEM, 5, 5 ),
+                level( "2025-04-01T10:00:00Z", ITEM, 0, -20 )
+        ) );
+
+        // WHEN
+        List<InventoryLevelBucket> buckets = inventoryHistoryRepository.findBuckets(
+                null, WAREHOUSE, null, Instant.parse( "2025-03-01T00:00:00Z" ), Instant.parse( "2025-04-01T00:00:00Z" ), HistoryInterval.DAY
+        );
+
+        // THEN
+        // OTHER_ITEM was generated after ITEM, so its id sorts after it
+        assertThat( buckets ).containsExactly(
+                new InventoryLevelBucket( WAREHOUSE, ITEM, Instant.parse( "2025-03-01T00:00:00Z" ), 7, 4, 10, 7, 3 ),
+                new InventoryLevelBucket( WAREHOUSE, ITEM, Instant.parse( "2025-03-03T00:00:00Z" ), 20, 20, 20, 13, 1 ),
+                new InventoryLevelBucket( WAREHOUSE, OTHER_ITEM, Instant.parse( "2025-03-02T00:00:00Z" ), 5, 5, 5, 5, 1 )
+        );
+    }
+
+    @Test
+    void findLastLevelsBefore_shouldReturnTheLastLevelOfEachSeries_whenCalled() {
+        // GIVEN
+        inventoryHistoryRepository.insertAll( List.of(
+                level( "2025-03-01T08:00:00Z", ITEM, 10, 10 ),
+                level( "2025-03-02T08:00:00Z", ITEM, 12, 2 ),
+                level( "2025-03-09T08:00:00Z", ITEM, 1, -11 ),
+                level( "2025-03-09T08:00:00Z", OTHER_ITEM, 3, 3 )
+        ) );
+
+        // WHEN
+        List<InventoryLevel> levels = inventoryHistoryRepository.findLastLevelsBefore(
+                SHOP, null, null, Instant.parse( "2025-03-05T00:00:00Z" )
+        );
+
+        // THEN
+        assertThat( levels ).containsExactly( level( "2025-03-02T08:00:00Z", ITEM, 12, 2 ) );
+    }
+
+    private static InventoryLevel level( String timestamp, String itemId, int quantity, int change ) {
+        return new InventoryLevel( Instant.parse( timestamp ), SHOP, WAREHOUSE, itemId, quantity, change );
+    }
+}
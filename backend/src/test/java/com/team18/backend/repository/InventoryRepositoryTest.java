@@ -0,0 +1,155 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.*;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataMongoTest
+@Import(UnitTestContainersConfiguration.class)
+class InventoryRepositoryTest {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Warehouse warehouse;
+    private Item stocked;
+    private Item unstocked;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.deleteAll();
+        itemRepo.deleteAll();
+        warehouseRepository.deleteAll();
+        shopRepository.deleteAll();
+
+        Shop shop = shopRepository.save( new Shop( "Test Shop" ) );
+        warehouse = warehouseRepository.save( new Warehouse(
+                "Warehouse EU East", shop, null, null, null, null, null, null, null, null, 100
+        ) );
+        stocked = itemRepo.save( new Item( null, "SKU-STOCKED", "STOCKED" ) );
+        unstocked = itemRepo.save( new Item( null, "SKU-UNSTOCKED", "UNSTOCKED" ) );
+    }
+
+    @Test
+    void incrementQuantities_shouldIncrementExistingAndInsertMissingRows_whenCalled() {
+        // GIVEN
+        Inventory existing = inventoryRepository.save( new Inventory( warehouse, stocked, 5 ) );
+
+        // WHEN
+        inventoryRepository.incrementQuantities(
+                warehouse.getId(),
+                Map.of( stocked.getId(), 3, unstocked.getId(), 7 )
+        );
+
+        // THEN
+        List<Inventory> actual = inventoryRepository.findAllResolvedByWarehouseId( warehouse.getId() );
+        assertThat( actual ).hasSize( 2 );
+        Inventory updated = actual.stream().filter( i -> i.getId().equals( existing.getId() ) ).findFirst().orElseThrow();
+        assertThat( updated.getQuantity() ).isEqualTo( 8 );
+        assertThat( updated.getCreatedDate() ).isEqualTo( existing.getCreatedDate() );
+        Inventory inserted = actual.stream().filter( i -> !i.getId().equals( existing.getId() ) ).findFirst().orElseThrow();
+        assertThat( inserted.getItem() ).isEqualTo( unstocked );
+        assertThat( inserted.getQuantity() ).isEqualTo( 7 );
+        assertThat( inserted.getCreatedDate() ).isNotNull();
+        assertThat( inserted.getLastModifiedDate() ).isNotNull();
+    }
+
+    @Test
+    void incrementQuantities_shouldUndoAppliedReceipts_whenALaterWriteFails() {
+        // GIVEN
+        Inventory existing = inventoryRepository.save( new Inventory( warehouse, stocked, 5 ) );
+        Item broken = itemRepo.save( new Item( null, "SKU-BROKEN", "BROKEN" ) );
+        mongoTemplate.insert(
+                new Document( "warehouse", new ObjectId( warehouse.getId() ) )
+                        .append( "item", new ObjectId( broken.getId() ) )
+                        .append( "quantity", "not a number" ),
+                "inventory"
+        );
+        Map<String, Integer> received = new LinkedHashMap<>();
+        received.put( stocked.getId(), 3 );
+        received.put( unstocked.getId(), 7 );
+        received.put( broken.getId(), 1 );
+
+        // WHEN
+        assertThrows(
+                BulkOperationException.class,
+                () -> inventoryRepository.incrementQuantities( warehouse.getId(), received )
+        );
+
+        // THEN
+        assertThat( inventoryRepository.findById( existing.getId() ) ).get()
+                .extracting( Inventory::getQuantity ).isEqualTo( 5 );
+        assertThat( mongoTemplate.count(
+                Query.query( Criteria.where( "item" ).is( new ObjectId( unstocked.getId() ) ) ), "inventory"
+        ) ).isZero();
+    }
+
+    @Test
+    void incrementQuantities_shouldNotLoseUpdates_whenCalledConcurrently() {
+        // GIVEN
+        inventoryRepository.save( new Inventory( warehouse, stocked, 0 ) );
+
+        // WHEN
+        CompletableFuture.allOf(
+                IntStream.range( 0, 20 )
+                        .mapToObj( i -> CompletableFuture.runAsync(
+                                () -> inventoryRepository.incrementQuantities( warehouse.getId(), Map.of( stocked.getId(), 1 ) )
+                        ) )
+                        .toArray( CompletableFuture[]::new )
+        ).join();
+
+        // THEN
+        List<Inventory> actual = inventoryRepository.findAllResolvedByItemId( stocked.getId() );
+        assertThat( actual ).hasSize( 1 );
+        assertThat( actual.getFirst().getQuantity() ).isEqualTo( 20 );
+    }
+
+    @Test
+    void deleteAllByWarehouseId_shouldOnlyDeleteRowsOfTheWarehouse_whenCalled() {
+        // GIVEN
+        Warehouse other = warehouseRepository.save( new Warehouse(
+                "Warehouse EU West", warehouse.getShop(), null, null, null, null, null, null, null, null, 100
+        ) );
+        inventoryRepository.save( new Inventory( warehouse, stocked, 5 ) );
+        inventoryRepository.save( new Inventory( warehouse, unstocked, 2 ) );
+        Inventory kept = inventoryRepository.save( new Inventory( other, stocked, 1 ) );
+
+        // WHEN
+        long deleted = inventoryRepository.deleteAllByWarehouseId( warehouse.getId() );
+
+        // THEN
+        assertThat( deleted ).isEqualTo( 2 );
+        assertThat( inventoryRepository.findAll() ).extracting( Inventory::getId ).containsExactly( kept.getId() );
+    }
+}
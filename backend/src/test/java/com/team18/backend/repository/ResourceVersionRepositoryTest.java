@@ -0,0 +1,76 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Item;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({ UnitTestContainersConfiguration.class, ResourceVersionRepository.class })
+class ResourceVersionRepositoryTest {
+
+    private static final Instant OLDER = Instant.parse( "2025-01-01T00:00:00Z" );
+    private static final Instant NEWER = Instant.parse( "2025-06-01T00:00:00Z" );
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection( Item.class );
+        mongoTemplate.dropCollection( Inventory.class );
+    }
+
+    @Test
+    void findVersion_shouldReturnCountAndNewestLastModified_whenCollectionHasDocuments() {
+        // GIVEN
+        mongoTemplate.insert( new Document( "sku", "SKU-1" ).append( "lastModifiedDate", Date.from( OLDER ) ), "items" );
+        mongoTemplate.insert( new Document( "sku", "SKU-2" ).append( "lastModifiedDate", Date.from( NEWER ) ), "items" );
+
+        // WHEN
+        ResourceVersion version = resourceVersionRepository.findVersion( Item.class );
+
+        // THEN
+        assertThat( version ).isEqualTo( new ResourceVersion( 2, NEWER ) );
+    }
+
+    @Test
+    void findVersion_shouldReturnEmptyVersion_whenCollectionIsEmpty() {
+        // WHEN
+        ResourceVersion version = resourceVersionRepository.findVersion( Item.class );
+
+        // THEN
+        assertThat( version ).isEqualTo( new ResourceVersion( 0, null ) );
+    }
+
+    @Test
+    void findVersion_shouldOnlyCoverReferencingDocuments_whenFieldAndIdAreGiven() {
+        // GIVEN
+        ObjectId warehouse = new ObjectId();
+        mongoTemplate.insert( new Document( "warehouse", warehouse ).append( "lastModifiedDate", Date.from( OLDER ) ), "inventory" );
+        mongoTemplate.insert( new Document( "warehouse", new ObjectId() ).append( "lastModifiedDate", Date.from( NEWER ) ), "inventory" );
+
+        // WHEN
+        ResourceVersion version = resourceVersionRepository.findVersion( Inventory.class, "warehouse", warehouse.toHexString() );
+        ResourceVersion unknown = resourceVersionRepository.findVersion( Inventory.class, "warehouse", new ObjectId().toHexString() );
+
+        // THEN
+        assertThat( version ).isEqualTo( new ResourceVersion( 1, OLDER ) );
+        assertThat( unknown ).isEqualTo( new ResourceVersion( 0, null ) );
+    }
+}
@@ -0,0 +1,200 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.*;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataMongoTest
+@Import(UnitTestContainersConfiguration.class)
+class ShipmentRepositoryTest {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private ShipmentLineItemRepository shipmentLineItemRepository;
+
+    private Shipment shipment;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        shipmentLineItemRepository.deleteAll();
+        shipmentRepository.deleteAll();
+        itemRepo.deleteAll();
+        warehouseRepository.deleteAll();
+        shopRepository.deleteAll();
+
+        Shop shop = shopRepository.save( new Shop( "Test Shop" ) );
+        Warehouse warehouse = warehouseRepository.save( new Warehouse(
+                "Warehouse EU East", shop, null, null, null, null, null, null, null, null, 100
+        ) );
+        shipment = shipmentRepository.save( new Shipment( warehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED ) );
+        item = itemRepo.save( new Item( null, "SKU-1", "First" ) );
+    }
+
+    @Test
+    void pushReplaceAndPullLineItem_shouldChangeTheEmbeddedArray_whenCalled() {
+        // GIVEN
+        EmbeddedShipmentLineItem lineItem = lineItem( 10, 0 );
+
+        // WHEN
+        boolean pushed = shipmentRepository.pushLineItems( shipment.getId(), List.of( lineItem ) );
+        boolean replaced = shipmentRepository.replaceLineItem( shipment.getId(), new EmbeddedShipmentLineItem(
+                lineItem.getId(), item.getId(), 10, 7, lineItem.getCreatedDate(), Instant.now()
+        ) );
+
+        // THEN
+        assertThat( pushed ).isTrue();
+        assertThat( replaced ).isTrue();
+        Shipment actual = shipmentRepository.findResolvedByLineItemId( lineItem.getId() ).orElseThrow();
+        assertThat( actual.getId() ).isEqualTo( shipment.getId() );
+        assertThat( actual.getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+        assertThat( actual.getLineItems() ).singleElement().satisfies( embedded -> {
+            assertThat( embedded.getItem() ).isEqualTo( item.getId() );
+            assertThat( embedded.getReceivedQuantity() ).isEqualTo( 7 );
+        } );
+
+        assertThat( shipmentRepository.pullLineItem( lineItem.getId() ) ).isTrue();
+        assertThat( shipmentRepository.findById( shipment.getId() ).orElseThrow().getLineItems() ).isEmpty();
+    }
+
+    @Test
+    void updateDetails_shouldKeepEmbeddedLineItems_whenShipmentIsUpdated() {
+        // GIVEN
+        shipmentRepository.pushLineItems( shipment.getId(), List.of( lineItem( 10, 0 ) ) );
+        shipment.setStatus( ShipmentStatus.IN_DELIVERY );
+
+        // WHEN
+        Shipment actual = shipmentRepository.updateDetails( shipment ).orElseThrow();
+
+        // THEN
+        assertThat( actual.getStatus() ).isEqualTo( ShipmentStatus.IN_DELIVERY );
+        assertThat( actual.getLineItems() ).hasSize( 1 );
+    }
+
+    @Test
+    void transitionStatus_shouldOnlyLetTheFirstCompletionWin_whenCalledTwice() {
+        // GIVEN
+        LocalDate arrival = LocalDate.of( 2025, 12, 24 );
+
+        // WHEN
+        var first = shipmentRepository.transitionStatus(
+                shipment.getId(), ShipmentStatus.COMPLETED, Map.of( "expectedArrivalDate", arrival ), null
+        );
+        var second = shipmentRepository.transitionStatus( shipment.getId(), ShipmentStatus.COMPLETED, Map.of(), null );
+
+        // THEN
+        assertThat( first ).hasValueSatisfying( transition -> {
+            assertThat( transition.before().getStatus() ).isEqualTo( ShipmentStatus.ORDERED );
+            assertThat( transition.after().getStatus() ).isEqualTo( ShipmentStatus.COMPLETED );
+            assertThat( transition.after().getExpectedArrivalDate() ).isEqualTo( arrival );
+            assertThat( transition.after().getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+        } );
+        assertThat( second ).isEmpty();
+
+        Shipment stored = shipmentRepository.findById( shipment.getId() ).orElseThrow();
+        assertThat( stored.getStatus() ).isEqualTo( ShipmentStatus.COMPLETED );
+        assertThat( stored.getVersion() ).isEqualTo( first.orElseThrow().after().getVersion() );
+    }
+
+    @Test
+    void deleteAllByWarehouseId_shouldDeleteShipmentsWithTheirEmbeddedLineItems_whenCalled() {
+        // GIVEN
+        String warehouseId = shipment.getWarehouse().getId();
+        Shipment other = shipmentRepository.save( new Shipment( shipment.getWarehouse(), LocalDate.of( 2025, 12, 2 ), ShipmentStatus.COMPLETED ) );
+        shipmentRepository.pushLineItems( shipment.getId(), List.of( lineItem( 10, 0 ), lineItem( 5, 0 ) ) );
+        shipmentRepository.pushLineItems( other.getId(), List.of( lineItem( 1, 1 ) ) );
+
+        // WHEN
+        List<String> ids = shipmentRepository.findIdsByWarehouseId( warehouseId );
+        long lineItems = shipmentRepository.countLineItemsByWarehouseId( warehouseId );
+        long deleted = shipmentRepository.deleteAllByWarehouseId( warehouseId );
+
+        // THEN
+        assertThat( ids ).containsExactlyInAnyOrder( shipment.getId(), other.getId() );
+        assertThat( lineItems ).isEqualTo( 3 );
+        assertThat( deleted ).isEqualTo( 2 );
+        assertThat( shipmentRepository.count() ).isZero();
+    }
+
+    @Test
+    void findPageResolved_shouldLeaveOutEmbeddedLineItems_whenCalled() {
+        // GIVEN
+        shipmentRepository.pushLineItems( shipment.getId(), List.of( lineItem( 10, 0 ) ) );
+
+        // WHEN
+        List<Shipment> actual = shipmentRepository.findPageResolved( null, 10 );
+
+        // THEN
+        assertThat( actual ).singleElement().satisfies( listed -> assertThat( listed.getLineItems() ).isEmpty() );
+    }
+
+    @Test
+    void embedLineItems_shouldMoveLineItemsIntoTheirShipment_whenCalledRepeatedly() {
+        // GIVEN
+        ShipmentLineItem first = shipmentLineItemRepository.save( new ShipmentLineItem( shipment, item, 10, 4 ) );
+        ShipmentLineItem second = shipmentLineItemRepository.save( new ShipmentLineItem( shipment, item, 3, 3 ) );
+
+        // WHEN
+        long moved = shipmentRepository.embedLineItems();
+        long movedAgain = shipmentRepository.embedLineItems();
+
+        // THEN
+        assertThat( moved ).isEqualTo( 2 );
+        assertThat( movedAgain ).isZero();
+        assertThat( shipmentLineItemRepository.count() ).isZero();
+        assertThat( shipmentRepository.findById( shipment.getId() ).orElseThrow().getLineItems() )
+                .extracting( EmbeddedShipmentLineItem::getId, EmbeddedShipmentLineItem::getItem, EmbeddedShipmentLineItem::getReceivedQuantity )
+                .containsExactly(
+                        tuple( first.getId(), item.getId(), 4 ),
+                        tuple( second.getId(), item.getId(), 3 )
+                );
+    }
+
+    @Test
+    void extractLineItems_shouldMoveEmbeddedLineItemsBackIntoTheCollection_whenCalled() {
+        // GIVEN
+        EmbeddedShipmentLineItem lineItem = lineItem( 10, 2 );
+        shipmentRepository.pushLineItems( shipment.getId(), List.of( lineItem ) );
+
+        // WHEN
+        long moved = shipmentRepository.extractLineItems();
+
+        // THEN
+        assertThat( moved ).isEqualTo( 1 );
+        assertThat( shipmentRepository.findById( shipment.getId() ).orElseThrow().getLineItems() ).isEmpty();
+        assertThat( shipmentLineItemRepository.findAllResolvedByShipmentId( shipment.getId() ) ).singleElement().satisfies( actual -> {
+            assertThat( actual.getId() ).isEqualTo( lineItem.getId() );
+            assertThat( actual.getItem().getId() ).isEqualTo( item.getId() );
+            assertThat( actual.getReceivedQuantity() ).isEqualTo( 2 );
+        } );
+    }
+
+    private EmbeddedShipmentLineItem lineItem( int expected, int received ) {
+        Instant now = Instant.now();
+        return new EmbeddedShipmentLineItem( new ObjectId().toHexString(), item.getId(), expected, received, now, now );
+    }
+}
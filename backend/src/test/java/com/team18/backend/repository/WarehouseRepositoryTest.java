@@ -0,0 +1,213 @@
+package com.team18.backend.repository;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.*;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(UnitTestContainersConfiguration.class)
+class WarehouseRepositoryTest {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Warehouse berlin;
+    private Warehouse potsdam;
+    private Warehouse warsaw;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.deleteAll();
+        itemRepo.deleteAll();
+        warehouseRepository.deleteAll();
+        shopRepository.deleteAll();
+
+        Shop shop = shopRepository.save( new Shop( "Test Shop" ) );
+        berlin = warehouseRepository.save( warehouse( "Berlin", shop, 52.520008, 13.404954 ) );
+        potsdam = warehouseRepository.save( warehouse( "Potsdam", shop, 52.390569, 13.064473 ) );
+        warsaw = warehouseRepository.save( warehouse( "Warsaw", shop, 52.229676, 21.012229 ) );
+        warehouseRepository.save( warehouse( "Unknown", shop, null, null ) );
+        item = itemRepo.save( new Item( null, "SKU-GEO", "GEO" ) );
+    }
+
+    @Test
+    void findNearestResolved_shouldReturnWarehousesOrderedByDistance_whenCalled() {
+        // WHEN
+        List<WarehouseRepositoryCustom.WarehouseDistance> actual = warehouseRepository.findNearestResolved(
+                52.5, 13.4, null, null, 10
+        );
+
+        // THEN
+        assertThat( actual ).extracting( nearest -> nearest.warehouse().getId() )
+                .containsExactly( berlin.getId(), potsdam.getId(), warsaw.getId() );
+        assertThat( actual.getFirst().distanceMeters() ).isLessThan( 5_000 );
+        assertThat( actual.getFirst().warehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+    }
+
+    @Test
+    void findNearestResolved_shouldOnlyReturnWarehousesWithinRadius_whenRadiusIsSet() {
+        // WHEN
+        List<WarehouseRepositoryCustom.WarehouseDistance> actual = warehouseRepository.findNearestResolved(
+                52.5, 13.4, 50_000d, null, 10
+        );
+
+        // THEN
+        assertThat( actual ).extracting( nearest -> nearest.warehouse().getId() )
+                .containsExactly( berlin.getId(), potsdam.getId() );
+    }
+
+    @Test
+    void findNearestResolved_shouldOnlyReturnWarehousesWithStock_whenItemIsSet() {
+        // GIVEN
+        inventoryRepository.save( new Inventory( berlin, item, 0 ) );
+        inventoryRepository.save( new Inventory( warsaw, item, 3 ) );
+
+        // WHEN
+        List<WarehouseRepositoryCustom.WarehouseDistance> actual = warehouseRepository.findNearestResolved(
+                52.5, 13.4, null, item.getId(), 10
+        );
+
+        // THEN
+        assertThat( actual ).extracting( nearest -> nearest.warehouse().getId() )
+                .containsExactly( warsaw.getId() );
+    }
+
+    @Test
+    void backfillLocations_shouldSetLocationFromCoordinates_whenLocationIsMissing() {
+        // GIVEN
+        mongoTemplate.getCollection( "warehouses" ).updateMany( new Document(), new Document( "$unset", new Document( "location", "" ) ) );
+
+        // WHEN
+        long updated = warehouseRepository.backfillLocations();
+
+        // THEN
+        assertThat( updated ).isEqualTo( 3 );
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getLocation() )
+                .isEqualTo( new GeoJsonPoint( 13.404954, 52.520008 ) );
+    }
+
+    @Test
+    void adjustUsedCapacity_shouldIncrementUntilMaxCapacity_whenCalled() {
+        // WHEN
+        boolean first = warehouseRepository.adjustUsedCapacity( berlin.getId(), 60 );
+        boolean second = warehouseRepository.adjustUsedCapacity( berlin.getId(), 60 );
+        boolean release = warehouseRepository.adjustUsedCapacity( berlin.getId(), -20 );
+
+        // THEN
+        assertThat( first ).isTrue();
+        assertThat( second ).isFalse();
+        assertThat( release ).isTrue();
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getUsedCapacity() ).isEqualTo( 40 );
+    }
+
+    @Test
+    void updateDetails_shouldKeepUsedCapacityAndIncrementVersion_whenWarehouseIsUpdated() {
+        // GIVEN
+        warehouseRepository.adjustUsedCapacity( berlin.getId(), 30 );
+        long version = warehouseRepository.findById( berlin.getId() ).orElseThrow().getVersion();
+
+        // WHEN
+        Warehouse actual = warehouseRepository.updateDetails( berlin.getId(), Map.of( "name", "Berlin Mitte" ), version ).orElseThrow();
+
+        // THEN
+        assertThat( actual.getName() ).isEqualTo( "Berlin Mitte" );
+        assertThat( actual.getLat() ).isEqualTo( berlin.getLat() );
+        assertThat( actual.getUsedCapacity() ).isEqualTo( 30 );
+        assertThat( actual.getVersion() ).isEqualTo( version + 1 );
+        assertThat( actual.getShop().getId() ).isEqualTo( berlin.getShop().getId() );
+    }
+
+    @Test
+    void updateDetails_shouldReturnEmpty_whenMaxCapacityIsBelowUsedCapacity() {
+        // GIVEN
+        warehouseRepository.adjustUsedCapacity( berlin.getId(), 30 );
+
+        // WHEN
+        boolean updated = warehouseRepository.updateDetails( berlin.getId(), Map.of( "maxCapacity", 10 ), null ).isPresent();
+
+        // THEN
+        assertThat( updated ).isFalse();
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getMaxCapacity() ).isEqualTo( 100 );
+    }
+
+    @Test
+    void updateDetails_shouldReturnEmpty_whenVersionChanged() {
+        // GIVEN
+        long version = berlin.getVersion();
+        warehouseRepository.updateDetails( berlin.getId(), Map.of( "name", "Berlin Mitte" ), version ).orElseThrow();
+
+        // WHEN
+        boolean updated = warehouseRepository.updateDetails( berlin.getId(), Map.of( "name", "Berlin Ost" ), version ).isPresent();
+
+        // THEN
+        assertThat( updated ).isFalse();
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getName() ).isEqualTo( "Berlin Mitte" );
+    }
+
+    @Test
+    void updateDetails_shouldMoveLocation_whenOneCoordinateChanges() {
+        // WHEN
+        Warehouse actual = warehouseRepository.updateDetails( berlin.getId(), Map.of( "lat", 52.5 ), null ).orElseThrow();
+
+        // THEN
+        assertThat( actual.getLocation() ).isEqualTo( new GeoJsonPoint( berlin.getLng(), 52.5 ) );
+    }
+
+    @Test
+    void updateDetails_shouldStoreShopAsReference_whenShopChanges() {
+        // GIVEN
+        Shop other = shopRepository.save( new Shop( "Other Shop" ) );
+
+        // WHEN
+        Warehouse actual = warehouseRepository.updateDetails( berlin.getId(), Map.of( "shop", other ), null ).orElseThrow();
+
+        // THEN
+        assertThat( actual.getShop().getId() ).isEqualTo( other.getId() );
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getShop().getName() ).isEqualTo( "Other Shop" );
+    }
+
+    @Test
+    void backfillUsedCapacity_shouldSumInventory_whenUsedCapacityIsMissing() {
+        // GIVEN
+        inventoryRepository.save( new Inventory( berlin, item, 7 ) );
+        inventoryRepository.save( new Inventory( berlin, itemRepo.save( new Item( null, "SKU-2", "Second" ) ), 5 ) );
+        mongoTemplate.getCollection( "warehouses" ).updateMany( new Document(), new Document( "$unset", new Document( "usedCapacity", "" ) ) );
+
+        // WHEN
+        long updated = warehouseRepository.backfillUsedCapacity();
+
+        // THEN
+        assertThat( updated ).isEqualTo( 4 );
+        assertThat( warehouseRepository.findById( berlin.getId() ).orElseThrow().getUsedCapacity() ).isEqualTo( 12 );
+        assertThat( warehouseRepository.findById( warsaw.getId() ).orElseThrow().getUsedCapacity() ).isZero();
+    }
+
+    private static Warehouse warehouse( String name, Shop shop, Double lat, Double lng ) {
+        return new Warehouse( name, shop, lat, lng, null, null, null, null, null, null, 100 );
+    }
+}
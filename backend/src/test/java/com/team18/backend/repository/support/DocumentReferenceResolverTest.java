@@ -0,0 +1,194 @@
+package com.team18.backend.repository.support;
+
+import com.team18.backend.UnitTestContainersConfiguration;
+import com.team18.backend.model.*;
+import com.team18.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(UnitTestContainersConfiguration.class)
+class DocumentReferenceResolverTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ItemRepo itemRepo;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private ShipmentLineItemRepository shipmentLineItemRepository;
+
+    private DocumentReferenceResolver resolver;
+    private Warehouse warehouse;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        shipmentLineItemRepository.deleteAll();
+        shipmentRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        itemRepo.deleteAll();
+        warehouseRepository.deleteAll();
+        shopRepository.deleteAll();
+
+        resolver = new DocumentReferenceResolver( mongoTemplate );
+
+        Shop shop = shopRepository.save( new Shop( "Test Shop" ) );
+        warehouse = warehouseRepository.save( new Warehouse(
+                "Warehouse EU East", shop, 52.179262, 20.9359542, "Muszkieterow", "26-32",
+                "Warszawa", "02-273", "", "Poland", 4328974
+        ) );
+        item = itemRepo.save( new Item( null, "SKU-TEST", "TEST" ) );
+    }
+
+    @Test
+    void findInventory_shouldResolveWarehouseShopAndItem_whenReferencesExist() {
+        // GIVEN
+        Inventory saved = inventoryRepository.save( new Inventory( warehouse, item, 5 ) );
+
+        // WHEN
+        List<Inventory> actual = resolver.findInventory( new Query() );
+
+        // THEN
+        assertThat( actual ).hasSize( 1 );
+        Inventory inventory = actual.getFirst();
+        assertThat( inventory.getId() ).isEqualTo( saved.getId() );
+        assertThat( inventory.getQuantity() ).isEqualTo( 5 );
+        assertThat( inventory.getCreatedDate() ).isNotNull();
+        assertThat( inventory.getItem() ).isEqualTo( item );
+        assertThat( inventory.getWarehouse().getId() ).isEqualTo( warehouse.getId() );
+        assertThat( inventory.getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+    }
+
+    @Test
+    void findShipmentLineItems_shouldResolveNestedReferences_whenReferencesExist() {
+        // GIVEN
+        Shipment shipment = shipmentRepository.save( new Shipment( warehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED ) );
+        shipmentLineItemRepository.save( new ShipmentLineItem( shipment, item, 10, 8 ) );
+
+        // WHEN
+        List<ShipmentLineItem> actual = shipmentLineItemRepository.findAllResolvedByShipmentId( shipment.getId() );
+
+        // THEN
+        assertThat( actual ).hasSize( 1 );
+        ShipmentLineItem lineItem = actual.getFirst();
+        assertThat( lineItem.getReceivedQuantity() ).isEqualTo( 8 );
+        assertThat( lineItem.getItem() ).isEqualTo( item );
+        assertThat( lineItem.getShipment().getId() ).isEqualTo( shipment.getId() );
+        assertThat( lineItem.getShipment().getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+    }
+
+    @Test
+    void findInventoryByWarehouseId_shouldOnlyReturnMatchingRows_whenFilteredByReference() {
+        // GIVEN
+        Warehouse other = warehouseRepository.save( new Warehouse(
+                "Warehouse EU West", warehouse.getShop(), null, null, null, null, null, null, null, null, 100
+        ) );
+        inventoryRepository.save( new Inventory( warehouse, item, 5 ) );
+        inventoryRepository.save( new Inventory( other, item, 7 ) );
+
+        // WHEN
+        List<Inventory> actual = inventoryRepository.findAllResolvedByWarehouseId( other.getId() );
+
+        // THEN
+        assertThat( actual ).hasSize( 1 );
+        assertThat( actual.getFirst().getQuantity() ).isEqualTo( 7 );
+        assertThat( actual.getFirst().getWarehouse().getName() ).isEqualTo( "Warehouse EU West" );
+    }
+
+    @Test
+    void streamInventory_shouldResolveEveryRow_whenRowsSpanSeveralBatches() {
+        // GIVEN
+        int rows = DocumentReferenceResolver.STREAM_BATCH_SIZE + 1;
+        List<Item> items = itemRepo.saveAll(
+                IntStream.range( 0, rows ).mapToObj( i -> new Item( null, "SKU-" + i, "ITEM " + i ) ).toList()
+        );
+        inventoryRepository.saveAll( items.stream().map( it -> new Inventory( warehouse, it, 1 ) ).toList() );
+
+        // WHEN
+        List<Inventory> actual;
+        try ( Stream<Inventory> stream = inventoryRepository.streamAllResolved() ) {
+            actual = stream.toList();
+        }
+
+        // THEN
+        assertThat( actual ).hasSize( rows );
+        assertThat( actual ).allSatisfy( inventory -> {
+            assertThat( inventory.getItem() ).isNotNull();
+            assertThat( inventory.getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+        } );
+    }
+
+    @Test
+    void findAllResolvedByShopId_shouldReturnFilteredShipmentsWithWarehouseAndShop_whenShopExists() {
+        // GIVEN
+        Shop otherShop = shopRepository.save( new Shop( "Other Shop" ) );
+        Warehouse otherWarehouse = warehouseRepository.save( new Warehouse(
+                "Warehouse EU West", otherShop, null, null, null, null, null, null, null, null, 100
+        ) );
+        Shipment matching = shipmentRepository.save( new Shipment( warehouse, LocalDate.of( 2025, 12, 10 ), ShipmentStatus.IN_DELIVERY ) );
+        shipmentRepository.save( new Shipment( warehouse, LocalDate.of( 2026, 1, 10 ), ShipmentStatus.IN_DELIVERY ) );
+        shipmentRepository.save( new Shipment( warehouse, LocalDate.of( 2025, 12, 10 ), ShipmentStatus.ORDERED ) );
+        shipmentRepository.save( new Shipment( otherWarehouse, LocalDate.of( 2025, 12, 10 ), ShipmentStatus.IN_DELIVERY ) );
+
+        // WHEN
+        Optional<List<Shipment>> actual = shipmentRepository.findAllResolvedByShopId(
+                warehouse.getShop().getId(), ShipmentStatus.IN_DELIVERY, LocalDate.of( 2025, 12, 1 ), LocalDate.of( 2025, 12, 31 )
+        );
+
+        // THEN
+        assertThat( actual ).isPresent();
+        assertThat( actual.get() ).hasSize( 1 );
+        Shipment shipment = actual.get().getFirst();
+        assertThat( shipment.getId() ).isEqualTo( matching.getId() );
+        assertThat( shipment.getExpectedArrivalDate() ).isEqualTo( LocalDate.of( 2025, 12, 10 ) );
+        assertThat( shipment.getWarehouse().getName() ).isEqualTo( "Warehouse EU East" );
+        assertThat( shipment.getWarehouse().getShop().getName() ).isEqualTo( "Test Shop" );
+    }
+
+    @Test
+    void findAllResolvedByShopId_shouldReturnEmptyListOrEmptyOptional_whenShopHasNoShipmentsOrDoesNotExist() {
+        // GIVEN
+        Shop shopWithoutWarehouses = shopRepository.save( new Shop( "Empty Shop" ) );
+
+        // WHEN & THEN
+        assertThat( shipmentRepository.findAllResolvedByShopId( warehouse.getShop().getId(), null, null, null ) ).contains( List.of() );
+        assertThat( shipmentRepository.findAllResolvedByShopId( shopWithoutWarehouses.getId(), null, null, null ) ).contains( List.of() );
+        assertThat( shipmentRepository.findAllResolvedByShopId( "000000000000000000000000", null, null, null ) ).isEmpty();
+    }
+
+    @Test
+    void findShipments_shouldReturnEmptyList_whenNoWarehouseIdsGiven() {
+        // WHEN
+        List<Shipment> actual = shipmentRepository.findAllResolvedByWarehouseIdIn( List.of() );
+
+        // THEN
+        assertThat( actual ).isEmpty();
+    }
+}
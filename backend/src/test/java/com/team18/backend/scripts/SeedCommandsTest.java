@@ -1,13 +1,18 @@
 package com.team18.backend.scripts;
 
 import com.team18.backend.TestContainersConfiguration;
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Warehouse;
 import com.team18.backend.repository.*;
+import com.team18.backend.service.cache.ItemCatalogCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Import(TestContainersConfiguration.class)
@@ -33,6 +38,9 @@ class SeedCommandsTest {
     @Autowired
     private SeedCommands seedCommands;
 
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
     @Test
     void seed() {
 
@@ -54,6 +62,28 @@ class SeedCommandsTest {
 
     }
 
+    @Test
+    void seed_shouldGenerateRequestedCounts_whenCountsAreGiven() {
+        // WHEN
+        String result = seedCommands.seed( 3, 10, 200, 50, 4, 20, 2, 7 );
+
+        // THEN
+        assertTrue( result.startsWith( "🌱 MongoDB has been seeded with" ) );
+        assertEquals( 3, shopRepository.count() );
+        assertEquals( 10, warehouseRepository.count() );
+        assertEquals( 200, itemRepo.count() );
+        assertEquals( 50, shipmentRepository.count() );
+        assertTrue( inventoryRepository.count() > 0 );
+
+        for ( Warehouse warehouse : warehouseRepository.findAll() ) {
+            long stored = inventoryRepository.findAllByWarehouse_Id( warehouse.getId() ).orElse( List.of() ).stream()
+                    .mapToLong( Inventory::getQuantity )
+                    .sum();
+            assertEquals( stored, warehouse.getUsedCapacity() );
+            assertTrue( warehouse.getMaxCapacity() >= stored );
+        }
+    }
+
     @Test
     void seed_2time() {
         assertDoesNotThrow( () -> {
@@ -97,5 +127,17 @@ class SeedCommandsTest {
 
     }
 
+    @Test
+    void reset_shouldEvictCachedItems_whenItemsWereRead() {
+        // GIVEN
+        seedCommands.seed();
+        String sku = itemRepo.findAll().getFirst().getSku();
+        assertTrue( itemCatalogCache.findBySku( sku ).isPresent() );
+
+        // WHEN
+        seedCommands.reset();
 
-}
\ No newline at end of file
+        // THEN
+        assertTrue( itemCatalogCache.findBySku( sku ).isEmpty() );
+    }
+}
@@ -0,0 +1,47 @@
+package com.team18.backend.scripts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipfSamplerTest {
+
+    @Test
+    void sample_shouldFavourLowIndexes_whenDrawingManyTimes() {
+        // GIVEN
+        ZipfSampler sampler = new ZipfSampler( 1_000, 1.0 );
+        SplittableRandom random = new SplittableRandom( 1 );
+        int[] counts = new int[1_000];
+
+        // WHEN
+        for ( int i = 0; i < 100_000; i++ ) {
+            counts[sampler.sample( random )]++;
+        }
+
+        // THEN
+        // with 1000 indexes and exponent 1 the first index is drawn about 13% of the time, twice as often as the second
+        assertThat( counts[0] ).isBetween( 12_000, 15_000 );
+        assertThat( ( double ) counts[0] / counts[1] ).isBetween( 1.8, 2.2 );
+        assertThat( counts[999] ).isLessThan( 100 );
+    }
+
+    @Test
+    void sample_shouldStayInRange_whenSizeIsOne() {
+        // GIVEN
+        ZipfSampler sampler = new ZipfSampler( 1, 1.2 );
+        SplittableRandom random = new SplittableRandom( 1 );
+
+        // WHEN & THEN
+        for ( int i = 0; i < 100; i++ ) {
+            assertThat( sampler.sample( random ) ).isZero();
+        }
+    }
+
+    @Test
+    void constructor_shouldThrow_whenSizeIsZero() {
+        assertThrows( IllegalArgumentException.class, () -> new ZipfSampler( 0, 1.0 ) );
+    }
+}
@@ -0,0 +1,83 @@
+package com.team18.backend.service;
+
+import com.team18.backend.model.Inventory;
+import com.team18.backend.model.Item;
+import com.team18.backend.model.Shop;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.ResourceVersion;
+import com.team18.backend.repository.ResourceVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ETagServiceTest {
+
+    private static final Instant MODIFIED = Instant.ofEpochMilli( 0x18f3a2b4c5dL );
+
+    @Mock
+    private ResourceVersionRepository repository;
+
+    @InjectMocks
+    private ETagService eTagService;
+
+    @Test
+    void getShopsETag_shouldBeWeakETagOfCountAndLastModified_whenCalled() {
+        // GIVEN
+        when( repository.findVersion( Shop.class ) ).thenReturn( new ResourceVersion( 26, MODIFIED ) );
+
+        // WHEN
+        String eTag = eTagService.getShopsETag();
+
+        // THEN
+        assertThat( eTag ).isEqualTo( "W/\"1a-18f3a2b4c5d\"" );
+    }
+
+    @Test
+    void getItemsETag_shouldUseZeroLastModified_whenCollectionIsEmpty() {
+        // GIVEN
+        when( repository.findVersion( Item.class ) ).thenReturn( new ResourceVersion( 0, null ) );
+
+        // WHEN
+        String eTag = eTagService.getItemsETag();
+
+        // THEN
+        assertThat( eTag ).isEqualTo( "W/\"0-0\"" );
+    }
+
+    @Test
+    void getWarehousesETag_shouldChange_whenLastModifiedMovesForward() {
+        // GIVEN
+        when( repository.findVersion( Warehouse.class ) ).thenReturn(
+                new ResourceVersion( 3, MODIFIED ), new ResourceVersion( 3, MODIFIED.plusMillis( 1 ) )
+        );
+
+        // WHEN
+        String before = eTagService.getWarehousesETag();
+        String after = eTagService.getWarehousesETag();
+
+        // THEN
+        assertThat( after ).isNotEqualTo( before );
+    }
+
+    @Test
+    void getInventoryByWarehouseIdETag_shouldCombineInventoryWarehouseAndItemVersions_whenCalled() {
+        // GIVEN
+        when( repository.findVersion( Inventory.class, "warehouse", "warehouse-1" ) ).thenReturn( new ResourceVersion( 4, MODIFIED ) );
+        when( repository.findVersion( Warehouse.class, "_id", "warehouse-1" ) ).thenReturn( new ResourceVersion( 1, MODIFIED ) );
+        when( repository.findVersion( Item.class ) ).thenReturn( new ResourceVersion( 16, MODIFIED.minusMillis( 0xd ) ) );
+
+        // WHEN
+        String eTag = eTagService.getInventoryByWarehouseIdETag( "warehouse-1" );
+
+        // THEN
+        assertThat( eTag ).isEqualTo( "W/\"4-18f3a2b4c5d.1-18f3a2b4c5d.10-18f3a2b4c50\"" );
+    }
+}
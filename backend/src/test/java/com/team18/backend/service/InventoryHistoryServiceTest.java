@@ -0,0 +1,135 @@
+package com.team18.backend.service;
+
+import com.team18.backend.dto.inventory.InventoryHistoryPointDTO;
+import com.team18.backend.dto.inventory.InventoryHistoryResponseDTO;
+import com.team18.backend.exception.InvalidHistoryRequestException;
+import com.team18.backend.model.HistoryInterval;
+import com.team18.backend.model.Shop;
+import com.team18.backend.model.Warehouse;
+import com.team18.backend.repository.InventoryHistoryRepository;
+import com.team18.backend.repository.InventoryLevel;
+import com.team18.backend.repository.InventoryLevelBucket;
+import com.team18.backend.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryHistoryServiceTest {
+
+    private static final Instant FROM = Instant.parse( "2025-03-01T00:00:00Z" );
+    private static final Instant TO = Instant.parse( "2025-04-01T00:00:00Z" );
+
+    @Mock
+    private InventoryHistoryRepository repository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private InventoryHistoryService inventoryHistoryService;
+
+    private final Warehouse warehouse = new Warehouse(
+            "warehouse-1", "Warehouse EU East", new Shop( "shop-1", "Test shop" ), null, null, null, null, null, null, null, null, 100
+    );
+
+    @Test
+    void getHistory_shouldCombineOpeningQuantitiesAndBucketsPerSeries_whenCalled() {
+        // GIVEN
+        when( repository.findLastLevelsBefore( "shop-1", null, null, FROM ) ).thenReturn( List.of(
+                new InventoryLevel( FROM.minusSeconds( 60 ), "shop-1", "warehouse-2", "item-1", 3, -1 ),
+                new InventoryLevel( FROM.minusSeconds( 60 ), "shop-1", "warehouse-1", "item-1", 8, 8 )
+        ) );
+        when( repository.findBuckets( "shop-1", null, null, FROM, TO, HistoryInterval.DAY ) ).thenReturn( List.of(
+                new InventoryLevelBucket( "warehouse-1", "item-1", FROM, 10, 5, 10, 2, 2 ),
+                new InventoryLevelBucket( "warehouse-1", "item-2", FROM.plusSeconds( 86400 ), 4, 4, 4, 4, 1 )
+        ) );
+
+        // WHEN
+        List<InventoryHistoryResponseDTO> history = inventoryHistoryService.getHistory( "shop-1", null, null, FROM, TO, HistoryInterval.DAY );
+
+        // THEN
+        assertThat( history ).containsExactly(
+                new InventoryHistoryResponseDTO( "warehouse-1", "item-1", 8, List.of( new InventoryHistoryPointDTO( FROM, 10, 5, 10, 2, 2 ) ) ),
+                new InventoryHistoryResponseDTO( "warehouse-1", "item-2", null, List.of(
+                        new InventoryHistoryPointDTO( FROM.plusSeconds( 86400 ), 4, 4, 4, 4, 1 )
+                ) ),
+                new InventoryHistoryResponseDTO( "warehouse-2", "item-1", 3, List.of() )
+        );
+    }
+
+    @Test
+    void getHistory_shouldThrow_whenNoScopeIsGiven() {
+        // WHEN
+        assertThrows(
+                InvalidHistoryRequestException.class,
+                () -> inventoryHistoryService.getHistory( null, null, null, FROM, TO, HistoryInterval.DAY )
+        );
+
+        // THEN
+        verifyNoInteractions( repository );
+    }
+
+    @Test
+    void getHistory_shouldThrow_whenTheRangeHasTooManyIntervals() {
+        // WHEN
+        InvalidHistoryRequestException e = assertThrows(
+                InvalidHistoryRequestException.class,
+                () -> inventoryHistoryService.getHistory( null, "warehouse-1", null, FROM, FROM.plusSeconds( 3600L * 1001 ), HistoryInterval.HOUR )
+        );
+
+        // THEN
+        assertThat( e ).hasMessageContaining( "1000" );
+        verifyNoInteractions( repository );
+    }
+
+    @Test
+    void recordReceipt_shouldRecordTheQuantitiesReadBackAfterTheIncrement_whenCalled() {
+        // GIVEN
+        Map<String, Integer> received = Map.of( "item-1", 5 );
+        when( inventoryRepository.findQuantitiesByWarehouseId( "warehouse-1", received.keySet() ) ).thenReturn( Map.of( "item-1", 12 ) );
+
+        // WHEN
+        inventoryHistoryService.recordReceipt( warehouse, received );
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryLevel>> levels = ArgumentCaptor.forClass( List.class );
+        verify( repository ).insertAll( levels.capture() );
+        assertThat( levels.getValue() ).singleElement().satisfies( level -> {
+            assertThat( level.shopId() ).isEqualTo( "shop-1" );
+            assertThat( level.warehouseId() ).isEqualTo( "warehouse-1" );
+            assertThat( level.itemId() ).isEqualTo( "item-1" );
+            assertThat( level.quantity() ).isEqualTo( 12 );
+            assertThat( level.change() ).isEqualTo( 5 );
+        } );
+    }
+
+    @Test
+    void recordLevel_shouldNotThrow_whenTheHistoryCannotBeWritten() {
+        // GIVEN
+        doThrow( new IllegalStateException( "write failed" ) ).when( repository ).insertAll( any() );
+
+        // WHEN
+        assertDoesNotThrow( () -> inventoryHistoryService.recordLevel( warehouse, "item-1", 3, 3 ) );
+
+        // THEN
+        verify( repository ).insertAll( any() );
+    }
+}
@@ -1,25 +1,34 @@
 package com.team18.backend.service;
 
+import com.team18.backend.dto.fields.FieldSelection;
 import com.team18.backend.dto.inventory.InventoryCreateDTO;
 import com.team18.backend.dto.inventory.InventoryMapper;
 import com.team18.backend.dto.inventory.InventoryResponseDTO;
 import com.team18.backend.dto.inventory.InventoryUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.InvalidPageRequestException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Inventory;
 import com.team18.backend.model.Item;
 import com.team18.backend.model.Shop;
 import com.team18.backend.model.Warehouse;
 import com.team18.backend.repository.InventoryRepository;
-import com.team18.backend.repository.ItemRepo;
 import com.team18.backend.repository.WarehouseRepository;
+import com.team18.backend.service.cache.ItemCatalogCache;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,14 +36,16 @@ import static org.junit.jupiter.api.Assertions.*;
 class InventoryServiceTest {
 
     private static final WarehouseRepository warehouseRepository = Mockito.mock( WarehouseRepository.class );
-    private static final ItemRepo itemRepo = Mockito.mock( ItemRepo.class );
+    private static final ItemCatalogCache itemCatalogCache = Mockito.mock( ItemCatalogCache.class );
     private static final InventoryRepository inventoryRepository = Mockito.mock( InventoryRepository.class );
+    private static final InventoryHistoryService historyService = Mockito.mock( InventoryHistoryService.class );
     private static final InventoryMapper mapper = new InventoryMapper();
     private static final InventoryService inventoryService = new InventoryService(
             inventoryRepository,
             mapper,
             warehouseRepository,
-            itemRepo
+            itemCatalogCache,
+            historyService
     );
 
     private static final String fixedTestId = "test-id";
@@ -88,48 +99,107 @@ class InventoryServiceTest {
 
     @BeforeEach
     void resetMocks() {
-        Mockito.reset( inventoryRepository, warehouseRepository, itemRepo );
+        Mockito.reset( inventoryRepository, warehouseRepository, itemCatalogCache, historyService );
     }
 
     @Test
-    void getAllInventory_ShouldReturnList_WhenCalled() {
+    void getInventoryPage_ShouldReturnList_WhenUnpaged() {
         //GIVEN
         List<Inventory> inventoryList = List.of( inventory );
         List<InventoryResponseDTO> inventoryResponseDTOList = mapper.toInventoryResponseDTOList( inventoryList );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
 
-        Mockito.when( inventoryRepository.save( inventory ) ).thenReturn( inventory );
-        Mockito.when( inventoryRepository.findAll() ).thenReturn( inventoryList );
+        Mockito.when( inventoryRepository.findPageResolved( null, pageRequest.fetchSize(), Set.of() ) ).thenReturn( inventoryList );
 
         //WHEN
-        inventoryRepository.save( inventory );
-
-        List<InventoryResponseDTO> actual = inventoryService.getAllInventory();
+        CursorPage<InventoryResponseDTO> actual = inventoryService.getInventoryPage( pageRequest );
 
         //THEN
-        assertThat( actual )
+        assertThat( actual.items() )
                 .isNotNull()
                 .isNotEmpty()
                 .containsAll( inventoryResponseDTOList );
+        assertThat( actual.nextCursor() ).isNull();
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAll();
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( inventory );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findPageResolved( null, pageRequest.fetchSize(), Set.of() );
     }
 
     @Test
-    void getAllInventory_ShouldReturnEmptyList_WhenCalled() {
+    void getInventoryPage_ShouldReturnEmptyList_WhenUnpaged() {
         //GIVEN
         List<Inventory> inventoryList = new ArrayList<>();
-        Mockito.when( inventoryRepository.findAll() ).thenReturn( inventoryList );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
+        Mockito.when( inventoryRepository.findPageResolved( null, pageRequest.fetchSize(), Set.of() ) ).thenReturn( inventoryList );
 
         //WHEN
-        List<InventoryResponseDTO> actual = inventoryService.getAllInventory();
+        CursorPage<InventoryResponseDTO> actual = inventoryService.getInventoryPage( pageRequest );
 
         //THEN
-        assertThat( actual )
+        assertThat( actual.items() )
                 .isNotNull()
                 .isEmpty();
+        assertThat( actual.nextCursor() ).isNull();
+
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findPageResolved( null, pageRequest.fetchSize(), Set.of() );
+    }
+
+    @Test
+    void getInventoryPage_ShouldProjectSelectedDocumentFields_WhenFieldsAreSelected() {
+        //GIVEN
+        FieldSelection fields = FieldSelection.of( "id,item.sku,warehouse.utilization", InventoryResponseDTO.class );
+        Set<String> documentFields = Set.of( "id", "item.sku", "warehouse.maxCapacity", "warehouse.usedCapacity" );
+        CursorPageRequest pageRequest = CursorPageRequest.of( 10, null );
+        Mockito.when( inventoryRepository.findPageResolved( null, 11, documentFields ) ).thenReturn( List.of( inventory ) );
+
+        //WHEN
+        CursorPage<InventoryResponseDTO> actual = inventoryService.getInventoryPage( pageRequest, fields );
+
+        //THEN
+        assertThat( actual.items() ).hasSize( 1 );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findPageResolved( null, 11, documentFields );
+    }
+
+    @Test
+    void getInventoryPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        //GIVEN
+        Inventory first = new Inventory( "id-1", warehouse, item, 1 );
+        Inventory second = new Inventory( "id-2", warehouse, item, 2 );
+        CursorPageRequest pageRequest = CursorPageRequest.of( 1, null );
+
+        Mockito.when( inventoryRepository.findPageResolved( null, 2, Set.of() ) ).thenReturn( List.of( first, second ) );
+
+        //WHEN
+        CursorPage<InventoryResponseDTO> actual = inventoryService.getInventoryPage( pageRequest );
+
+        //THEN
+        assertThat( actual.items() )
+                .containsExactly( mapper.toInventoryResponseDTO( first ) );
+        assertThat( actual.nextCursor() ).isNotNull();
+        assertThat( CursorPageRequest.of( 1, actual.nextCursor() ).afterId() ).isEqualTo( "id-1" );
+
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findPageResolved( null, 2, Set.of() );
+    }
+
+    @Test
+    void getInventoryPage_ShouldNotReturnNextCursor_WhenLastPage() {
+        //GIVEN
+        Inventory last = new Inventory( "id-3", warehouse, item, 3 );
+        CursorPageRequest pageRequest = new CursorPageRequest( 2, "id-2" );
+
+        Mockito.when( inventoryRepository.findPageResolved( "id-2", 3, Set.of() ) ).thenReturn( List.of( last ) );
+
+        //WHEN
+        CursorPage<InventoryResponseDTO> actual = inventoryService.getInventoryPage( pageRequest );
+
+        //THEN
+        assertThat( actual.items() ).hasSize( 1 );
+        assertThat( actual.nextCursor() ).isNull();
+    }
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAll();
+    @Test
+    void getInventoryPage_ShouldThrow_WhenLimitIsOutOfRange() {
+        assertThrows( InvalidPageRequestException.class, () -> CursorPageRequest.of( 0, null ) );
+        assertThrows( InvalidPageRequestException.class, () -> CursorPageRequest.of( CursorPageRequest.MAX_LIMIT + 1, null ) );
     }
 
     @Test
@@ -182,7 +252,7 @@ class InventoryServiceTest {
 
 
         Mockito.when( inventoryRepository.save( inventoryWithId ) ).thenReturn( inventoryWithId );
-        Mockito.when( inventoryRepository.findAllByWarehouse_Id( fixedTestId ) ).thenReturn( Optional.of( List.of( inventoryWithId ) ) );
+        Mockito.when( inventoryRepository.findAllResolvedByWarehouseId( fixedTestId, Set.of() ) ).thenReturn( List.of( inventoryWithId ) );
 
         //WHEN
         inventoryRepository.save( inventoryWithId );
@@ -195,7 +265,7 @@ class InventoryServiceTest {
                 .isEqualTo( inventoryResponseDTO );
 
         Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( inventoryWithId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllByWarehouse_Id( fixedTestId );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllResolvedByWarehouseId( fixedTestId, Set.of() );
     }
 
     @Test
@@ -204,7 +274,7 @@ class InventoryServiceTest {
         String fakeId = "fake-id";
 
         Mockito.when( inventoryRepository.save( inventoryWithId ) ).thenReturn( inventoryWithId );
-        Mockito.when( inventoryRepository.findAllByWarehouse_Id( fakeId ) ).thenReturn( Optional.empty() );
+        Mockito.when( inventoryRepository.findAllResolvedByWarehouseId( fakeId, Set.of() ) ).thenReturn( List.of() );
 
         //WHEN
         inventoryRepository.save( inventoryWithId );
@@ -216,7 +286,7 @@ class InventoryServiceTest {
                 .isInstanceOf( ResourceNotFoundException.class );
 
         Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( inventoryWithId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllByWarehouse_Id( fakeId );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllResolvedByWarehouseId( fakeId, Set.of() );
     }
 
     @Test
@@ -226,7 +296,7 @@ class InventoryServiceTest {
 
 
         Mockito.when( inventoryRepository.save( inventoryWithId ) ).thenReturn( inventoryWithId );
-        Mockito.when( inventoryRepository.findAllByItem_Id( fixedTestId ) ).thenReturn( Optional.of( List.of( inventoryWithId ) ) );
+        Mockito.when( inventoryRepository.findAllResolvedByItemId( fixedTestId, Set.of() ) ).thenReturn( List.of( inventoryWithId ) );
 
         //WHEN
         inventoryRepository.save( inventoryWithId );
@@ -239,7 +309,7 @@ class InventoryServiceTest {
                 .isEqualTo( inventoryResponseDTO );
 
         Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( inventoryWithId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllByItem_Id( fixedTestId );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllResolvedByItemId( fixedTestId, Set.of() );
     }
 
     @Test
@@ -248,7 +318,7 @@ class InventoryServiceTest {
         String fakeId = "fake-id";
 
         Mockito.when( inventoryRepository.save( inventoryWithId ) ).thenReturn( inventoryWithId );
-        Mockito.when( inventoryRepository.findAllByItem_Id( fakeId ) ).thenReturn( Optional.empty() );
+        Mockito.when( inventoryRepository.findAllResolvedByItemId( fakeId, Set.of() ) ).thenReturn( List.of() );
 
         //WHEN
         inventoryRepository.save( inventoryWithId );
@@ -260,11 +330,11 @@ class InventoryServiceTest {
                 .isInstanceOf( ResourceNotFoundException.class );
 
         Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( inventoryWithId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllByItem_Id( fakeId );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findAllResolvedByItemId( fakeId, Set.of() );
     }
 
     @Test
-    void createInventory_ShouldReturnInventory_WhenCalled() {
+    void createInventory_ShouldReserveCapacityAndInsert_WhenPairIsNew() {
         //GIVEN
         InventoryCreateDTO inventoryCreateDTO = new InventoryCreateDTO(
                 warehouse.getId(),
@@ -274,11 +344,11 @@ class InventoryServiceTest {
 
         Inventory newInventory = mapper.toInventory( inventoryCreateDTO, warehouse, item );
 
-        InventoryResponseDTO inventoryResponseDTO = mapper.toInventoryResponseDTO( newInventory );
-
         Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
-        Mockito.when( itemRepo.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
-        Mockito.when( inventoryRepository.insert( Mockito.any( Inventory.class ) ) ).thenReturn( newInventory );
+        Mockito.when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        Mockito.when( inventoryRepository.findResolvedByWarehouseIdAndItemId( fixedTestId, fixedTestId ) ).thenReturn( Optional.empty() );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( fixedTestId, 2000 ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.insertIfAbsent( fixedTestId, fixedTestId, 2000 ) ).thenReturn( Optional.of( newInventory ) );
 
         //WHEN
         InventoryResponseDTO actual = inventoryService.createInventory( inventoryCreateDTO );
@@ -289,10 +359,76 @@ class InventoryServiceTest {
                 .extracting( "quantity" )
                 .isEqualTo( inventoryCreateDTO.quantity() );
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insert( Mockito.any( Inventory.class ) );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, 2000 );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insertIfAbsent( fixedTestId, fixedTestId, 2000 );
         Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        Mockito.verify( itemRepo, Mockito.times( 1 ) ).findById( fixedTestId );
+        Mockito.verify( itemCatalogCache, Mockito.times( 1 ) ).findById( fixedTestId );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordLevel( warehouse, fixedTestId, 2000, 2000 );
+    }
+
+    @Test
+    void createInventory_ShouldReserveOnlyTheDifference_WhenPairExists() {
+        //GIVEN
+        InventoryCreateDTO inventoryCreateDTO = new InventoryCreateDTO( warehouse.getId(), item.getId(), 15 );
+        Inventory updated = new Inventory( fixedTestId, warehouse, item, 15 );
+
+        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
+        Mockito.when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        Mockito.when( inventoryRepository.findResolvedByWarehouseIdAndItemId( fixedTestId, fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( fixedTestId, 5 ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 15 ) ).thenReturn( Optional.of( updated ) );
+
+        //WHEN
+        InventoryResponseDTO actual = inventoryService.createInventory( inventoryCreateDTO );
 
+        //THEN
+        assertThat( actual.quantity() ).isEqualTo( 15 );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, 5 );
+        Mockito.verify( inventoryRepository, Mockito.never() ).insertIfAbsent( Mockito.any(), Mockito.any(), Mockito.anyInt() );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordLevel( warehouse, fixedTestId, 15, 5 );
+    }
+
+    @Test
+    void createInventory_ShouldThrowAndNotWrite_WhenCapacityIsExceeded() {
+        //GIVEN
+        InventoryCreateDTO inventoryCreateDTO = new InventoryCreateDTO( warehouse.getId(), item.getId(), 2000 );
+
+        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
+        Mockito.when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        Mockito.when( inventoryRepository.findResolvedByWarehouseIdAndItemId( fixedTestId, fixedTestId ) ).thenReturn( Optional.empty() );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( fixedTestId, 2000 ) ).thenReturn( false );
+
+        //WHEN
+        assertThrows( CapacityExceededException.class, () -> inventoryService.createInventory( inventoryCreateDTO ) );
+
+        //THEN
+        Mockito.verify( inventoryRepository, Mockito.never() ).insertIfAbsent( Mockito.any(), Mockito.any(), Mockito.anyInt() );
+        Mockito.verifyNoInteractions( historyService );
+    }
+
+    @Test
+    void createInventory_ShouldGiveBackReservationAndRetry_WhenPairWasCreatedConcurrently() {
+        //GIVEN
+        InventoryCreateDTO inventoryCreateDTO = new InventoryCreateDTO( warehouse.getId(), item.getId(), 15 );
+        Inventory updated = new Inventory( fixedTestId, warehouse, item, 15 );
+
+        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
+        Mockito.when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        Mockito.when( inventoryRepository.findResolvedByWarehouseIdAndItemId( fixedTestId, fixedTestId ) )
+                .thenReturn( Optional.empty() )
+                .thenReturn( Optional.of( inventoryWithId ) );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( Mockito.eq( fixedTestId ), Mockito.anyLong() ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.insertIfAbsent( fixedTestId, fixedTestId, 15 ) ).thenReturn( Optional.empty() );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 15 ) ).thenReturn( Optional.of( updated ) );
+
+        //WHEN
+        InventoryResponseDTO actual = inventoryService.createInventory( inventoryCreateDTO );
+
+        //THEN
+        assertThat( actual.quantity() ).isEqualTo( 15 );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, 15 );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, -15 );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, 5 );
     }
 
     @Test
@@ -304,20 +440,14 @@ class InventoryServiceTest {
                 20123
         );
 
-        Inventory updatedInventory = mapper.toInventory( inventory, inventoryUpdateDTO, warehouse, item );
-
-        InventoryResponseDTO inventoryResponseDTO = mapper.toInventoryResponseDTO( updatedInventory );
-
-        Mockito.when( inventoryRepository.insert( Mockito.any( Inventory.class ) ) ).thenReturn( inventory );
-        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventory ) );
+        Inventory updatedInventory = mapper.toInventory( inventoryWithId, inventoryUpdateDTO, warehouse, item );
 
+        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
         Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
-        Mockito.when( itemRepo.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
-
-        Mockito.when( inventoryRepository.save( Mockito.any( Inventory.class ) ) ).thenReturn( updatedInventory );
-
-        inventoryRepository.insert( inventory );
-        inventoryRepository.findById( fixedTestId );
+        Mockito.when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( fixedTestId, 20113 ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 20123 ) )
+                .thenReturn( Optional.of( updatedInventory ) );
 
         //WHEN
         InventoryResponseDTO actual = assertDoesNotThrow( () -> inventoryService.updateInventory( fixedTestId, inventoryUpdateDTO ) );
@@ -328,12 +458,91 @@ class InventoryServiceTest {
                 .extracting( "quantity" )
                 .isEqualTo( inventoryUpdateDTO.quantity() );
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).save( Mockito.any( Inventory.class ) );
-        Mockito.verify( inventoryRepository, Mockito.times( 2 ) ).findById( fixedTestId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insert( Mockito.any( Inventory.class ) );
-
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 20123 );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, 20113 );
         Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        Mockito.verify( itemRepo, Mockito.times( 1 ) ).findById( fixedTestId );
+        Mockito.verify( itemCatalogCache, Mockito.times( 1 ) ).findById( fixedTestId );
+    }
+
+    @Test
+    void updateInventory_ShouldReleaseAfterWrite_WhenQuantityDecreases() {
+        //GIVEN
+        InventoryUpdateDTO inventoryUpdateDTO = new InventoryUpdateDTO( null, null, 4 );
+        Inventory updatedInventory = new Inventory( fixedTestId, warehouse, item, 4 );
+
+        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 4 ) )
+                .thenReturn( Optional.of( updatedInventory ) );
+
+        //WHEN
+        inventoryService.updateInventory( fixedTestId, inventoryUpdateDTO );
+
+        //THEN
+        InOrder inOrder = Mockito.inOrder( inventoryRepository, warehouseRepository );
+        inOrder.verify( inventoryRepository ).updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 4 );
+        inOrder.verify( warehouseRepository ).adjustUsedCapacity( fixedTestId, -6 );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordLevel( warehouse, fixedTestId, 4, -6 );
+    }
+
+    @Test
+    void updateInventory_ShouldMoveUsedCapacity_WhenWarehouseChanges() {
+        //GIVEN
+        Warehouse otherWarehouse = new Warehouse(
+                "other-id", "Warehouse EU West", warehouse.getShop(), null, null, null, null, null, null, null, null, 100
+        );
+        InventoryUpdateDTO inventoryUpdateDTO = new InventoryUpdateDTO( "other-id", null, null );
+        Inventory movedInventory = new Inventory( fixedTestId, otherWarehouse, item, 10 );
+
+        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
+        Mockito.when( warehouseRepository.findById( "other-id" ) ).thenReturn( Optional.of( otherWarehouse ) );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( "other-id", 10 ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, "other-id", fixedTestId, 10 ) )
+                .thenReturn( Optional.of( movedInventory ) );
+
+        //WHEN
+        inventoryService.updateInventory( fixedTestId, inventoryUpdateDTO );
+
+        //THEN
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( "other-id", 10 );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, -10 );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordRemoval( inventoryWithId );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordLevel( otherWarehouse, fixedTestId, 10, 10 );
+    }
+
+    @Test
+    void updateInventory_ShouldGiveBackReservation_WhenWriteFails() {
+        //GIVEN
+        InventoryUpdateDTO inventoryUpdateDTO = new InventoryUpdateDTO( null, null, 20 );
+
+        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
+        Mockito.when( warehouseRepository.adjustUsedCapacity( fixedTestId, 10 ) ).thenReturn( true );
+        Mockito.when( inventoryRepository.updateIfUnchanged( inventoryWithId, fixedTestId, fixedTestId, 20 ) )
+                .thenThrow( new DuplicateKeyException( "dup key" ) );
+
+        //WHEN
+        assertThrows( DuplicateKeyException.class, () -> inventoryService.updateInventory( fixedTestId, inventoryUpdateDTO ) );
+
+        //THEN
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, -10 );
+        Mockito.verifyNoInteractions( historyService );
+    }
+
+    @Test
+    void updateInventory_ShouldThrowPreconditionFailedWithoutWriting_WhenVersionChanged() {
+        //GIVEN
+        InventoryUpdateDTO inventoryUpdateDTO = new InventoryUpdateDTO( null, null, 4 );
+
+        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
+
+        //WHEN
+        assertThrows( PreconditionFailedException.class, () ->
+                inventoryService.updateInventory( fixedTestId, inventoryUpdateDTO, inventoryWithId.getVersion() + 1 )
+        );
+
+        //THEN
+        Mockito.verify( inventoryRepository, Mockito.never() ).updateIfUnchanged( Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt() );
+        Mockito.verify( warehouseRepository, Mockito.never() ).adjustUsedCapacity( Mockito.any(), Mockito.anyLong() );
     }
 
     @Test
@@ -346,11 +555,8 @@ class InventoryServiceTest {
                 20123
         );
 
-        Mockito.when( inventoryRepository.insert( Mockito.any( Inventory.class ) ) ).thenReturn( inventory );
         Mockito.when( inventoryRepository.findById( fakeId ) ).thenReturn( Optional.empty() );
 
-        inventoryRepository.insert( inventory );
-
         //WHEN
         ResourceNotFoundException ex = assertThrows( ResourceNotFoundException.class, () ->
                 inventoryService.updateInventory( fakeId, inventoryUpdateDTO )
@@ -358,19 +564,14 @@ class InventoryServiceTest {
 
         assertThat( ex ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insert( inventory );
         Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findById( fakeId );
-
+        Mockito.verify( warehouseRepository, Mockito.never() ).adjustUsedCapacity( Mockito.any(), Mockito.anyLong() );
     }
 
     @Test
     void deleteInventory_ShouldReturnTrue_WhenCalled() {
         //GIVEN
-
-        Mockito.when( inventoryRepository.insert( Mockito.any( Inventory.class ) ) ).thenReturn( inventory );
-        Mockito.when( inventoryRepository.findById( fixedTestId ) ).thenReturn( Optional.of( inventory ) );
-
-        inventoryRepository.insert( inventory );
+        Mockito.when( inventoryRepository.removeById( fixedTestId ) ).thenReturn( Optional.of( inventoryWithId ) );
 
         //WHEN
         Boolean isDeleted = assertDoesNotThrow( () -> inventoryService.deleteInventory( fixedTestId ) );
@@ -378,10 +579,9 @@ class InventoryServiceTest {
         //THEN
         assertThat( isDeleted ).isTrue();
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insert( Mockito.any( Inventory.class ) );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).delete( Mockito.any( Inventory.class ) );
-
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).removeById( fixedTestId );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).adjustUsedCapacity( fixedTestId, -10 );
+        Mockito.verify( historyService, Mockito.times( 1 ) ).recordRemoval( inventoryWithId );
     }
 
     @Test
@@ -389,10 +589,7 @@ class InventoryServiceTest {
         //GIVEN
         String fakeId = "fake-id";
 
-        Mockito.when( inventoryRepository.insert( Mockito.any( Inventory.class ) ) ).thenReturn( inventory );
-        Mockito.when( inventoryRepository.findById( fakeId ) ).thenReturn( Optional.empty() );
-
-        inventoryRepository.insert( inventory );
+        Mockito.when( inventoryRepository.removeById( fakeId ) ).thenReturn( Optional.empty() );
 
         //WHEN
         ResourceNotFoundException ex = assertThrows( ResourceNotFoundException.class, () -> inventoryService.deleteInventory( fakeId ) );
@@ -400,7 +597,7 @@ class InventoryServiceTest {
         //THEN
         assertThat( ex ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
 
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).insert( Mockito.any( Inventory.class ) );
-        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).findById( fakeId );
+        Mockito.verify( inventoryRepository, Mockito.times( 1 ) ).removeById( fakeId );
+        Mockito.verify( warehouseRepository, Mockito.never() ).adjustUsedCapacity( Mockito.any(), Mockito.anyLong() );
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,13 @@
 package com.team18.backend.service;
 
 import com.team18.backend.dto.item.ItemDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Item;
 import com.team18.backend.repository.ItemRepo;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import com.team18.backend.service.search.ItemSearchIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,7 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,9 +32,40 @@ class ItemServiceTest {
 
     @Mock
     ItemRepo mockedItemRepo;
+    @Mock
+    ItemCatalogCache mockedItemCatalogCache;
+    @Mock
+    ItemSearchIndex mockedItemSearchIndex;
     @InjectMocks
     ItemService mockedItemService;
 
+    @Nested
+    class FindItemPage {
+        @Test
+        @DisplayName("Should read the first page ordered by id when no cursor is given")
+        void findItemPageFirstPage() {
+            Item item = new Item( "1", "SKU123", "Test Item" );
+            when( mockedItemRepo.findAllByOrderByIdAsc( Limit.of( 11 ) ) ).thenReturn( List.of( item ) );
+
+            CursorPage<Item> actual = mockedItemService.findItemPage( CursorPageRequest.of( 10, null ) );
+
+            assertThat( actual.items() ).containsExactly( item );
+            assertThat( actual.nextCursor() ).isNull();
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor id when a cursor is given")
+        void findItemPageAfterCursor() {
+            Item item = new Item( "2", "SKU456", "Other Item" );
+            when( mockedItemRepo.findByIdGreaterThanOrderByIdAsc( "1", Limit.of( 11 ) ) ).thenReturn( List.of( item ) );
+
+            CursorPage<Item> actual = mockedItemService.findItemPage( new CursorPageRequest( 10, "1" ) );
+
+            assertThat( actual.items() ).containsExactly( item );
+            verify( mockedItemRepo ).findByIdGreaterThanOrderByIdAsc( "1", Limit.of( 11 ) );
+        }
+    }
+
     @Nested
     class FindItemById {
         @Test
@@ -38,7 +75,7 @@ class ItemServiceTest {
             String itemId = "1";
             Item expectedItem = new Item( itemId, "SKU123", "Test Item" );
 
-            when( mockedItemRepo.findById( itemId ) ).thenReturn( Optional.of( expectedItem ) );
+            when( mockedItemCatalogCache.findById( itemId ) ).thenReturn( Optional.of( expectedItem ) );
 
             // When
             Item actualItem = mockedItemService.findItemById( itemId );
@@ -52,12 +89,46 @@ class ItemServiceTest {
         void findItemByIdNotFound() {
             String notExistingItemId = "999";
 
-            when( mockedItemRepo.findById( notExistingItemId ) ).thenReturn( Optional.empty() );
+            when( mockedItemCatalogCache.findById( notExistingItemId ) ).thenReturn( Optional.empty() );
 
             assertThatThrownBy( () -> mockedItemService.findItemById( notExistingItemId ) ).isInstanceOf( ResourceNotFoundException.class );
         }
     }
 
+    @Nested
+    class FindItemBySku {
+        @Test
+        @DisplayName("Should return item when found by sku")
+        void findItemBySku() {
+            Item expectedItem = new Item( "1", "SKU123", "Test Item" );
+
+            when( mockedItemCatalogCache.findBySku( "SKU123" ) ).thenReturn( Optional.of( expectedItem ) );
+
+            assertThat( mockedItemService.findItemBySku( "SKU123" ) ).isEqualTo( expectedItem );
+        }
+
+        @Test
+        @DisplayName("Should throw error when item not found by sku")
+        void findItemBySkuNotFound() {
+            when( mockedItemCatalogCache.findBySku( "SKU999" ) ).thenReturn( Optional.empty() );
+
+            assertThatThrownBy( () -> mockedItemService.findItemBySku( "SKU999" ) ).isInstanceOf( ResourceNotFoundException.class );
+        }
+    }
+
+    @Nested
+    class SearchItems {
+        @Test
+        @DisplayName("Should return matches from the search index")
+        void searchItems() {
+            List<Item> matches = List.of( new Item( "1", "SKU123", "Widget" ) );
+
+            when( mockedItemSearchIndex.search( "wid", 10 ) ).thenReturn( matches );
+
+            assertThat( mockedItemService.searchItems( "wid", 10 ) ).isEqualTo( matches );
+        }
+    }
+
     @Nested
     class UpdateItemByIdTests {
         @Test
@@ -76,6 +147,8 @@ class ItemServiceTest {
 
             assertThat( actualItem ).isEqualTo( updatedItem );
             verify( mockedItemRepo ).save( existingItem );
+            verify( mockedItemCatalogCache ).evict( itemId );
+            verify( mockedItemSearchIndex ).put( updatedItem );
         }
 
         @Test
@@ -100,6 +173,8 @@ class ItemServiceTest {
 
             assertDoesNotThrow( () -> mockedItemService.deleteAllItems() );
             verify( mockedItemRepo ).deleteAll();
+            verify( mockedItemCatalogCache ).evictAll();
+            verify( mockedItemSearchIndex ).clear();
         }
 
         @Test
@@ -114,6 +189,8 @@ class ItemServiceTest {
 
             verify( mockedItemRepo ).findById( itemId );
             verify( mockedItemRepo ).delete( existingItem );
+            verify( mockedItemCatalogCache ).evict( itemId );
+            verify( mockedItemSearchIndex ).remove( itemId );
         }
 
         @Test
@@ -142,6 +219,8 @@ class ItemServiceTest {
 
             assertThat( actualItem ).isEqualTo( savedItem );
             verify( mockedItemRepo ).save( any( Item.class ) );
+            verify( mockedItemCatalogCache ).evict( savedItem.getId() );
+            verify( mockedItemSearchIndex ).put( savedItem );
         }
 
     }
@@ -1,5 +1,9 @@
 package com.team18.backend.service;
 
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchCreateDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchLineDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchResponseDTO;
+import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemBatchResultDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemCreateDTO;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemMapper;
 import com.team18.backend.dto.shipmentlineitem.ShipmentLineItemResponseDTO;
@@ -8,6 +12,8 @@ import com.team18.backend.exception.RecordIsLockedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.*;
 import com.team18.backend.repository.*;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,27 +23,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ShipmentLineItemServiceTest {
 
-    private static final ItemRepo itemRepo = Mockito.mock( ItemRepo.class );
+    private static final ItemCatalogCache itemCatalogCache = Mockito.mock( ItemCatalogCache.class );
     private static final ShipmentRepository shipmentRepository = Mockito.mock( ShipmentRepository.class );
-    private static final ShipmentLineItemRepository shipmentLineItemRepository = Mockito.mock( ShipmentLineItemRepository.class );
+    private static final ShipmentLineItemStore shipmentLineItemStore = Mockito.mock( ShipmentLineItemStore.class );
     private static final ShipmentLineItemMapper mapper = new ShipmentLineItemMapper();
 
 
     private static final ShipmentLineItemService service = new ShipmentLineItemService(
             mapper,
             shipmentRepository,
-            itemRepo,
-            shipmentLineItemRepository
+            itemCatalogCache,
+            shipmentLineItemStore
     );
 
     private static final String fixedTestId = "test-id";
@@ -93,7 +103,7 @@ class ShipmentLineItemServiceTest {
 
     @BeforeEach
     void resetMocks() {
-        Mockito.reset( itemRepo, shipmentRepository, shipmentLineItemRepository );
+        Mockito.reset( itemCatalogCache, shipmentRepository, shipmentLineItemStore );
         shipment.setStatus( ShipmentStatus.ORDERED );
     }
 
@@ -103,21 +113,21 @@ class ShipmentLineItemServiceTest {
 
         List<ShipmentLineItem> given = List.of( shipmentLineItem );
         List<ShipmentLineItemResponseDTO> expected = mapper.toResponseDTOList( given );
-        when( shipmentLineItemRepository.findAllByShipment_Id( fixedTestId ) ).thenReturn( Optional.of( given ) );
+        when( shipmentLineItemStore.findAllResolvedByShipmentId( fixedTestId ) ).thenReturn( given );
 
         // WHEN
         List<ShipmentLineItemResponseDTO> actualItems = service.getShipmentLineItemsByShipmentId( fixedTestId );
 
         // THEN
         assertThat( actualItems ).hasSize( 1 ).containsAll( expected );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findAllByShipment_Id( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findAllResolvedByShipmentId( fixedTestId );
     }
 
     @Test
     void getShipmentLineItemsByShipmentId_shouldThrow_whenRepositoryHasNoItems() {
         // GIVEN
         List<ShipmentLineItem> given = List.of();
-        when( shipmentLineItemRepository.findAllByShipment_Id( fixedTestId ) ).thenReturn( Optional.of( given ) );
+        when( shipmentLineItemStore.findAllResolvedByShipmentId( fixedTestId ) ).thenReturn( given );
 
         // WHEN
         ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
@@ -126,7 +136,7 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findAllByShipment_Id( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findAllResolvedByShipmentId( fixedTestId );
     }
 
     @Test
@@ -160,7 +170,7 @@ class ShipmentLineItemServiceTest {
                 10
         );
         when( shipmentRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipment ) );
-        when( itemRepo.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
+        when( itemCatalogCache.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
 
         // WHEN
         ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
@@ -170,7 +180,7 @@ class ShipmentLineItemServiceTest {
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
         verify( shipmentRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( itemRepo, Mockito.times( 1 ) ).findById( "wrong-id" );
+        verify( itemCatalogCache, Mockito.times( 1 ) ).findById( "wrong-id" );
     }
 
     @Test
@@ -186,8 +196,8 @@ class ShipmentLineItemServiceTest {
         ShipmentLineItemResponseDTO expected = mapper.toResponseDTO( given );
 
         when( shipmentRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipment ) );
-        when( itemRepo.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
-        when( shipmentLineItemRepository.insert( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
+        when( itemCatalogCache.findById( fixedTestId ) ).thenReturn( Optional.of( item ) );
+        when( shipmentLineItemStore.insert( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
 
         // WHEN
         ShipmentLineItemResponseDTO actual = service.createShipmentLineItem( newLineItem );
@@ -198,8 +208,104 @@ class ShipmentLineItemServiceTest {
                 .isEqualTo( expected );
 
         verify( shipmentRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( itemRepo, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).insert( Mockito.any( ShipmentLineItem.class ) );
+        verify( itemCatalogCache, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).insert( Mockito.any( ShipmentLineItem.class ) );
+    }
+
+    @Test
+    void createShipmentLineItems_shouldThrow_whenShipmentNotFound() {
+        // GIVEN
+        ShipmentLineItemBatchCreateDTO batch = new ShipmentLineItemBatchCreateDTO(
+                "wrong-id",
+                List.of( new ShipmentLineItemBatchLineDTO( item.getId(), 10, 10 ) )
+        );
+        when( shipmentRepository.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
+
+        // WHEN
+        ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
+                .createShipmentLineItems( batch )
+        );
+
+        // THEN
+        assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
+        verifyNoInteractions( itemCatalogCache, shipmentLineItemStore );
+    }
+
+    @Test
+    void createShipmentLineItems_shouldInsertAllLinesAtOnce_whenAllItemsExist() {
+        // GIVEN
+        ShipmentLineItemBatchCreateDTO batch = new ShipmentLineItemBatchCreateDTO(
+                fixedTestId,
+                List.of(
+                        new ShipmentLineItemBatchLineDTO( fixedTestId, 10, null ),
+                        new ShipmentLineItemBatchLineDTO( fixedTestId, 5, 5 )
+                )
+        );
+        when( shipmentRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipment ) );
+        when( itemCatalogCache.findAllById( Set.of( fixedTestId ) ) ).thenReturn( Map.of( fixedTestId, item ) );
+        when( shipmentLineItemStore.insert( Mockito.<ShipmentLineItem>anyList() ) )
+                .thenAnswer( invocation -> invocation.getArgument( 0 ) );
+
+        // WHEN
+        ShipmentLineItemBatchResponseDTO actual = service.createShipmentLineItems( batch );
+
+        // THEN
+        assertThat( actual.created() ).isEqualTo( 2 );
+        assertThat( actual.failed() ).isZero();
+        assertThat( actual.results() )
+                .extracting( ShipmentLineItemBatchResultDTO::index, ShipmentLineItemBatchResultDTO::status )
+                .containsExactly( tuple( 0, 201 ), tuple( 1, 201 ) );
+        assertThat( actual.results().get( 1 ).lineItem().expectedQuantity() ).isEqualTo( 5 );
+        verify( shipmentRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( itemCatalogCache, Mockito.times( 1 ) ).findAllById( Set.of( fixedTestId ) );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).insert( Mockito.<ShipmentLineItem>anyList() );
+    }
+
+    @Test
+    void createShipmentLineItems_shouldReportMissingItems_whenSomeItemsDoNotExist() {
+        // GIVEN
+        ShipmentLineItemBatchCreateDTO batch = new ShipmentLineItemBatchCreateDTO(
+                fixedTestId,
+                List.of(
+                        new ShipmentLineItemBatchLineDTO( "wrong-id", 10, null ),
+                        new ShipmentLineItemBatchLineDTO( fixedTestId, 5, null )
+                )
+        );
+        when( shipmentRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipment ) );
+        when( itemCatalogCache.findAllById( Set.of( "wrong-id", fixedTestId ) ) ).thenReturn( Map.of( fixedTestId, item ) );
+        when( shipmentLineItemStore.insert( Mockito.<ShipmentLineItem>anyList() ) )
+                .thenAnswer( invocation -> invocation.getArgument( 0 ) );
+
+        // WHEN
+        ShipmentLineItemBatchResponseDTO actual = service.createShipmentLineItems( batch );
+
+        // THEN
+        assertThat( actual.created() ).isEqualTo( 1 );
+        assertThat( actual.failed() ).isEqualTo( 1 );
+        assertThat( actual.results() )
+                .extracting( ShipmentLineItemBatchResultDTO::index, ShipmentLineItemBatchResultDTO::status )
+                .containsExactly( tuple( 0, 404 ), tuple( 1, 201 ) );
+        assertThat( actual.results().getFirst().error() ).isEqualTo( "Could not find item with id: wrong-id" );
+        assertThat( actual.results().getFirst().lineItem() ).isNull();
+    }
+
+    @Test
+    void createShipmentLineItems_shouldNotInsert_whenNoItemExists() {
+        // GIVEN
+        ShipmentLineItemBatchCreateDTO batch = new ShipmentLineItemBatchCreateDTO(
+                fixedTestId,
+                List.of( new ShipmentLineItemBatchLineDTO( "wrong-id", 10, null ) )
+        );
+        when( shipmentRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipment ) );
+        when( itemCatalogCache.findAllById( Set.of( "wrong-id" ) ) ).thenReturn( Map.of() );
+
+        // WHEN
+        ShipmentLineItemBatchResponseDTO actual = service.createShipmentLineItems( batch );
+
+        // THEN
+        assertThat( actual.created() ).isZero();
+        assertThat( actual.failed() ).isEqualTo( 1 );
+        verifyNoInteractions( shipmentLineItemStore );
     }
 
     @Test
@@ -211,7 +317,7 @@ class ShipmentLineItemServiceTest {
                 null,
                 null
         );
-        when( shipmentLineItemRepository.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
+        when( shipmentLineItemStore.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
 
         // WHEN
         ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
@@ -220,7 +326,7 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( "wrong-id" );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( "wrong-id" );
     }
 
     @Test
@@ -234,7 +340,7 @@ class ShipmentLineItemServiceTest {
         );
         shipment.setStatus( ShipmentStatus.COMPLETED );
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
 
         // WHEN
         RecordIsLockedException e = assertThrows( RecordIsLockedException.class, () -> service
@@ -243,7 +349,7 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( RecordIsLockedException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
     }
 
     @Test
@@ -256,7 +362,7 @@ class ShipmentLineItemServiceTest {
                 null
         );
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
         when( shipmentRepository.findById( updatedLineItem.shipmentId() ) ).thenReturn( Optional.empty() );
 
         // WHEN
@@ -266,7 +372,7 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
         verify( shipmentRepository, Mockito.times( 1 ) ).findById( updatedLineItem.shipmentId() );
     }
 
@@ -279,9 +385,9 @@ class ShipmentLineItemServiceTest {
                 null,
                 null
         );
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
         when( shipmentRepository.findById( updatedLineItem.shipmentId() ) ).thenReturn( Optional.of( shipment ) );
-        when( itemRepo.findById( updatedLineItem.itemId() ) ).thenReturn( Optional.empty() );
+        when( itemCatalogCache.findById( updatedLineItem.itemId() ) ).thenReturn( Optional.empty() );
 
         // WHEN
         ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
@@ -290,9 +396,9 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
         verify( shipmentRepository, Mockito.times( 1 ) ).findById( updatedLineItem.shipmentId() );
-        verify( itemRepo, Mockito.times( 1 ) ).findById( updatedLineItem.itemId() );
+        verify( itemCatalogCache, Mockito.times( 1 ) ).findById( updatedLineItem.itemId() );
     }
 
     @Test
@@ -307,8 +413,8 @@ class ShipmentLineItemServiceTest {
         ShipmentLineItem given = mapper.toShipmentLineItem( shipmentLineItem, updatedLineItem, shipment, item );
         ShipmentLineItemResponseDTO expected = mapper.toResponseDTO( given );
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
-        when( shipmentLineItemRepository.save( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.save( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
 
         // WHEN
         ShipmentLineItemResponseDTO actual = assertDoesNotThrow( () -> service.updateShipmentLineItem( fixedTestId, updatedLineItem ) );
@@ -316,8 +422,8 @@ class ShipmentLineItemServiceTest {
         // THEN
         assertThat( actual ).isNotNull().isEqualTo( expected );
 
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).save( given );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).save( given );
     }
 
     @Test
@@ -332,10 +438,10 @@ class ShipmentLineItemServiceTest {
         ShipmentLineItem given = mapper.toShipmentLineItem( shipmentLineItem, updatedLineItem, shipment, item );
         ShipmentLineItemResponseDTO expected = mapper.toResponseDTO( given );
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
         when( shipmentRepository.findById( updatedLineItem.shipmentId() ) ).thenReturn( Optional.of( shipment ) );
-        when( itemRepo.findById( updatedLineItem.itemId() ) ).thenReturn( Optional.of( item ) );
-        when( shipmentLineItemRepository.save( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
+        when( itemCatalogCache.findById( updatedLineItem.itemId() ) ).thenReturn( Optional.of( item ) );
+        when( shipmentLineItemStore.save( Mockito.any( ShipmentLineItem.class ) ) ).thenReturn( given );
 
         // WHEN
         ShipmentLineItemResponseDTO actual = assertDoesNotThrow( () -> service.updateShipmentLineItem( fixedTestId, updatedLineItem ) );
@@ -343,17 +449,17 @@ class ShipmentLineItemServiceTest {
         // THEN
         assertThat( actual ).isNotNull().isEqualTo( expected );
 
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
         verify( shipmentRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( itemRepo, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).save( given );
+        verify( itemCatalogCache, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).save( given );
     }
 
     @Test
     void deleteShipmentLineItem_shouldThrow_whenShipmentLineItemNotFound() {
         // GIVEN
 
-        when( shipmentLineItemRepository.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
+        when( shipmentLineItemStore.findById( "wrong-id" ) ).thenReturn( Optional.empty() );
 
         // WHEN
         ResourceNotFoundException e = assertThrows( ResourceNotFoundException.class, () -> service
@@ -362,7 +468,7 @@ class ShipmentLineItemServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( "wrong-id" );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( "wrong-id" );
     }
 
     @Test
@@ -370,7 +476,7 @@ class ShipmentLineItemServiceTest {
         // GIVEN
         shipment.setStatus( ShipmentStatus.COMPLETED );
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
 
         // WHEN
         RecordIsLockedException e = assertThrows( RecordIsLockedException.class, () -> service.deleteShipmentLineItem( fixedTestId ) );
@@ -378,14 +484,14 @@ class ShipmentLineItemServiceTest {
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( RecordIsLockedException.class );
 
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
     }
 
     @Test
     void deleteShipmentLineItem_shouldReturnTrue_WhenCalledWithValidId() {
         // GIVEN
 
-        when( shipmentLineItemRepository.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
+        when( shipmentLineItemStore.findById( fixedTestId ) ).thenReturn( Optional.of( shipmentLineItem ) );
 
         // WHEN
         Boolean actual = assertDoesNotThrow( () -> service.deleteShipmentLineItem( fixedTestId ) );
@@ -393,8 +499,8 @@ class ShipmentLineItemServiceTest {
         // THEN
         assertTrue( actual );
 
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        verify( shipmentLineItemRepository, Mockito.times( 1 ) ).delete( shipmentLineItem );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).findById( fixedTestId );
+        verify( shipmentLineItemStore, Mockito.times( 1 ) ).delete( shipmentLineItem );
     }
 
 }
\ No newline at end of file
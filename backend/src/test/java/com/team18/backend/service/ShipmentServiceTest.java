@@ -4,15 +4,24 @@ import com.team18.backend.dto.ShipmentCreateDTO;
 import com.team18.backend.dto.ShipmentResponseDTO;
 import com.team18.backend.dto.ShipmentStatusUpdateDTO;
 import com.team18.backend.dto.ShipmentUpdateDTO;
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
 import com.team18.backend.dto.warehouse.WarehouseMapper;
 import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.InvalidStatusChangeException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.RecordIsLockedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.*;
 import com.team18.backend.repository.*;
+import com.team18.backend.repository.ShipmentRepositoryCustom.StatusTransition;
+import com.team18.backend.service.completion.CompletionProgress;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -20,13 +29,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,9 +50,6 @@ class ShipmentServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
-    @Mock
-    private ShopRepository shopRepository;
-
     @Mock
     private WarehouseMapper warehouseMapper;
 
@@ -48,7 +57,10 @@ class ShipmentServiceTest {
     private InventoryRepository inventoryRepository;
 
     @Mock
-    private ShipmentLineItemRepository shipmentLineItemRepository;
+    private ShipmentLineItemStore shipmentLineItemStore;
+
+    @Mock
+    private InventoryHistoryService inventoryHistoryService;
 
     @InjectMocks
     private ShipmentService shipmentService;
@@ -56,9 +68,10 @@ class ShipmentServiceTest {
     private Shipment testShipment;
     private Shop testShop;
     private Warehouse testWarehouse;
-    private Inventory testInventory;
     private ShipmentLineItem testShipmentLineItem;
 
+    private static final int RECEIVED = 10;
+
     @BeforeEach
     void setUp() {
         testShop = new Shop( "shop-123", "Test Shop" );
@@ -73,21 +86,16 @@ class ShipmentServiceTest {
                 ShipmentStatus.ORDERED
         );
         Item item = new Item( "item-id", "test-sku", "test-item" );
-        testInventory = new Inventory(
-                testWarehouse,
-                item,
-                10
-        );
         testShipmentLineItem = new ShipmentLineItem(
                 testShipment,
                 item,
                 10,
-                10
+                RECEIVED
         );
     }
 
     @Test
-    void getAllShipments_shouldReturnAllShipments_whenRepositoryHasShipments() {
+    void getShipmentPage_shouldReturnAllShipments_whenUnpaged() {
         // GIVEN
         stubWarehouseMapper();
         Warehouse warehouse2 = new Warehouse(
@@ -97,27 +105,30 @@ class ShipmentServiceTest {
         Shipment shipment1 = new Shipment( testWarehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED );
         Shipment shipment2 = new Shipment( warehouse2, LocalDate.of( 2025, 12, 5 ), ShipmentStatus.IN_DELIVERY );
         List<Shipment> expectedShipments = List.of( shipment1, shipment2 );
-        when( shipmentRepository.findAll() ).thenReturn( expectedShipments );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
+        when( shipmentRepository.findPageResolved( null, pageRequest.fetchSize() ) ).thenReturn( expectedShipments );
 
         // WHEN
-        List<ShipmentResponseDTO> actualShipments = shipmentService.getAllShipments();
+        CursorPage<ShipmentResponseDTO> actualShipments = shipmentService.getShipmentPage( pageRequest );
 
         // THEN
-        assertThat( actualShipments ).hasSize( 2 );
-        verify( shipmentRepository ).findAll();
+        assertThat( actualShipments.items() ).hasSize( 2 );
+        assertThat( actualShipments.nextCursor() ).isNull();
+        verify( shipmentRepository ).findPageResolved( null, pageRequest.fetchSize() );
     }
 
     @Test
-    void getAllShipments_shouldReturnEmptyList_whenRepositoryHasNoShipments() {
+    void getShipmentPage_shouldReturnEmptyList_whenRepositoryHasNoShipments() {
         // GIVEN
-        when( shipmentRepository.findAll() ).thenReturn( List.of() );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
+        when( shipmentRepository.findPageResolved( null, pageRequest.fetchSize() ) ).thenReturn( List.of() );
 
         // WHEN
-        List<ShipmentResponseDTO> actualShipments = shipmentService.getAllShipments();
+        CursorPage<ShipmentResponseDTO> actualShipments = shipmentService.getShipmentPage( pageRequest );
 
         // THEN
-        assertThat( actualShipments ).isEmpty();
-        verify( shipmentRepository ).findAll();
+        assertThat( actualShipments.items() ).isEmpty();
+        verify( shipmentRepository ).findPageResolved( null, pageRequest.fetchSize() );
     }
 
     @Test
@@ -157,8 +168,8 @@ class ShipmentServiceTest {
         stubWarehouseMapper();
         String warehouseId = "warehouse-1";
         List<Shipment> expectedShipments = List.of( testShipment );
-        when( warehouseRepository.findById( warehouseId ) ).thenReturn( Optional.of( testWarehouse ) );
-        when( shipmentRepository.findByWarehouse( testWarehouse ) ).thenReturn( expectedShipments );
+        when( warehouseRepository.existsById( warehouseId ) ).thenReturn( true );
+        when( shipmentRepository.findAllResolvedByWarehouseIdIn( List.of( warehouseId ) ) ).thenReturn( expectedShipments );
 
         // WHEN
         List<ShipmentResponseDTO> actualShipments = shipmentService.getShipmentsByWarehouseId( warehouseId );
@@ -166,8 +177,8 @@ class ShipmentServiceTest {
         // THEN
         assertThat( actualShipments ).hasSize( 1 );
         assertThat( actualShipments.get( 0 ).warehouse().id() ).isEqualTo( warehouseId );
-        verify( warehouseRepository ).findById( warehouseId );
-        verify( shipmentRepository ).findByWarehouse( testWarehouse );
+        verify( warehouseRepository ).existsById( warehouseId );
+        verify( shipmentRepository ).findAllResolvedByWarehouseIdIn( List.of( warehouseId ) );
     }
 
     @Test
@@ -220,16 +231,53 @@ class ShipmentServiceTest {
                 LocalDate.of( 2025, 12, 15 ),
                 ShipmentStatus.IN_DELIVERY
         );
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentRepository.save( any( Shipment.class ) ) ).thenReturn( testShipment );
+        Shipment updated = withStatus( testShipment, ShipmentStatus.IN_DELIVERY );
+        when( shipmentRepository.transitionStatus(
+                shipmentId, ShipmentStatus.IN_DELIVERY, Map.of( "expectedArrivalDate", dto.expectedArrivalDate() ), null
+        ) ).thenReturn( Optional.of( new StatusTransition( testShipment, updated ) ) );
 
         // WHEN
         ShipmentResponseDTO updatedShipment = shipmentService.updateShipment( shipmentId, dto );
 
         // THEN
-        assertThat( updatedShipment ).isNotNull();
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( shipmentRepository ).save( any( Shipment.class ) );
+        assertThat( updatedShipment.status() ).isEqualTo( ShipmentStatus.IN_DELIVERY );
+        verify( shipmentRepository, never() ).findById( shipmentId );
+    }
+
+    @Test
+    void updateShipment_shouldThrowPreconditionFailed_whenVersionChanged() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        ShipmentUpdateDTO dto = new ShipmentUpdateDTO( null, LocalDate.of( 2025, 12, 15 ), null );
+
+        when( shipmentRepository.updateDetails( shipmentId, Map.of( "expectedArrivalDate", dto.expectedArrivalDate() ), 3L ) )
+                .thenReturn( Optional.empty() );
+        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
+
+        // WHEN
+        PreconditionFailedException e = assertThrows(
+                PreconditionFailedException.class,
+                () -> shipmentService.updateShipment( shipmentId, dto, 3L )
+        );
+
+        // THEN
+        assertThat( e ).hasMessageContaining( shipmentId );
+    }
+
+    @Test
+    void updateShipment_shouldThrowPreconditionFailed_whenChangingTheStatusOfAnotherVersion() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        ShipmentUpdateDTO dto = new ShipmentUpdateDTO( null, null, ShipmentStatus.IN_DELIVERY );
+
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.IN_DELIVERY, Map.of(), 3L ) ).thenReturn( Optional.empty() );
+        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
+
+        // WHEN
+        assertThrows( PreconditionFailedException.class, () -> shipmentService.updateShipment( shipmentId, dto, 3L ) );
+
+        // THEN
+        verifyNoInteractions( shipmentLineItemStore, inventoryRepository );
     }
 
     @Test
@@ -239,11 +287,14 @@ class ShipmentServiceTest {
         ShipmentUpdateDTO dto = new ShipmentUpdateDTO(
                 null,
                 LocalDate.of( 2025, 12, 15 ),
-                ShipmentStatus.COMPLETED
+                ShipmentStatus.IN_DELIVERY
         );
 
         testShipment.setStatus( ShipmentStatus.COMPLETED );
 
+        when( shipmentRepository.transitionStatus(
+                shipmentId, ShipmentStatus.IN_DELIVERY, Map.of( "expectedArrivalDate", dto.expectedArrivalDate() ), null
+        ) ).thenReturn( Optional.empty() );
         when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
 
         // WHEN
@@ -253,6 +304,20 @@ class ShipmentServiceTest {
         assertThat( e ).isNotNull().isInstanceOf( RecordIsLockedException.class );
 
         verify( shipmentRepository ).findById( shipmentId );
+        verifyNoInteractions( shipmentLineItemStore, inventoryRepository );
+    }
+
+    @Test
+    void updateShipment_shouldRejectCompletion_whenStatusIsCompleted() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        ShipmentUpdateDTO dto = new ShipmentUpdateDTO( null, LocalDate.of( 2025, 12, 15 ), ShipmentStatus.COMPLETED );
+
+        // WHEN
+        assertThrows( InvalidStatusChangeException.class, () -> shipmentService.updateShipment( shipmentId, dto, 3L ) );
+
+        // THEN
+        verifyNoInteractions( shipmentRepository, shipmentLineItemStore, warehouseRepository, inventoryRepository );
     }
 
     @Test
@@ -265,7 +330,6 @@ class ShipmentServiceTest {
                 ShipmentStatus.IN_DELIVERY
         );
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
         when( warehouseRepository.findById( dto.warehouseId() ) ).thenReturn( Optional.empty() );
 
         // WHEN
@@ -273,8 +337,8 @@ class ShipmentServiceTest {
 
         // THEN
         assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentRepository ).findById( shipmentId );
         verify( warehouseRepository ).findById( dto.warehouseId() );
+        verify( shipmentRepository, never() ).updateDetails( Mockito.eq( shipmentId ), Mockito.anyMap(), Mockito.any() );
     }
 
     @Test
@@ -284,13 +348,13 @@ class ShipmentServiceTest {
         ShipmentUpdateDTO dto = new ShipmentUpdateDTO(
                 testWarehouse.getId(),
                 LocalDate.of( 2025, 12, 15 ),
-                ShipmentStatus.IN_DELIVERY
+                null
         );
 
         Shipment given = new Shipment(
                 testShipment.getId(),
                 testShipment.getWarehouse(),
-                testShipment.getExpectedArrivalDate(),
+                dto.expectedArrivalDate(),
                 testShipment.getStatus()
         );
 
@@ -300,48 +364,38 @@ class ShipmentServiceTest {
         ShipmentResponseDTO expected = new ShipmentResponseDTO(
                 testShipment.getId(),
                 warehouseMapper.toWarehouseResponseDTO( testShipment.getWarehouse() ),
-                testShipment.getExpectedArrivalDate(),
+                dto.expectedArrivalDate(),
                 testShipment.getStatus(),
                 testShipment.getCreatedDate(),
-                testShipment.getLastModifiedDate()
+                testShipment.getLastModifiedDate(),
+                testShipment.getVersion()
         );
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
         when( warehouseRepository.findById( dto.warehouseId() ) ).thenReturn( Optional.of( testWarehouse ) );
-        when( shipmentRepository.save( any( Shipment.class ) ) ).thenReturn( given );
+        when( shipmentRepository.updateDetails(
+                shipmentId,
+                Map.of( "warehouse", testWarehouse, "expectedArrivalDate", dto.expectedArrivalDate() ),
+                null
+        ) ).thenReturn( Optional.of( given ) );
 
         // WHEN
         ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.updateShipment( shipmentId, dto ) );
 
         // THEN
         assertThat( actual ).isNotNull().isEqualTo( expected );
-        verify( shipmentRepository ).findById( shipmentId );
         verify( warehouseRepository ).findById( dto.warehouseId() );
-        verify( shipmentRepository ).save( Mockito.any( Shipment.class ) );
+        verify( shipmentRepository, never() ).findById( shipmentId );
     }
 
     @Test
-    void updateShipment_shouldThrowOnShipmentCompletion_whenLineItemsNotFound() {
+    void updateShipment_shouldThrow_whenShipmentDoesNotExist() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentUpdateDTO dto = new ShipmentUpdateDTO(
-                testWarehouse.getId(),
-                LocalDate.of( 2025, 12, 15 ),
-                ShipmentStatus.COMPLETED
-        );
-
-        Shipment given = new Shipment(
-                testShipment.getId(),
-                testShipment.getWarehouse(),
-                dto.expectedArrivalDate(),
-                dto.status()
-        );
-        given.setCreatedDate( testShipment.getCreatedDate() );
-        given.setLastModifiedDate( testShipment.getLastModifiedDate() );
+        ShipmentUpdateDTO dto = new ShipmentUpdateDTO( null, LocalDate.of( 2025, 12, 15 ), null );
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( warehouseRepository.findById( dto.warehouseId() ) ).thenReturn( Optional.of( testWarehouse ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( given.getId() ) ).thenReturn( Optional.empty() );
+        when( shipmentRepository.updateDetails( shipmentId, Map.of( "expectedArrivalDate", dto.expectedArrivalDate() ), null ) )
+                .thenReturn( Optional.empty() );
+        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.empty() );
 
         // WHEN
         ResourceNotFoundException e = assertThrows(
@@ -350,179 +404,116 @@ class ShipmentServiceTest {
         );
 
         // THEN
-        assertThat( e ).isNotNull().isInstanceOf( ResourceNotFoundException.class );
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( warehouseRepository ).findById( dto.warehouseId() );
-        verify( shipmentLineItemRepository ).findAllByShipment_Id( given.getId() );
+        assertThat( e ).hasMessageContaining( shipmentId );
     }
 
     @Test
-    void updateShipment_shouldProcessShipmentCompletionWithNewInventory_whenCalled() {
+    void updateShipment_shouldThrowLocked_whenShipmentWasCompletedBeforeTheUpdate() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentUpdateDTO dto = new ShipmentUpdateDTO(
-                testWarehouse.getId(),
-                LocalDate.of( 2025, 12, 15 ),
-                ShipmentStatus.COMPLETED
-        );
-
-        Shipment given = new Shipment(
-                testShipment.getId(),
-                testShipment.getWarehouse(),
-                dto.expectedArrivalDate(),
-                dto.status()
-        );
-        given.setCreatedDate( testShipment.getCreatedDate() );
-        given.setLastModifiedDate( testShipment.getLastModifiedDate() );
-
-        ShipmentResponseDTO expected = new ShipmentResponseDTO(
-                given.getId(),
-                warehouseMapper.toWarehouseResponseDTO( given.getWarehouse() ),
-                given.getExpectedArrivalDate(),
-                given.getStatus(),
-                given.getCreatedDate(),
-                given.getLastModifiedDate()
-        );
+        ShipmentUpdateDTO dto = new ShipmentUpdateDTO( null, LocalDate.of( 2025, 12, 15 ), null );
+        testShipment.setStatus( ShipmentStatus.COMPLETED );
 
+        when( shipmentRepository.updateDetails( shipmentId, Map.of( "expectedArrivalDate", dto.expectedArrivalDate() ), null ) )
+                .thenReturn( Optional.empty() );
         when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( warehouseRepository.findById( dto.warehouseId() ) ).thenReturn( Optional.of( testWarehouse ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( given.getId() ) )
-                .thenReturn( Optional.of( List.of( testShipmentLineItem ) ) );
-
-        when( inventoryRepository.findAllByWarehouse_Id( given.getWarehouse().getId() ) )
-                .thenReturn( Optional.of( List.of() ) );
 
-        when( inventoryRepository.saveAll( Mockito.anyList() ) ).thenReturn( List.of( testInventory ) );
+        // WHEN / THEN
+        assertThrows( RecordIsLockedException.class, () -> shipmentService.updateShipment( shipmentId, dto ) );
+    }
 
-        when( shipmentRepository.save( Mockito.any( Shipment.class ) ) ).thenReturn( given );
+    @Test
+    void updateShipmentStatus_shouldUpdateStatusAndReturnShipment_whenShipmentExists() {
+        // GIVEN
+        stubWarehouseMapper();
+        String shipmentId = "shipment-123";
+        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.PROCESSED );
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.PROCESSED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, withStatus( testShipment, ShipmentStatus.PROCESSED ) ) ) );
 
         // WHEN
-        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.updateShipment( shipmentId, dto ) );
+        ShipmentResponseDTO updatedShipment = shipmentService.updateShipmentStatus( shipmentId, dto );
 
         // THEN
-        assertThat( actual ).isNotNull().isEqualTo( expected );
-
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( warehouseRepository ).findById( dto.warehouseId() );
-        verify( shipmentLineItemRepository ).findAllByShipment_Id( given.getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .findAllByWarehouse_Id( given.getWarehouse().getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .saveAll( Mockito.anyList() );
+        assertThat( updatedShipment.status() ).isEqualTo( ShipmentStatus.PROCESSED );
+        verify( shipmentRepository, never() ).findById( shipmentId );
+        verifyNoInteractions( shipmentLineItemStore, inventoryRepository );
     }
 
     @Test
-    void updateShipment_shouldProcessShipmentCompletionOnExistingInventory_whenCalled() {
+    void updateShipmentStatus_shouldThrow_whenShipmentIsCompleted() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentUpdateDTO dto = new ShipmentUpdateDTO(
-                testWarehouse.getId(),
-                LocalDate.of( 2025, 12, 15 ),
-                ShipmentStatus.COMPLETED
-        );
-
-        Shipment given = new Shipment(
-                testShipment.getId(),
-                testShipment.getWarehouse(),
-                dto.expectedArrivalDate(),
-                dto.status()
-        );
-        given.setCreatedDate( testShipment.getCreatedDate() );
-        given.setLastModifiedDate( testShipment.getLastModifiedDate() );
-
-        ShipmentResponseDTO expected = new ShipmentResponseDTO(
-                given.getId(),
-                warehouseMapper.toWarehouseResponseDTO( given.getWarehouse() ),
-                given.getExpectedArrivalDate(),
-                given.getStatus(),
-                given.getCreatedDate(),
-                given.getLastModifiedDate()
-        );
-
-        Inventory updatedInventory = new Inventory(
-                testInventory.getId(),
-                testInventory.getWarehouse(),
-                testInventory.getItem(),
-                testInventory.getQuantity() + testShipmentLineItem.getReceivedQuantity()
-        );
+        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.PROCESSED );
+        testShipment.setStatus( ShipmentStatus.COMPLETED );
 
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.PROCESSED, Map.of(), null ) ).thenReturn( Optional.empty() );
         when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( warehouseRepository.findById( dto.warehouseId() ) ).thenReturn( Optional.of( testWarehouse ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( given.getId() ) )
-                .thenReturn( Optional.of( List.of( testShipmentLineItem ) ) );
-
-        when( inventoryRepository.findAllByWarehouse_Id( given.getWarehouse().getId() ) )
-                .thenReturn( Optional.of( List.of( testInventory ) ) );
-
-        when( inventoryRepository.saveAll( Mockito.anyList() ) ).thenReturn( List.of( updatedInventory ) );
-
-        when( shipmentRepository.save( Mockito.any( Shipment.class ) ) ).thenReturn( given );
 
         // WHEN
-        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.updateShipment( given.getId(), dto ) );
+        RecordIsLockedException e = assertThrows( RecordIsLockedException.class, () -> shipmentService.updateShipmentStatus( shipmentId, dto ) );
 
         // THEN
-        assertThat( actual ).isNotNull().isEqualTo( expected );
+        assertThat( e ).isNotNull().isInstanceOf( RecordIsLockedException.class );
 
         verify( shipmentRepository ).findById( shipmentId );
-        verify( warehouseRepository ).findById( dto.warehouseId() );
-        verify( shipmentLineItemRepository ).findAllByShipment_Id( given.getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .findAllByWarehouse_Id( given.getWarehouse().getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .saveAll( Mockito.anyList() );
     }
 
     @Test
-    void updateShipmentStatus_shouldUpdateStatusAndReturnShipment_whenShipmentExists() {
+    void updateShipmentStatus_shouldRejectCompletion_whenStatusIsCompleted() {
         // GIVEN
-        stubWarehouseMapper();
         String shipmentId = "shipment-123";
-        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.PROCESSED );
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentRepository.save( any( Shipment.class ) ) ).thenReturn( testShipment );
+        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.COMPLETED );
 
         // WHEN
-        ShipmentResponseDTO updatedShipment = shipmentService.updateShipmentStatus( shipmentId, dto );
+        assertThrows( InvalidStatusChangeException.class, () -> shipmentService.updateShipmentStatus( shipmentId, dto ) );
 
         // THEN
-        assertThat( updatedShipment ).isNotNull();
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( shipmentRepository ).save( any( Shipment.class ) );
+        verifyNoInteractions( shipmentRepository, shipmentLineItemStore, warehouseRepository, inventoryRepository );
     }
 
     @Test
-    void updateShipmentStatus_shouldThrow_whenShipmentIsCompleted() {
+    void completeShipment_shouldCompleteWithoutReceivingAnything_whenShipmentHasNoLineItems() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.PROCESSED );
-        testShipment.setStatus( ShipmentStatus.COMPLETED );
+        Shipment completed = withStatus( testShipment, ShipmentStatus.COMPLETED );
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, completed ) ) );
+        when( shipmentLineItemStore.findAllByShipment( completed ) ).thenReturn( List.of() );
 
         // WHEN
-        RecordIsLockedException e = assertThrows( RecordIsLockedException.class, () -> shipmentService.updateShipmentStatus( shipmentId, dto ) );
+        assertDoesNotThrow( () -> shipmentService.completeShipment( shipmentId, CompletionProgress.NONE ) );
 
         // THEN
-        assertThat( e ).isNotNull().isInstanceOf( RecordIsLockedException.class );
+        verify( shipmentLineItemStore ).findAllByShipment( completed );
+        verify( warehouseRepository, never() ).adjustUsedCapacity( any(), Mockito.anyLong() );
+        verify( inventoryRepository ).incrementQuantities( testWarehouse.getId(), Map.of() );
+        verify( shipmentRepository, never() ).findById( shipmentId );
+    }
 
-        verify( shipmentRepository ).findById( shipmentId );
+    @Test
+    void completeShipment_shouldNotReceiveAgain_whenAnotherRequestCompletedTheShipmentFirst() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) ).thenReturn( Optional.empty() );
+        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( withStatus( testShipment, ShipmentStatus.COMPLETED ) ) );
+
+        // WHEN
+        assertThrows( RecordIsLockedException.class, () -> shipmentService.completeShipment( shipmentId, CompletionProgress.NONE ) );
+
+        // THEN
+        verifyNoInteractions( shipmentLineItemStore, inventoryRepository );
+        verify( warehouseRepository, never() ).adjustUsedCapacity( any(), Mockito.anyLong() );
     }
 
     @Test
-    void updateShipmentStatus_shouldProcessShipmentCompletionWithNewInventory_whenCalled() {
+    void completeShipment_shouldProcessShipmentCompletionByIncrementingInventory_whenCalled() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.COMPLETED );
 
-        Shipment given = new Shipment(
-                shipmentId,
-                testShipment.getWarehouse(),
-                testShipment.getExpectedArrivalDate(),
-                dto.status()
-        );
-        given.setCreatedDate( testShipment.getCreatedDate() );
-        given.setLastModifiedDate( testShipment.getLastModifiedDate() );
+        Shipment given = withStatus( testShipment, ShipmentStatus.COMPLETED );
 
         ShipmentResponseDTO expected = new ShipmentResponseDTO(
                 given.getId(),
@@ -530,49 +521,40 @@ class ShipmentServiceTest {
                 given.getExpectedArrivalDate(),
                 given.getStatus(),
                 given.getCreatedDate(),
-                given.getLastModifiedDate()
+                given.getLastModifiedDate(),
+                given.getVersion()
         );
 
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, given ) ) );
+        when( shipmentLineItemStore.findAllByShipment( given ) ).thenReturn( List.of( testShipmentLineItem ) );
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( given.getId() ) )
-                .thenReturn( Optional.of( List.of( testShipmentLineItem ) ) );
-
-        when( inventoryRepository.findAllByWarehouse_Id( given.getWarehouse().getId() ) )
-                .thenReturn( Optional.of( List.of() ) );
-
-        when( inventoryRepository.saveAll( Mockito.anyList() ) ).thenReturn( List.of( testInventory ) );
-
-        when( shipmentRepository.save( Mockito.any( Shipment.class ) ) ).thenReturn( given );
+        when( warehouseRepository.adjustUsedCapacity( testWarehouse.getId(), RECEIVED ) ).thenReturn( true );
 
         // WHEN
-        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.updateShipmentStatus( given.getId(), dto ) );
+        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.completeShipment( given.getId(), CompletionProgress.NONE ) );
 
         // THEN
         assertThat( actual ).isNotNull().isEqualTo( expected );
 
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( shipmentLineItemRepository ).findAllByShipment_Id( given.getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .findAllByWarehouse_Id( given.getWarehouse().getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .saveAll( Mockito.anyList() );
+        verify( shipmentRepository, never() ).findById( shipmentId );
+        verify( shipmentLineItemStore ).findAllByShipment( given );
+        verify( inventoryRepository ).incrementQuantities(
+                given.getWarehouse().getId(),
+                Map.of( testShipmentLineItem.getItem().getId(), RECEIVED )
+        );
+        verify( inventoryHistoryService ).recordReceipt(
+                given.getWarehouse(),
+                Map.of( testShipmentLineItem.getItem().getId(), RECEIVED )
+        );
     }
 
     @Test
-    void updateShipmentStatus_shouldProcessShipmentCompletionOnExistingInventory_whenCalled() {
+    void completeShipment_shouldProcessShipmentCompletionSummingRepeatedItems_whenCalled() {
         // GIVEN
         String shipmentId = "shipment-123";
-        ShipmentStatusUpdateDTO dto = new ShipmentStatusUpdateDTO( ShipmentStatus.COMPLETED );
 
-        Shipment given = new Shipment(
-                testShipment.getId(),
-                testShipment.getWarehouse(),
-                testShipment.getExpectedArrivalDate(),
-                dto.status()
-        );
-        given.setCreatedDate( testShipment.getCreatedDate() );
-        given.setLastModifiedDate( testShipment.getLastModifiedDate() );
+        Shipment given = withStatus( testShipment, ShipmentStatus.COMPLETED );
 
         ShipmentResponseDTO expected = new ShipmentResponseDTO(
                 given.getId(),
@@ -580,39 +562,105 @@ class ShipmentServiceTest {
                 given.getExpectedArrivalDate(),
                 given.getStatus(),
                 given.getCreatedDate(),
-                given.getLastModifiedDate()
+                given.getLastModifiedDate(),
+                given.getVersion()
         );
 
-        Inventory updatedInventory = new Inventory(
-                testInventory.getId(),
-                testInventory.getWarehouse(),
-                testInventory.getItem(),
-                testInventory.getQuantity() + testShipmentLineItem.getReceivedQuantity()
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, given ) ) );
+        when( shipmentLineItemStore.findAllByShipment( given ) ).thenReturn( List.of(
+                testShipmentLineItem,
+                new ShipmentLineItem( testShipment, testShipmentLineItem.getItem(), 5, 4 )
+        ) );
+
+        when( warehouseRepository.adjustUsedCapacity( testWarehouse.getId(), RECEIVED + 4 ) ).thenReturn( true );
+
+        // WHEN
+        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.completeShipment( given.getId(), CompletionProgress.NONE ) );
+
+        // THEN
+        assertThat( actual ).isNotNull().isEqualTo( expected );
+
+        verify( shipmentRepository, never() ).findById( shipmentId );
+        verify( shipmentLineItemStore ).findAllByShipment( given );
+        verify( inventoryRepository ).incrementQuantities(
+                given.getWarehouse().getId(),
+                Map.of( testShipmentLineItem.getItem().getId(), RECEIVED + 4 )
         );
+    }
 
-        when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( given.getId() ) )
-                .thenReturn( Optional.of( List.of( testShipmentLineItem ) ) );
+    @Test
+    void completeShipment_shouldThrowAndRestoreStatus_whenReceiptExceedsCapacity() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        Shipment completed = withStatus( testShipment, ShipmentStatus.COMPLETED );
+
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, completed ) ) );
+        when( shipmentLineItemStore.findAllByShipment( completed ) ).thenReturn( List.of( testShipmentLineItem ) );
+        when( warehouseRepository.adjustUsedCapacity( testWarehouse.getId(), RECEIVED ) ).thenReturn( false );
 
-        when( inventoryRepository.findAllByWarehouse_Id( given.getWarehouse().getId() ) )
-                .thenReturn( Optional.of( List.of( testInventory ) ) );
+        // WHEN
+        CapacityExceededException e = assertThrows(
+                CapacityExceededException.class,
+                () -> shipmentService.completeShipment( shipmentId, CompletionProgress.NONE )
+        );
+
+        // THEN
+        assertThat( e ).hasMessageContaining( testWarehouse.getId() );
+        verifyNoInteractions( inventoryRepository );
+        verify( shipmentRepository ).updateDetails( testShipment );
+    }
 
-        when( inventoryRepository.saveAll( Mockito.anyList() ) ).thenReturn( List.of( updatedInventory ) );
+    @Test
+    void completeShipment_shouldReleaseReservation_whenInventoryUpdateFails() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        Map<String, Integer> received = Map.of( testShipmentLineItem.getItem().getId(), RECEIVED );
+        Shipment completed = withStatus( testShipment, ShipmentStatus.COMPLETED );
 
-        when( shipmentRepository.save( Mockito.any( Shipment.class ) ) ).thenReturn( given );
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, completed ) ) );
+        when( shipmentLineItemStore.findAllByShipment( completed ) ).thenReturn( List.of( testShipmentLineItem ) );
+        when( warehouseRepository.adjustUsedCapacity( testWarehouse.getId(), RECEIVED ) ).thenReturn( true );
+        Mockito.doThrow( new IllegalStateException( "write failed" ) )
+                .when( inventoryRepository ).incrementQuantities( testWarehouse.getId(), received );
 
         // WHEN
-        ShipmentResponseDTO actual = assertDoesNotThrow( () -> shipmentService.updateShipmentStatus( given.getId(), dto ) );
+        assertThrows( IllegalStateException.class, () -> shipmentService.completeShipment( shipmentId, CompletionProgress.NONE ) );
 
         // THEN
-        assertThat( actual ).isNotNull().isEqualTo( expected );
+        verify( warehouseRepository ).adjustUsedCapacity( testWarehouse.getId(), -RECEIVED );
+        verify( shipmentRepository ).updateDetails( testShipment );
+        verifyNoInteractions( inventoryHistoryService );
+    }
 
-        verify( shipmentRepository ).findById( shipmentId );
-        verify( shipmentLineItemRepository ).findAllByShipment_Id( given.getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .findAllByWarehouse_Id( given.getWarehouse().getId() );
-        verify( inventoryRepository, Mockito.times( 1 ) )
-                .saveAll( Mockito.anyList() );
+    @Test
+    void completeShipment_shouldReportLineItemsBeforeUpdatingInventory_whenCalled() {
+        // GIVEN
+        String shipmentId = "shipment-123";
+        CompletionProgress progress = Mockito.mock( CompletionProgress.class );
+        Shipment completed = withStatus( testShipment, ShipmentStatus.COMPLETED );
+
+        when( shipmentRepository.transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null ) )
+                .thenReturn( Optional.of( new StatusTransition( testShipment, completed ) ) );
+        when( shipmentLineItemStore.findAllByShipment( completed ) ).thenReturn( List.of(
+                testShipmentLineItem,
+                new ShipmentLineItem( testShipment, testShipmentLineItem.getItem(), 5, 4 )
+        ) );
+        when( warehouseRepository.adjustUsedCapacity( testWarehouse.getId(), RECEIVED + 4 ) ).thenReturn( true );
+
+        // WHEN
+        shipmentService.completeShipment( shipmentId, progress );
+
+        // THEN
+        InOrder inOrder = Mockito.inOrder( shipmentRepository, progress, inventoryRepository );
+        inOrder.verify( shipmentRepository ).transitionStatus( shipmentId, ShipmentStatus.COMPLETED, Map.of(), null );
+        inOrder.verify( progress ).lineItemsRead( 2, RECEIVED + 4 );
+        inOrder.verify( inventoryRepository ).incrementQuantities(
+                testWarehouse.getId(),
+                Map.of( testShipmentLineItem.getItem().getId(), RECEIVED + 4 )
+        );
     }
 
     @Test
@@ -620,7 +668,6 @@ class ShipmentServiceTest {
         // GIVEN
         String shipmentId = "shipment-123";
         when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( shipmentId ) ).thenReturn( Optional.of( List.of() ) );
 
         // WHEN
         shipmentService.deleteShipment( shipmentId );
@@ -634,15 +681,14 @@ class ShipmentServiceTest {
     void deleteShipment_shouldDeleteShipmentAndShipmentLineItems_whenShipmentExists() {
         // GIVEN
         String shipmentId = "shipment-123";
-        List<ShipmentLineItem> lineItemList = List.of( testShipmentLineItem );
         when( shipmentRepository.findById( shipmentId ) ).thenReturn( Optional.of( testShipment ) );
-        when( shipmentLineItemRepository.findAllByShipment_Id( shipmentId ) ).thenReturn( Optional.of( lineItemList ) );
+
         // WHEN
         shipmentService.deleteShipment( shipmentId );
 
         // THEN
         verify( shipmentRepository ).findById( shipmentId );
-        verify( shipmentLineItemRepository ).deleteAll( lineItemList );
+        verify( shipmentLineItemStore ).deleteAllByShipment( testShipment );
         verify( shipmentRepository ).deleteById( shipmentId );
     }
 
@@ -688,123 +734,75 @@ class ShipmentServiceTest {
                 "warehouse-2", "Warehouse 2", testShop,
                 0.0, 0.0, "Street", "2", "City", "12345", "State", "Country", 100
         );
-        List<Warehouse> warehouses = List.of( warehouse1, warehouse2 );
 
         Shipment shipment1 = new Shipment( warehouse1, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED );
         Shipment shipment2 = new Shipment( warehouse2, LocalDate.of( 2025, 12, 5 ), ShipmentStatus.IN_DELIVERY );
         Shipment shipment3 = new Shipment( warehouse1, LocalDate.of( 2025, 12, 10 ), ShipmentStatus.PROCESSED );
         List<Shipment> shipments = List.of( shipment1, shipment2, shipment3 );
 
-        when( shopRepository.findById( shopId ) ).thenReturn( Optional.of( testShop ) );
-        when( warehouseRepository.findByShop( testShop ) ).thenReturn( warehouses );
-        when( shipmentRepository.findAllByWarehouseIn( warehouses ) )
-                .thenReturn( shipments );
+        when( shipmentRepository.findAllResolvedByShopId( shopId, null, null, null ) )
+                .thenReturn( Optional.of( shipments ) );
 
         // WHEN
-        List<ShipmentResponseDTO> result = shipmentService.getAllShipmentsByShopId( shopId );
+        List<ShipmentResponseDTO> result = shipmentService.getAllShipmentsByShopId( shopId, null, null, null );
 
         // THEN
         assertThat( result ).hasSize( 3 );
         assertThat( result ).allMatch( dto ->
                 dto.warehouse().id().equals( "warehouse-1" ) || dto.warehouse().id().equals( "warehouse-2" )
         );
-        verify( shopRepository ).findById( shopId );
-        verify( warehouseRepository ).findByShop( testShop );
-        verify( shipmentRepository ).findAllByWarehouseIn( warehouses );
+        verify( shipmentRepository ).findAllResolvedByShopId( shopId, null, null, null );
     }
 
     @Test
     void getAllShipmentsByShopId_shouldThrowResourceNotFoundException_whenShopDoesNotExist() {
         // GIVEN
         String shopId = "non-existent-shop";
-        when( shopRepository.findById( shopId ) ).thenReturn( Optional.empty() );
+        when( shipmentRepository.findAllResolvedByShopId( shopId, null, null, null ) ).thenReturn( Optional.empty() );
 
         // WHEN & THEN
-        assertThatThrownBy( () -> shipmentService.getAllShipmentsByShopId( shopId ) )
+        assertThatThrownBy( () -> shipmentService.getAllShipmentsByShopId( shopId, null, null, null ) )
                 .isInstanceOf( ResourceNotFoundException.class )
                 .hasMessage( "Shop not found with id: " + shopId );
-        verify( shopRepository ).findById( shopId );
+        verify( shipmentRepository ).findAllResolvedByShopId( shopId, null, null, null );
     }
 
     @Test
-    void getAllShipmentsByShopId_shouldReturnEmptyList_whenShopHasNoWarehouses() {
+    void getAllShipmentsByShopId_shouldReturnEmptyList_whenShopHasNoShipments() {
         // GIVEN
         String shopId = "shop-123";
-        when( shopRepository.findById( shopId ) ).thenReturn( Optional.of( testShop ) );
-        when( warehouseRepository.findByShop( testShop ) ).thenReturn( List.of() );
-        when( shipmentRepository.findAllByWarehouseIn( List.of() ) ).thenReturn( List.of() );
+        when( shipmentRepository.findAllResolvedByShopId( shopId, null, null, null ) ).thenReturn( Optional.of( List.of() ) );
 
         // WHEN
-        List<ShipmentResponseDTO> result = shipmentService.getAllShipmentsByShopId( shopId );
+        List<ShipmentResponseDTO> result = shipmentService.getAllShipmentsByShopId( shopId, null, null, null );
 
         // THEN
         assertThat( result ).isNotNull();
         assertThat( result ).isEmpty();
-        verify( shopRepository ).findById( shopId );
-        verify( warehouseRepository ).findByShop( testShop );
-        verify( shipmentRepository ).findAllByWarehouseIn( List.of() );
     }
 
     @Test
-    void getAllShipmentsByShopId_shouldReturnEmptyList_whenWarehousesHaveNoShipments() {
+    void getAllShipmentsByShopId_shouldPassFiltersToRepository_whenFiltersAreGiven() {
         // GIVEN
         String shopId = "shop-123";
-        Warehouse warehouse1 = new Warehouse(
-                "warehouse-1", "Warehouse 1", testShop,
-                0.0, 0.0, "Street", "1", "City", "12345", "State", "Country", 100
-        );
-        Warehouse warehouse2 = new Warehouse(
-                "warehouse-2", "Warehouse 2", testShop,
-                0.0, 0.0, "Street", "2", "City", "12345", "State", "Country", 100
-        );
-        List<Warehouse> warehouses = List.of( warehouse1, warehouse2 );
-
-        when( shopRepository.findById( shopId ) ).thenReturn( Optional.of( testShop ) );
-        when( warehouseRepository.findByShop( testShop ) ).thenReturn( warehouses );
-        when( shipmentRepository.findAllByWarehouseIn( warehouses ) )
-                .thenReturn( List.of() );
+        LocalDate from = LocalDate.of( 2025, 12, 1 );
+        LocalDate to = LocalDate.of( 2025, 12, 31 );
+        when( shipmentRepository.findAllResolvedByShopId( shopId, ShipmentStatus.IN_DELIVERY, from, to ) )
+                .thenReturn( Optional.of( List.of() ) );
 
         // WHEN
-        List<ShipmentResponseDTO> result = shipmentService.getAllShipmentsByShopId( shopId );
+        shipmentService.getAllShipmentsByShopId( shopId, ShipmentStatus.IN_DELIVERY, from, to );
 
         // THEN
-        assertThat( result ).isNotNull();
-        assertThat( result ).isEmpty();
-        verify( shopRepository ).findById( shopId );
-        verify( warehouseRepository ).findByShop( testShop );
-        verify( shipmentRepository ).findAllByWarehouseIn( warehouses );
+        verify( shipmentRepository ).findAllResolvedByShopId( shopId, ShipmentStatus.IN_DELIVERY, from, to );
+        verifyNoInteractions( warehouseRepository );
     }
 
-    @Test
-    void getAllShipmentsByShopId_shouldExtractCorrectWarehouseIds_whenMultipleWarehousesExist() {
-        // GIVEN
-        String shopId = "shop-123";
-        Warehouse warehouse1 = new Warehouse(
-                "warehouse-1", "Warehouse 1", testShop,
-                0.0, 0.0, "Street", "1", "City", "12345", "State", "Country", 100
-        );
-        Warehouse warehouse2 = new Warehouse(
-                "warehouse-2", "Warehouse 2", testShop,
-                0.0, 0.0, "Street", "2", "City", "12345", "State", "Country", 100
-        );
-        Warehouse warehouse3 = new Warehouse(
-                "warehouse-3", "Warehouse 3", testShop,
-                0.0, 0.0, "Street", "3", "City", "12345", "State", "Country", 100
-        );
-        List<Warehouse> warehouses = List.of( warehouse1, warehouse2, warehouse3 );
-
-        when( shopRepository.findById( shopId ) ).thenReturn( Optional.of( testShop ) );
-        when( warehouseRepository.findByShop( testShop ) ).thenReturn( warehouses );
-        when( shipmentRepository.findAllByWarehouseIn( warehouses ) )
-                .thenReturn( List.of() );
-
-        // WHEN
-        shipmentService.getAllShipmentsByShopId( shopId );
-
-        // THEN
-        verify( shopRepository ).findById( shopId );
-        verify( warehouseRepository ).findByShop( testShop );
-        verify( shipmentRepository ).findAllByWarehouseIn( warehouses );
+    private static Shipment withStatus( Shipment shipment, ShipmentStatus status ) {
+        Shipment copy = new Shipment( shipment.getId(), shipment.getWarehouse(), shipment.getExpectedArrivalDate(), status );
+        copy.setCreatedDate( shipment.getCreatedDate() );
+        copy.setLastModifiedDate( shipment.getLastModifiedDate() );
+        return copy;
     }
 
     private void stubWarehouseMapper() {
@@ -825,7 +823,9 @@ class ShipmentServiceTest {
                 warehouse.getPostalCode(),
                 warehouse.getState(),
                 warehouse.getCountry(),
-                warehouse.getMaxCapacity()
+                warehouse.getMaxCapacity(),
+                warehouse.getUsedCapacity(),
+                warehouse.getVersion()
         );
     }
 }
@@ -1,23 +1,35 @@
 package com.team18.backend.service;
 
+import com.team18.backend.dto.page.CursorPage;
+import com.team18.backend.dto.page.CursorPageRequest;
+import com.team18.backend.dto.warehouse.NearestWarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseCreateDTO;
+import com.team18.backend.dto.warehouse.WarehouseDeletionResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseMapper;
 import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
 import com.team18.backend.dto.warehouse.WarehouseUpdateDTO;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.PreconditionFailedException;
 import com.team18.backend.exception.ResourceNotFoundException;
 import com.team18.backend.model.Shop;
 import com.team18.backend.model.Warehouse;
 import com.team18.backend.repository.InventoryRepository;
+import com.team18.backend.repository.ShipmentRepository;
 import com.team18.backend.repository.ShopRepository;
 import com.team18.backend.repository.WarehouseRepository;
+import com.team18.backend.repository.WarehouseRepositoryCustom;
+import com.team18.backend.service.lineitem.ShipmentLineItemStore;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,8 +39,12 @@ class WarehouseServiceTest {
     private static final WarehouseRepository warehouseRepository = Mockito.mock( WarehouseRepository.class );
     private static final ShopRepository shopRepository = Mockito.mock( ShopRepository.class );
     private static final InventoryRepository inventoryRepository = Mockito.mock( InventoryRepository.class );
+    private static final ShipmentRepository shipmentRepository = Mockito.mock( ShipmentRepository.class );
+    private static final ShipmentLineItemStore shipmentLineItemStore = Mockito.mock( ShipmentLineItemStore.class );
     private static WarehouseMapper mapper = new WarehouseMapper();
-    private static final WarehouseService warehouseService = new WarehouseService( warehouseRepository, shopRepository, inventoryRepository, mapper );
+    private static final WarehouseService warehouseService = new WarehouseService(
+            warehouseRepository, shopRepository, inventoryRepository, shipmentRepository, shipmentLineItemStore, mapper
+    );
 
     private static final String fixedTestId = "test-id";
     private static Shop shop;
@@ -72,49 +88,49 @@ class WarehouseServiceTest {
 
     @BeforeEach
     void resetMocks() {
-        Mockito.reset( warehouseRepository, shopRepository, inventoryRepository );
+        Mockito.reset( warehouseRepository, shopRepository, inventoryRepository, shipmentRepository, shipmentLineItemStore );
     }
 
     @Test
-    void getAllWarehouses_ShouldReturnList_WhenCalled() {
+    void getWarehousePage_ShouldReturnList_WhenUnpaged() {
         //GIVEN
         List<Warehouse> warehouses = List.of( warehouse );
         List<WarehouseResponseDTO> warehouseResponseDTOS = mapper.toWarehouseResponseDTOList( warehouses );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
 
-        Mockito.when( warehouseRepository.save( warehouse ) ).thenReturn( warehouse );
-        Mockito.when( warehouseRepository.findAll() ).thenReturn( warehouses );
+        Mockito.when( warehouseRepository.findPageResolved( null, pageRequest.fetchSize(), Set.of() ) ).thenReturn( warehouses );
 
         //WHEN
-        warehouseRepository.save( warehouse );
-
-        List<WarehouseResponseDTO> actual = warehouseService.getAllWarehouses();
+        CursorPage<WarehouseResponseDTO> actual = warehouseService.getWarehousePage( pageRequest );
 
         //THEN
-        assertThat( actual )
+        assertThat( actual.items() )
                 .isNotNull()
                 .isNotEmpty()
                 .containsAll( warehouseResponseDTOS );
+        assertThat( actual.nextCursor() ).isNull();
 
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findAll();
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).save( warehouse );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findPageResolved( null, pageRequest.fetchSize(), Set.of() );
     }
 
     @Test
-    void getAllWarehouses_ShouldReturnEmptyList_WhenCalled() {
+    void getWarehousePage_ShouldReturnEmptyList_WhenUnpaged() {
         //GIVEN
         List<Warehouse> warehouses = new ArrayList<>();
-        Mockito.when( warehouseRepository.findAll() ).thenReturn( warehouses );
+        CursorPageRequest pageRequest = CursorPageRequest.unpaged();
+        Mockito.when( warehouseRepository.findPageResolved( null, pageRequest.fetchSize(), Set.of() ) ).thenReturn( warehouses );
 
 
         //WHEN
-        List<WarehouseResponseDTO> actual = warehouseService.getAllWarehouses();
+        CursorPage<WarehouseResponseDTO> actual = warehouseService.getWarehousePage( pageRequest );
 
         //THEN
-        assertThat( actual )
+        assertThat( actual.items() )
                 .isNotNull()
                 .isEmpty();
+        assertThat( actual.nextCursor() ).isNull();
 
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findAll();
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findPageResolved( null, pageRequest.fetchSize(), Set.of() );
     }
 
     @Test
@@ -169,6 +185,22 @@ class WarehouseServiceTest {
         Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findById( fakeId );
     }
 
+    @Test
+    void getNearestWarehouses_ShouldReturnWarehousesWithDistance_WhenCalled() {
+        //GIVEN
+        Mockito.when( warehouseRepository.findNearestResolved( 52.2, 21.0, 5000d, fixedTestId, 10 ) )
+                .thenReturn( List.of( new WarehouseRepositoryCustom.WarehouseDistance( warehouseWithId, 1534.2 ) ) );
+
+        //WHEN
+        List<NearestWarehouseResponseDTO> actual = warehouseService.getNearestWarehouses( 52.2, 21.0, 5000d, fixedTestId, 10 );
+
+        //THEN
+        assertThat( actual ).containsExactly(
+                new NearestWarehouseResponseDTO( mapper.toWarehouseResponseDTO( warehouseWithId ), 1534.2 )
+        );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findNearestResolved( 52.2, 21.0, 5000d, fixedTestId, 10 );
+    }
+
     @Test
     void createWarehouse_ShouldReturnWarehouse_WhenCalled() {
         //GIVEN
@@ -225,15 +257,13 @@ class WarehouseServiceTest {
                 21356
         );
 
-        Warehouse updatedWarehouse = mapper.toWarehouse( warehouseWithId, warehouseUpdateDTO, null );
-        WarehouseResponseDTO updatedWarehouseResponse = mapper.toWarehouseResponseDTO( updatedWarehouse );
-
-        Mockito.when( warehouseRepository.insert( Mockito.any( Warehouse.class ) ) ).thenReturn( warehouseWithId );
-        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouseWithId ) );
-        Mockito.when( warehouseRepository.save( Mockito.any( Warehouse.class ) ) ).thenReturn( updatedWarehouse );
+        Warehouse updatedWarehouse = new Warehouse(
+                fixedTestId, "Updated", shop, null, null, "Muszkieterow", "26-32", "Warszawa", "02-273", "", "Poland", 21356
+        );
 
-        warehouseRepository.insert( warehouseWithId );
-        warehouseRepository.findById( fixedTestId ).orElseThrow();
+        Mockito.when( warehouseRepository.updateDetails(
+                fixedTestId, Map.of( "name", "Updated", "maxCapacity", 21356 ), null
+        ) ).thenReturn( Optional.of( updatedWarehouse ) );
 
         //WHEN
         WarehouseResponseDTO actual = assertDoesNotThrow( () -> warehouseService.updateWarehouse( fixedTestId, warehouseUpdateDTO ) );
@@ -242,14 +272,72 @@ class WarehouseServiceTest {
         assertThat( actual )
                 .isNotNull()
                 .extracting( "name" )
-                .isEqualTo( updatedWarehouseResponse.name() );
+                .isEqualTo( "Updated" );
 
         assertThat( actual.getGeoLocation() )
                 .isEqualTo( new Double[]{ 0.0, 0.0 } );
 
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).insert( Mockito.any( Warehouse.class ) );
-        Mockito.verify( warehouseRepository, Mockito.times( 2 ) ).findById( fixedTestId );
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).save( Mockito.any( Warehouse.class ) );
+        Mockito.verify( warehouseRepository, Mockito.never() ).findById( Mockito.anyString() );
+        Mockito.verify( shopRepository, Mockito.never() ).findById( Mockito.anyString() );
+        Mockito.verify( warehouseRepository, Mockito.never() ).save( Mockito.any( Warehouse.class ) );
+    }
+
+    @Test
+    void updateWarehouse_ShouldThrowPreconditionFailed_WhenVersionChanged() {
+        //GIVEN
+        WarehouseUpdateDTO warehouseUpdateDTO = new WarehouseUpdateDTO(
+                "Updated",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        Mockito.when( warehouseRepository.updateDetails( fixedTestId, Map.of( "name", "Updated" ), 3L ) ).thenReturn( Optional.empty() );
+        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouseWithId ) );
+
+        //WHEN
+        PreconditionFailedException ex = assertThrows( PreconditionFailedException.class, () ->
+                warehouseService.updateWarehouse( fixedTestId, warehouseUpdateDTO, 3L )
+        );
+
+        //THEN
+        assertThat( ex.getMessage() ).contains( fixedTestId );
+    }
+
+    @Test
+    void updateWarehouse_ShouldThrowConflict_WhenMaxCapacityIsBelowUsedCapacity() {
+        //GIVEN
+        WarehouseUpdateDTO warehouseUpdateDTO = new WarehouseUpdateDTO(
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                1
+        );
+
+        Mockito.when( warehouseRepository.updateDetails( fixedTestId, Map.of( "maxCapacity", 1 ), null ) ).thenReturn( Optional.empty() );
+        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouseWithId ) );
+
+        //WHEN
+        CapacityExceededException ex = assertThrows( CapacityExceededException.class, () ->
+                warehouseService.updateWarehouse( fixedTestId, warehouseUpdateDTO )
+        );
+
+        //THEN
+        assertThat( ex.getMessage() ).contains( fixedTestId );
     }
 
     @Test
@@ -292,23 +380,25 @@ class WarehouseServiceTest {
     }
 
     @Test
-    void deleteWarehouse_ShouldReturnTrue_WhenCalled() {
+    void deleteWarehouse_ShouldDeleteRelatedDocumentsAndReturnCounts_WhenCalled() {
         //GIVEN
-
-        Mockito.when( warehouseRepository.insert( Mockito.any( Warehouse.class ) ) ).thenReturn( warehouse );
-        Mockito.when( warehouseRepository.findById( fixedTestId ) ).thenReturn( Optional.of( warehouse ) );
-
-        warehouseRepository.insert( warehouse );
+        Mockito.when( warehouseRepository.existsById( fixedTestId ) ).thenReturn( true );
+        Mockito.when( shipmentLineItemStore.deleteAllByWarehouseId( fixedTestId ) ).thenReturn( 7L );
+        Mockito.when( shipmentRepository.deleteAllByWarehouseId( fixedTestId ) ).thenReturn( 2L );
+        Mockito.when( inventoryRepository.deleteAllByWarehouseId( fixedTestId ) ).thenReturn( 5L );
 
         //WHEN
-        Boolean isDelete = assertDoesNotThrow( () -> warehouseService.deleteWarehouse( fixedTestId ) );
+        WarehouseDeletionResponseDTO deletion = assertDoesNotThrow( () -> warehouseService.deleteWarehouse( fixedTestId ) );
 
         //THEN
-        assertThat( isDelete ).isTrue();
-
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).insert( Mockito.any( Warehouse.class ) );
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findById( fixedTestId );
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).delete( Mockito.any( Warehouse.class ) );
+        assertThat( deletion ).isEqualTo( new WarehouseDeletionResponseDTO( fixedTestId, 5, 2, 7 ) );
+
+        InOrder inOrder = Mockito.inOrder( shipmentLineItemStore, shipmentRepository, warehouseRepository );
+        inOrder.verify( shipmentLineItemStore ).deleteAllByWarehouseId( fixedTestId );
+        inOrder.verify( shipmentRepository ).deleteAllByWarehouseId( fixedTestId );
+        inOrder.verify( warehouseRepository ).deleteById( fixedTestId );
+        Mockito.verify( warehouseRepository, Mockito.never() ).findById( fixedTestId );
+        Mockito.verify( inventoryRepository, Mockito.never() ).findAllByWarehouse_Id( fixedTestId );
     }
 
     @Test
@@ -318,7 +408,7 @@ class WarehouseServiceTest {
 
 
         Mockito.when( warehouseRepository.insert( Mockito.any( Warehouse.class ) ) ).thenReturn( warehouse );
-        Mockito.when( warehouseRepository.findById( fakeId ) ).thenReturn( Optional.empty() );
+        Mockito.when( warehouseRepository.existsById( fakeId ) ).thenReturn( false );
 
         warehouseRepository.insert( warehouse );
 
@@ -336,6 +426,7 @@ class WarehouseServiceTest {
                 .isInstanceOf( ResourceNotFoundException.class );
 
         Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).insert( Mockito.any( Warehouse.class ) );
-        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).findById( fakeId );
+        Mockito.verify( warehouseRepository, Mockito.times( 1 ) ).existsById( fakeId );
+        Mockito.verifyNoInteractions( shipmentLineItemStore, shipmentRepository, inventoryRepository );
     }
 }
\ No newline at end of file
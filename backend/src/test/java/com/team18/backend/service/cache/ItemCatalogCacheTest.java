@@ -0,0 +1,120 @@
+package com.team18.backend.service.cache;
+
+import com.team18.backend.model.Item;
+import com.team18.backend.repository.ItemRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemCatalogCacheTest {
+
+    private final ItemRepo itemRepo = Mockito.mock( ItemRepo.class );
+    private ItemCatalogCache cache;
+
+    private final Item first = new Item( "1", "SKU-1", "First" );
+    private final Item second = new Item( "2", "SKU-2", "Second" );
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset( itemRepo );
+        cache = new ItemCatalogCache( itemRepo, 1 );
+        when( itemRepo.findById( "1" ) ).thenReturn( Optional.of( first ) );
+        when( itemRepo.findById( "2" ) ).thenReturn( Optional.of( second ) );
+    }
+
+    @Test
+    void findById_shouldLoadOnce_whenCalledTwice() {
+        // WHEN
+        cache.findById( "1" );
+        Optional<Item> actual = cache.findById( "1" );
+
+        // THEN
+        assertThat( actual ).contains( first );
+        verify( itemRepo, times( 1 ) ).findById( "1" );
+        assertThat( cache.stats().hits() ).isEqualTo( 1 );
+        assertThat( cache.stats().misses() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void findBySku_shouldServeFromCache_whenItemWasLoadedById() {
+        // GIVEN
+        cache.findById( "1" );
+
+        // WHEN
+        Optional<Item> actual = cache.findBySku( "SKU-1" );
+
+        // THEN
+        assertThat( actual ).contains( first );
+        verify( itemRepo, Mockito.never() ).findBySku( "SKU-1" );
+    }
+
+    @Test
+    void findById_shouldReload_whenItemWasEvicted() {
+        // GIVEN
+        cache.findById( "1" );
+
+        // WHEN
+        cache.evict( "1" );
+        cache.findById( "1" );
+
+        // THEN
+        verify( itemRepo, times( 2 ) ).findById( "1" );
+        assertThat( cache.findBySku( "SKU-1" ) ).contains( first );
+    }
+
+    @Test
+    void findById_shouldEvictLeastRecentlyUsed_whenCacheIsFull() {
+        // WHEN
+        cache.findById( "1" );
+        cache.findById( "2" );
+
+        // THEN
+        ItemCacheStats stats = cache.stats();
+        assertThat( stats.size() ).isEqualTo( 1 );
+        assertThat( stats.evictions() ).isEqualTo( 1 );
+        cache.findById( "1" );
+        verify( itemRepo, times( 2 ) ).findById( "1" );
+    }
+
+    @Test
+    void findById_shouldNotCacheMiss_whenItemDoesNotExist() {
+        // GIVEN
+        when( itemRepo.findById( "missing" ) ).thenReturn( Optional.empty() );
+
+        // WHEN
+        cache.findById( "missing" );
+        cache.findById( "missing" );
+
+        // THEN
+        verify( itemRepo, times( 2 ) ).findById( "missing" );
+        assertThat( cache.stats().size() ).isZero();
+    }
+
+    @Test
+    void findAllById_shouldLoadOnlyMissesWithOneQuery_whenSomeItemsAreCached() {
+        // GIVEN
+        cache = new ItemCatalogCache( itemRepo, 10 );
+        cache.findById( "1" );
+        when( itemRepo.findAllById( Set.of( "2", "missing" ) ) ).thenReturn( List.of( second ) );
+
+        // WHEN
+        Map<String, Item> actual = cache.findAllById( List.of( "1", "2", "missing" ) );
+
+        // THEN
+        assertThat( actual ).containsOnly( entry( "1", first ), entry( "2", second ) );
+        verify( itemRepo, times( 1 ) ).findAllById( Set.of( "2", "missing" ) );
+        assertThat( cache.findById( "2" ) ).contains( second );
+        verify( itemRepo, Mockito.never() ).findById( "2" );
+    }
+}
@@ -0,0 +1,113 @@
+package com.team18.backend.service.completion;
+
+import com.team18.backend.exception.WorkQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyedSerialExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool( 4 );
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void submit_shouldRunTasksOfTheSameKeyOneAtATimeInOrder() throws Exception {
+        // GIVEN
+        KeyedSerialExecutor executor = new KeyedSerialExecutor( pool, 100 );
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList( new ArrayList<>() );
+        CountDownLatch done = new CountDownLatch( 50 );
+
+        // WHEN
+        for ( int i = 0; i < 50; i++ ) {
+            int task = i;
+            executor.submit( "warehouse-1", () -> {
+                maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                order.add( task );
+                running.decrementAndGet();
+                done.countDown();
+            } );
+        }
+
+        // THEN
+        assertThat( done.await( 5, TimeUnit.SECONDS ) ).isTrue();
+        assertThat( maxRunning.get() ).isEqualTo( 1 );
+        assertThat( order ).isSorted().hasSize( 50 );
+    }
+
+    @Test
+    void submit_shouldRunTasksOfDifferentKeysInParallel() throws Exception {
+        // GIVEN
+        KeyedSerialExecutor executor = new KeyedSerialExecutor( pool, 100 );
+        CountDownLatch bothStarted = new CountDownLatch( 2 );
+        CountDownLatch done = new CountDownLatch( 2 );
+        Runnable task = () -> {
+            bothStarted.countDown();
+            try {
+                if ( bothStarted.await( 5, TimeUnit.SECONDS ) ) done.countDown();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // WHEN
+        executor.submit( "warehouse-1", task );
+        executor.submit( "warehouse-2", task );
+
+        // THEN
+        assertThat( done.await( 5, TimeUnit.SECONDS ) ).isTrue();
+    }
+
+    @Test
+    void submit_shouldThrow_whenCapacityIsReached() {
+        // GIVEN
+        List<Runnable> started = new ArrayList<>();
+        KeyedSerialExecutor executor = new KeyedSerialExecutor( started::add, 2 );
+        executor.submit( "warehouse-1", () -> { } );
+        executor.submit( "warehouse-1", () -> { } );
+
+        // WHEN & THEN
+        assertThrows( WorkQueueFullException.class, () -> executor.submit( "warehouse-2", () -> { } ) );
+        assertThat( started ).hasSize( 1 );
+
+        started.getFirst().run();
+        assertThat( executor.pending() ).isZero();
+        executor.submit( "warehouse-2", () -> { } );
+        assertThat( executor.pending() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void submit_shouldRunTheNextTask_whenATaskFails() {
+        // GIVEN
+        List<Runnable> started = new ArrayList<>();
+        KeyedSerialExecutor executor = new KeyedSerialExecutor( started::add, 10 );
+        AtomicInteger ran = new AtomicInteger();
+        executor.submit( "warehouse-1", () -> {
+            throw new IllegalStateException( "boom" );
+        } );
+        executor.submit( "warehouse-1", ran::incrementAndGet );
+
+        // WHEN
+        started.getFirst().run();
+
+        // THEN
+        assertThat( ran.get() ).isEqualTo( 1 );
+        assertThat( executor.pending() ).isZero();
+    }
+}
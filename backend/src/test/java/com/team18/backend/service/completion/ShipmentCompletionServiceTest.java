@@ -0,0 +1,206 @@
+package com.team18.backend.service.completion;
+
+import com.team18.backend.dto.ShipmentCompletionJobDTO;
+import com.team18.backend.dto.ShipmentResponseDTO;
+import com.team18.backend.dto.warehouse.WarehouseResponseDTO;
+import com.team18.backend.exception.CapacityExceededException;
+import com.team18.backend.exception.RecordIsLockedException;
+import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.exception.WorkQueueFullException;
+import com.team18.backend.model.ShipmentStatus;
+import com.team18.backend.service.ShipmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShipmentCompletionServiceTest {
+
+    private final ShipmentService shipmentService = Mockito.mock( ShipmentService.class );
+    private final List<Runnable> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset( shipmentService );
+        started.clear();
+        when( shipmentService.getShipmentById( "shipment-1" ) ).thenReturn( shipment( "shipment-1", ShipmentStatus.IN_DELIVERY ) );
+        when( shipmentService.getShipmentById( "shipment-2" ) ).thenReturn( shipment( "shipment-2", ShipmentStatus.IN_DELIVERY ) );
+    }
+
+    @Test
+    void submit_shouldCompleteShipmentAndRecordProgress_whenJobRuns() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+        when( shipmentService.completeShipment( eq( "shipment-1" ), any() ) ).thenAnswer( invocation -> {
+            invocation.<CompletionProgress>getArgument( 1 ).lineItemsRead( 2, 15 );
+            return shipment( "shipment-1", ShipmentStatus.COMPLETED );
+        } );
+
+        // WHEN
+        ShipmentCompletionJobDTO submitted = service.submit( "shipment-1" );
+        ShipmentCompletionJobDTO actual = service.getJob( submitted.id() );
+
+        // THEN
+        assertThat( actual.shipmentId() ).isEqualTo( "shipment-1" );
+        assertThat( actual.warehouseId() ).isEqualTo( "warehouse-1" );
+        assertThat( actual.status() ).isEqualTo( ShipmentCompletionJobDTO.Status.SUCCEEDED );
+        assertThat( actual.lineItems() ).isEqualTo( 2 );
+        assertThat( actual.receivedQuantity() ).isEqualTo( 15L );
+        assertThat( actual.error() ).isNull();
+        assertThat( actual.startedAt() ).isNotNull();
+        assertThat( actual.finishedAt() ).isNotNull();
+    }
+
+    @Test
+    void submit_shouldQueueJob_whenWorkerHasNotStartedYet() {
+        // GIVEN
+        ShipmentCompletionService service = deferred( 10 );
+
+        // WHEN
+        ShipmentCompletionJobDTO actual = service.submit( "shipment-1" );
+
+        // THEN
+        assertThat( actual.status() ).isEqualTo( ShipmentCompletionJobDTO.Status.QUEUED );
+        assertThat( actual.startedAt() ).isNull();
+        verify( shipmentService, never() ).completeShipment( any(), any() );
+    }
+
+    @Test
+    void submit_shouldReturnTheActiveJob_whenShipmentIsAlreadyQueued() {
+        // GIVEN
+        ShipmentCompletionService service = deferred( 10 );
+        ShipmentCompletionJobDTO first = service.submit( "shipment-1" );
+
+        // WHEN
+        ShipmentCompletionJobDTO actual = service.submit( "shipment-1" );
+
+        // THEN
+        assertThat( actual.id() ).isEqualTo( first.id() );
+        assertThat( started ).hasSize( 1 );
+
+        started.getFirst().run();
+        verify( shipmentService, times( 1 ) ).completeShipment( eq( "shipment-1" ), any() );
+        assertThat( service.submit( "shipment-1" ).id() ).isNotEqualTo( first.id() );
+    }
+
+    @Test
+    void submit_shouldThrow_whenShipmentIsAlreadyCompleted() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+        when( shipmentService.getShipmentById( "shipment-1" ) ).thenReturn( shipment( "shipment-1", ShipmentStatus.COMPLETED ) );
+
+        // WHEN & THEN
+        assertThrows( RecordIsLockedException.class, () -> service.submit( "shipment-1" ) );
+        verify( shipmentService, never() ).completeShipment( any(), any() );
+    }
+
+    @Test
+    void submit_shouldThrow_whenShipmentDoesNotExist() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+        when( shipmentService.getShipmentById( "unknown" ) )
+                .thenThrow( new ResourceNotFoundException( "Shipment not found with id: unknown" ) );
+
+        // WHEN & THEN
+        assertThrows( ResourceNotFoundException.class, () -> service.submit( "unknown" ) );
+    }
+
+    @Test
+    void submit_shouldThrowAndForgetJob_whenQueueIsFull() {
+        // GIVEN
+        ShipmentCompletionService service = deferred( 1 );
+        service.submit( "shipment-1" );
+
+        // WHEN & THEN
+        assertThrows( WorkQueueFullException.class, () -> service.submit( "shipment-2" ) );
+
+        started.getFirst().run();
+        assertThat( service.submit( "shipment-2" ).status() ).isEqualTo( ShipmentCompletionJobDTO.Status.QUEUED );
+    }
+
+    @Test
+    void submit_shouldRecordFailure_whenCompletionIsRejected() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+        when( shipmentService.completeShipment( eq( "shipment-1" ), any() ) )
+                .thenThrow( new CapacityExceededException( "Receiving 15 items would exceed the capacity of warehouse warehouse-1" ) );
+
+        // WHEN
+        ShipmentCompletionJobDTO actual = service.getJob( service.submit( "shipment-1" ).id() );
+
+        // THEN
+        assertThat( actual.status() ).isEqualTo( ShipmentCompletionJobDTO.Status.FAILED );
+        assertThat( actual.errorStatus() ).isEqualTo( 409 );
+        assertThat( actual.error() ).isEqualTo( "Receiving 15 items would exceed the capacity of warehouse warehouse-1" );
+    }
+
+    @Test
+    void submit_shouldHideInternalErrors_whenCompletionFailsUnexpectedly() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+        when( shipmentService.completeShipment( eq( "shipment-1" ), any() ) )
+                .thenThrow( new IllegalStateException( "connection reset" ) );
+
+        // WHEN
+        ShipmentCompletionJobDTO actual = service.getJob( service.submit( "shipment-1" ).id() );
+
+        // THEN
+        assertThat( actual.status() ).isEqualTo( ShipmentCompletionJobDTO.Status.FAILED );
+        assertThat( actual.errorStatus() ).isEqualTo( 500 );
+        assertThat( actual.error() ).isEqualTo( "An unexpected error occurred" );
+    }
+
+    @Test
+    void getJob_shouldThrow_whenJobIsUnknown() {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ofHours( 1 ) );
+
+        // WHEN & THEN
+        assertThrows( ResourceNotFoundException.class, () -> service.getJob( "unknown" ) );
+    }
+
+    @Test
+    void getJob_shouldThrow_whenFinishedJobIsPastRetention() throws Exception {
+        // GIVEN
+        ShipmentCompletionService service = inline( Duration.ZERO );
+        String jobId = service.submit( "shipment-1" ).id();
+        Thread.sleep( 5 );
+
+        // WHEN & THEN
+        assertThrows( ResourceNotFoundException.class, () -> service.getJob( jobId ) );
+    }
+
+    /**
+     * Runs jobs within {@code submit}.
+     */
+    private ShipmentCompletionService inline( Duration jobRetention ) {
+        return new ShipmentCompletionService( shipmentService, new KeyedSerialExecutor( Runnable::run, 10 ), jobRetention );
+    }
+
+    /**
+     * Holds jobs back until the test runs them from {@link #started}.
+     */
+    private ShipmentCompletionService deferred( int capacity ) {
+        return new ShipmentCompletionService( shipmentService, new KeyedSerialExecutor( started::add, capacity ), Duration.ofHours( 1 ) );
+    }
+
+    private static ShipmentResponseDTO shipment( String id, ShipmentStatus status ) {
+        WarehouseResponseDTO warehouse = new WarehouseResponseDTO(
+                "warehouse-1", "Test Warehouse", null, null, null, null, null, null, null, null, null, 100, 0, 0
+        );
+        return new ShipmentResponseDTO( id, warehouse, LocalDate.of( 2025, 12, 1 ), status, null, null, 0 );
+    }
+}
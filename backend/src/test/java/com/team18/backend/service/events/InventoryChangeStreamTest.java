@@ -0,0 +1,106 @@
+package com.team18.backend.service.events;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryChangeStreamTest {
+
+    private static final ObjectId INVENTORY_ID = new ObjectId();
+    private static final ObjectId WAREHOUSE_ID = new ObjectId();
+    private static final ObjectId ITEM_ID = new ObjectId();
+    private static final Instant CHANGED_AT = Instant.parse( "2025-06-01T12:00:00.123Z" );
+
+    @Test
+    void toEvent_shouldCarryWarehouseItemAndQuantity_whenInventoryIsInserted() {
+        // GIVEN
+        ChangeStreamDocument<Document> change = change( OperationType.INSERT, new Document( "warehouse", WAREHOUSE_ID )
+                .append( "item", ITEM_ID )
+                .append( "quantity", 7 ) );
+
+        // WHEN
+        Optional<InventoryChangeEventDTO> event = InventoryChangeStream.toEvent( change );
+
+        // THEN
+        assertThat( event ).contains( new InventoryChangeEventDTO(
+                InventoryChangeEventDTO.Type.CREATED,
+                INVENTORY_ID.toHexString(),
+                WAREHOUSE_ID.toHexString(),
+                ITEM_ID.toHexString(),
+                7,
+                CHANGED_AT
+        ) );
+    }
+
+    @Test
+    void toEvent_shouldOnlyCarryId_whenInventoryIsDeleted() {
+        // GIVEN
+        ChangeStreamDocument<Document> change = change( OperationType.DELETE, null );
+
+        // WHEN
+        Optional<InventoryChangeEventDTO> event = InventoryChangeStream.toEvent( change );
+
+        // THEN
+        assertThat( event ).contains( new InventoryChangeEventDTO(
+                InventoryChangeEventDTO.Type.DELETED, INVENTORY_ID.toHexString(), null, null, null, CHANGED_AT
+        ) );
+    }
+
+    @Test
+    void toEvent_shouldSkipUpdate_whenDocumentWasDeletedBeforeLookup() {
+        // GIVEN
+        ChangeStreamDocument<Document> change = change( OperationType.UPDATE, null );
+
+        // WHEN & THEN
+        assertThat( InventoryChangeStream.toEvent( change ) ).isEmpty();
+    }
+
+    @Test
+    void toEvent_shouldUseClusterTime_whenWallTimeIsMissing() {
+        // GIVEN
+        ChangeStreamDocument<Document> change = change( OperationType.REPLACE, new Document( "quantity", 1 ) );
+        when( change.getWallTime() ).thenReturn( null );
+        when( change.getClusterTime() ).thenReturn( new BsonTimestamp( ( int ) CHANGED_AT.getEpochSecond(), 1 ) );
+
+        // WHEN
+        Optional<InventoryChangeEventDTO> event = InventoryChangeStream.toEvent( change );
+
+        // THEN
+        assertThat( event ).map( InventoryChangeEventDTO::changedAt ).contains( Instant.ofEpochSecond( CHANGED_AT.getEpochSecond() ) );
+        assertThat( event ).map( InventoryChangeEventDTO::type ).contains( InventoryChangeEventDTO.Type.UPDATED );
+    }
+
+    @Test
+    void toEvent_shouldSkipChange_whenCollectionIsDropped() {
+        // GIVEN
+        ChangeStreamDocument<Document> change = change( OperationType.DROP, null );
+        when( change.getDocumentKey() ).thenReturn( null );
+
+        // WHEN & THEN
+        assertThat( InventoryChangeStream.toEvent( change ) ).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change( OperationType operationType, Document fullDocument ) {
+        ChangeStreamDocument<Document> change = mock( ChangeStreamDocument.class );
+        when( change.getOperationType() ).thenReturn( operationType );
+        when( change.getDocumentKey() ).thenReturn( new BsonDocument( "_id", new BsonObjectId( INVENTORY_ID ) ) );
+        when( change.getWallTime() ).thenReturn( new BsonDateTime( CHANGED_AT.toEpochMilli() ) );
+        when( change.getFullDocument() ).thenReturn( fullDocument );
+        return change;
+    }
+}
@@ -0,0 +1,123 @@
+package com.team18.backend.service.events;
+
+import com.team18.backend.dto.inventory.InventoryChangeEventDTO;
+import com.team18.backend.exception.ChangeStreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InventoryEventBroadcasterTest {
+
+    @Test
+    void publish_shouldSendOnlyMatchingEvents_whenSubscriberFiltersByWarehouse() {
+        // GIVEN
+        InventoryEventBroadcaster broadcaster = new InventoryEventBroadcaster( Runnable::run, 16 );
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe( "warehouse-1", null, emitter );
+
+        InventoryChangeEventDTO matching = event( "inventory-1", "warehouse-1" );
+        InventoryChangeEventDTO otherWarehouse = event( "inventory-2", "warehouse-2" );
+        InventoryChangeEventDTO deletion = new InventoryChangeEventDTO(
+                InventoryChangeEventDTO.Type.DELETED, "inventory-3", null, null, null, Instant.EPOCH
+        );
+
+        // WHEN
+        broadcaster.publish( matching );
+        broadcaster.publish( otherWarehouse );
+        broadcaster.publish( deletion );
+
+        // THEN
+        assertThat( emitter.events ).containsExactly( matching, deletion );
+    }
+
+    @Test
+    void publish_shouldDisconnectOnlySlowSubscriber_whenItsBufferIsFull() {
+        // GIVEN
+        List<Runnable> pendingSends = new ArrayList<>();
+        InventoryEventBroadcaster broadcaster = new InventoryEventBroadcaster( pendingSends::add, 2 );
+        RecordingEmitter slow = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        broadcaster.subscribe( "warehouse-1", null, slow );
+        broadcaster.subscribe( "warehouse-2", null, other );
+
+        // WHEN
+        broadcaster.publish( event( "inventory-1", "warehouse-1" ) );
+        broadcaster.publish( event( "inventory-2", "warehouse-1" ) );
+        broadcaster.publish( event( "inventory-3", "warehouse-1" ) );
+
+        // THEN
+        assertThat( slow.completed ).isTrue();
+        assertThat( other.completed ).isFalse();
+        assertThat( broadcaster.subscriberCount() ).isEqualTo( 1 );
+        // the writer of the slow subscriber was scheduled once and finds its buffer dropped
+        assertThat( pendingSends ).hasSize( 1 );
+        pendingSends.getFirst().run();
+        assertThat( slow.events ).isEmpty();
+    }
+
+    @Test
+    void publish_shouldRemoveSubscriber_whenClientIsGone() {
+        // GIVEN
+        InventoryEventBroadcaster broadcaster = new InventoryEventBroadcaster( Runnable::run, 16 );
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failSends = true;
+        broadcaster.subscribe( null, null, emitter );
+
+        // WHEN
+        broadcaster.publish( event( "inventory-1", "warehouse-1" ) );
+
+        // THEN
+        assertThat( broadcaster.subscriberCount() ).isZero();
+        assertThat( emitter.completed ).isTrue();
+    }
+
+    @Test
+    void subscribe_shouldThrow_whenBroadcasterIsDisabled() {
+        // GIVEN
+        InventoryEventBroadcaster broadcaster = new InventoryEventBroadcaster( Runnable::run, 16 );
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe( null, null, emitter );
+
+        // WHEN
+        broadcaster.disable( "Inventory events are disabled" );
+
+        // THEN
+        assertThat( emitter.completed ).isTrue();
+        assertThrows( ChangeStreamUnavailableException.class, () -> broadcaster.subscribe( null, null ) );
+    }
+
+    private static InventoryChangeEventDTO event( String id, String warehouseId ) {
+        return new InventoryChangeEventDTO( InventoryChangeEventDTO.Type.UPDATED, id, warehouseId, "item-1", 1, Instant.EPOCH );
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> events = new ArrayList<>();
+        private boolean failSends;
+        private boolean completed;
+
+        @Override
+        public void send( SseEventBuilder builder ) throws IOException {
+            if ( failSends ) {
+                throw new IOException( "Broken pipe" );
+            }
+            builder.build().stream()
+                    .map( ResponseBodyEmitter.DataWithMediaType::getData )
+                    .filter( InventoryChangeEventDTO.class::isInstance )
+                    .forEach( events::add );
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.team18.backend.service.lineitem;
+
+import com.team18.backend.exception.ResourceNotFoundException;
+import com.team18.backend.model.*;
+import com.team18.backend.repository.ShipmentRepository;
+import com.team18.backend.service.cache.ItemCatalogCache;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmbeddedShipmentLineItemStoreTest {
+
+    private final ShipmentRepository shipmentRepository = Mockito.mock( ShipmentRepository.class );
+    private final ItemCatalogCache itemCatalogCache = Mockito.mock( ItemCatalogCache.class );
+    private final EmbeddedShipmentLineItemStore store = new EmbeddedShipmentLineItemStore( shipmentRepository, itemCatalogCache );
+
+    private final Item item = new Item( new ObjectId().toHexString(), "SKU-1", "First" );
+    private final String lineItemId = new ObjectId().toHexString();
+    private final Instant created = Instant.parse( "2025-12-01T10:00:00Z" );
+    private Shipment shipment;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset( shipmentRepository, itemCatalogCache );
+        Warehouse warehouse = new Warehouse(
+                "warehouse-1", "Test Warehouse", new Shop( "shop-1", "Test Shop" ),
+                0.0, 0.0, "Street", "1", "City", "12345", "State", "Country", 100
+        );
+        shipment = new Shipment( "shipment-1", warehouse, LocalDate.of( 2025, 12, 1 ), ShipmentStatus.ORDERED );
+        when( itemCatalogCache.findById( item.getId() ) ).thenReturn( Optional.of( item ) );
+        when( itemCatalogCache.findAllById( Set.of( item.getId() ) ) ).thenReturn( Map.of( item.getId(), item ) );
+    }
+
+    @Test
+    void insert_shouldPushAllLineItemsOfAShipmentAtOnce_whenCalled() {
+        // GIVEN
+        when( shipmentRepository.pushLineItems( eq( shipment.getId() ), anyList() ) ).thenReturn( true );
+
+        // WHEN
+        List<ShipmentLineItem> actual = store.insert( List.of(
+                new ShipmentLineItem( shipment, item, 10, 0 ),
+                new ShipmentLineItem( shipment, item, 5, 0 )
+        ) );
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmbeddedShipmentLineItem>> pushed = ArgumentCaptor.forClass( List.class );
+        verify( shipmentRepository ).pushLineItems( eq( shipment.getId() ), pushed.capture() );
+        assertThat( pushed.getValue() ).extracting( EmbeddedShipmentLineItem::getExpectedQuantity ).containsExactly( 10, 5 );
+        assertThat( actual ).extracting( ShipmentLineItem::getId )
+                .containsExactlyElementsOf( pushed.getValue().stream().map( EmbeddedShipmentLineItem::getId ).toList() );
+        assertThat( actual ).allSatisfy( lineItem -> {
+            assertThat( ObjectId.isValid( lineItem.getId() ) ).isTrue();
+            assertThat( lineItem.getShipment() ).isSameAs( shipment );
+            assertThat( lineItem.getCreatedDate() ).isNotNull();
+        } );
+    }
+
+    @Test
+    void insert_shouldThrow_whenShipmentDoesNotExist() {
+        // GIVEN
+        when( shipmentRepository.pushLineItems( eq( shipment.getId() ), anyList() ) ).thenReturn( false );
+
+        // WHEN
+        ResourceNotFoundException e = assertThrows(
+                ResourceNotFoundException.class,
+                () -> store.insert( new ShipmentLineItem( shipment, item, 10, 0 ) )
+        );
+
+        // THEN
+        assertThat( e ).hasMessageContaining( shipment.getId() );
+    }
+
+    @Test
+    void findById_shouldResolveShipmentAndItem_whenLineItemIsEmbedded() {
+        // GIVEN
+        Shipment withLineItem = shipmentWithLineItem();
+        when( shipmentRepository.findResolvedByLineItemId( lineItemId ) ).thenReturn( Optional.of( withLineItem ) );
+
+        // WHEN
+        ShipmentLineItem actual = store.findById( lineItemId ).orElseThrow();
+
+        // THEN
+        assertThat( actual.getId() ).isEqualTo( lineItemId );
+        assertThat( actual.getShipment() ).isSameAs( withLineItem );
+        assertThat( actual.getItem() ).isSameAs( item );
+        assertThat( actual.getExpectedQuantity() ).isEqualTo( 10 );
+        assertThat( actual.getCreatedDate() ).isEqualTo( created );
+    }
+
+    @Test
+    void findAllByShipment_shouldNotQueryTheDatabase_whenShipmentIsLoaded() {
+        // GIVEN
+        Shipment withLineItem = shipmentWithLineItem();
+
+        // WHEN
+        List<ShipmentLineItem> actual = store.findAllByShipment( withLineItem );
+
+        // THEN
+        assertThat( actual ).singleElement().satisfies( lineItem -> {
+            assertThat( lineItem.getItem() ).isSameAs( item );
+            assertThat( lineItem.getReceivedQuantity() ).isEqualTo( 8 );
+        } );
+        Mockito.verifyNoInteractions( shipmentRepository );
+    }
+
+    @Test
+    void save_shouldReplaceInPlace_whenLineItemStaysInItsShipment() {
+        // GIVEN
+        ShipmentLineItem lineItem = new ShipmentLineItem( lineItemId, created, created, shipment, item, 10, 9 );
+        when( shipmentRepository.replaceLineItem( eq( shipment.getId() ), any() ) ).thenReturn( true );
+
+        // WHEN
+        ShipmentLineItem actual = store.save( lineItem );
+
+        // THEN
+        assertThat( actual.getReceivedQuantity() ).isEqualTo( 9 );
+        assertThat( actual.getCreatedDate() ).isEqualTo( created );
+        assertThat( actual.getLastModifiedDate() ).isAfter( created );
+        verify( shipmentRepository, never() ).pullLineItem( any() );
+    }
+
+    @Test
+    void save_shouldMoveLineItem_whenShipmentChanged() {
+        // GIVEN
+        ShipmentLineItem lineItem = new ShipmentLineItem( lineItemId, created, created, shipment, item, 10, 9 );
+        when( shipmentRepository.replaceLineItem( eq( shipment.getId() ), any() ) ).thenReturn( false );
+        when( shipmentRepository.pushLineItems( eq( shipment.getId() ), anyList() ) ).thenReturn( true );
+
+        // WHEN
+        store.save( lineItem );
+
+        // THEN
+        verify( shipmentRepository ).pullLineItem( lineItemId );
+        verify( shipmentRepository ).pushLineItems( eq( shipment.getId() ), anyList() );
+    }
+
+    private Shipment shipmentWithLineItem() {
+        Shipment withLineItem = Mockito.spy( shipment );
+        when( withLineItem.getLineItems() ).thenReturn( List.of(
+                new EmbeddedShipmentLineItem( lineItemId, item.getId(), 10, 8, created, created )
+        ) );
+        return withLineItem;
+    }
+}
@@ -0,0 +1,140 @@
+package com.team18.backend.service.search;
+
+import com.team18.backend.model.Item;
+import com.team18.backend.repository.ItemRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    private static final Item WIDGET = new Item( "1", "WID-001", "Widget" );
+    private static final Item BLUE_WIDGET = new Item( "2", "WID-002", "Blue Widget" );
+    private static final Item WIDGET_STAND = new Item( "3", "STD-100", "Widget Stand" );
+    private static final Item COFFEE = new Item( "4", "LN-COF-500", "Coffee Beans 500g" );
+
+    private final ItemRepo itemRepo = Mockito.mock( ItemRepo.class );
+    private final ItemSearchIndex index = new ItemSearchIndex( itemRepo );
+
+    @BeforeEach
+    void setUp() {
+        when( itemRepo.findAll() ).thenReturn( List.of( WIDGET, BLUE_WIDGET, WIDGET_STAND, COFFEE ) );
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldRankExactThenPrefixThenWordPrefix_whenQueryMatchesSeveralItems() {
+        assertThat( index.search( "widget", 10 ) ).containsExactly( WIDGET, WIDGET_STAND, BLUE_WIDGET );
+    }
+
+    @Test
+    void search_shouldMatchAnywhere_whenQueryHasThreeOrMoreCharacters() {
+        assertThat( index.search( "idget st", 10 ) ).containsExactly( WIDGET_STAND );
+        assertThat( index.search( "BEANS", 10 ) ).containsExactly( COFFEE );
+    }
+
+    @Test
+    void search_shouldOnlyMatchWordStarts_whenQueryIsShort() {
+        assertThat( index.search( "bl", 10 ) ).containsExactly( BLUE_WIDGET );
+        assertThat( index.search( "dg", 10 ) ).isEmpty();
+    }
+
+    @Test
+    void search_shouldIgnoreSeparators_whenQueryIsSku() {
+        assertThat( index.search( "ln-cof", 10 ) ).containsExactly( COFFEE );
+        assertThat( index.search( "lncof500", 10 ) ).containsExactly( COFFEE );
+        assertThat( index.search( "wid 002", 10 ) ).containsExactly( BLUE_WIDGET );
+    }
+
+    @Test
+    void search_shouldReturnNothing_whenQueryIsBlankOrUnknown() {
+        assertThat( index.search( " - ", 10 ) ).isEmpty();
+        assertThat( index.search( "gadget", 10 ) ).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnBestMatches_whenMoreItemsMatchThanLimit() {
+        // GIVEN
+        IntStream.range( 0, 50 ).forEach( i -> index.put( new Item( "w" + i, "W-" + i, "Widget Assortment " + i ) ) );
+
+        // WHEN
+        List<Item> found = index.search( "widget", 2 );
+
+        // THEN
+        assertThat( found ).containsExactly( WIDGET, WIDGET_STAND );
+    }
+
+    @Test
+    void search_shouldRankAddedItems_whenRebuiltItemsAlreadyFillLimit() {
+        // GIVEN
+        when( itemRepo.findAll() ).thenReturn( IntStream.range( 0, 100 )
+                .mapToObj( i -> new Item( "w" + i, "W-" + i, "Widget Assortment " + i ) )
+                .toList() );
+        index.rebuild();
+
+        // WHEN
+        index.put( new Item( "5", "W-X", "Widget XL" ) );
+        index.put( new Item( "6", "W-Y", "Widgets" ) );
+
+        // THEN
+        assertThat( index.search( "widget", 3 ) ).extracting( Item::getName )
+                .containsExactly( "Widgets", "Widget XL", "Widget Assortment 0" );
+    }
+
+    @Test
+    void put_shouldReplaceIndexedVersion_whenItemIsUpdated() {
+        // WHEN
+        index.put( new Item( "4", "LN-TEA-100", "Green Tea" ) );
+
+        // THEN
+        assertThat( index.search( "coffee", 10 ) ).isEmpty();
+        assertThat( index.search( "tea", 10 ) ).extracting( Item::getId ).containsExactly( "4" );
+        assertThat( index.size() ).isEqualTo( 4 );
+    }
+
+    @Test
+    void remove_shouldDropItem_whenItemIsDeleted() {
+        // WHEN
+        index.remove( "1" );
+
+        // THEN
+        assertThat( index.search( "widget", 10 ) ).containsExactly( WIDGET_STAND, BLUE_WIDGET );
+        assertThat( index.search( "wid-001", 10 ) ).isEmpty();
+    }
+
+    @Test
+    void remove_shouldKeepResults_whenManyRemovalsCompactTheIndex() {
+        // GIVEN
+        IntStream.range( 0, 3000 ).forEach( i -> index.put( new Item( "x" + i, "X-" + i, "Gadget " + i ) ) );
+
+        // WHEN
+        IntStream.range( 0, 3000 ).forEach( i -> index.remove( "x" + i ) );
+
+        // THEN
+        assertThat( index.size() ).isEqualTo( 4 );
+        assertThat( index.search( "widget", 10 ) ).containsExactly( WIDGET, WIDGET_STAND, BLUE_WIDGET );
+        assertThat( index.search( "gadget", 10 ) ).isEmpty();
+    }
+
+    @Test
+    void clear_shouldEmptyIndex_whenCalled() {
+        // WHEN
+        index.clear();
+
+        // THEN
+        assertThat( index.size() ).isZero();
+        assertThat( index.search( "widget", 10 ) ).isEmpty();
+    }
+
+    @Test
+    void normalize_shouldLowercaseAndCollapseSeparators_whenCalled() {
+        assertThat( ItemSearchIndex.normalize( "  LN--COF_500 g " ) ).isEqualTo( "ln cof 500 g" );
+        assertThat( ItemSearchIndex.normalize( null ) ).isEmpty();
+    }
+}
@@ -7,17 +7,25 @@ import {
     DialogTrigger
 } from "@/components/ui/dialog.tsx";
 import { Button } from "@/components/ui/button.tsx";
-import { ShipmentCreateDTOStatus, type ShipmentUpdateDTOStatus } from "@/api/generated/openAPIDefinition.schemas.ts";
+import {
+    type ShipmentCompletionJobDTO,
+    ShipmentCreateDTOStatus,
+    type ShipmentUpdateDTOStatus
+} from "@/api/generated/openAPIDefinition.schemas.ts";
 import { Form, FormControl, FormField, FormItem, FormLabel, FormMessage } from "@/components/ui/form.tsx";
 import { RadioGroup, RadioGroupItem } from "@/components/ui/radio-group.tsx";
 import { useForm } from "react-hook-form";
 import { zodResolver } from "@hookform/resolvers/zod";
 import { z } from "zod";
-import { getGetAllShipmentsByShopIdQueryKey, useUpdateShipmentStatus } from "@/api/generated/shipments/shipments.ts";
+import {
+    getGetAllShipmentsByShopIdQueryKey,
+    useGetCompletionJob,
+    useUpdateShipmentStatus
+} from "@/api/generated/shipments/shipments.ts";
 import { toast } from "sonner";
 import { useQueryClient } from "@tanstack/react-query";
 import { useParams } from "react-router-dom";
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import { getGetAllInventoryQueryKey } from "@/api/generated/inventory/inventory.ts";
 import { Spinner } from "@/components/ui/spinner.tsx";
 
@@ -53,6 +61,44 @@ export default function ShipmentUpdateOrderForm( { status, shipmentId }: Readonl
     const updateShipmentStatus = useUpdateShipmentStatus();
     const queryClient = useQueryClient();
 
+    // Completing a shipment is queued on the server; poll the job until it has finished
+    const [ completionJobId, setCompletionJobId ] = useState<string>();
+
+    const { data: completionJob } = useGetCompletionJob( completionJobId ?? "", {
+        query: {
+            enabled: !!completionJobId,
+            refetchInterval: ( query ) => {
+                const jobStatus = query.state.data?.data.status;
+                return jobStatus === "SUCCEEDED" || jobStatus === "FAILED" ? false : 1000;
+            }
+        }
+    } );
+
+    const refetchShipments = () => {
+        queryClient.invalidateQueries( { queryKey: getGetAllShipmentsByShopIdQueryKey( shopId ) } );
+        queryClient.invalidateQueries( { queryKey: getGetAllInventoryQueryKey() } );
+    };
+
+    useEffect( () => {
+        const job = completionJob?.data;
+        if ( !completionJobId || job?.id !== completionJobId ) {
+            return;
+        }
+        if ( job.status === "SUCCEEDED" ) {
+            refetchShipments();
+            toast.success( "Shipment completed successfully" );
+            // eslint-disable-next-line react-hooks/set-state-in-effect
+            setCompletionJobId( undefined );
+            setDialogOpen( false );
+        } else if ( job.status === "FAILED" ) {
+            console.error( "Error completing shipment:", job.error );
+            refetchShipments();
+            toast.error( job.error || "Failed to complete shipment." );
+            setCompletionJobId( undefined );
+        }
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [ completionJob, completionJobId ] );
+
     const form = useForm<ShipmentUpdateOrderFormData>( {
         resolver: zodResolver( UpdateShipmentSchema ),
         defaultValues: {}
@@ -74,10 +120,14 @@ export default function ShipmentUpdateOrderForm( { status, shipmentId }: Readonl
                 }
             },
             {
-                onSuccess: () => {
+                onSuccess: ( response ) => {
+                    if ( response.status === 202 ) {
+                        // the completion was queued; the effect above reports its outcome
+                        setCompletionJobId( ( response.data as ShipmentCompletionJobDTO ).id );
+                        return;
+                    }
                     console.log( "Shipment status updated successfully" );
-                    queryClient.invalidateQueries( { queryKey: getGetAllShipmentsByShopIdQueryKey( shopId ) } );
-                    queryClient.invalidateQueries( { queryKey: getGetAllInventoryQueryKey() } );
+                    refetchShipments();
                     toast.success( "Shipment updated successfully" );
                     setDialogOpen( false );
                 },
@@ -88,7 +138,7 @@ export default function ShipmentUpdateOrderForm( { status, shipmentId }: Readonl
             } );
     };
 
-    const updateIsPending = updateShipmentStatus.isPending
+    const updateIsPending = updateShipmentStatus.isPending || !!completionJobId
 
     const disableButton = form.formState.isSubmitting || updateIsPending
 